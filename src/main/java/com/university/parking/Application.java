@@ -2,13 +2,29 @@ package com.university.parking;
 
 import com.university.parking.dao.*;
 import com.university.parking.db.DatabaseManager;
+import com.university.parking.db.HistoryArchive;
+import com.university.parking.db.HistoryExporter;
+import com.university.parking.db.WriteBehindQueue;
 import com.university.parking.domain.*;
+import com.university.parking.log.LogManager;
+import com.university.parking.log.Logger;
 import com.university.parking.service.*;
 import com.university.parking.ui.*;
 
 import javax.swing.*;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Properties;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Main application entry point for the University Parking Lot Management System.
@@ -17,19 +33,51 @@ import java.util.List;
  */
 public class Application {
     
+    private static final Logger LOG = Logger.get(Application.class);
+    
+    // Persistence mode: "sqlite" (default), "journal" for the event-sourced gate journal,
+    // or "writebehind" for group-committed SQLite writes
+    private static final String PERSISTENCE_PROPERTY = "parking.persistence";
+    private static final String JOURNAL_DIR_PROPERTY = "parking.journal.dir";
+    // Write-behind durability: "sync" (default) or "async"
+    private static final String DURABILITY_PROPERTY = "parking.durability";
+    // Directory of the monthly history archives, and how many recent months stay in the main database
+    private static final String ARCHIVE_DIR_PROPERTY = "parking.archive.dir";
+    private static final String HOT_MONTHS_PROPERTY = "parking.archive.hotMonths";
+    private static final int DEFAULT_HOT_MONTHS = 3;
+    // Properties file with the time-of-day tariff; without it every hour costs the spot's hourly rate
+    private static final String TARIFF_PROPERTY = "parking.tariff";
+    // Layout file listing the lot's spots; without it an empty lot gets the bundled layout
+    private static final String LAYOUT_PROPERTY = "parking.layout";
+    private static final String DEFAULT_LAYOUT_RESOURCE = "/default-lot.layout";
+    // File reserving the timestamps of generated IDs, so IDs stay unique across restarts
+    private static final String ID_STATE_PROPERTY = "parking.id.state";
+    // Maximum plates held by each per-plate lookup cache
+    private static final int PLATE_CACHE_SIZE = 1024;
+    
     private DatabaseManager dbManager;
+    private EventSourcedStore eventStore;
+    private WriteBehindQueue writeBehindQueue;
+    private HistoryArchive historyArchive;
     private ParkingSpotDAO parkingSpotDAO;
     private VehicleDAO vehicleDAO;
     private TicketDAO ticketDAO;
     private FineDAO fineDAO;
     private PaymentDAO paymentDAO;
     private ReservationDAO reservationDAO;
+    private final List<PlateCache<?>> plateCaches = new ArrayList<>();
+    private final List<PlateBloomFilter> plateFilters = new ArrayList<>();
     
     private ParkingService parkingService;
     private FineService fineService;
     private PaymentService paymentService;
     private ReportService reportService;
     private ReservationService reservationService;
+    private OverstaySweeper overstaySweeper;
+    private OccupancySampler occupancySampler;
+    private DwellTimeService dwellTimeService;
+    private GateExecutor gateExecutor;
+    private ReservationExpiryQueue reservationExpiryQueue;
     
     /**
      * Main entry point for the application.
@@ -41,7 +89,7 @@ public class Application {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
         } catch (Exception e) {
             // Fall back to default look and feel
-            System.err.println("Could not set system look and feel: " + e.getMessage());
+            LOG.warn("Could not set system look and feel: {}", e.getMessage());
         }
         
         // Launch application on EDT
@@ -56,14 +104,20 @@ public class Application {
      */
     public void start() {
         try {
+            // Continue IDs after those issued before the last shutdown
+            IdGenerator.initialize(Paths.get(System.getProperty(ID_STATE_PROPERTY, "parking_lot.ids")));
+            
             // Initialize database (Requirements 9.4)
             initializeDatabase();
             
             // Initialize DAOs
             initializeDAOs();
             
-            // Initialize sample data (Requirements 1.1, 1.2, 1.3)
-            initializeSampleData();
+            // Move finished history out of the hot tables
+            archiveHistory();
+            
+            // Provision floors and spots (Requirements 1.1, 1.2, 1.3)
+            initializeLayout();
             
             // Initialize services
             initializeServices();
@@ -76,7 +130,8 @@ public class Application {
                 "Failed to start application: " + e.getMessage(),
                 "Startup Error",
                 JOptionPane.ERROR_MESSAGE);
-            e.printStackTrace();
+            LOG.error("Failed to start application", e);
+            LogManager.shutdown();
             System.exit(1);
         }
     }
@@ -86,235 +141,266 @@ public class Application {
      * Requirements: 9.4
      */
     private void initializeDatabase() throws SQLException {
-        System.out.println("Initializing database...");
+        LOG.info("Initializing database...");
         dbManager = DatabaseManager.getInstance();
         dbManager.initializeDatabase();
-        System.out.println("Database initialized successfully.");
+        LOG.info("Database initialized successfully.");
     }
     
     /**
      * Initializes all DAO instances.
+     * With -Dparking.persistence=journal, gate writes go to the event journal
+     * and SQLite is updated asynchronously. With -Dparking.persistence=writebehind,
+     * SQLite writes are queued and committed in groups.
+     */
+    private void initializeDAOs() throws IOException {
+        LOG.info("Initializing DAOs...");
+        String persistence = System.getProperty(PERSISTENCE_PROPERTY, "sqlite");
+        if ("journal".equalsIgnoreCase(persistence)) {
+            String journalDir = System.getProperty(JOURNAL_DIR_PROPERTY, "journal");
+            LOG.info("Using event-sourced persistence in: {}", journalDir);
+            eventStore = EventSourcedStore.open(dbManager, Paths.get(journalDir));
+            parkingSpotDAO = new JournaledParkingSpotDAO(eventStore);
+            vehicleDAO = new JournaledVehicleDAO(eventStore);
+            ticketDAO = new JournaledTicketDAO(eventStore);
+            fineDAO = new JournaledFineDAO(eventStore);
+            paymentDAO = new JournaledPaymentDAO(eventStore);
+        } else if ("writebehind".equalsIgnoreCase(persistence)) {
+            WriteBehindQueue.Durability durability = "async".equalsIgnoreCase(
+                System.getProperty(DURABILITY_PROPERTY))
+                ? WriteBehindQueue.Durability.ASYNC
+                : WriteBehindQueue.Durability.SYNC;
+            LOG.info("Using write-behind persistence ({})", durability);
+            writeBehindQueue = new WriteBehindQueue(dbManager, durability);
+            parkingSpotDAO = new WriteBehindParkingSpotDAO(new ParkingSpotDAOImpl(dbManager), writeBehindQueue);
+            vehicleDAO = new WriteBehindVehicleDAO(new VehicleDAOImpl(dbManager), writeBehindQueue);
+            ticketDAO = new WriteBehindTicketDAO(new TicketDAOImpl(dbManager), writeBehindQueue);
+            fineDAO = new WriteBehindFineDAO(new FineDAOImpl(dbManager), writeBehindQueue);
+            paymentDAO = new WriteBehindPaymentDAO(new PaymentDAOImpl(dbManager), writeBehindQueue);
+        } else {
+            parkingSpotDAO = new ParkingSpotDAOImpl(dbManager);
+            vehicleDAO = new VehicleDAOImpl(dbManager);
+            ticketDAO = new TicketDAOImpl(dbManager);
+            fineDAO = new FineDAOImpl(dbManager);
+            paymentDAO = new PaymentDAOImpl(dbManager);
+        }
+        // History queries also read the monthly archives
+        historyArchive = new HistoryArchive(dbManager,
+            Paths.get(System.getProperty(ARCHIVE_DIR_PROPERTY, "archive")));
+        vehicleDAO = new TieredVehicleDAO(vehicleDAO, historyArchive);
+        ticketDAO = new TieredTicketDAO(ticketDAO, historyArchive);
+        fineDAO = new TieredFineDAO(fineDAO, historyArchive);
+        paymentDAO = new TieredPaymentDAO(paymentDAO, historyArchive);
+        if (eventStore == null) {
+            // The journal already serves per-plate lookups from memory
+            VehicleDAO storedVehicles = vehicleDAO;
+            FineDAO storedFines = fineDAO;
+            PlateBloomFilter parkedPlates = plateFilter("parked", () -> storedVehicles.findCurrentlyParked()
+                    .stream().map(Vehicle::getLicensePlate).collect(Collectors.toList()));
+            PlateBloomFilter finedPlates = plateFilter("unpaid-fines", () -> storedFines.findAllUnpaid()
+                    .stream().map(Fine::getLicensePlate).collect(Collectors.toList()));
+            
+            vehicleDAO = new PlateFilteredVehicleDAO(
+                new CachingVehicleDAO(vehicleDAO, plateCache("active-vehicle"), dbManager), parkedPlates, dbManager);
+            fineDAO = new PlateFilteredFineDAO(
+                new CachingFineDAO(fineDAO, plateCache("unpaid-fines"), dbManager), finedPlates, dbManager);
+            ticketDAO = new CachingTicketDAO(ticketDAO, plateCache("latest-ticket"), dbManager);
+        }
+        reservationDAO = new CachingReservationDAO(new ReservationDAOImpl(dbManager), plateCache("reservations"));
+        LOG.info("DAOs initialized successfully.");
+    }
+    
+    /**
+     * Creates a plate filter loaded from SQLite. Rebuilds run in the background,
+     * so the source is read on its own read-only connection.
      */
-    private void initializeDAOs() {
-        System.out.println("Initializing DAOs...");
-        parkingSpotDAO = new ParkingSpotDAOImpl(dbManager);
-        vehicleDAO = new VehicleDAOImpl(dbManager);
-        ticketDAO = new TicketDAOImpl(dbManager);
-        fineDAO = new FineDAOImpl(dbManager);
-        paymentDAO = new PaymentDAOImpl(dbManager);
-        reservationDAO = new ReservationDAOImpl(dbManager);
-        System.out.println("DAOs initialized successfully.");
+    private PlateBloomFilter plateFilter(String name, Supplier<List<String>> plates) {
+        PlateBloomFilter filter = new PlateBloomFilter(name, () -> {
+            try {
+                return dbManager.inReadTransaction(conn -> plates.get());
+            } catch (SQLException e) {
+                throw new RuntimeException("Error loading plates for filter: " + name, e);
+            }
+        });
+        filter.rebuild();
+        plateFilters.add(filter);
+        return filter;
+    }
+    
+    private <V> PlateCache<V> plateCache(String name) {
+        PlateCache<V> cache = new PlateCache<>(name, PLATE_CACHE_SIZE);
+        plateCaches.add(cache);
+        return cache;
     }
     
     /**
-     * Initializes sample parking lot data with floors and spots.
-     * Only creates data if the database is empty.
+     * Provisions the parking lot's floors and spots from a layout.
+     * A layout file given with -Dparking.layout is the lot's full list of spots: it is
+     * applied on every start, adding, retyping and removing spots to match the file.
+     * Without one, the bundled 5-floor layout is used to fill an empty lot.
      * Requirements: 1.1, 1.2, 1.3
      * PDF: 5 floors, Spot ID format "F1-R1-S1" (Floor-Row-Spot)
      */
-    private void initializeSampleData() {
-        System.out.println("Checking for existing data...");
-        
-        // Check if data already exists
-        if (!parkingSpotDAO.findAll().isEmpty()) {
-            System.out.println("Sample data already exists, skipping initialization.");
-            return;
-        }
-        
-        System.out.println("Clearing existing parking spot data...");
-        clearAllSpots();
-        
-        System.out.println("Creating sample parking lot data (5 floors)...");
-        
-        // Standard 5-floor parking structure with consistent row and spot numbering
-        
-        // Floor 1 (Ground Floor) - 3 rows, 8 spots per row = 24 spots
-        // Row 1: Compact vehicles
-        createSpot("F1-R1-S1", SpotType.COMPACT, 2.0);
-        createSpot("F1-R1-S2", SpotType.COMPACT, 2.0);
-        createSpot("F1-R1-S3", SpotType.COMPACT, 2.0);
-        createSpot("F1-R1-S4", SpotType.COMPACT, 2.0);
-        createSpot("F1-R1-S5", SpotType.COMPACT, 2.0);
-        createSpot("F1-R1-S6", SpotType.COMPACT, 2.0);
-        createSpot("F1-R1-S7", SpotType.COMPACT, 2.0);
-        createSpot("F1-R1-S8", SpotType.COMPACT, 2.0);
-        
-        // Row 2: Regular vehicles
-        createSpot("F1-R2-S1", SpotType.REGULAR, 5.0);
-        createSpot("F1-R2-S2", SpotType.REGULAR, 5.0);
-        createSpot("F1-R2-S3", SpotType.REGULAR, 5.0);
-        createSpot("F1-R2-S4", SpotType.REGULAR, 5.0);
-        createSpot("F1-R2-S5", SpotType.REGULAR, 5.0);
-        createSpot("F1-R2-S6", SpotType.REGULAR, 5.0);
-        createSpot("F1-R2-S7", SpotType.REGULAR, 5.0);
-        createSpot("F1-R2-S8", SpotType.REGULAR, 5.0);
-        
-        // Row 3: Handicapped and Regular mix
-        createSpot("F1-R3-S1", SpotType.HANDICAPPED, 2.0);
-        createSpot("F1-R3-S2", SpotType.HANDICAPPED, 2.0);
-        createSpot("F1-R3-S3", SpotType.HANDICAPPED, 2.0);
-        createSpot("F1-R3-S4", SpotType.HANDICAPPED, 2.0);
-        createSpot("F1-R3-S5", SpotType.REGULAR, 5.0);
-        createSpot("F1-R3-S6", SpotType.REGULAR, 5.0);
-        createSpot("F1-R3-S7", SpotType.REGULAR, 5.0);
-        createSpot("F1-R3-S8", SpotType.REGULAR, 5.0);
-        
-        // Floor 2 - 3 rows, 10 spots per row = 30 spots
-        // Row 1: Compact and Regular mix
-        createSpot("F2-R1-S1", SpotType.COMPACT, 2.0);
-        createSpot("F2-R1-S2", SpotType.COMPACT, 2.0);
-        createSpot("F2-R1-S3", SpotType.COMPACT, 2.0);
-        createSpot("F2-R1-S4", SpotType.COMPACT, 2.0);
-        createSpot("F2-R1-S5", SpotType.REGULAR, 5.0);
-        createSpot("F2-R1-S6", SpotType.REGULAR, 5.0);
-        createSpot("F2-R1-S7", SpotType.REGULAR, 5.0);
-        createSpot("F2-R1-S8", SpotType.REGULAR, 5.0);
-        createSpot("F2-R1-S9", SpotType.REGULAR, 5.0);
-        createSpot("F2-R1-S10", SpotType.REGULAR, 5.0);
-        
-        // Row 2: Regular vehicles
-        createSpot("F2-R2-S1", SpotType.REGULAR, 5.0);
-        createSpot("F2-R2-S2", SpotType.REGULAR, 5.0);
-        createSpot("F2-R2-S3", SpotType.REGULAR, 5.0);
-        createSpot("F2-R2-S4", SpotType.REGULAR, 5.0);
-        createSpot("F2-R2-S5", SpotType.REGULAR, 5.0);
-        createSpot("F2-R2-S6", SpotType.REGULAR, 5.0);
-        createSpot("F2-R2-S7", SpotType.REGULAR, 5.0);
-        createSpot("F2-R2-S8", SpotType.REGULAR, 5.0);
-        createSpot("F2-R2-S9", SpotType.REGULAR, 5.0);
-        createSpot("F2-R2-S10", SpotType.REGULAR, 5.0);
-        
-        // Row 3: Reserved spots
-        createSpot("F2-R3-S1", SpotType.RESERVED, 10.0);
-        createSpot("F2-R3-S2", SpotType.RESERVED, 10.0);
-        createSpot("F2-R3-S3", SpotType.RESERVED, 10.0);
-        createSpot("F2-R3-S4", SpotType.RESERVED, 10.0);
-        createSpot("F2-R3-S5", SpotType.RESERVED, 10.0);
-        createSpot("F2-R3-S6", SpotType.RESERVED, 10.0);
-        createSpot("F2-R3-S7", SpotType.REGULAR, 5.0);
-        createSpot("F2-R3-S8", SpotType.REGULAR, 5.0);
-        createSpot("F2-R3-S9", SpotType.REGULAR, 5.0);
-        createSpot("F2-R3-S10", SpotType.REGULAR, 5.0);
-        
-        // Floor 3 - 4 rows, 8 spots per row = 32 spots
-        // Row 1: Compact vehicles
-        for (int i = 1; i <= 8; i++) {
-            createSpot("F3-R1-S" + i, SpotType.COMPACT, 2.0);
-        }
-        
-        // Row 2: Regular vehicles
-        for (int i = 1; i <= 8; i++) {
-            createSpot("F3-R2-S" + i, SpotType.REGULAR, 5.0);
-        }
-        
-        // Row 3: Regular vehicles
-        for (int i = 1; i <= 8; i++) {
-            createSpot("F3-R3-S" + i, SpotType.REGULAR, 5.0);
-        }
-        
-        // Row 4: Handicapped spots
-        for (int i = 1; i <= 8; i++) {
-            createSpot("F3-R4-S" + i, SpotType.HANDICAPPED, 2.0);
-        }
-        
-        // Floor 4 - 3 rows, 12 spots per row = 36 spots
-        // Row 1: Regular vehicles
-        for (int i = 1; i <= 12; i++) {
-            createSpot("F4-R1-S" + i, SpotType.REGULAR, 5.0);
-        }
-        
-        // Row 2: Regular vehicles
-        for (int i = 1; i <= 12; i++) {
-            createSpot("F4-R2-S" + i, SpotType.REGULAR, 5.0);
-        }
-        
-        // Row 3: Reserved spots
-        for (int i = 1; i <= 12; i++) {
-            if (i <= 4) {
-                createSpot("F4-R3-S" + i, SpotType.RESERVED, 10.0);
-            } else {
-                createSpot("F4-R3-S" + i, SpotType.REGULAR, 5.0);
+    private void initializeLayout() throws IOException {
+        String layoutFile = System.getProperty(LAYOUT_PROPERTY);
+        LotLayout layout;
+        if (layoutFile != null) {
+            LOG.info("Applying lot layout: {}", layoutFile);
+            layout = LotLayout.load(Paths.get(layoutFile));
+        } else {
+            LOG.info("Checking for existing data...");
+            if (!parkingSpotDAO.findAll().isEmpty()) {
+                LOG.info("Sample data already exists, skipping initialization.");
+                return;
             }
-        }
-        
-        // Floor 5 (Top Floor) - 2 rows, 15 spots per row = 30 spots
-        // Row 1: Mixed spots
-        for (int i = 1; i <= 15; i++) {
-            if (i <= 5) {
-                createSpot("F5-R1-S" + i, SpotType.COMPACT, 2.0);
-            } else if (i <= 10) {
-                createSpot("F5-R1-S" + i, SpotType.REGULAR, 5.0);
-            } else {
-                createSpot("F5-R1-S" + i, SpotType.HANDICAPPED, 2.0);
+            LOG.info("Creating sample parking lot data (5 floors)...");
+            try (Reader reader = new InputStreamReader(
+                    Application.class.getResourceAsStream(DEFAULT_LAYOUT_RESOURCE), StandardCharsets.UTF_8)) {
+                layout = LotLayout.parse(reader);
             }
         }
-        
-        // Row 2: Reserved and Regular mix
-        for (int i = 1; i <= 15; i++) {
-            if (i <= 6) {
-                createSpot("F5-R2-S" + i, SpotType.RESERVED, 10.0);
-            } else {
-                createSpot("F5-R2-S" + i, SpotType.REGULAR, 5.0);
-            }
+        LotLayout.Diff diff = new LayoutProvisioner(parkingSpotDAO).apply(layout);
+        LOG.info("Lot layout applied ({} spots): {}", layout.size(), diff.toString());
+        if (!diff.getOccupiedKept().isEmpty()) {
+            LOG.info("Occupied spots kept until their vehicles exit: {}", diff.getOccupiedKept());
+        }
+    }
+
+    /**
+     * Moves closed sessions, paid fines and payments older than the hot window
+     * into the monthly archives.
+     */
+    private void archiveHistory() {
+        int hotMonths = Math.max(1, Integer.getInteger(HOT_MONTHS_PROPERTY, DEFAULT_HOT_MONTHS));
+        syncDatabase();
+        int moved = historyArchive.archiveBefore(YearMonth.now().minusMonths(hotMonths - 1));
+        if (moved > 0) {
+            LOG.info("Archived {} history row(s)", moved);
         }
-        
-        System.out.println("Sample data created successfully.");
-        System.out.println("Total spots created: " + parkingSpotDAO.findAll().size());
     }
     
     /**
-     * Helper method to create and save a parking spot.
+     * Waits until writes made through the journal or write-behind queue are in SQLite,
+     * so exports read from the database see everything recorded so far.
      */
-    private void createSpot(String spotId, SpotType type, double hourlyRate) {
-        ParkingSpot spot = new ParkingSpot(spotId, type, hourlyRate);
-        parkingSpotDAO.save(spot);
+    private void syncDatabase() {
+        if (eventStore != null) {
+            eventStore.awaitProjection();
+        }
+        if (writeBehindQueue != null) {
+            writeBehindQueue.flush();
+        }
     }
 
     /**
-     * Helper method to clear all parking spots from the database.
+     * Loads the tariff named by -Dparking.tariff, or the flat tariff if none is set.
      */
-    private void clearAllSpots() {
-        List<ParkingSpot> allSpots = parkingSpotDAO.findAll();
-        for (ParkingSpot spot : allSpots) {
-            parkingSpotDAO.delete(spot.getSpotId());
+    private Tariff loadTariff() throws IOException {
+        String tariffFile = System.getProperty(TARIFF_PROPERTY);
+        if (tariffFile == null) {
+            return Tariff.flat();
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(Paths.get(tariffFile))) {
+            properties.load(reader);
         }
+        LOG.info("Using tariff: {}", tariffFile);
+        return Tariff.fromProperties(properties);
     }
 
     /**
      * Initializes all service instances with their dependencies.
      */
-    private void initializeServices() {
-        System.out.println("Initializing services...");
+    private void initializeServices() throws IOException {
+        LOG.info("Initializing services...");
         
         // Create services with DAO dependencies
         ParkingServiceImpl parkingServiceImpl = new ParkingServiceImpl(
             parkingSpotDAO, vehicleDAO, ticketDAO, fineDAO, paymentDAO);
+        parkingServiceImpl.setTariff(loadTariff());
+        // Each gate operation gets its own connection, so it can run off the EDT; it commits
+        // in one transaction unless the write-behind queue commits its writes or the journal
+        // records them, where a transaction would only hold the SQLite write lock
+        parkingServiceImpl.setTransactionManager(dbManager, writeBehindQueue == null && eventStore == null);
         
         fineService = new FineServiceImpl(fineDAO);
         // Set default fine strategy (Hourly: RM20 per hour for overstaying)
         fineService.setFineStrategy(new HourlyFineStrategy());
         
         // Initialize ReservationService
-        reservationService = new ReservationServiceImpl(reservationDAO);
+        ReservationServiceImpl reservationServiceImpl = new ReservationServiceImpl(reservationDAO);
+        reservationServiceImpl.setParkingSpotDAO(parkingSpotDAO);
+        reservationService = reservationServiceImpl;
+        
+        // Expire reservations as their deadlines pass; like gate operations, the update runs on the EDT
+        reservationService.processExpiredReservations();
+        reservationExpiryQueue = new ReservationExpiryQueue(deadlines -> SwingUtilities.invokeLater(() -> {
+            try {
+                int expired = reservationService.expireReservations(deadlines);
+                if (expired > 0) {
+                    LOG.info("Expired {} reservation(s)", expired);
+                }
+            } catch (RuntimeException e) {
+                LOG.error("Error expiring reservations", e);
+            }
+        }));
+        reservationServiceImpl.setExpiryQueue(reservationExpiryQueue);
         
         // Wire FineService and ReservationService to ParkingService
         parkingServiceImpl.setFineService(fineService);
         parkingServiceImpl.setReservationService(reservationService);
         parkingService = parkingServiceImpl;
         
+        // Fine overstaying vehicles as their deadline passes; fines are issued on the EDT
+        // like every other gate operation
+        overstaySweeper = new OverstaySweeper(plates -> SwingUtilities.invokeLater(() -> {
+            try {
+                int issued = parkingService.issueOverstayFines(plates);
+                if (issued > 0) {
+                    LOG.info("Issued {} overstay fine(s)", issued);
+                }
+            } catch (RuntimeException e) {
+                LOG.error("Error issuing overstay fines", e);
+            }
+        }));
+        parkingServiceImpl.setOverstaySweeper(overstaySweeper);
+        
+        // Parking durations are summarised at each exit; the first run builds them from history
+        DwellTimeServiceImpl dwellTimeServiceImpl = new DwellTimeServiceImpl(new DwellTimeDAOImpl(dbManager), dbManager);
+        int backfilled = dwellTimeServiceImpl.rebuildIfEmpty(vehicleDAO, ticketDAO, parkingSpotDAO);
+        if (backfilled > 0) {
+            LOG.info("Built dwell time statistics from {} past stay(s)", backfilled);
+        }
+        dwellTimeService = dwellTimeServiceImpl;
+        parkingServiceImpl.setDwellTimeService(dwellTimeService);
+        
         paymentService = new PaymentServiceImpl(paymentDAO);
         
+        // Occupancy is sampled on its own read-only connection, away from the EDT
+        ParkingSpotDAO sampledSpots = new ParkingSpotDAOImpl(dbManager);
+        occupancySampler = new OccupancySampler(() -> {
+            try {
+                return dbManager.inReadTransaction(conn -> sampledSpots.findAll());
+            } catch (SQLException e) {
+                throw new RuntimeException("Error reading spots for occupancy sample", e);
+            }
+        }, new OccupancyHistoryDAOImpl(dbManager));
+        
+        // Reports query SQLite on their own read-only connections, away from gate writes
         reportService = new ReportServiceImpl(
-            parkingSpotDAO, vehicleDAO, fineDAO, paymentDAO);
+            new ParkingSpotDAOImpl(dbManager),
+            new TieredVehicleDAO(new VehicleDAOImpl(dbManager), historyArchive),
+            new TieredFineDAO(new FineDAOImpl(dbManager), historyArchive),
+            new TieredPaymentDAO(new PaymentDAOImpl(dbManager), historyArchive), dbManager);
         
-        System.out.println("Services initialized successfully.");
+        LOG.info("Services initialized successfully.");
     }
     
     /**
      * Launches the main UI frame with all panels wired to services.
      */
     private void launchUI() {
-        System.out.println("Launching UI...");
+        LOG.info("Launching UI...");
         
         // Create main frame
         MainFrame mainFrame = new MainFrame();
@@ -322,6 +408,9 @@ public class Application {
         // Create and wire Entry/Exit panel with reservation service
         EntryExitPanel entryExitPanel = new EntryExitPanel(
             parkingService, paymentService, fineService, reservationService);
+        gateExecutor = GateExecutor.fromSystemProperties();
+        LOG.info("Gate operations run on {} threads", gateExecutor.isVirtual() ? "virtual" : "platform");
+        entryExitPanel.setGateExecutor(gateExecutor);
         mainFrame.setEntryExitPanel(entryExitPanel);
         
         // Create and wire Admin panel
@@ -330,6 +419,9 @@ public class Application {
         
         // Create and wire Report panel
         ReportPanel reportPanel = new ReportPanel(reportService);
+        reportPanel.setHistoryExporter(new HistoryExporter(dbManager, historyArchive, this::syncDatabase));
+        reportPanel.setOccupancySampler(occupancySampler);
+        reportPanel.setDwellTimeService(dwellTimeService);
         mainFrame.setReportPanel(reportPanel);
         
         // Create and wire Reservation panel (admin-only)
@@ -338,18 +430,47 @@ public class Application {
         
         // Add shutdown hook to close database connection
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            System.out.println("Shutting down application...");
+            LOG.info("Shutting down application...");
+            for (PlateCache<?> cache : plateCaches) {
+                LOG.info(cache.toString());
+            }
+            for (PlateBloomFilter filter : plateFilters) {
+                LOG.info(filter.toString());
+            }
+            if (gateExecutor != null) {
+                gateExecutor.close();
+            }
+            if (overstaySweeper != null) {
+                overstaySweeper.close();
+            }
+            if (occupancySampler != null) {
+                occupancySampler.close();
+            }
+            if (reservationExpiryQueue != null) {
+                reservationExpiryQueue.close();
+            }
+            if (eventStore != null) {
+                try {
+                    eventStore.close();
+                } catch (IOException e) {
+                    LOG.error("Error closing event journal", e);
+                }
+            }
+            if (writeBehindQueue != null) {
+                writeBehindQueue.close();
+            }
             if (dbManager != null) {
                 dbManager.closeConnection();
             }
-            System.out.println("Application shutdown complete.");
+            LOG.info("Application shutdown complete.");
+            LogManager.shutdown();
         }));
         
         // Show the main frame
         mainFrame.setVisible(true);
         
-        System.out.println("Application started successfully.");
-        System.out.println("University Parking Lot Management System is ready.");
+        LOG.info("Application started successfully.");
+        LOG.info("University Parking Lot Management System is ready.");
     }
     
     // Getters for testing purposes
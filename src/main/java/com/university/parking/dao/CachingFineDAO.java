@@ -0,0 +1,96 @@
+package com.university.parking.dao;
+
+import com.university.parking.db.DatabaseManager;
+import com.university.parking.domain.Fine;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * FineDAO that caches unpaid fines per plate.
+ * The per-plate sum is computed from the cached list. Writes that only know a
+ * fine ID invalidate whichever cached plate holds that fine. Like
+ * {@link CachingVehicleDAO}, writes inside a transaction invalidate again once it ends.
+ */
+public class CachingFineDAO implements FineDAO {
+    
+    private final FineDAO delegate;
+    private final PlateCache<List<Fine>> unpaidByPlate;
+    private final DatabaseManager dbManager;
+    
+    public CachingFineDAO(FineDAO delegate, PlateCache<List<Fine>> unpaidByPlate, DatabaseManager dbManager) {
+        this.delegate = delegate;
+        this.unpaidByPlate = unpaidByPlate;
+        this.dbManager = dbManager;
+    }
+    
+    @Override
+    public Fine findById(String fineId) {
+        return delegate.findById(fineId);
+    }
+    
+    @Override
+    public List<Fine> findAll() {
+        return delegate.findAll();
+    }
+    
+    @Override
+    public void save(Fine fine) {
+        delegate.save(fine);
+        invalidatePlate(fine.getLicensePlate());
+    }
+    
+    @Override
+    public void update(Fine fine) {
+        delegate.update(fine);
+        invalidatePlate(fine.getLicensePlate());
+    }
+    
+    @Override
+    public void delete(String fineId) {
+        delegate.delete(fineId);
+        invalidateFine(fineId);
+    }
+    
+    @Override
+    public List<Fine> findUnpaidByLicensePlate(String licensePlate) {
+        return cachedUnpaid(licensePlate).stream()
+                .map(EntityCopies::copyFine)
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public double sumUnpaidByLicensePlate(String licensePlate) {
+        return cachedUnpaid(licensePlate).stream()
+                .mapToDouble(Fine::getAmount)
+                .sum();
+    }
+    
+    @Override
+    public List<Fine> findAllUnpaid() {
+        return delegate.findAllUnpaid();
+    }
+    
+    @Override
+    public void markAsPaid(String fineId) {
+        delegate.markAsPaid(fineId);
+        invalidateFine(fineId);
+    }
+    
+    private List<Fine> cachedUnpaid(String licensePlate) {
+        return unpaidByPlate.get(licensePlate, delegate::findUnpaidByLicensePlate);
+    }
+    
+    private void invalidatePlate(String licensePlate) {
+        unpaidByPlate.invalidate(licensePlate);
+        dbManager.afterTransaction(() -> unpaidByPlate.invalidate(licensePlate));
+    }
+    
+    private void invalidateFine(String fineId) {
+        Predicate<List<Fine>> holdsFine = fines -> fines.stream()
+                .anyMatch(fine -> fine.getFineId().equals(fineId));
+        unpaidByPlate.invalidateIf(holdsFine);
+        dbManager.afterTransaction(() -> unpaidByPlate.invalidateIf(holdsFine));
+    }
+}
@@ -0,0 +1,111 @@
+package com.university.parking.dao;
+
+import com.university.parking.domain.Reservation;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * ReservationDAO that caches reservations per plate.
+ * The entry panel looks reservations up on every keystroke, so repeated
+ * prefixes of the same plate are served from memory.
+ */
+public class CachingReservationDAO implements ReservationDAO {
+    
+    private final ReservationDAO delegate;
+    private final PlateCache<List<Reservation>> byPlate;
+    
+    public CachingReservationDAO(ReservationDAO delegate, PlateCache<List<Reservation>> byPlate) {
+        this.delegate = delegate;
+        this.byPlate = byPlate;
+    }
+    
+    @Override
+    public Reservation findById(String reservationId) {
+        return delegate.findById(reservationId);
+    }
+    
+    @Override
+    public List<Reservation> findAll() {
+        return delegate.findAll();
+    }
+    
+    @Override
+    public void save(Reservation reservation) {
+        delegate.save(reservation);
+        byPlate.invalidate(reservation.getLicensePlate());
+    }
+    
+    @Override
+    public void saveAll(List<Reservation> reservations) {
+        delegate.saveAll(reservations);
+        for (Reservation reservation : reservations) {
+            byPlate.invalidate(reservation.getLicensePlate());
+        }
+    }
+    
+    @Override
+    public void update(Reservation reservation) {
+        delegate.update(reservation);
+        byPlate.invalidate(reservation.getLicensePlate());
+    }
+    
+    @Override
+    public void delete(String reservationId) {
+        delegate.delete(reservationId);
+        invalidateReservation(reservationId);
+    }
+    
+    @Override
+    public List<Reservation> findByLicensePlate(String licensePlate) {
+        return byPlate.get(licensePlate, delegate::findByLicensePlate).stream()
+                .map(EntityCopies::copyReservation)
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public List<Reservation> findBySpotAndTimeRange(String spotId, LocalDateTime startTime, LocalDateTime endTime) {
+        return delegate.findBySpotAndTimeRange(spotId, startTime, endTime);
+    }
+    
+    @Override
+    public List<Reservation> findAllActive() {
+        return delegate.findAllActive();
+    }
+    
+    @Override
+    public List<Reservation> findExpiredPending() {
+        return delegate.findExpiredPending();
+    }
+    
+    @Override
+    public List<Reservation> findOpen() {
+        return delegate.findOpen();
+    }
+    
+    @Override
+    public int expireAll(Collection<String> reservationIds) {
+        int expired = delegate.expireAll(reservationIds);
+        if (expired > 0) {
+            Set<String> ids = new HashSet<>(reservationIds);
+            byPlate.invalidateIf(reservations -> reservations.stream()
+                    .anyMatch(reservation -> ids.contains(reservation.getReservationId())));
+        }
+        return expired;
+    }
+    
+    @Override
+    public void updateStatus(String reservationId, String status) {
+        delegate.updateStatus(reservationId, status);
+        invalidateReservation(reservationId);
+    }
+    
+    private void invalidateReservation(String reservationId) {
+        byPlate.invalidateIf(reservations -> reservations.stream()
+                .anyMatch(reservation -> reservation.getReservationId().equals(reservationId)));
+    }
+}
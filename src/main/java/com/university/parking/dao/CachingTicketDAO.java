@@ -0,0 +1,71 @@
+package com.university.parking.dao;
+
+import com.university.parking.db.DatabaseManager;
+import com.university.parking.domain.Ticket;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * TicketDAO that caches the latest ticket per plate.
+ * Tickets are immutable, so cached instances are returned directly.
+ * Like {@link CachingVehicleDAO}, writes inside a transaction invalidate the plate
+ * again once it ends.
+ */
+public class CachingTicketDAO implements TicketDAO {
+    
+    private final TicketDAO delegate;
+    private final PlateCache<Ticket> latestByPlate;
+    private final DatabaseManager dbManager;
+    
+    public CachingTicketDAO(TicketDAO delegate, PlateCache<Ticket> latestByPlate, DatabaseManager dbManager) {
+        this.delegate = delegate;
+        this.latestByPlate = latestByPlate;
+        this.dbManager = dbManager;
+    }
+    
+    @Override
+    public Ticket findById(String ticketId) {
+        return delegate.findById(ticketId);
+    }
+    
+    @Override
+    public List<Ticket> findAll() {
+        return delegate.findAll();
+    }
+    
+    @Override
+    public void save(Ticket ticket) {
+        delegate.save(ticket);
+        invalidate(ticket.getLicensePlate());
+    }
+    
+    @Override
+    public void update(Ticket ticket) {
+        delegate.update(ticket);
+        invalidate(ticket.getLicensePlate());
+    }
+    
+    @Override
+    public void delete(String ticketId) {
+        delegate.delete(ticketId);
+        Predicate<Ticket> isTicket = ticket -> ticket.getTicketId().equals(ticketId);
+        latestByPlate.invalidateIf(isTicket);
+        dbManager.afterTransaction(() -> latestByPlate.invalidateIf(isTicket));
+    }
+    
+    @Override
+    public Ticket findByLicensePlate(String licensePlate) {
+        return latestByPlate.get(licensePlate, delegate::findByLicensePlate);
+    }
+    
+    @Override
+    public List<Ticket> findActiveTickets() {
+        return delegate.findActiveTickets();
+    }
+    
+    private void invalidate(String licensePlate) {
+        latestByPlate.invalidate(licensePlate);
+        dbManager.afterTransaction(() -> latestByPlate.invalidate(licensePlate));
+    }
+}
@@ -0,0 +1,76 @@
+package com.university.parking.dao;
+
+import com.university.parking.db.DatabaseManager;
+import com.university.parking.domain.Vehicle;
+
+import java.util.List;
+
+/**
+ * VehicleDAO that caches active-vehicle lookups per plate.
+ * Every write invalidates the plate before returning, so lookups never
+ * see a vehicle state older than the caller's last write. Inside a transaction the
+ * plate is invalidated again once it ends, since readers on other connections may
+ * cache the old state until the write commits.
+ */
+public class CachingVehicleDAO implements VehicleDAO {
+    
+    private final VehicleDAO delegate;
+    private final PlateCache<Vehicle> activeByPlate;
+    private final DatabaseManager dbManager;
+    
+    public CachingVehicleDAO(VehicleDAO delegate, PlateCache<Vehicle> activeByPlate, DatabaseManager dbManager) {
+        this.delegate = delegate;
+        this.activeByPlate = activeByPlate;
+        this.dbManager = dbManager;
+    }
+    
+    @Override
+    public Vehicle findById(String licensePlate) {
+        return delegate.findById(licensePlate);
+    }
+    
+    @Override
+    public List<Vehicle> findAll() {
+        return delegate.findAll();
+    }
+    
+    @Override
+    public void save(Vehicle vehicle) {
+        delegate.save(vehicle);
+        invalidate(vehicle.getLicensePlate());
+    }
+    
+    @Override
+    public void update(Vehicle vehicle) {
+        delegate.update(vehicle);
+        invalidate(vehicle.getLicensePlate());
+    }
+    
+    @Override
+    public void delete(String licensePlate) {
+        delegate.delete(licensePlate);
+        invalidate(licensePlate);
+    }
+    
+    @Override
+    public Vehicle findByLicensePlate(String licensePlate) {
+        return delegate.findByLicensePlate(licensePlate);
+    }
+    
+    @Override
+    public Vehicle findActiveByLicensePlate(String licensePlate) {
+        Vehicle vehicle = activeByPlate.get(licensePlate, delegate::findActiveByLicensePlate);
+        // Callers modify the returned vehicle (e.g. set its exit time)
+        return vehicle != null ? EntityCopies.copyVehicle(vehicle) : null;
+    }
+    
+    @Override
+    public List<Vehicle> findCurrentlyParked() {
+        return delegate.findCurrentlyParked();
+    }
+    
+    private void invalidate(String licensePlate) {
+        activeByPlate.invalidate(licensePlate);
+        dbManager.afterTransaction(() -> activeByPlate.invalidate(licensePlate));
+    }
+}
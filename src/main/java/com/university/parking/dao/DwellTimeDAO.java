@@ -0,0 +1,50 @@
+package com.university.parking.dao;
+
+import com.university.parking.domain.DwellTimeKey;
+import com.university.parking.domain.DwellTimeSketch;
+import com.university.parking.domain.SpotType;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Data Access Object for dwell time sketches, one per day, spot type and hour of entry.
+ */
+public interface DwellTimeDAO {
+    
+    /**
+     * Finds the sketch of a key.
+     * @param key the day, spot type and hour
+     * @return the sketch, or null if no stay was recorded for the key
+     */
+    DwellTimeSketch find(DwellTimeKey key);
+    
+    /**
+     * Saves a sketch, replacing the stored sketch of the same key.
+     * @param key the day, spot type and hour
+     * @param sketch the sketch
+     */
+    void save(DwellTimeKey key, DwellTimeSketch sketch);
+    
+    /**
+     * Saves sketches in one transaction, replacing the stored sketches of the same keys.
+     * @param sketches the sketches by key
+     */
+    void saveAll(Map<DwellTimeKey, DwellTimeSketch> sketches);
+    
+    /**
+     * Merges the sketches of a date range into one sketch per hour of entry.
+     * Rows are merged while they are read, so memory does not depend on the range.
+     * @param startDate the first day (inclusive)
+     * @param endDate the last day (inclusive)
+     * @param spotType the spot type, or null for all types
+     * @return the merged sketch per hour, for the hours that have stays
+     */
+    Map<Integer, DwellTimeSketch> mergeByHour(LocalDate startDate, LocalDate endDate, SpotType spotType);
+    
+    /**
+     * Checks whether any sketch is stored.
+     * @return true if no sketch is stored
+     */
+    boolean isEmpty();
+}
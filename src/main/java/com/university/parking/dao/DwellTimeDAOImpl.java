@@ -0,0 +1,137 @@
+package com.university.parking.dao;
+
+import com.university.parking.db.DatabaseManager;
+import com.university.parking.domain.DwellTimeKey;
+import com.university.parking.domain.DwellTimeSketch;
+import com.university.parking.domain.SpotType;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * SQLite implementation of DwellTimeDAO.
+ * Each sketch is stored as a small BLOB keyed by day, spot type and hour.
+ */
+public class DwellTimeDAOImpl implements DwellTimeDAO {
+    
+    private final DatabaseManager dbManager;
+    
+    public DwellTimeDAOImpl(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+        createTableIfNotExists();
+    }
+    
+    private void createTableIfNotExists() {
+        String sql = "CREATE TABLE IF NOT EXISTS dwell_time_sketch (" +
+                "day TEXT NOT NULL, " +
+                "spot_type TEXT NOT NULL, " +
+                "hour INTEGER NOT NULL, " +
+                "stay_count INTEGER NOT NULL, " +
+                "sketch BLOB NOT NULL, " +
+                "PRIMARY KEY (day, spot_type, hour)) WITHOUT ROWID";
+        
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to create dwell_time_sketch table", e);
+        }
+    }
+    
+    @Override
+    public DwellTimeSketch find(DwellTimeKey key) {
+        String sql = "SELECT sketch FROM dwell_time_sketch WHERE day = ? AND spot_type = ? AND hour = ?";
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, key.getDay().toString());
+            stmt.setString(2, key.getSpotType().name());
+            stmt.setInt(3, key.getHour());
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next()) {
+                return DwellTimeSketch.fromBytes(rs.getBytes("sketch"));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding dwell time sketch: " + key, e);
+        }
+        return null;
+    }
+    
+    @Override
+    public void save(DwellTimeKey key, DwellTimeSketch sketch) {
+        String sql = "INSERT OR REPLACE INTO dwell_time_sketch (day, spot_type, hour, stay_count, sketch) " +
+                "VALUES (?, ?, ?, ?, ?)";
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, key.getDay().toString());
+            stmt.setString(2, key.getSpotType().name());
+            stmt.setInt(3, key.getHour());
+            stmt.setLong(4, sketch.getCount());
+            stmt.setBytes(5, sketch.toBytes());
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException("Error saving dwell time sketch: " + key, e);
+        }
+    }
+    
+    @Override
+    public void saveAll(Map<DwellTimeKey, DwellTimeSketch> sketches) {
+        String sql = "INSERT OR REPLACE INTO dwell_time_sketch (day, spot_type, hour, stay_count, sketch) " +
+                "VALUES (?, ?, ?, ?, ?)";
+        try {
+            dbManager.inTransaction(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (Map.Entry<DwellTimeKey, DwellTimeSketch> entry : sketches.entrySet()) {
+                        DwellTimeKey key = entry.getKey();
+                        stmt.setString(1, key.getDay().toString());
+                        stmt.setString(2, key.getSpotType().name());
+                        stmt.setInt(3, key.getHour());
+                        stmt.setLong(4, entry.getValue().getCount());
+                        stmt.setBytes(5, entry.getValue().toBytes());
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Error saving dwell time sketches", e);
+        }
+    }
+    
+    @Override
+    public Map<Integer, DwellTimeSketch> mergeByHour(LocalDate startDate, LocalDate endDate, SpotType spotType) {
+        Map<Integer, DwellTimeSketch> byHour = new TreeMap<>();
+        String sql = "SELECT hour, sketch FROM dwell_time_sketch WHERE day >= ? AND day <= ?" +
+                (spotType != null ? " AND spot_type = ?" : "");
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, startDate.toString());
+            stmt.setString(2, endDate.toString());
+            if (spotType != null) {
+                stmt.setString(3, spotType.name());
+            }
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                byHour.computeIfAbsent(rs.getInt("hour"), hour -> new DwellTimeSketch())
+                      .merge(DwellTimeSketch.fromBytes(rs.getBytes("sketch")));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error merging dwell time sketches", e);
+        }
+        return byHour;
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        String sql = "SELECT 1 FROM dwell_time_sketch LIMIT 1";
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return !rs.next();
+        } catch (SQLException e) {
+            throw new RuntimeException("Error checking dwell time sketches", e);
+        }
+    }
+}
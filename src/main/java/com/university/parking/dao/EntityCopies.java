@@ -0,0 +1,61 @@
+package com.university.parking.dao;
+
+import com.university.parking.domain.Fine;
+import com.university.parking.domain.ParkingSpot;
+import com.university.parking.domain.Reservation;
+import com.university.parking.domain.Vehicle;
+import com.university.parking.domain.VehicleFactory;
+
+/**
+ * Copies of mutable domain entities.
+ * Used by DAOs that keep entities after the call returns, so later changes made
+ * by the caller cannot leak into stored, queued or cached state.
+ */
+final class EntityCopies {
+    
+    private EntityCopies() {
+    }
+    
+    /**
+     * Copies an entity if it is mutable; tickets, payments and identifiers are returned as-is.
+     */
+    static Object copyOf(Object entity) {
+        if (entity instanceof ParkingSpot) {
+            return copySpot((ParkingSpot) entity);
+        }
+        if (entity instanceof Vehicle) {
+            return copyVehicle((Vehicle) entity);
+        }
+        if (entity instanceof Fine) {
+            return copyFine((Fine) entity);
+        }
+        return entity;
+    }
+    
+    static ParkingSpot copySpot(ParkingSpot spot) {
+        ParkingSpot copy = new ParkingSpot(spot.getSpotId(), spot.getType(), spot.getHourlyRate());
+        if (!spot.isAvailable() && spot.getCurrentVehiclePlate() != null) {
+            copy.assignVehicle(spot.getCurrentVehiclePlate());
+        }
+        return copy;
+    }
+    
+    static Vehicle copyVehicle(Vehicle vehicle) {
+        Vehicle copy = VehicleFactory.createVehicle(vehicle.getVehicleType(), vehicle.getLicensePlate());
+        copy.setEntryTime(vehicle.getEntryTime());
+        copy.setExitTime(vehicle.getExitTime());
+        return copy;
+    }
+    
+    static Fine copyFine(Fine fine) {
+        return new Fine(fine.getFineId(), fine.getLicensePlate(), fine.getAmount(),
+                        fine.getReason(), fine.getIssuedTime(), fine.isPaid());
+    }
+    
+    static Reservation copyReservation(Reservation reservation) {
+        return new Reservation(reservation.getReservationId(), reservation.getLicensePlate(),
+                               reservation.getSpotId(), reservation.getReservationTime(),
+                               reservation.getStartTime(), reservation.getEndTime(),
+                               reservation.getStatus());
+    }
+}
@@ -0,0 +1,687 @@
+package com.university.parking.dao;
+
+import com.university.parking.db.DatabaseManager;
+import com.university.parking.db.GateEvent;
+import com.university.parking.db.GateEventJournal;
+import com.university.parking.domain.*;
+import com.university.parking.log.Logger;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+/**
+ * Event-sourced persistence for gate operations.
+ * Every write is appended to the {@link GateEventJournal} and applied to an in-memory
+ * model of the gate-facing state (spots, parked vehicles, their tickets and unpaid fines).
+ * SQLite is kept as a query store that a projector thread updates asynchronously,
+ * in journal order.
+ *
+ * Recovery on open: SQLite is first caught up from its checkpoint, then the in-memory
+ * state is loaded from the latest snapshot and the journal events after it are replayed.
+ */
+public class EventSourcedStore implements Closeable {
+
+    private static final Logger LOG = Logger.get(EventSourcedStore.class);
+
+    private static final int SNAPSHOT_MAGIC = 0x47534E50; // "GSNP"
+    private static final int DEFAULT_SNAPSHOT_INTERVAL = 10_000;
+    private static final int MAX_PROJECTION_BATCH = 512;
+    private static final long MIN_RETRY_MILLIS = 500;
+    private static final long MAX_RETRY_MILLIS = 30_000;
+    private static final String JOURNAL_FILE = "gate-events.journal";
+    private static final String SNAPSHOT_FILE = "gate-state.snapshot";
+
+    private static final String CREATE_CHECKPOINT_TABLE =
+        "CREATE TABLE IF NOT EXISTS journal_checkpoint (" +
+        "id INTEGER PRIMARY KEY CHECK (id = 1), " +
+        "last_sequence INTEGER NOT NULL)";
+
+    private final DatabaseManager dbManager;
+    private final ParkingSpotDAO spotQueryStore;
+    private final VehicleDAO vehicleQueryStore;
+    private final TicketDAO ticketQueryStore;
+    private final FineDAO fineQueryStore;
+    private final PaymentDAO paymentQueryStore;
+    private final GateEventJournal journal;
+    private final Path snapshotPath;
+    private final int snapshotInterval;
+
+    // In-memory state, guarded by this
+    private final Map<String, ParkingSpot> spots = new LinkedHashMap<>();
+    private final Map<String, Vehicle> activeVehicles = new HashMap<>();
+    private final Map<String, Ticket> activeTickets = new HashMap<>();
+    private final Map<String, Fine> unpaidFines = new LinkedHashMap<>();
+    private long lastSnapshotSequence;
+    private boolean snapshotPending;
+
+    private final BlockingQueue<GateEvent> projectionQueue = new LinkedBlockingQueue<>();
+    private final Object projectionMonitor = new Object();
+    private volatile long projectedSequence;
+    // Set while the projector is retrying an event that failed to project
+    private volatile boolean projectionStalled;
+    private volatile boolean running = true;
+    private final Thread projector;
+    private final ExecutorService snapshotExecutor;
+
+    private EventSourcedStore(DatabaseManager dbManager, ParkingSpotDAO spotQueryStore,
+                              VehicleDAO vehicleQueryStore, TicketDAO ticketQueryStore,
+                              FineDAO fineQueryStore, PaymentDAO paymentQueryStore,
+                              GateEventJournal journal, Path snapshotPath, int snapshotInterval) {
+        this.dbManager = dbManager;
+        this.spotQueryStore = spotQueryStore;
+        this.vehicleQueryStore = vehicleQueryStore;
+        this.ticketQueryStore = ticketQueryStore;
+        this.fineQueryStore = fineQueryStore;
+        this.paymentQueryStore = paymentQueryStore;
+        this.journal = journal;
+        this.snapshotPath = snapshotPath;
+        this.snapshotInterval = snapshotInterval;
+        this.projector = new Thread(this::runProjector, "gate-event-projector");
+        this.projector.setDaemon(true);
+        this.snapshotExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "gate-state-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens the store in the given directory, recovering state from the snapshot and journal.
+     * The SQLite DAOs become the asynchronously updated query store.
+     *
+     * @param dbManager the database manager of the query store
+     * @param directory the directory holding the journal and snapshot files
+     * @return the recovered store, ready for use
+     * @throws IOException if the journal or snapshot cannot be read
+     */
+    public static EventSourcedStore open(DatabaseManager dbManager, Path directory) throws IOException {
+        return open(dbManager, directory, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * Opens the store with a custom snapshot interval.
+     *
+     * @param dbManager the database manager of the query store
+     * @param directory the directory holding the journal and snapshot files
+     * @param snapshotInterval number of events between snapshots
+     * @return the recovered store, ready for use
+     * @throws IOException if the journal or snapshot cannot be read
+     */
+    public static EventSourcedStore open(DatabaseManager dbManager, Path directory,
+                                         int snapshotInterval) throws IOException {
+        if (snapshotInterval <= 0) {
+            throw new IllegalArgumentException("Snapshot interval must be positive");
+        }
+        Files.createDirectories(directory);
+        GateEventJournal journal = GateEventJournal.open(directory.resolve(JOURNAL_FILE));
+        EventSourcedStore store = new EventSourcedStore(dbManager,
+            new ParkingSpotDAOImpl(dbManager), new VehicleDAOImpl(dbManager),
+            new TicketDAOImpl(dbManager), new FineDAOImpl(dbManager), new PaymentDAOImpl(dbManager),
+            journal, directory.resolve(SNAPSHOT_FILE), snapshotInterval);
+        try {
+            store.recover();
+        } catch (IOException | RuntimeException e) {
+            journal.close();
+            throw e;
+        }
+        store.projector.start();
+        return store;
+    }
+
+    // Recovery
+
+    private void recover() throws IOException {
+        // 1. Bring the SQLite query store up to the end of the journal
+        long checkpoint = readCheckpoint();
+        List<GateEvent> unprojected = new ArrayList<>();
+        journal.replay(checkpoint, unprojected::add);
+        projectedSequence = unprojected.isEmpty() ? journal.getLastSequence() : checkpoint;
+        if (!unprojected.isEmpty()) {
+            LOG.info("Projecting {} journaled gate events to SQLite...", unprojected.size());
+            if (!projectPending(unprojected)) {
+                // The projector thread retries the rest, still ahead of any new event
+                LOG.warn("{} journaled gate events are not projected yet, retrying in the background",
+                        unprojected.size());
+                projectionStalled = true;
+                projectionQueue.addAll(unprojected);
+            }
+        }
+
+        // 2. Rebuild the in-memory state
+        synchronized (this) {
+            if (Files.exists(snapshotPath)) {
+                lastSnapshotSequence = loadSnapshot();
+                journal.replay(lastSnapshotSequence, this::apply);
+            } else {
+                loadFromQueryStore();
+                journal.replay(projectedSequence, this::apply);
+                lastSnapshotSequence = journal.getLastSequence();
+            }
+        }
+    }
+
+    private void loadFromQueryStore() {
+        for (ParkingSpot spot : spotQueryStore.findAll()) {
+            spots.put(spot.getSpotId(), spot);
+        }
+        for (Vehicle vehicle : vehicleQueryStore.findCurrentlyParked()) {
+            activeVehicles.put(vehicle.getLicensePlate(), vehicle);
+        }
+        for (Ticket ticket : ticketQueryStore.findActiveTickets()) {
+            Ticket current = activeTickets.get(ticket.getLicensePlate());
+            if (current == null || ticket.getEntryTime().isAfter(current.getEntryTime())) {
+                activeTickets.put(ticket.getLicensePlate(), ticket);
+            }
+        }
+        for (Fine fine : fineQueryStore.findAllUnpaid()) {
+            unpaidFines.put(fine.getFineId(), fine);
+        }
+    }
+
+    private long readCheckpoint() {
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(CREATE_CHECKPOINT_TABLE);
+            try (ResultSet rs = stmt.executeQuery("SELECT last_sequence FROM journal_checkpoint WHERE id = 1")) {
+                return rs.next() ? rs.getLong("last_sequence") : 0L;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error reading journal checkpoint", e);
+        }
+    }
+
+    // Writes
+
+    /**
+     * Journals a state change and applies it to the in-memory state.
+     * The SQLite query store is updated asynchronously. The event is queued for projection
+     * under the same lock as the append, so the projector receives events in sequence order.
+     *
+     * @param type the event type
+     * @param payload the entity or identifier
+     */
+    public void record(GateEvent.Type type, Object payload) {
+        GateEvent sequenced;
+        synchronized (this) {
+            try {
+                sequenced = journal.append(new GateEvent(type, EntityCopies.copyOf(payload)));
+            } catch (IOException e) {
+                throw new RuntimeException("Error appending gate event: " + type, e);
+            }
+            apply(sequenced);
+            if (!snapshotPending && sequenced.getSequence() - lastSnapshotSequence >= snapshotInterval) {
+                snapshotPending = true;
+                snapshotExecutor.execute(this::snapshotQuietly);
+            }
+            projectionQueue.add(sequenced);
+        }
+    }
+
+    /**
+     * Applies an event to the in-memory state. Used for live writes and for replay.
+     */
+    private void apply(GateEvent event) {
+        switch (event.getType()) {
+            case SPOT_SAVED:
+            case SPOT_UPDATED: {
+                ParkingSpot spot = (ParkingSpot) event.getPayload();
+                spots.put(spot.getSpotId(), EntityCopies.copySpot(spot));
+                break;
+            }
+            case SPOT_STATUS_CHANGED: {
+                String[] change = (String[]) event.getPayload();
+                ParkingSpot spot = spots.get(change[0]);
+                // Only the status changes, as in SQLite: OCCUPIED keeps the occupant, and a spot
+                // without one stays AVAILABLE because SQLite loads an OCCUPIED spot without a plate so
+                if (spot != null && SpotStatus.valueOf(change[1]) == SpotStatus.AVAILABLE && !spot.isAvailable()) {
+                    spot.releaseVehicle();
+                }
+                break;
+            }
+            case SPOT_DELETED:
+                spots.remove(event.getId());
+                break;
+            case VEHICLE_SAVED:
+            case VEHICLE_UPDATED: {
+                Vehicle vehicle = (Vehicle) event.getPayload();
+                String plate = vehicle.getLicensePlate();
+                if (vehicle.getEntryTime() != null && vehicle.getExitTime() == null) {
+                    activeVehicles.put(plate, EntityCopies.copyVehicle(vehicle));
+                } else {
+                    Vehicle active = activeVehicles.get(plate);
+                    if (active != null && Objects.equals(active.getEntryTime(), vehicle.getEntryTime())) {
+                        activeVehicles.remove(plate);
+                        activeTickets.remove(plate);
+                    }
+                }
+                break;
+            }
+            case VEHICLE_DELETED:
+                activeVehicles.remove(event.getId());
+                activeTickets.remove(event.getId());
+                break;
+            case TICKET_SAVED:
+            case TICKET_UPDATED: {
+                Ticket ticket = (Ticket) event.getPayload();
+                activeTickets.put(ticket.getLicensePlate(), ticket);
+                break;
+            }
+            case TICKET_DELETED:
+                activeTickets.values().removeIf(t -> t.getTicketId().equals(event.getId()));
+                break;
+            case FINE_SAVED:
+            case FINE_UPDATED: {
+                Fine fine = (Fine) event.getPayload();
+                if (fine.isPaid()) {
+                    unpaidFines.remove(fine.getFineId());
+                } else {
+                    unpaidFines.put(fine.getFineId(), EntityCopies.copyFine(fine));
+                }
+                break;
+            }
+            case FINE_PAID:
+            case FINE_DELETED:
+                unpaidFines.remove(event.getId());
+                break;
+            default:
+                // Payments are history only; they live in the query store
+                break;
+        }
+    }
+
+    // Reads served from memory (copies, so callers can mutate them freely)
+
+    public synchronized ParkingSpot findSpot(String spotId) {
+        ParkingSpot spot = spots.get(spotId);
+        return spot != null ? EntityCopies.copySpot(spot) : null;
+    }
+
+    public synchronized List<ParkingSpot> findSpots(java.util.function.Predicate<ParkingSpot> filter) {
+        return spots.values().stream()
+                .filter(filter)
+                .map(EntityCopies::copySpot)
+                .collect(Collectors.toList());
+    }
+
+    public synchronized ParkingSpot findSpotByPlate(String licensePlate) {
+        for (ParkingSpot spot : spots.values()) {
+            if (licensePlate.equals(spot.getCurrentVehiclePlate())) {
+                return EntityCopies.copySpot(spot);
+            }
+        }
+        return null;
+    }
+
+    public synchronized Vehicle findActiveVehicle(String licensePlate) {
+        Vehicle vehicle = activeVehicles.get(licensePlate);
+        return vehicle != null ? EntityCopies.copyVehicle(vehicle) : null;
+    }
+
+    public synchronized List<Vehicle> findActiveVehicles() {
+        return activeVehicles.values().stream()
+                .map(EntityCopies::copyVehicle)
+                .collect(Collectors.toList());
+    }
+
+    public synchronized Ticket findActiveTicket(String licensePlate) {
+        return activeTickets.get(licensePlate);
+    }
+
+    public synchronized List<Ticket> findActiveTickets() {
+        return new ArrayList<>(activeTickets.values());
+    }
+
+    public synchronized Fine findUnpaidFine(String fineId) {
+        Fine fine = unpaidFines.get(fineId);
+        return fine != null ? EntityCopies.copyFine(fine) : null;
+    }
+
+    public synchronized List<Fine> findUnpaidFines(java.util.function.Predicate<Fine> filter) {
+        return unpaidFines.values().stream()
+                .filter(filter)
+                .map(EntityCopies::copyFine)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Blocks until every event journaled so far has reached the SQLite query store.
+     * History reads call this so they observe the caller's own writes. While the projector
+     * is retrying a failed event it returns at once, so reads see the last projected state
+     * instead of hanging.
+     */
+    public void awaitProjection() {
+        long target;
+        synchronized (this) {
+            target = journal.getLastSequence();
+        }
+        synchronized (projectionMonitor) {
+            while (projectedSequence < target && running && !projectionStalled) {
+                try {
+                    projectionMonitor.wait(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    ParkingSpotDAO getSpotQueryStore() {
+        return spotQueryStore;
+    }
+
+    VehicleDAO getVehicleQueryStore() {
+        return vehicleQueryStore;
+    }
+
+    TicketDAO getTicketQueryStore() {
+        return ticketQueryStore;
+    }
+
+    FineDAO getFineQueryStore() {
+        return fineQueryStore;
+    }
+
+    PaymentDAO getPaymentQueryStore() {
+        return paymentQueryStore;
+    }
+
+    // Projection to SQLite
+
+    private void runProjector() {
+        List<GateEvent> pending = new ArrayList<>();
+        long retryMillis = MIN_RETRY_MILLIS;
+        while (running) {
+            try {
+                if (pending.isEmpty()) {
+                    GateEvent first = projectionQueue.poll(200, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    pending.add(first);
+                } else {
+                    // The first pending event failed; wait before retrying it
+                    Thread.sleep(retryMillis);
+                    retryMillis = Math.min(retryMillis * 2, MAX_RETRY_MILLIS);
+                }
+                projectionQueue.drainTo(pending, MAX_PROJECTION_BATCH - pending.size());
+                if (projectPending(pending)) {
+                    retryMillis = MIN_RETRY_MILLIS;
+                    setProjectionStalled(false);
+                } else {
+                    setProjectionStalled(true);
+                }
+            } catch (InterruptedException e) {
+                // close() interrupts the projector once running is cleared
+            }
+        }
+        Thread.interrupted();
+        projectionQueue.drainTo(pending);
+        projectPending(pending);
+    }
+
+    /**
+     * Applies pending events to SQLite in one transaction, advances the checkpoint and
+     * removes them from the list. If the batch fails, events are applied one by one up to
+     * the first one that fails. That event and the ones after it stay pending, to be retried
+     * in order: skipping it would leave SQLite permanently behind the journal.
+     *
+     * @return true if every pending event was projected
+     */
+    private boolean projectPending(List<GateEvent> pending) {
+        if (pending.isEmpty()) {
+            return true;
+        }
+        try {
+            dbManager.inTransaction(conn -> {
+                for (GateEvent event : pending) {
+                    project(event);
+                }
+                writeCheckpoint(conn, pending.get(pending.size() - 1).getSequence());
+                return null;
+            });
+            markProjected(pending.get(pending.size() - 1).getSequence());
+            pending.clear();
+            return true;
+        } catch (SQLException | RuntimeException batchError) {
+            int projected = 0;
+            try {
+                for (GateEvent event : pending) {
+                    dbManager.inTransaction(conn -> {
+                        project(event);
+                        writeCheckpoint(conn, event.getSequence());
+                        return null;
+                    });
+                    projected++;
+                }
+            } catch (SQLException | RuntimeException e) {
+                LOG.error("Error projecting gate event {}, will retry", pending.get(projected), e);
+            }
+            if (projected > 0) {
+                markProjected(pending.get(projected - 1).getSequence());
+                pending.subList(0, projected).clear();
+            }
+            return pending.isEmpty();
+        }
+    }
+
+    private void project(GateEvent event) {
+        switch (event.getType()) {
+            case SPOT_SAVED:
+                spotQueryStore.save((ParkingSpot) event.getPayload());
+                break;
+            case SPOT_UPDATED:
+                spotQueryStore.update((ParkingSpot) event.getPayload());
+                break;
+            case SPOT_STATUS_CHANGED: {
+                String[] change = (String[]) event.getPayload();
+                spotQueryStore.updateStatus(change[0], SpotStatus.valueOf(change[1]));
+                break;
+            }
+            case SPOT_DELETED:
+                spotQueryStore.delete(event.getId());
+                break;
+            case VEHICLE_SAVED:
+                vehicleQueryStore.save((Vehicle) event.getPayload());
+                break;
+            case VEHICLE_UPDATED:
+                vehicleQueryStore.update((Vehicle) event.getPayload());
+                break;
+            case VEHICLE_DELETED:
+                vehicleQueryStore.delete(event.getId());
+                break;
+            case TICKET_SAVED:
+                ticketQueryStore.save((Ticket) event.getPayload());
+                break;
+            case TICKET_UPDATED:
+                ticketQueryStore.update((Ticket) event.getPayload());
+                break;
+            case TICKET_DELETED:
+                ticketQueryStore.delete(event.getId());
+                break;
+            case FINE_SAVED:
+                fineQueryStore.save((Fine) event.getPayload());
+                break;
+            case FINE_UPDATED:
+                fineQueryStore.update((Fine) event.getPayload());
+                break;
+            case FINE_PAID:
+                fineQueryStore.markAsPaid(event.getId());
+                break;
+            case FINE_DELETED:
+                fineQueryStore.delete(event.getId());
+                break;
+            case PAYMENT_SAVED:
+                paymentQueryStore.save((Payment) event.getPayload());
+                break;
+            case PAYMENT_UPDATED:
+                paymentQueryStore.update((Payment) event.getPayload());
+                break;
+            case PAYMENT_DELETED:
+                paymentQueryStore.delete(event.getId());
+                break;
+            default:
+                throw new IllegalStateException("Unhandled gate event: " + event.getType());
+        }
+    }
+
+    private void writeCheckpoint(Connection conn, long sequence) throws SQLException {
+        String sql = "INSERT OR REPLACE INTO journal_checkpoint (id, last_sequence) VALUES (1, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, sequence);
+            stmt.executeUpdate();
+        }
+    }
+
+    private void markProjected(long sequence) {
+        synchronized (projectionMonitor) {
+            projectedSequence = sequence;
+            projectionMonitor.notifyAll();
+        }
+    }
+
+    private void setProjectionStalled(boolean stalled) {
+        if (projectionStalled != stalled) {
+            synchronized (projectionMonitor) {
+                projectionStalled = stalled;
+                projectionMonitor.notifyAll();
+            }
+        }
+    }
+
+    // Snapshots
+
+    /**
+     * Writes a snapshot of the in-memory state. Once the snapshot covers every journaled
+     * event and SQLite has caught up, the journal is truncated.
+     *
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void snapshot() throws IOException {
+        List<GateEvent> state = new ArrayList<>();
+        long sequence;
+        synchronized (this) {
+            sequence = journal.getLastSequence();
+            spots.values().forEach(s -> state.add(new GateEvent(GateEvent.Type.SPOT_SAVED, EntityCopies.copySpot(s))));
+            activeVehicles.values().forEach(v -> state.add(new GateEvent(GateEvent.Type.VEHICLE_SAVED, EntityCopies.copyVehicle(v))));
+            activeTickets.values().forEach(t -> state.add(new GateEvent(GateEvent.Type.TICKET_SAVED, t)));
+            unpaidFines.values().forEach(f -> state.add(new GateEvent(GateEvent.Type.FINE_SAVED, EntityCopies.copyFine(f))));
+        }
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream(state.size() * 48 + 16);
+        try (DataOutputStream out = new DataOutputStream(body)) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(sequence);
+            out.writeInt(state.size());
+            for (GateEvent event : state) {
+                byte[] payload = event.encodePayload();
+                out.writeByte(event.getType().ordinal());
+                out.writeInt(payload.length);
+                out.write(payload);
+            }
+        }
+        byte[] bytes = body.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+
+        // Write to a temporary file and rename, so a crash never leaves a half-written snapshot
+        Path tempPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+            out.write(bytes);
+            out.writeLong(crc.getValue());
+        }
+        Files.move(tempPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        synchronized (this) {
+            lastSnapshotSequence = sequence;
+            snapshotPending = false;
+            if (journal.getLastSequence() == sequence && projectedSequence >= sequence) {
+                journal.force();
+                journal.reset();
+            }
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException e) {
+            synchronized (this) {
+                snapshotPending = false;
+            }
+            LOG.error("Error writing gate state snapshot", e);
+        }
+    }
+
+    private long loadSnapshot() throws IOException {
+        byte[] bytes = Files.readAllBytes(snapshotPath);
+        if (bytes.length < 24) {
+            throw new IOException("Gate state snapshot is truncated: " + snapshotPath);
+        }
+        int bodyLength = bytes.length - 8;
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bodyLength);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            in.skipBytes(bodyLength);
+            if (in.readLong() != crc.getValue()) {
+                throw new IOException("Gate state snapshot checksum mismatch: " + snapshotPath);
+            }
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, bodyLength))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a gate state snapshot: " + snapshotPath);
+            }
+            long sequence = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                int type = in.readByte();
+                byte[] payload = new byte[in.readInt()];
+                in.readFully(payload);
+                apply(GateEvent.decode(type, sequence, payload));
+            }
+            return sequence;
+        }
+    }
+
+    // Lifecycle
+
+    /**
+     * Drains the projection queue, writes a final snapshot and closes the journal.
+     *
+     * @throws IOException if the journal cannot be flushed
+     */
+    @Override
+    public void close() throws IOException {
+        awaitProjection();
+        running = false;
+        projector.interrupt();
+        try {
+            projector.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        snapshotExecutor.shutdown();
+        try {
+            snapshotExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        snapshot();
+        journal.close();
+    }
+}
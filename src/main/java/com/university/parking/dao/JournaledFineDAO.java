@@ -0,0 +1,73 @@
+package com.university.parking.dao;
+
+import com.university.parking.db.GateEvent;
+import com.university.parking.domain.Fine;
+
+import java.util.List;
+
+/**
+ * FineDAO backed by the event-sourced store.
+ * Writes are journaled; unpaid fines are served from memory and
+ * paid fine history falls through to the SQLite query store.
+ */
+public class JournaledFineDAO implements FineDAO {
+    
+    private final EventSourcedStore store;
+    
+    public JournaledFineDAO(EventSourcedStore store) {
+        this.store = store;
+    }
+    
+    @Override
+    public Fine findById(String fineId) {
+        Fine unpaid = store.findUnpaidFine(fineId);
+        if (unpaid != null) {
+            return unpaid;
+        }
+        store.awaitProjection();
+        return store.getFineQueryStore().findById(fineId);
+    }
+    
+    @Override
+    public List<Fine> findAll() {
+        store.awaitProjection();
+        return store.getFineQueryStore().findAll();
+    }
+    
+    @Override
+    public void save(Fine fine) {
+        store.record(GateEvent.Type.FINE_SAVED, fine);
+    }
+    
+    @Override
+    public void update(Fine fine) {
+        store.record(GateEvent.Type.FINE_UPDATED, fine);
+    }
+    
+    @Override
+    public void delete(String fineId) {
+        store.record(GateEvent.Type.FINE_DELETED, fineId);
+    }
+    
+    @Override
+    public List<Fine> findUnpaidByLicensePlate(String licensePlate) {
+        return store.findUnpaidFines(fine -> fine.getLicensePlate().equals(licensePlate));
+    }
+    
+    @Override
+    public double sumUnpaidByLicensePlate(String licensePlate) {
+        return findUnpaidByLicensePlate(licensePlate).stream()
+                .mapToDouble(Fine::getAmount)
+                .sum();
+    }
+    
+    @Override
+    public List<Fine> findAllUnpaid() {
+        return store.findUnpaidFines(fine -> true);
+    }
+    
+    @Override
+    public void markAsPaid(String fineId) {
+        store.record(GateEvent.Type.FINE_PAID, fineId);
+    }
+}
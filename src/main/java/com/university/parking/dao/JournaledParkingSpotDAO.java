@@ -0,0 +1,87 @@
+package com.university.parking.dao;
+
+import com.university.parking.db.GateEvent;
+import com.university.parking.domain.ParkingSpot;
+import com.university.parking.domain.SpotStatus;
+import com.university.parking.domain.SpotType;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * ParkingSpotDAO backed by the event-sourced store.
+ * Writes are journaled; all reads are served from the in-memory spot state.
+ */
+public class JournaledParkingSpotDAO implements ParkingSpotDAO {
+    
+    private final EventSourcedStore store;
+    
+    public JournaledParkingSpotDAO(EventSourcedStore store) {
+        this.store = store;
+    }
+    
+    @Override
+    public ParkingSpot findById(String spotId) {
+        return store.findSpot(spotId);
+    }
+    
+    @Override
+    public List<ParkingSpot> findAll() {
+        return store.findSpots(spot -> true);
+    }
+    
+    @Override
+    public void save(ParkingSpot spot) {
+        store.record(GateEvent.Type.SPOT_SAVED, spot);
+    }
+    
+    @Override
+    public void update(ParkingSpot spot) {
+        store.record(GateEvent.Type.SPOT_UPDATED, spot);
+    }
+    
+    @Override
+    public void delete(String spotId) {
+        store.record(GateEvent.Type.SPOT_DELETED, spotId);
+    }
+    
+    @Override
+    public List<ParkingSpot> findAvailableByType(SpotType type) {
+        return store.findSpots(spot -> spot.getType() == type && spot.isAvailable());
+    }
+    
+    @Override
+    public ParkingSpot findByVehiclePlate(String licensePlate) {
+        return store.findSpotByPlate(licensePlate);
+    }
+    
+    @Override
+    public void updateStatus(String spotId, SpotStatus status) {
+        store.record(GateEvent.Type.SPOT_STATUS_CHANGED, new String[] { spotId, status.name() });
+    }
+    
+    @Override
+    public List<ParkingSpot> findAllAvailable() {
+        return store.findSpots(ParkingSpot::isAvailable);
+    }
+    
+    @Override
+    public List<ParkingSpot> findByFloorId(String floorId) {
+        String prefix = floorId + "-";
+        return store.findSpots(spot -> spot.getSpotId().startsWith(prefix));
+    }
+    
+    @Override
+    public void applyChanges(List<ParkingSpot> added, List<ParkingSpot> changed, Collection<String> removedIds) {
+        // Journal appends are memory writes, so one event per spot stays cheap
+        for (String spotId : removedIds) {
+            delete(spotId);
+        }
+        for (ParkingSpot spot : changed) {
+            update(spot);
+        }
+        for (ParkingSpot spot : added) {
+            save(spot);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.university.parking.dao;
+
+import com.university.parking.db.GateEvent;
+import com.university.parking.domain.Payment;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * PaymentDAO backed by the event-sourced store.
+ * Payments are history only: writes are journaled and reads go to the
+ * SQLite query store once it has caught up with the journal.
+ */
+public class JournaledPaymentDAO implements PaymentDAO {
+    
+    private final EventSourcedStore store;
+    
+    public JournaledPaymentDAO(EventSourcedStore store) {
+        this.store = store;
+    }
+    
+    @Override
+    public Payment findById(String paymentId) {
+        store.awaitProjection();
+        return store.getPaymentQueryStore().findById(paymentId);
+    }
+    
+    @Override
+    public List<Payment> findAll() {
+        store.awaitProjection();
+        return store.getPaymentQueryStore().findAll();
+    }
+    
+    @Override
+    public void save(Payment payment) {
+        store.record(GateEvent.Type.PAYMENT_SAVED, payment);
+    }
+    
+    @Override
+    public void update(Payment payment) {
+        store.record(GateEvent.Type.PAYMENT_UPDATED, payment);
+    }
+    
+    @Override
+    public void delete(String paymentId) {
+        store.record(GateEvent.Type.PAYMENT_DELETED, paymentId);
+    }
+    
+    @Override
+    public List<Payment> findByLicensePlate(String licensePlate) {
+        store.awaitProjection();
+        return store.getPaymentQueryStore().findByLicensePlate(licensePlate);
+    }
+    
+    @Override
+    public double getTotalRevenue(LocalDate startDate, LocalDate endDate) {
+        store.awaitProjection();
+        return store.getPaymentQueryStore().getTotalRevenue(startDate, endDate);
+    }
+    
+    @Override
+    public List<Payment> findByDateRange(LocalDate startDate, LocalDate endDate) {
+        store.awaitProjection();
+        return store.getPaymentQueryStore().findByDateRange(startDate, endDate);
+    }
+}
@@ -0,0 +1,67 @@
+package com.university.parking.dao;
+
+import com.university.parking.db.GateEvent;
+import com.university.parking.domain.Ticket;
+
+import java.util.List;
+
+/**
+ * TicketDAO backed by the event-sourced store.
+ * Writes are journaled; tickets of parked vehicles are served from memory and
+ * older tickets fall through to the SQLite query store.
+ */
+public class JournaledTicketDAO implements TicketDAO {
+    
+    private final EventSourcedStore store;
+    
+    public JournaledTicketDAO(EventSourcedStore store) {
+        this.store = store;
+    }
+    
+    @Override
+    public Ticket findById(String ticketId) {
+        for (Ticket ticket : store.findActiveTickets()) {
+            if (ticket.getTicketId().equals(ticketId)) {
+                return ticket;
+            }
+        }
+        store.awaitProjection();
+        return store.getTicketQueryStore().findById(ticketId);
+    }
+    
+    @Override
+    public List<Ticket> findAll() {
+        store.awaitProjection();
+        return store.getTicketQueryStore().findAll();
+    }
+    
+    @Override
+    public void save(Ticket ticket) {
+        store.record(GateEvent.Type.TICKET_SAVED, ticket);
+    }
+    
+    @Override
+    public void update(Ticket ticket) {
+        store.record(GateEvent.Type.TICKET_UPDATED, ticket);
+    }
+    
+    @Override
+    public void delete(String ticketId) {
+        store.record(GateEvent.Type.TICKET_DELETED, ticketId);
+    }
+    
+    @Override
+    public Ticket findByLicensePlate(String licensePlate) {
+        Ticket active = store.findActiveTicket(licensePlate);
+        if (active != null) {
+            return active;
+        }
+        store.awaitProjection();
+        return store.getTicketQueryStore().findByLicensePlate(licensePlate);
+    }
+    
+    @Override
+    public List<Ticket> findActiveTickets() {
+        return store.findActiveTickets();
+    }
+}
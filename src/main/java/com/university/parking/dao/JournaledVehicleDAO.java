@@ -0,0 +1,67 @@
+package com.university.parking.dao;
+
+import com.university.parking.db.GateEvent;
+import com.university.parking.domain.Vehicle;
+
+import java.util.List;
+
+/**
+ * VehicleDAO backed by the event-sourced store.
+ * Writes are journaled; parked vehicles are served from memory and
+ * history lookups fall through to the SQLite query store.
+ */
+public class JournaledVehicleDAO implements VehicleDAO {
+    
+    private final EventSourcedStore store;
+    
+    public JournaledVehicleDAO(EventSourcedStore store) {
+        this.store = store;
+    }
+    
+    @Override
+    public Vehicle findById(String licensePlate) {
+        return findByLicensePlate(licensePlate);
+    }
+    
+    @Override
+    public List<Vehicle> findAll() {
+        store.awaitProjection();
+        return store.getVehicleQueryStore().findAll();
+    }
+    
+    @Override
+    public void save(Vehicle vehicle) {
+        store.record(GateEvent.Type.VEHICLE_SAVED, vehicle);
+    }
+    
+    @Override
+    public void update(Vehicle vehicle) {
+        store.record(GateEvent.Type.VEHICLE_UPDATED, vehicle);
+    }
+    
+    @Override
+    public void delete(String licensePlate) {
+        store.record(GateEvent.Type.VEHICLE_DELETED, licensePlate);
+    }
+    
+    @Override
+    public Vehicle findByLicensePlate(String licensePlate) {
+        // A parked vehicle is always the most recent record for its plate
+        Vehicle active = store.findActiveVehicle(licensePlate);
+        if (active != null) {
+            return active;
+        }
+        store.awaitProjection();
+        return store.getVehicleQueryStore().findByLicensePlate(licensePlate);
+    }
+    
+    @Override
+    public Vehicle findActiveByLicensePlate(String licensePlate) {
+        return store.findActiveVehicle(licensePlate);
+    }
+    
+    @Override
+    public List<Vehicle> findCurrentlyParked() {
+        return store.findActiveVehicles();
+    }
+}
@@ -0,0 +1,45 @@
+package com.university.parking.dao;
+
+import com.university.parking.domain.OccupancyBucket;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Data Access Object for downsampled occupancy history.
+ */
+public interface OccupancyHistoryDAO {
+    
+    /**
+     * Saves buckets in one transaction, replacing buckets with the same
+     * resolution, series and start time.
+     * @param buckets the buckets to save
+     */
+    void saveAll(List<OccupancyBucket> buckets);
+    
+    /**
+     * Builds the hour bucket of every series from that hour's minute buckets.
+     * @param hourStart start of the hour
+     * @return the number of hour buckets written
+     */
+    int rollUpHour(LocalDateTime hourStart);
+    
+    /**
+     * Finds the buckets of a series in a time range, oldest first.
+     * @param resolution the aggregation period
+     * @param series the series key
+     * @param from start of the range (inclusive)
+     * @param to end of the range (exclusive)
+     * @return the buckets in the range
+     */
+    List<OccupancyBucket> findRange(OccupancyBucket.Resolution resolution, String series,
+                                    LocalDateTime from, LocalDateTime to);
+    
+    /**
+     * Deletes buckets that start before a cutoff.
+     * @param resolution the aggregation period
+     * @param cutoff buckets starting before this time are deleted
+     * @return the number of buckets deleted
+     */
+    int deleteBefore(OccupancyBucket.Resolution resolution, LocalDateTime cutoff);
+}
@@ -0,0 +1,143 @@
+package com.university.parking.dao;
+
+import com.university.parking.db.DatabaseManager;
+import com.university.parking.domain.OccupancyBucket;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SQLite implementation of OccupancyHistoryDAO.
+ * Buckets live in one WITHOUT ROWID table keyed by resolution, series and start time,
+ * so a range query for one series reads a contiguous run of the primary key.
+ * Writes run in their own transaction, so the sampling thread never shares a connection.
+ */
+public class OccupancyHistoryDAOImpl implements OccupancyHistoryDAO {
+    
+    private final DatabaseManager dbManager;
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    
+    public OccupancyHistoryDAOImpl(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+        createTableIfNotExists();
+    }
+    
+    private void createTableIfNotExists() {
+        String sql = "CREATE TABLE IF NOT EXISTS occupancy_history (" +
+                "resolution TEXT NOT NULL, " +
+                "series TEXT NOT NULL, " +
+                "bucket_start TEXT NOT NULL, " +
+                "avg_occupied REAL NOT NULL, " +
+                "max_occupied INTEGER NOT NULL, " +
+                "capacity INTEGER NOT NULL, " +
+                "PRIMARY KEY (resolution, series, bucket_start)) WITHOUT ROWID";
+        
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to create occupancy_history table", e);
+        }
+    }
+    
+    @Override
+    public void saveAll(List<OccupancyBucket> buckets) {
+        String sql = "INSERT OR REPLACE INTO occupancy_history (resolution, series, bucket_start, " +
+                "avg_occupied, max_occupied, capacity) VALUES (?, ?, ?, ?, ?, ?)";
+        try {
+            dbManager.inTransaction(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (OccupancyBucket bucket : buckets) {
+                        stmt.setString(1, bucket.getResolution().name());
+                        stmt.setString(2, bucket.getSeries());
+                        stmt.setString(3, bucket.getStartTime().format(FORMATTER));
+                        stmt.setDouble(4, bucket.getAverageOccupied());
+                        stmt.setInt(5, bucket.getMaxOccupied());
+                        stmt.setInt(6, bucket.getCapacity());
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Error saving occupancy buckets", e);
+        }
+    }
+    
+    @Override
+    public int rollUpHour(LocalDateTime hourStart) {
+        String sql = "INSERT OR REPLACE INTO occupancy_history (resolution, series, bucket_start, " +
+                "avg_occupied, max_occupied, capacity) " +
+                "SELECT 'HOUR', series, ?, AVG(avg_occupied), MAX(max_occupied), MAX(capacity) " +
+                "FROM occupancy_history WHERE resolution = 'MINUTE' AND bucket_start >= ? AND bucket_start < ? " +
+                "GROUP BY series";
+        try {
+            return dbManager.inTransaction(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    String start = hourStart.format(FORMATTER);
+                    stmt.setString(1, start);
+                    stmt.setString(2, start);
+                    stmt.setString(3, hourStart.plusHours(1).format(FORMATTER));
+                    return stmt.executeUpdate();
+                }
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Error rolling up occupancy for hour: " + hourStart, e);
+        }
+    }
+    
+    @Override
+    public List<OccupancyBucket> findRange(OccupancyBucket.Resolution resolution, String series,
+                                           LocalDateTime from, LocalDateTime to) {
+        List<OccupancyBucket> buckets = new ArrayList<>();
+        String sql = "SELECT * FROM occupancy_history WHERE resolution = ? AND series = ? " +
+                "AND bucket_start >= ? AND bucket_start < ? ORDER BY bucket_start";
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, resolution.name());
+            stmt.setString(2, series);
+            stmt.setString(3, from.format(FORMATTER));
+            stmt.setString(4, to.format(FORMATTER));
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                buckets.add(mapResultSetToBucket(rs));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding occupancy history for series: " + series, e);
+        }
+        return buckets;
+    }
+    
+    @Override
+    public int deleteBefore(OccupancyBucket.Resolution resolution, LocalDateTime cutoff) {
+        String sql = "DELETE FROM occupancy_history WHERE resolution = ? AND bucket_start < ?";
+        try {
+            return dbManager.inTransaction(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setString(1, resolution.name());
+                    stmt.setString(2, cutoff.format(FORMATTER));
+                    return stmt.executeUpdate();
+                }
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Error deleting occupancy history before: " + cutoff, e);
+        }
+    }
+    
+    /**
+     * Maps a ResultSet row to an OccupancyBucket object.
+     */
+    private OccupancyBucket mapResultSetToBucket(ResultSet rs) throws SQLException {
+        return new OccupancyBucket(
+            OccupancyBucket.Resolution.valueOf(rs.getString("resolution")),
+            LocalDateTime.parse(rs.getString("bucket_start"), FORMATTER),
+            rs.getString("series"),
+            rs.getDouble("avg_occupied"),
+            rs.getInt("max_occupied"),
+            rs.getInt("capacity"));
+    }
+}
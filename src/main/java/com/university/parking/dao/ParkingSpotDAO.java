@@ -4,6 +4,7 @@ import com.university.parking.domain.ParkingSpot;
 import com.university.parking.domain.SpotStatus;
 import com.university.parking.domain.SpotType;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -51,4 +52,14 @@ public interface ParkingSpotDAO extends GenericDAO<ParkingSpot, String> {
      * @return list of spots on the specified floor
      */
     List<ParkingSpot> findByFloorId(String floorId);
+    
+    /**
+     * Deletes, updates and inserts spots as one batch per kind, in a single transaction;
+     * either all changes are made or none.
+     * 
+     * @param added the new spots to save
+     * @param changed the existing spots to update
+     * @param removedIds the IDs of the spots to delete
+     */
+    void applyChanges(List<ParkingSpot> added, List<ParkingSpot> changed, Collection<String> removedIds);
 }
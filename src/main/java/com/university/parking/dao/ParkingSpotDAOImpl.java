@@ -7,6 +7,7 @@ import com.university.parking.domain.SpotType;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -15,6 +16,14 @@ import java.util.List;
  */
 public class ParkingSpotDAOImpl implements ParkingSpotDAO {
     
+    private static final String INSERT_SQL =
+        "INSERT INTO parking_spot (spot_id, floor_id, type, status, hourly_rate, current_vehicle_plate) " +
+        "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_SQL =
+        "UPDATE parking_spot SET type = ?, status = ?, hourly_rate = ?, current_vehicle_plate = ? " +
+        "WHERE spot_id = ?";
+    private static final String DELETE_SQL = "DELETE FROM parking_spot WHERE spot_id = ?";
+    
     private final DatabaseManager dbManager;
     
     public ParkingSpotDAOImpl(DatabaseManager dbManager) {
@@ -56,16 +65,9 @@ public class ParkingSpotDAOImpl implements ParkingSpotDAO {
     
     @Override
     public void save(ParkingSpot spot) {
-        String sql = "INSERT INTO parking_spot (spot_id, floor_id, type, status, hourly_rate, current_vehicle_plate) " +
-                     "VALUES (?, ?, ?, ?, ?, ?)";
         try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, spot.getSpotId());
-            stmt.setString(2, extractFloorId(spot.getSpotId()));
-            stmt.setString(3, spot.getType().name());
-            stmt.setString(4, spot.getStatus().name());
-            stmt.setDouble(5, spot.getHourlyRate());
-            stmt.setString(6, spot.getCurrentVehiclePlate());
+             PreparedStatement stmt = conn.prepareStatement(INSERT_SQL)) {
+            bindInsert(stmt, spot);
             stmt.executeUpdate();
         } catch (SQLException e) {
             throw new RuntimeException("Error saving parking spot: " + spot.getSpotId(), e);
@@ -74,15 +76,9 @@ public class ParkingSpotDAOImpl implements ParkingSpotDAO {
     
     @Override
     public void update(ParkingSpot spot) {
-        String sql = "UPDATE parking_spot SET type = ?, status = ?, hourly_rate = ?, current_vehicle_plate = ? " +
-                     "WHERE spot_id = ?";
         try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, spot.getType().name());
-            stmt.setString(2, spot.getStatus().name());
-            stmt.setDouble(3, spot.getHourlyRate());
-            stmt.setString(4, spot.getCurrentVehiclePlate());
-            stmt.setString(5, spot.getSpotId());
+             PreparedStatement stmt = conn.prepareStatement(UPDATE_SQL)) {
+            bindUpdate(stmt, spot);
             stmt.executeUpdate();
         } catch (SQLException e) {
             throw new RuntimeException("Error updating parking spot: " + spot.getSpotId(), e);
@@ -91,9 +87,8 @@ public class ParkingSpotDAOImpl implements ParkingSpotDAO {
     
     @Override
     public void delete(String spotId) {
-        String sql = "DELETE FROM parking_spot WHERE spot_id = ?";
         try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(DELETE_SQL)) {
             stmt.setString(1, spotId);
             stmt.executeUpdate();
         } catch (SQLException e) {
@@ -101,6 +96,36 @@ public class ParkingSpotDAOImpl implements ParkingSpotDAO {
         }
     }
     
+    @Override
+    public void applyChanges(List<ParkingSpot> added, List<ParkingSpot> changed, Collection<String> removedIds) {
+        try {
+            dbManager.inTransaction(conn -> {
+                try (PreparedStatement delete = conn.prepareStatement(DELETE_SQL);
+                     PreparedStatement update = conn.prepareStatement(UPDATE_SQL);
+                     PreparedStatement insert = conn.prepareStatement(INSERT_SQL)) {
+                    for (String spotId : removedIds) {
+                        delete.setString(1, spotId);
+                        delete.addBatch();
+                    }
+                    for (ParkingSpot spot : changed) {
+                        bindUpdate(update, spot);
+                        update.addBatch();
+                    }
+                    for (ParkingSpot spot : added) {
+                        bindInsert(insert, spot);
+                        insert.addBatch();
+                    }
+                    delete.executeBatch();
+                    update.executeBatch();
+                    insert.executeBatch();
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Error applying parking spot changes", e);
+        }
+    }
+    
     @Override
     public List<ParkingSpot> findAvailableByType(SpotType type) {
         List<ParkingSpot> spots = new ArrayList<>();
@@ -180,6 +205,23 @@ public class ParkingSpotDAOImpl implements ParkingSpotDAO {
         return spots;
     }
     
+    private void bindInsert(PreparedStatement stmt, ParkingSpot spot) throws SQLException {
+        stmt.setString(1, spot.getSpotId());
+        stmt.setString(2, extractFloorId(spot.getSpotId()));
+        stmt.setString(3, spot.getType().name());
+        stmt.setString(4, spot.getStatus().name());
+        stmt.setDouble(5, spot.getHourlyRate());
+        stmt.setString(6, spot.getCurrentVehiclePlate());
+    }
+    
+    private void bindUpdate(PreparedStatement stmt, ParkingSpot spot) throws SQLException {
+        stmt.setString(1, spot.getType().name());
+        stmt.setString(2, spot.getStatus().name());
+        stmt.setDouble(3, spot.getHourlyRate());
+        stmt.setString(4, spot.getCurrentVehiclePlate());
+        stmt.setString(5, spot.getSpotId());
+    }
+    
     /**
      * Maps a ResultSet row to a ParkingSpot object.
      */
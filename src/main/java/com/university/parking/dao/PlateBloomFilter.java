@@ -0,0 +1,306 @@
+package com.university.parking.dao;
+
+import com.university.parking.log.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bloom filter over a set of license plates, such as "plates with unpaid fines".
+ * A negative answer is definite, so DAOs can skip the database for the common
+ * case of a plate that is not in the set.
+ *
+ * Bloom filters cannot delete, so plates leaving the set (exit, payment) stay in the
+ * filter as stale positives that fall through to the database. Once stale plates
+ * make up half of the filter it is rebuilt from the source in the background.
+ * Plates added during a rebuild go into both filters, so no plate is ever missed.
+ */
+public class PlateBloomFilter {
+
+    private static final Logger LOG = Logger.get(PlateBloomFilter.class);
+
+    private static final double DEFAULT_FALSE_POSITIVE_PROBABILITY = 0.01;
+    private static final int MIN_EXPECTED_PLATES = 1024;
+
+    private final String name;
+    private final Supplier<Collection<String>> source;
+    private final double falsePositiveProbability;
+    private final ExecutorService rebuilder;
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final Object rebuildLock = new Object();
+    private volatile Bits current;
+    private volatile Bits next;
+    private final AtomicLong stale = new AtomicLong();
+
+    // Metrics
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder passed = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final AtomicLong rebuilds = new AtomicLong();
+
+    /**
+     * Creates a filter with a 1% target false-positive rate.
+     * Call {@link #rebuild()} to load it before use; until then every plate passes.
+     *
+     * @param name the name shown in metrics
+     * @param source loads every plate currently in the set
+     */
+    public PlateBloomFilter(String name, Supplier<Collection<String>> source) {
+        this(name, source, DEFAULT_FALSE_POSITIVE_PROBABILITY);
+    }
+
+    /**
+     * Creates a filter with a custom target false-positive rate.
+     *
+     * @param name the name shown in metrics
+     * @param source loads every plate currently in the set
+     * @param falsePositiveProbability the target false-positive rate at full capacity
+     */
+    public PlateBloomFilter(String name, Supplier<Collection<String>> source, double falsePositiveProbability) {
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("False-positive probability must be between 0 and 1");
+        }
+        this.name = name;
+        this.source = source;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.rebuilder = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "plate-filter-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Rebuilds the filter from the source. Runs on the calling thread.
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            Bits building = null;
+            try {
+                long previous = current != null ? current.insertions.get() - stale.get() : 0;
+                building = new Bits(Math.max(MIN_EXPECTED_PLATES, previous * 2), falsePositiveProbability);
+                // Publish first: plates added while the source is read land in both filters
+                next = building;
+                long staleBefore = stale.get();
+                for (String plate : source.get()) {
+                    building.add(plate);
+                }
+                current = building;
+                stale.addAndGet(-staleBefore);
+                rebuilds.incrementAndGet();
+            } catch (RuntimeException e) {
+                LOG.error("Error rebuilding plate filter {}", name, e);
+            } finally {
+                if (next == building) {
+                    next = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether the plate may be in the set.
+     *
+     * @param plate the license plate
+     * @return false if the plate is definitely not in the set
+     */
+    public boolean mightContain(String plate) {
+        Bits bits = current;
+        if (bits == null || bits.mightContain(plate)) {
+            passed.increment();
+            return true;
+        }
+        skipped.increment();
+        return false;
+    }
+
+    /**
+     * Adds a plate that entered the set. Call after the database write has committed:
+     * a rebuild reads committed plates only, so a plate added before its write commits
+     * must be added again afterwards. Adding a plate twice is harmless.
+     *
+     * @param plate the license plate
+     */
+    public void add(String plate) {
+        // Read the rebuild target before the current filter: if no rebuild is running yet,
+        // its source read starts after the commit and sees this plate; if one just finished,
+        // current is the new filter
+        Bits building = next;
+        Bits bits = current;
+        if (building != null && building != bits) {
+            building.add(plate);
+        }
+        if (bits != null) {
+            bits.add(plate);
+            if (bits.insertions.get() > bits.expectedInsertions) {
+                scheduleRebuild();
+            }
+        }
+    }
+
+    /**
+     * Notes that a plate left the set. Its bits stay set until the next rebuild.
+     */
+    public void recordRemoval() {
+        Bits bits = current;
+        long staleCount = stale.incrementAndGet();
+        if (bits != null && staleCount * 2 > Math.max(MIN_EXPECTED_PLATES / 4, bits.insertions.get())) {
+            scheduleRebuild();
+        }
+    }
+
+    /**
+     * Notes that a plate passed the filter but the database found nothing.
+     */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                rebuildScheduled.set(false);
+                rebuild();
+            });
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getSkippedLookups() {
+        return skipped.sum();
+    }
+
+    public long getFalsePositiveCount() {
+        return falsePositives.sum();
+    }
+
+    public long getRebuildCount() {
+        return rebuilds.get();
+    }
+
+    /**
+     * Gets the observed false-positive rate: of the lookups for plates not in the set,
+     * the fraction the filter let through to the database.
+     *
+     * @return the observed rate (0.0 to 1.0), or 0 if there were no such lookups
+     */
+    public double getFalsePositiveRate() {
+        long fp = falsePositives.sum();
+        long negatives = fp + skipped.sum();
+        return negatives == 0 ? 0.0 : (double) fp / negatives;
+    }
+
+    /**
+     * Gets the false-positive rate predicted from the filter's current fill.
+     *
+     * @return the expected rate (0.0 to 1.0)
+     */
+    public double getExpectedFalsePositiveRate() {
+        Bits bits = current;
+        return bits == null ? 1.0 : bits.expectedFalsePositiveRate();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PlateBloomFilter{name=%s, skipped=%d, passed=%d, fpRate=%.2f%%, expectedFpRate=%.2f%%, rebuilds=%d}",
+                name, getSkippedLookups(), passed.sum(), getFalsePositiveRate() * 100,
+                getExpectedFalsePositiveRate() * 100, getRebuildCount());
+    }
+
+    /**
+     * The bit array and hash parameters of one filter generation.
+     */
+    private static final class Bits {
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final int hashCount;
+        private final long expectedInsertions;
+        private final AtomicLong insertions = new AtomicLong();
+
+        private Bits(long expectedInsertions, double falsePositiveProbability) {
+            // Standard sizing: m = -n ln p / (ln 2)^2, k = m / n ln 2
+            long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability)
+                                         / (Math.log(2) * Math.log(2)));
+            int wordCount = (int) Math.max(1, (bits + 63) / 64);
+            this.words = new AtomicLongArray(wordCount);
+            this.bitCount = wordCount * 64L;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+            this.expectedInsertions = expectedInsertions;
+        }
+
+        private void add(String plate) {
+            long hash = hash(plate);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            boolean changed = false;
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+                changed |= setBit(bit);
+            }
+            // A plate added again sets no new bit and does not fill the filter further
+            if (changed) {
+                insertions.incrementAndGet();
+            }
+        }
+
+        private boolean mightContain(String plate) {
+            long hash = hash(plate);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Sets a bit.
+         *
+         * @return false if it was set already
+         */
+        private boolean setBit(long bit) {
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word;
+            do {
+                word = words.get(index);
+                if ((word & mask) != 0) {
+                    return false;
+                }
+            } while (!words.compareAndSet(index, word, word | mask));
+            return true;
+        }
+
+        private double expectedFalsePositiveRate() {
+            return Math.pow(1 - Math.exp(-hashCount * (double) insertions.get() / bitCount), hashCount);
+        }
+
+        /**
+         * 64-bit FNV-1a followed by a finalizer, split into two 32-bit hashes.
+         */
+        private static long hash(String plate) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : plate.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b;
+                hash *= 0x100000001b3L;
+            }
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package com.university.parking.dao;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Bounded, concurrent cache of per-plate lookup results with W-TinyLFU eviction.
+ *
+ * New entries enter a small LRU window (1% of the capacity). When the window
+ * overflows, its oldest entry competes with the main region's eviction victim and
+ * only the one requested more often (per a {@link FrequencySketch}) is kept. The
+ * main region is a segmented LRU: entries hit again move from probation to protected.
+ * One-off plates therefore cannot flush out plates that come back every day.
+ *
+ * Lookups are lock-free; accesses are buffered and replayed under a lock.
+ * Absent results (for example "no active vehicle") are cached as well.
+ *
+ * @param <V> the cached value type
+ */
+public class PlateCache<V> {
+
+    private static final int READ_BUFFER_SIZE = 128;
+    private static final int READ_DRAIN_THRESHOLD = 32;
+
+    private enum Region { WINDOW, PROBATION, PROTECTED, REMOVED }
+
+    private final String name;
+    private final int maximumSize;
+    private final int windowMaximum;
+    private final int protectedMaximum;
+    private final ConcurrentHashMap<String, Node<V>> data = new ConcurrentHashMap<>();
+    private final ArrayBlockingQueue<Node<V>> readBuffer = new ArrayBlockingQueue<>(READ_BUFFER_SIZE);
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final FrequencySketch sketch;
+    // Bumped by every invalidation; a load that raced with one is not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    // Access order of each region, oldest first (guarded by evictionLock)
+    private final LinkedHashSet<Node<V>> window = new LinkedHashSet<>();
+    private final LinkedHashSet<Node<V>> probation = new LinkedHashSet<>();
+    private final LinkedHashSet<Node<V>> protectedRegion = new LinkedHashSet<>();
+
+    // Metrics
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache.
+     *
+     * @param name the name shown in metrics
+     * @param maximumSize the maximum number of cached plates
+     */
+    public PlateCache(String name, int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+        this.name = name;
+        this.maximumSize = maximumSize;
+        this.windowMaximum = Math.max(1, maximumSize / 100);
+        this.protectedMaximum = (maximumSize - windowMaximum) * 4 / 5;
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    /**
+     * Returns the cached value for the plate, loading and caching it on a miss.
+     *
+     * @param plate the license plate
+     * @param loader loads the value from the underlying DAO; may return null
+     * @return the cached or loaded value
+     */
+    public V get(String plate, Function<String, V> loader) {
+        Node<V> node = data.get(plate);
+        if (node != null) {
+            hits.increment();
+            recordRead(node);
+            return node.value;
+        }
+        misses.increment();
+        long epoch = invalidations.get();
+        V value = loader.apply(plate);
+        put(plate, value, epoch);
+        return value;
+    }
+
+    /**
+     * Removes the cached value for the plate. Called after every write that affects it.
+     *
+     * @param plate the license plate
+     */
+    public void invalidate(String plate) {
+        invalidations.incrementAndGet();
+        evictionLock.lock();
+        try {
+            Node<V> node = data.remove(plate);
+            if (node != null) {
+                unlink(node);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Removes every cached value matching the predicate.
+     * Used by writes that only know an entity ID, not its plate.
+     *
+     * @param predicate selects the values to remove
+     */
+    public void invalidateIf(Predicate<V> predicate) {
+        invalidations.incrementAndGet();
+        evictionLock.lock();
+        try {
+            Iterator<Map.Entry<String, Node<V>>> it = data.entrySet().iterator();
+            while (it.hasNext()) {
+                Node<V> node = it.next().getValue();
+                if (node.value != null && predicate.test(node.value)) {
+                    it.remove();
+                    unlink(node);
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Removes all cached values.
+     */
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        evictionLock.lock();
+        try {
+            data.clear();
+            readBuffer.clear();
+            for (Node<V> node : window) {
+                node.region = Region.REMOVED;
+            }
+            for (Node<V> node : probation) {
+                node.region = Region.REMOVED;
+            }
+            for (Node<V> node : protectedRegion) {
+                node.region = Region.REMOVED;
+            }
+            window.clear();
+            probation.clear();
+            protectedRegion.clear();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public int size() {
+        return data.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Gets the fraction of lookups served from the cache.
+     *
+     * @return the hit rate (0.0 to 1.0), or 0 if there were no lookups
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PlateCache{name=%s, size=%d/%d, hitRate=%.1f%%, hits=%d, misses=%d, evictions=%d}",
+                name, size(), maximumSize, getHitRate() * 100, getHitCount(), getMissCount(), getEvictionCount());
+    }
+
+    // Policy (all methods below run under evictionLock unless noted)
+
+    private void put(String plate, V value, long epoch) {
+        evictionLock.lock();
+        try {
+            if (invalidations.get() != epoch) {
+                // A write happened while loading; the value may already be stale
+                return;
+            }
+            drainReads();
+            Node<V> node = new Node<>(plate, value);
+            Node<V> previous = data.put(plate, node);
+            if (previous != null) {
+                unlink(previous);
+            }
+            sketch.increment(plate);
+            node.region = Region.WINDOW;
+            window.add(node);
+            evict();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Buffers a hit for replay; runs without the lock. Hits are dropped when the
+     * buffer is full, which only makes the frequency estimate slightly less precise.
+     */
+    private void recordRead(Node<V> node) {
+        readBuffer.offer(node);
+        if (readBuffer.size() >= READ_DRAIN_THRESHOLD && evictionLock.tryLock()) {
+            try {
+                drainReads();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    private void drainReads() {
+        Node<V> node;
+        while ((node = readBuffer.poll()) != null) {
+            if (node.region == Region.REMOVED) {
+                continue;
+            }
+            sketch.increment(node.key);
+            onAccess(node);
+        }
+    }
+
+    private void onAccess(Node<V> node) {
+        switch (node.region) {
+            case WINDOW:
+                moveToTail(window, node);
+                break;
+            case PROBATION:
+                // A second hit in the main region earns protection
+                probation.remove(node);
+                node.region = Region.PROTECTED;
+                protectedRegion.add(node);
+                while (protectedRegion.size() > protectedMaximum) {
+                    Node<V> demoted = pollFirst(protectedRegion);
+                    demoted.region = Region.PROBATION;
+                    probation.add(demoted);
+                }
+                break;
+            case PROTECTED:
+                moveToTail(protectedRegion, node);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void evict() {
+        while (window.size() > windowMaximum) {
+            Node<V> candidate = pollFirst(window);
+            if (probation.size() + protectedRegion.size() < maximumSize - windowMaximum) {
+                candidate.region = Region.PROBATION;
+                probation.add(candidate);
+                continue;
+            }
+            Node<V> victim = first(probation.isEmpty() ? protectedRegion : probation);
+            // TinyLFU admission: keep whichever plate is requested more often
+            if (victim != null && sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                evictNode(victim);
+                candidate.region = Region.PROBATION;
+                probation.add(candidate);
+            } else {
+                candidate.region = Region.PROBATION;
+                evictNode(candidate);
+            }
+        }
+    }
+
+    private void evictNode(Node<V> node) {
+        unlink(node);
+        data.remove(node.key, node);
+        evictions.increment();
+    }
+
+    private void unlink(Node<V> node) {
+        switch (node.region) {
+            case WINDOW:
+                window.remove(node);
+                break;
+            case PROBATION:
+                probation.remove(node);
+                break;
+            case PROTECTED:
+                protectedRegion.remove(node);
+                break;
+            default:
+                break;
+        }
+        node.region = Region.REMOVED;
+    }
+
+    private static <V> void moveToTail(LinkedHashSet<Node<V>> region, Node<V> node) {
+        region.remove(node);
+        region.add(node);
+    }
+
+    private static <V> Node<V> first(LinkedHashSet<Node<V>> region) {
+        return region.isEmpty() ? null : region.iterator().next();
+    }
+
+    private static <V> Node<V> pollFirst(LinkedHashSet<Node<V>> region) {
+        Node<V> node = first(region);
+        if (node != null) {
+            region.remove(node);
+        }
+        return node;
+    }
+
+    /**
+     * A cached value. Identity equality keeps replaced nodes distinct.
+     */
+    private static final class Node<V> {
+        private final String key;
+        private final V value;
+        private volatile Region region;
+
+        private Node(String key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
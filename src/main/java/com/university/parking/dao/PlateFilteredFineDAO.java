@@ -0,0 +1,99 @@
+package com.university.parking.dao;
+
+import com.university.parking.db.DatabaseManager;
+import com.university.parking.domain.Fine;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * FineDAO that answers "does this plate owe fines?" from a Bloom filter first.
+ * Most plates have no unpaid fines, so entry checks and exit previews usually
+ * skip the database. Like {@link PlateFilteredVehicleDAO}, a plate fined inside a
+ * transaction is added again once it ends.
+ */
+public class PlateFilteredFineDAO implements FineDAO {
+    
+    private final FineDAO delegate;
+    private final PlateBloomFilter finedPlates;
+    private final DatabaseManager dbManager;
+    
+    public PlateFilteredFineDAO(FineDAO delegate, PlateBloomFilter finedPlates, DatabaseManager dbManager) {
+        this.delegate = delegate;
+        this.finedPlates = finedPlates;
+        this.dbManager = dbManager;
+    }
+    
+    @Override
+    public Fine findById(String fineId) {
+        return delegate.findById(fineId);
+    }
+    
+    @Override
+    public List<Fine> findAll() {
+        return delegate.findAll();
+    }
+    
+    @Override
+    public void save(Fine fine) {
+        delegate.save(fine);
+        track(fine);
+    }
+    
+    @Override
+    public void update(Fine fine) {
+        delegate.update(fine);
+        track(fine);
+    }
+    
+    @Override
+    public void delete(String fineId) {
+        delegate.delete(fineId);
+        finedPlates.recordRemoval();
+    }
+    
+    @Override
+    public List<Fine> findUnpaidByLicensePlate(String licensePlate) {
+        if (!finedPlates.mightContain(licensePlate)) {
+            return Collections.emptyList();
+        }
+        List<Fine> fines = delegate.findUnpaidByLicensePlate(licensePlate);
+        if (fines.isEmpty()) {
+            finedPlates.recordFalsePositive();
+        }
+        return fines;
+    }
+    
+    @Override
+    public double sumUnpaidByLicensePlate(String licensePlate) {
+        if (!finedPlates.mightContain(licensePlate)) {
+            return 0.0;
+        }
+        double total = delegate.sumUnpaidByLicensePlate(licensePlate);
+        if (total == 0.0) {
+            finedPlates.recordFalsePositive();
+        }
+        return total;
+    }
+    
+    @Override
+    public List<Fine> findAllUnpaid() {
+        return delegate.findAllUnpaid();
+    }
+    
+    @Override
+    public void markAsPaid(String fineId) {
+        delegate.markAsPaid(fineId);
+        finedPlates.recordRemoval();
+    }
+    
+    private void track(Fine fine) {
+        if (fine.isPaid()) {
+            finedPlates.recordRemoval();
+        } else {
+            String licensePlate = fine.getLicensePlate();
+            finedPlates.add(licensePlate);
+            dbManager.afterTransaction(() -> finedPlates.add(licensePlate));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.university.parking.dao;
+
+import com.university.parking.db.DatabaseManager;
+import com.university.parking.domain.Vehicle;
+
+import java.util.List;
+
+/**
+ * VehicleDAO that answers "is this plate parked?" from a Bloom filter first.
+ * Most arriving plates are not parked, so entry checks usually skip the database.
+ * A plate parked inside a transaction is added again once it ends: a filter rebuild
+ * reads committed plates only, so until then it would miss the plate.
+ */
+public class PlateFilteredVehicleDAO implements VehicleDAO {
+    
+    private final VehicleDAO delegate;
+    private final PlateBloomFilter parkedPlates;
+    private final DatabaseManager dbManager;
+    
+    public PlateFilteredVehicleDAO(VehicleDAO delegate, PlateBloomFilter parkedPlates, DatabaseManager dbManager) {
+        this.delegate = delegate;
+        this.parkedPlates = parkedPlates;
+        this.dbManager = dbManager;
+    }
+    
+    @Override
+    public Vehicle findById(String licensePlate) {
+        return delegate.findById(licensePlate);
+    }
+    
+    @Override
+    public List<Vehicle> findAll() {
+        return delegate.findAll();
+    }
+    
+    @Override
+    public void save(Vehicle vehicle) {
+        delegate.save(vehicle);
+        track(vehicle);
+    }
+    
+    @Override
+    public void update(Vehicle vehicle) {
+        delegate.update(vehicle);
+        track(vehicle);
+    }
+    
+    @Override
+    public void delete(String licensePlate) {
+        delegate.delete(licensePlate);
+        parkedPlates.recordRemoval();
+    }
+    
+    @Override
+    public Vehicle findByLicensePlate(String licensePlate) {
+        return delegate.findByLicensePlate(licensePlate);
+    }
+    
+    @Override
+    public Vehicle findActiveByLicensePlate(String licensePlate) {
+        if (!parkedPlates.mightContain(licensePlate)) {
+            return null;
+        }
+        Vehicle vehicle = delegate.findActiveByLicensePlate(licensePlate);
+        if (vehicle == null) {
+            parkedPlates.recordFalsePositive();
+        }
+        return vehicle;
+    }
+    
+    @Override
+    public List<Vehicle> findCurrentlyParked() {
+        return delegate.findCurrentlyParked();
+    }
+    
+    private void track(Vehicle vehicle) {
+        if (vehicle.getExitTime() == null) {
+            String licensePlate = vehicle.getLicensePlate();
+            parkedPlates.add(licensePlate);
+            dbManager.afterTransaction(() -> parkedPlates.add(licensePlate));
+        } else {
+            parkedPlates.recordRemoval();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.university.parking.dao;
 import com.university.parking.domain.Reservation;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -39,6 +40,26 @@ public interface ReservationDAO extends GenericDAO<Reservation, String> {
      */
     List<Reservation> findExpiredPending();
     
+    /**
+     * Saves several reservations in one transaction; either all are saved or none.
+     * @param reservations the reservations to save
+     */
+    void saveAll(List<Reservation> reservations);
+    
+    /**
+     * Finds all reservations that are still open (pending or confirmed).
+     * @return list of open reservations
+     */
+    List<Reservation> findOpen();
+    
+    /**
+     * Marks the given reservations as expired in one statement.
+     * Reservations that are no longer pending or confirmed are left unchanged.
+     * @param reservationIds the reservation IDs
+     * @return the number of reservations expired
+     */
+    int expireAll(Collection<String> reservationIds);
+    
     /**
      * Updates the status of a reservation.
      * @param reservationId the reservation ID
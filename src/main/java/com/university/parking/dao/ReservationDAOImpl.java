@@ -3,11 +3,14 @@ package com.university.parking.dao;
 import com.university.parking.db.DatabaseManager;
 import com.university.parking.domain.Reservation;
 import com.university.parking.domain.ReservationStatus;
+import com.university.parking.log.Logger;
 
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -16,8 +19,12 @@ import java.util.List;
  */
 public class ReservationDAOImpl implements ReservationDAO {
     
+    private static final Logger LOG = Logger.get(ReservationDAOImpl.class);
+    
     private final DatabaseManager dbManager;
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    // Stays below SQLite's default limit of 999 bound parameters per statement
+    private static final int MAX_IDS_PER_STATEMENT = 900;
     
     public ReservationDAOImpl(DatabaseManager dbManager) {
         this.dbManager = dbManager;
@@ -59,13 +66,40 @@ public class ReservationDAOImpl implements ReservationDAO {
             stmt.setString(7, reservation.getStatus().name());
             stmt.executeUpdate();
             
-            System.out.println("DEBUG: Reservation saved: " + reservation.getReservationId());
+            LOG.debug("Reservation saved: {}", reservation.getReservationId());
         } catch (SQLException e) {
-            System.err.println("DEBUG: Failed to save reservation: " + e.getMessage());
+            LOG.debug("Failed to save reservation {}: {}", reservation.getReservationId(), e.getMessage());
             throw new RuntimeException("Failed to save reservation", e);
         }
     }
     
+    @Override
+    public void saveAll(List<Reservation> reservations) {
+        String sql = "INSERT INTO reservation (reservation_id, license_plate, spot_id, " +
+                "reservation_time, start_time, end_time, status) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        
+        try {
+            dbManager.inTransaction(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (Reservation reservation : reservations) {
+                        stmt.setString(1, reservation.getReservationId());
+                        stmt.setString(2, reservation.getLicensePlate());
+                        stmt.setString(3, reservation.getSpotId());
+                        stmt.setString(4, reservation.getReservationTime().format(FORMATTER));
+                        stmt.setString(5, reservation.getStartTime().format(FORMATTER));
+                        stmt.setString(6, reservation.getEndTime().format(FORMATTER));
+                        stmt.setString(7, reservation.getStatus().name());
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to save reservations", e);
+        }
+    }
+    
     @Override
     public Reservation findById(String reservationId) {
         String sql = "SELECT * FROM reservation WHERE reservation_id = ?";
@@ -117,10 +151,9 @@ public class ReservationDAOImpl implements ReservationDAO {
             
             int rowsAffected = stmt.executeUpdate();
             
-            System.out.println("DEBUG: Reservation updated: " + reservation.getReservationId() + 
-                             " (rows affected: " + rowsAffected + ")");
+            LOG.debug("Reservation updated: {} (rows affected: {})", reservation.getReservationId(), rowsAffected);
         } catch (SQLException e) {
-            System.err.println("DEBUG: Failed to update reservation: " + e.getMessage());
+            LOG.debug("Failed to update reservation {}: {}", reservation.getReservationId(), e.getMessage());
             throw new RuntimeException("Failed to update reservation", e);
         }
     }
@@ -219,6 +252,46 @@ public class ReservationDAOImpl implements ReservationDAO {
         return reservations;
     }
     
+    @Override
+    public List<Reservation> findOpen() {
+        String sql = "SELECT * FROM reservation WHERE status IN ('PENDING', 'CONFIRMED')";
+        List<Reservation> reservations = new ArrayList<>();
+        
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                reservations.add(mapResultSet(rs));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to find open reservations", e);
+        }
+        return reservations;
+    }
+    
+    @Override
+    public int expireAll(Collection<String> reservationIds) {
+        List<String> ids = new ArrayList<>(reservationIds);
+        int expired = 0;
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_STATEMENT) {
+            List<String> chunk = ids.subList(from, Math.min(ids.size(), from + MAX_IDS_PER_STATEMENT));
+            String sql = "UPDATE reservation SET status = 'EXPIRED' " +
+                    "WHERE status IN ('PENDING', 'CONFIRMED') AND reservation_id IN (" +
+                    String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+            
+            try (Connection conn = dbManager.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setString(i + 1, chunk.get(i));
+                }
+                expired += stmt.executeUpdate();
+            } catch (SQLException e) {
+                throw new RuntimeException("Failed to expire reservations", e);
+            }
+        }
+        return expired;
+    }
+    
     @Override
     public void updateStatus(String reservationId, String status) {
         String sql = "UPDATE reservation SET status = ? WHERE reservation_id = ?";
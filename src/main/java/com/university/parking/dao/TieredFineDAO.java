@@ -0,0 +1,71 @@
+package com.university.parking.dao;
+
+import com.university.parking.db.HistoryArchive;
+import com.university.parking.domain.Fine;
+
+import java.util.List;
+
+/**
+ * FineDAO spanning the main database and the monthly archives.
+ * Only paid fines are archived, so unpaid-fine lookups stay on the main database.
+ */
+public class TieredFineDAO implements FineDAO {
+    
+    private final FineDAO delegate;
+    private final HistoryArchive archive;
+    
+    public TieredFineDAO(FineDAO delegate, HistoryArchive archive) {
+        this.delegate = delegate;
+        this.archive = archive;
+    }
+    
+    @Override
+    public Fine findById(String fineId) {
+        Fine fine = delegate.findById(fineId);
+        if (fine != null) {
+            return fine;
+        }
+        return archive.queryNewest(db -> new FineDAOImpl(db).findById(fineId));
+    }
+    
+    @Override
+    public List<Fine> findAll() {
+        return TieredResults.merge(delegate.findAll(),
+                archive.queryAll(db -> new FineDAOImpl(db).findAll()), Fine::getFineId);
+    }
+    
+    @Override
+    public void save(Fine fine) {
+        delegate.save(fine);
+    }
+    
+    @Override
+    public void update(Fine fine) {
+        delegate.update(fine);
+    }
+    
+    @Override
+    public void delete(String fineId) {
+        delegate.delete(fineId);
+    }
+    
+    @Override
+    public List<Fine> findUnpaidByLicensePlate(String licensePlate) {
+        return delegate.findUnpaidByLicensePlate(licensePlate);
+    }
+    
+    @Override
+    public double sumUnpaidByLicensePlate(String licensePlate) {
+        return delegate.sumUnpaidByLicensePlate(licensePlate);
+    }
+    
+    @Override
+    public List<Fine> findAllUnpaid() {
+        return delegate.findAllUnpaid();
+    }
+    
+    @Override
+    public void markAsPaid(String fineId) {
+        delegate.markAsPaid(fineId);
+    }
+}
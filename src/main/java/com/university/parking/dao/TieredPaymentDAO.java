@@ -0,0 +1,83 @@
+package com.university.parking.dao;
+
+import com.university.parking.db.HistoryArchive;
+import com.university.parking.domain.Payment;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * PaymentDAO spanning the main database and the monthly archives.
+ * Writes go to the main database; history and revenue queries also read the archive
+ * partitions, and only those whose month overlaps the requested date range.
+ */
+public class TieredPaymentDAO implements PaymentDAO {
+    
+    private final PaymentDAO delegate;
+    private final HistoryArchive archive;
+    
+    public TieredPaymentDAO(PaymentDAO delegate, HistoryArchive archive) {
+        this.delegate = delegate;
+        this.archive = archive;
+    }
+    
+    @Override
+    public Payment findById(String paymentId) {
+        Payment payment = delegate.findById(paymentId);
+        if (payment != null) {
+            return payment;
+        }
+        return archive.queryNewest(db -> new PaymentDAOImpl(db).findById(paymentId));
+    }
+    
+    @Override
+    public List<Payment> findAll() {
+        return TieredResults.merge(delegate.findAll(),
+                archive.queryAll(db -> new PaymentDAOImpl(db).findAll()), Payment::getPaymentId);
+    }
+    
+    @Override
+    public void save(Payment payment) {
+        delegate.save(payment);
+    }
+    
+    @Override
+    public void update(Payment payment) {
+        delegate.update(payment);
+    }
+    
+    @Override
+    public void delete(String paymentId) {
+        delegate.delete(paymentId);
+    }
+    
+    @Override
+    public List<Payment> findByLicensePlate(String licensePlate) {
+        return TieredResults.merge(delegate.findByLicensePlate(licensePlate),
+                archive.queryAll(db -> new PaymentDAOImpl(db).findByLicensePlate(licensePlate)),
+                Payment::getPaymentId);
+    }
+    
+    @Override
+    public double getTotalRevenue(LocalDate startDate, LocalDate endDate) {
+        List<List<Payment>> archived = archive.queryRange(startDate, endDate,
+                db -> new PaymentDAOImpl(db).findByDateRange(startDate, endDate));
+        if (archived.isEmpty()) {
+            return delegate.getTotalRevenue(startDate, endDate);
+        }
+        // Summed over the merged rows, so a payment left in both tiers by an
+        // interrupted archive run is counted once
+        return TieredResults.merge(delegate.findByDateRange(startDate, endDate), archived, Payment::getPaymentId)
+                .stream()
+                .mapToDouble(Payment::getAmount)
+                .sum();
+    }
+    
+    @Override
+    public List<Payment> findByDateRange(LocalDate startDate, LocalDate endDate) {
+        return TieredResults.merge(delegate.findByDateRange(startDate, endDate),
+                archive.queryRange(startDate, endDate,
+                        db -> new PaymentDAOImpl(db).findByDateRange(startDate, endDate)),
+                Payment::getPaymentId);
+    }
+}
@@ -0,0 +1,39 @@
+package com.university.parking.dao;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Combines hot and archived query results for the tiered DAOs.
+ */
+final class TieredResults {
+    
+    private TieredResults() {
+    }
+    
+    /**
+     * Appends archived rows to the hot rows. A row caught in both tiers by an interrupted
+     * archive run is returned once, from the hot tier.
+     */
+    static <T> List<T> merge(List<T> hot, List<List<T>> archived, Function<T, Object> key) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        List<T> merged = new ArrayList<>(hot);
+        Set<Object> seen = new HashSet<>();
+        for (T row : hot) {
+            seen.add(key.apply(row));
+        }
+        for (List<T> partition : archived) {
+            for (T row : partition) {
+                if (seen.add(key.apply(row))) {
+                    merged.add(row);
+                }
+            }
+        }
+        return merged;
+    }
+}
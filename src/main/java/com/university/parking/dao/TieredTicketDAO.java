@@ -0,0 +1,66 @@
+package com.university.parking.dao;
+
+import com.university.parking.db.HistoryArchive;
+import com.university.parking.domain.Ticket;
+
+import java.util.List;
+
+/**
+ * TicketDAO spanning the main database and the monthly archives.
+ * Tickets are archived with their closed sessions, so active tickets stay on the
+ * main database; history lookups fall back to or include the archive partitions.
+ */
+public class TieredTicketDAO implements TicketDAO {
+    
+    private final TicketDAO delegate;
+    private final HistoryArchive archive;
+    
+    public TieredTicketDAO(TicketDAO delegate, HistoryArchive archive) {
+        this.delegate = delegate;
+        this.archive = archive;
+    }
+    
+    @Override
+    public Ticket findById(String ticketId) {
+        Ticket ticket = delegate.findById(ticketId);
+        if (ticket != null) {
+            return ticket;
+        }
+        return archive.queryNewest(db -> new TicketDAOImpl(db).findById(ticketId));
+    }
+    
+    @Override
+    public List<Ticket> findAll() {
+        return TieredResults.merge(delegate.findAll(),
+                archive.queryAll(db -> new TicketDAOImpl(db).findAll()), Ticket::getTicketId);
+    }
+    
+    @Override
+    public void save(Ticket ticket) {
+        delegate.save(ticket);
+    }
+    
+    @Override
+    public void update(Ticket ticket) {
+        delegate.update(ticket);
+    }
+    
+    @Override
+    public void delete(String ticketId) {
+        delegate.delete(ticketId);
+    }
+    
+    @Override
+    public Ticket findByLicensePlate(String licensePlate) {
+        Ticket ticket = delegate.findByLicensePlate(licensePlate);
+        if (ticket != null) {
+            return ticket;
+        }
+        return archive.queryNewest(db -> new TicketDAOImpl(db).findByLicensePlate(licensePlate));
+    }
+    
+    @Override
+    public List<Ticket> findActiveTickets() {
+        return delegate.findActiveTickets();
+    }
+}
@@ -0,0 +1,73 @@
+package com.university.parking.dao;
+
+import com.university.parking.db.HistoryArchive;
+import com.university.parking.domain.Vehicle;
+
+import java.util.List;
+
+/**
+ * VehicleDAO spanning the main database and the monthly archives.
+ * Only closed sessions are archived, so lookups of parked vehicles stay on the
+ * main database; history lookups fall back to or include the archive partitions.
+ */
+public class TieredVehicleDAO implements VehicleDAO {
+    
+    private final VehicleDAO delegate;
+    private final HistoryArchive archive;
+    
+    public TieredVehicleDAO(VehicleDAO delegate, HistoryArchive archive) {
+        this.delegate = delegate;
+        this.archive = archive;
+    }
+    
+    @Override
+    public Vehicle findById(String vehicleId) {
+        Vehicle vehicle = delegate.findById(vehicleId);
+        if (vehicle != null) {
+            return vehicle;
+        }
+        return archive.queryNewest(db -> new VehicleDAOImpl(db).findById(vehicleId));
+    }
+    
+    @Override
+    public List<Vehicle> findAll() {
+        return TieredResults.merge(delegate.findAll(),
+                archive.queryAll(db -> new VehicleDAOImpl(db).findAll()),
+                vehicle -> vehicle.getLicensePlate() + "@" + vehicle.getEntryTime());
+    }
+    
+    @Override
+    public void save(Vehicle vehicle) {
+        delegate.save(vehicle);
+    }
+    
+    @Override
+    public void update(Vehicle vehicle) {
+        delegate.update(vehicle);
+    }
+    
+    @Override
+    public void delete(String vehicleId) {
+        delegate.delete(vehicleId);
+    }
+    
+    @Override
+    public Vehicle findByLicensePlate(String licensePlate) {
+        Vehicle vehicle = delegate.findByLicensePlate(licensePlate);
+        if (vehicle != null) {
+            return vehicle;
+        }
+        // Any session still in the main database is newer than the archived ones
+        return archive.queryNewest(db -> new VehicleDAOImpl(db).findByLicensePlate(licensePlate));
+    }
+    
+    @Override
+    public Vehicle findActiveByLicensePlate(String licensePlate) {
+        return delegate.findActiveByLicensePlate(licensePlate);
+    }
+    
+    @Override
+    public List<Vehicle> findCurrentlyParked() {
+        return delegate.findCurrentlyParked();
+    }
+}
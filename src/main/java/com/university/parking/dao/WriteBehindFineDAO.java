@@ -0,0 +1,92 @@
+package com.university.parking.dao;
+
+import com.university.parking.db.WriteBehindQueue;
+import com.university.parking.domain.Fine;
+
+import java.util.List;
+
+/**
+ * FineDAO whose writes go through the write-behind queue.
+ * Fines are keyed by ID and plate; deletes and payments only know the ID,
+ * so plate lookups also wait for any of those that are pending.
+ */
+public class WriteBehindFineDAO implements FineDAO {
+    
+    private static final String TABLE_KEY = "fine";
+    private static final String ANY_PLATE_KEY = "fine:plate:*";
+    
+    private final FineDAO delegate;
+    private final WriteBehindQueue queue;
+    
+    public WriteBehindFineDAO(FineDAO delegate, WriteBehindQueue queue) {
+        this.delegate = delegate;
+        this.queue = queue;
+    }
+    
+    @Override
+    public Fine findById(String fineId) {
+        queue.awaitKey(idKey(fineId));
+        return delegate.findById(fineId);
+    }
+    
+    @Override
+    public List<Fine> findAll() {
+        queue.awaitKey(TABLE_KEY);
+        return delegate.findAll();
+    }
+    
+    @Override
+    public void save(Fine fine) {
+        Fine copy = EntityCopies.copyFine(fine);
+        queue.submit(() -> delegate.save(copy),
+                     idKey(copy.getFineId()), plateKey(copy.getLicensePlate()), TABLE_KEY);
+    }
+    
+    @Override
+    public void update(Fine fine) {
+        Fine copy = EntityCopies.copyFine(fine);
+        queue.submit(() -> delegate.update(copy),
+                     idKey(copy.getFineId()), plateKey(copy.getLicensePlate()), TABLE_KEY);
+    }
+    
+    @Override
+    public void delete(String fineId) {
+        queue.submit(() -> delegate.delete(fineId), idKey(fineId), ANY_PLATE_KEY, TABLE_KEY);
+    }
+    
+    @Override
+    public List<Fine> findUnpaidByLicensePlate(String licensePlate) {
+        awaitPlate(licensePlate);
+        return delegate.findUnpaidByLicensePlate(licensePlate);
+    }
+    
+    @Override
+    public double sumUnpaidByLicensePlate(String licensePlate) {
+        awaitPlate(licensePlate);
+        return delegate.sumUnpaidByLicensePlate(licensePlate);
+    }
+    
+    @Override
+    public List<Fine> findAllUnpaid() {
+        queue.awaitKey(TABLE_KEY);
+        return delegate.findAllUnpaid();
+    }
+    
+    @Override
+    public void markAsPaid(String fineId) {
+        queue.submit(() -> delegate.markAsPaid(fineId), idKey(fineId), ANY_PLATE_KEY, TABLE_KEY);
+    }
+    
+    private void awaitPlate(String licensePlate) {
+        queue.awaitKey(plateKey(licensePlate));
+        queue.awaitKey(ANY_PLATE_KEY);
+    }
+    
+    private static String idKey(String fineId) {
+        return TABLE_KEY + ":" + fineId;
+    }
+    
+    private static String plateKey(String licensePlate) {
+        return TABLE_KEY + ":plate:" + licensePlate;
+    }
+}
@@ -0,0 +1,106 @@
+package com.university.parking.dao;
+
+import com.university.parking.db.WriteBehindQueue;
+import com.university.parking.domain.ParkingSpot;
+import com.university.parking.domain.SpotStatus;
+import com.university.parking.domain.SpotType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * ParkingSpotDAO whose writes go through the write-behind queue.
+ * Lookups by spot ID wait only for pending writes to that spot;
+ * searches across spots wait for any pending spot write.
+ */
+public class WriteBehindParkingSpotDAO implements ParkingSpotDAO {
+    
+    private static final String TABLE_KEY = "spot";
+    
+    private final ParkingSpotDAO delegate;
+    private final WriteBehindQueue queue;
+    
+    public WriteBehindParkingSpotDAO(ParkingSpotDAO delegate, WriteBehindQueue queue) {
+        this.delegate = delegate;
+        this.queue = queue;
+    }
+    
+    @Override
+    public ParkingSpot findById(String spotId) {
+        queue.awaitKey(spotKey(spotId));
+        return delegate.findById(spotId);
+    }
+    
+    @Override
+    public List<ParkingSpot> findAll() {
+        queue.awaitKey(TABLE_KEY);
+        return delegate.findAll();
+    }
+    
+    @Override
+    public void save(ParkingSpot spot) {
+        ParkingSpot copy = EntityCopies.copySpot(spot);
+        queue.submit(() -> delegate.save(copy), spotKey(copy.getSpotId()), TABLE_KEY);
+    }
+    
+    @Override
+    public void update(ParkingSpot spot) {
+        ParkingSpot copy = EntityCopies.copySpot(spot);
+        queue.submit(() -> delegate.update(copy), spotKey(copy.getSpotId()), TABLE_KEY);
+    }
+    
+    @Override
+    public void delete(String spotId) {
+        queue.submit(() -> delegate.delete(spotId), spotKey(spotId), TABLE_KEY);
+    }
+    
+    @Override
+    public List<ParkingSpot> findAvailableByType(SpotType type) {
+        queue.awaitKey(TABLE_KEY);
+        return delegate.findAvailableByType(type);
+    }
+    
+    @Override
+    public ParkingSpot findByVehiclePlate(String licensePlate) {
+        queue.awaitKey(TABLE_KEY);
+        return delegate.findByVehiclePlate(licensePlate);
+    }
+    
+    @Override
+    public void updateStatus(String spotId, SpotStatus status) {
+        queue.submit(() -> delegate.updateStatus(spotId, status), spotKey(spotId), TABLE_KEY);
+    }
+    
+    @Override
+    public List<ParkingSpot> findAllAvailable() {
+        queue.awaitKey(TABLE_KEY);
+        return delegate.findAllAvailable();
+    }
+    
+    @Override
+    public List<ParkingSpot> findByFloorId(String floorId) {
+        queue.awaitKey(TABLE_KEY);
+        return delegate.findByFloorId(floorId);
+    }
+    
+    @Override
+    public void applyChanges(List<ParkingSpot> added, List<ParkingSpot> changed, Collection<String> removedIds) {
+        List<ParkingSpot> addedCopies = added.stream().map(EntityCopies::copySpot).collect(Collectors.toList());
+        List<ParkingSpot> changedCopies = changed.stream().map(EntityCopies::copySpot).collect(Collectors.toList());
+        List<String> removed = new ArrayList<>(removedIds);
+        // One queued write with a key per spot, so the delegate still commits it in one transaction
+        Stream<String> spotIds = Stream.concat(
+            Stream.concat(addedCopies.stream(), changedCopies.stream()).map(ParkingSpot::getSpotId),
+            removed.stream());
+        String[] keys = Stream.concat(spotIds.map(WriteBehindParkingSpotDAO::spotKey), Stream.of(TABLE_KEY))
+            .toArray(String[]::new);
+        queue.submit(() -> delegate.applyChanges(addedCopies, changedCopies, removed), keys);
+    }
+    
+    private static String spotKey(String spotId) {
+        return TABLE_KEY + ":" + spotId;
+    }
+}
@@ -0,0 +1,70 @@
+package com.university.parking.dao;
+
+import com.university.parking.db.WriteBehindQueue;
+import com.university.parking.domain.Payment;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * PaymentDAO whose writes go through the write-behind queue.
+ * Payments are only read in bulk by reports, so every read waits for
+ * pending payment writes.
+ */
+public class WriteBehindPaymentDAO implements PaymentDAO {
+    
+    private static final String TABLE_KEY = "payment";
+    
+    private final PaymentDAO delegate;
+    private final WriteBehindQueue queue;
+    
+    public WriteBehindPaymentDAO(PaymentDAO delegate, WriteBehindQueue queue) {
+        this.delegate = delegate;
+        this.queue = queue;
+    }
+    
+    @Override
+    public Payment findById(String paymentId) {
+        queue.awaitKey(TABLE_KEY);
+        return delegate.findById(paymentId);
+    }
+    
+    @Override
+    public List<Payment> findAll() {
+        queue.awaitKey(TABLE_KEY);
+        return delegate.findAll();
+    }
+    
+    @Override
+    public void save(Payment payment) {
+        queue.submit(() -> delegate.save(payment), TABLE_KEY);
+    }
+    
+    @Override
+    public void update(Payment payment) {
+        queue.submit(() -> delegate.update(payment), TABLE_KEY);
+    }
+    
+    @Override
+    public void delete(String paymentId) {
+        queue.submit(() -> delegate.delete(paymentId), TABLE_KEY);
+    }
+    
+    @Override
+    public List<Payment> findByLicensePlate(String licensePlate) {
+        queue.awaitKey(TABLE_KEY);
+        return delegate.findByLicensePlate(licensePlate);
+    }
+    
+    @Override
+    public double getTotalRevenue(LocalDate startDate, LocalDate endDate) {
+        queue.awaitKey(TABLE_KEY);
+        return delegate.getTotalRevenue(startDate, endDate);
+    }
+    
+    @Override
+    public List<Payment> findByDateRange(LocalDate startDate, LocalDate endDate) {
+        queue.awaitKey(TABLE_KEY);
+        return delegate.findByDateRange(startDate, endDate);
+    }
+}
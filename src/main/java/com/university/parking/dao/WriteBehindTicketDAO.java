@@ -0,0 +1,75 @@
+package com.university.parking.dao;
+
+import com.university.parking.db.WriteBehindQueue;
+import com.university.parking.domain.Ticket;
+
+import java.util.List;
+
+/**
+ * TicketDAO whose writes go through the write-behind queue.
+ * Tickets are keyed by ID and plate; deletes only know the ID, so plate
+ * lookups also wait for any pending delete.
+ */
+public class WriteBehindTicketDAO implements TicketDAO {
+    
+    private static final String TABLE_KEY = "ticket";
+    private static final String ANY_PLATE_KEY = "ticket:plate:*";
+    
+    private final TicketDAO delegate;
+    private final WriteBehindQueue queue;
+    
+    public WriteBehindTicketDAO(TicketDAO delegate, WriteBehindQueue queue) {
+        this.delegate = delegate;
+        this.queue = queue;
+    }
+    
+    @Override
+    public Ticket findById(String ticketId) {
+        queue.awaitKey(idKey(ticketId));
+        return delegate.findById(ticketId);
+    }
+    
+    @Override
+    public List<Ticket> findAll() {
+        queue.awaitKey(TABLE_KEY);
+        return delegate.findAll();
+    }
+    
+    @Override
+    public void save(Ticket ticket) {
+        queue.submit(() -> delegate.save(ticket),
+                     idKey(ticket.getTicketId()), plateKey(ticket.getLicensePlate()), TABLE_KEY);
+    }
+    
+    @Override
+    public void update(Ticket ticket) {
+        queue.submit(() -> delegate.update(ticket),
+                     idKey(ticket.getTicketId()), plateKey(ticket.getLicensePlate()), TABLE_KEY);
+    }
+    
+    @Override
+    public void delete(String ticketId) {
+        queue.submit(() -> delegate.delete(ticketId), idKey(ticketId), ANY_PLATE_KEY, TABLE_KEY);
+    }
+    
+    @Override
+    public Ticket findByLicensePlate(String licensePlate) {
+        queue.awaitKey(plateKey(licensePlate));
+        queue.awaitKey(ANY_PLATE_KEY);
+        return delegate.findByLicensePlate(licensePlate);
+    }
+    
+    @Override
+    public List<Ticket> findActiveTickets() {
+        queue.awaitKey(TABLE_KEY);
+        return delegate.findActiveTickets();
+    }
+    
+    private static String idKey(String ticketId) {
+        return TABLE_KEY + ":" + ticketId;
+    }
+    
+    private static String plateKey(String licensePlate) {
+        return TABLE_KEY + ":plate:" + licensePlate;
+    }
+}
@@ -0,0 +1,74 @@
+package com.university.parking.dao;
+
+import com.university.parking.db.WriteBehindQueue;
+import com.university.parking.domain.Vehicle;
+
+import java.util.List;
+
+/**
+ * VehicleDAO whose writes go through the write-behind queue.
+ * Reads wait only for pending writes to the plate (or table) they query.
+ */
+public class WriteBehindVehicleDAO implements VehicleDAO {
+    
+    private static final String TABLE_KEY = "vehicle";
+    
+    private final VehicleDAO delegate;
+    private final WriteBehindQueue queue;
+    
+    public WriteBehindVehicleDAO(VehicleDAO delegate, WriteBehindQueue queue) {
+        this.delegate = delegate;
+        this.queue = queue;
+    }
+    
+    @Override
+    public Vehicle findById(String licensePlate) {
+        queue.awaitKey(plateKey(licensePlate));
+        return delegate.findById(licensePlate);
+    }
+    
+    @Override
+    public List<Vehicle> findAll() {
+        queue.awaitKey(TABLE_KEY);
+        return delegate.findAll();
+    }
+    
+    @Override
+    public void save(Vehicle vehicle) {
+        Vehicle copy = EntityCopies.copyVehicle(vehicle);
+        queue.submit(() -> delegate.save(copy), plateKey(copy.getLicensePlate()), TABLE_KEY);
+    }
+    
+    @Override
+    public void update(Vehicle vehicle) {
+        Vehicle copy = EntityCopies.copyVehicle(vehicle);
+        queue.submit(() -> delegate.update(copy), plateKey(copy.getLicensePlate()), TABLE_KEY);
+    }
+    
+    @Override
+    public void delete(String licensePlate) {
+        queue.submit(() -> delegate.delete(licensePlate), plateKey(licensePlate), TABLE_KEY);
+    }
+    
+    @Override
+    public Vehicle findByLicensePlate(String licensePlate) {
+        queue.awaitKey(plateKey(licensePlate));
+        return delegate.findByLicensePlate(licensePlate);
+    }
+    
+    @Override
+    public Vehicle findActiveByLicensePlate(String licensePlate) {
+        queue.awaitKey(plateKey(licensePlate));
+        return delegate.findActiveByLicensePlate(licensePlate);
+    }
+    
+    @Override
+    public List<Vehicle> findCurrentlyParked() {
+        queue.awaitKey(TABLE_KEY);
+        return delegate.findCurrentlyParked();
+    }
+    
+    private static String plateKey(String licensePlate) {
+        return TABLE_KEY + ":" + licensePlate;
+    }
+}
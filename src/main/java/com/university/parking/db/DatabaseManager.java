@@ -1,9 +1,17 @@
 package com.university.parking.db;
 
+import com.university.parking.log.Logger;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import org.sqlite.SQLiteConfig;
+
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Singleton class for managing SQLite database connections.
@@ -11,11 +19,37 @@ import java.sql.Statement;
  */
 public class DatabaseManager {
     
+    private static final Logger LOG = Logger.get(DatabaseManager.class);
+    
     private static DatabaseManager instance;
     private Connection connection;
     private String databaseUrl;
     
+    // Connection bound to the current thread while a transaction is running
+    private final ThreadLocal<Connection> transactionConnection = new ThreadLocal<>();
+    // Actions waiting for the write transaction running on the current thread to end
+    private final ThreadLocal<List<Runnable>> transactionEndActions = new ThreadLocal<>();
+    // Actions waiting for the write transaction running on the current thread to commit
+    private final ThreadLocal<List<Runnable>> transactionCommitActions = new ThreadLocal<>();
+    
     private static final String DEFAULT_DB_PATH = "parking_lot.db";
+    private static final String BUSY_TIMEOUT_MS = "5000";
+    private static final String IN_MEMORY_PATH = ":memory:";
+    
+    /**
+     * Unit of work executed inside a database transaction.
+     * @param <T> the result type
+     */
+    @FunctionalInterface
+    public interface TransactionWork<T> {
+        /**
+         * Executes the work on the transaction's connection.
+         * @param conn the connection owning the transaction
+         * @return the result of the work
+         * @throws SQLException if a database error occurs
+         */
+        T execute(Connection conn) throws SQLException;
+    }
     
     /**
      * Private constructor for singleton pattern.
@@ -52,6 +86,16 @@ public class DatabaseManager {
     public static DatabaseManager createForTesting(String dbPath) {
         return new DatabaseManager(dbPath);
     }
+
+    /**
+     * Creates a DatabaseManager for a database file other than the default one.
+     * Used by command-line tools such as the history exporter.
+     * @param dbPath the path to the database file
+     * @return a new DatabaseManager instance
+     */
+    public static DatabaseManager forFile(String dbPath) {
+        return new DatabaseManager(dbPath);
+    }
     
     /**
      * Resets the singleton instance. Used for testing purposes.
@@ -70,12 +114,238 @@ public class DatabaseManager {
      * @throws SQLException if connection cannot be established
      */
     public Connection getConnection() throws SQLException {
+        Connection txConnection = transactionConnection.get();
+        if (txConnection != null) {
+            // DAOs close what they get; keep the transaction open until it commits
+            return nonClosing(txConnection);
+        }
         if (connection == null || connection.isClosed()) {
-            connection = DriverManager.getConnection(databaseUrl);
+            connection = openConnection();
         }
         return connection;
     }
     
+    /**
+     * Opens a new physical connection that is not shared with other callers.
+     * The caller is responsible for closing it.
+     * @return a new database connection
+     * @throws SQLException if connection cannot be established
+     */
+    public Connection openConnection() throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        // Wait for a competing writer instead of failing with SQLITE_BUSY
+        config.setBusyTimeout(Integer.parseInt(BUSY_TIMEOUT_MS));
+        // Take the write lock when a transaction begins: a deferred transaction that reads
+        // first fails at once, without waiting, if another writer commits before it writes
+        config.setTransactionMode(SQLiteConfig.TransactionMode.IMMEDIATE);
+        return DriverManager.getConnection(databaseUrl, config.toProperties());
+    }
+    
+    /**
+     * Opens a new read-only connection (SQLITE_OPEN_READONLY).
+     * In WAL mode readers work on a snapshot and never block the writer,
+     * so reports run on these connections cannot delay gate operations.
+     * The caller is responsible for closing it.
+     * @return a new read-only database connection
+     * @throws SQLException if connection cannot be established
+     */
+    public Connection openReadOnlyConnection() throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setReadOnly(true);
+        config.setBusyTimeout(Integer.parseInt(BUSY_TIMEOUT_MS));
+        return DriverManager.getConnection(databaseUrl, config.toProperties());
+    }
+    
+    /**
+     * Runs the given work inside a single read transaction on a read-only connection.
+     * Every query made on this thread while the work runs sees the same committed snapshot,
+     * so a multi-query report is internally consistent.
+     * Nested calls join the enclosing transaction (read or write).
+     * In-memory databases cannot be shared between connections and use the default connection.
+     * @param work the work to execute
+     * @param <T> the result type
+     * @return the result of the work
+     * @throws SQLException if the work fails
+     */
+    public <T> T inReadTransaction(TransactionWork<T> work) throws SQLException {
+        Connection existing = transactionConnection.get();
+        if (existing != null) {
+            return work.execute(existing);
+        }
+        if (databaseUrl.endsWith(IN_MEMORY_PATH)) {
+            return work.execute(getConnection());
+        }
+        try (Connection conn = openReadOnlyConnection()) {
+            // A deferred transaction pins its snapshot at the first read
+            conn.setAutoCommit(false);
+            transactionConnection.set(conn);
+            try {
+                T result = work.execute(conn);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                transactionConnection.remove();
+            }
+        }
+    }
+    
+    /**
+     * Runs the given work inside a single transaction on a dedicated connection.
+     * While the work runs, every DAO call made on this thread joins the same transaction.
+     * Nested calls join the outer transaction.
+     * @param work the work to execute
+     * @param <T> the result type
+     * @return the result of the work
+     * @throws SQLException if the work or the commit fails (the transaction is rolled back)
+     */
+    public <T> T inTransaction(TransactionWork<T> work) throws SQLException {
+        Connection existing = transactionConnection.get();
+        if (existing != null && !existing.getAutoCommit()) {
+            return work.execute(existing);
+        }
+        if (existing != null) {
+            // Bound by onDedicatedConnection: run the transaction on that connection
+            transactionConnection.remove();
+            try {
+                return inTransaction(existing, work);
+            } finally {
+                transactionConnection.set(existing);
+            }
+        }
+        try (Connection conn = openConnection()) {
+            return inTransaction(conn, work);
+        }
+    }
+    
+    /**
+     * Runs the given work on a dedicated connection in auto-commit mode.
+     * While the work runs, every DAO call made on this thread uses that connection instead
+     * of the shared default one, and each statement commits on its own, so the work never
+     * holds the write lock between statements. Transactions started inside it run on the
+     * same connection. Nested calls use the enclosing connection or transaction.
+     * @param work the work to execute
+     * @param <T> the result type
+     * @return the result of the work
+     * @throws SQLException if the work fails
+     */
+    public <T> T onDedicatedConnection(TransactionWork<T> work) throws SQLException {
+        Connection existing = transactionConnection.get();
+        if (existing != null) {
+            return work.execute(existing);
+        }
+        try (Connection conn = openConnection()) {
+            transactionConnection.set(conn);
+            try {
+                return work.execute(conn);
+            } finally {
+                transactionConnection.remove();
+            }
+        }
+    }
+    
+    /**
+     * Runs an action once the write transaction running on this thread ends, whether it
+     * commits or rolls back, or right away if none is running.
+     * Until a write commits, readers on other connections still see the old rows and may
+     * cache what they read; caches use this to drop such entries once the write is visible.
+     * @param action the action to run
+     */
+    public void afterTransaction(Runnable action) {
+        List<Runnable> actions = transactionEndActions.get();
+        if (actions != null) {
+            actions.add(action);
+        } else {
+            action.run();
+        }
+    }
+    
+    /**
+     * Runs an action once the write transaction running on this thread commits, or right
+     * away if none is running. The action is dropped if the transaction rolls back, so
+     * in-memory state derived from the write is only published once the write is durable.
+     * @param action the action to run
+     */
+    public void afterCommit(Runnable action) {
+        List<Runnable> actions = transactionCommitActions.get();
+        if (actions != null) {
+            actions.add(action);
+        } else {
+            action.run();
+        }
+    }
+    
+    /**
+     * Runs the given work inside a single transaction on a caller-owned connection.
+     * Lets long-lived writers reuse one connection instead of opening one per transaction.
+     * @param conn a connection obtained from {@link #openConnection()}
+     * @param work the work to execute
+     * @param <T> the result type
+     * @return the result of the work
+     * @throws SQLException if the work or the commit fails (the transaction is rolled back)
+     */
+    public <T> T inTransaction(Connection conn, TransactionWork<T> work) throws SQLException {
+        if (transactionConnection.get() != null) {
+            throw new IllegalStateException("A transaction is already running on this thread");
+        }
+        conn.setAutoCommit(false);
+        transactionConnection.set(conn);
+        List<Runnable> endActions = new ArrayList<>();
+        List<Runnable> commitActions = new ArrayList<>();
+        transactionEndActions.set(endActions);
+        transactionCommitActions.set(commitActions);
+        boolean committed = false;
+        try {
+            T result = work.execute(conn);
+            conn.commit();
+            committed = true;
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            transactionConnection.remove();
+            transactionEndActions.remove();
+            transactionCommitActions.remove();
+            runEndActions(endActions);
+            if (committed) {
+                runEndActions(commitActions);
+            }
+            conn.setAutoCommit(true);
+        }
+    }
+    
+    private static void runEndActions(List<Runnable> actions) {
+        for (Runnable action : actions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                LOG.error("Error running action after transaction", e);
+            }
+        }
+    }
+    
+    /**
+     * Wraps a connection so that close() is ignored.
+     */
+    private static Connection nonClosing(Connection target) {
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            (proxy, method, args) -> {
+                if ("close".equals(method.getName())) {
+                    return null;
+                }
+                try {
+                    return method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+    }
+    
     /**
      * Initializes the database by creating all required tables if they don't exist.
      * Tables created: parking_spot, vehicle, ticket, fine, payment
@@ -85,6 +355,9 @@ public class DatabaseManager {
         Connection conn = getConnection();
         
         try (Statement stmt = conn.createStatement()) {
+            // WAL lets read-only report connections run alongside gate writes
+            stmt.execute("PRAGMA journal_mode=WAL");
+            
             // Create parking_spot table
             stmt.execute(CREATE_PARKING_SPOT_TABLE);
             
@@ -113,7 +386,7 @@ public class DatabaseManager {
                 }
             } catch (SQLException e) {
                 // Log error but don't throw - we're cleaning up
-                System.err.println("Error closing database connection: " + e.getMessage());
+                LOG.error("Error closing database connection", e);
             }
             connection = null;
         }
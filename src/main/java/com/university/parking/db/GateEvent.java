@@ -0,0 +1,295 @@
+package com.university.parking.db;
+
+import com.university.parking.domain.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * A single state change recorded in the gate event journal.
+ * Each event carries the entity (or identifier) written by a gate operation,
+ * so replaying events in sequence order rebuilds the same state.
+ */
+public final class GateEvent {
+
+    /**
+     * Kinds of journaled state changes.
+     * The ordinal is written to disk, so new types must only be appended.
+     */
+    public enum Type {
+        SPOT_SAVED,
+        SPOT_UPDATED,
+        SPOT_STATUS_CHANGED,
+        SPOT_DELETED,
+        VEHICLE_SAVED,
+        VEHICLE_UPDATED,
+        VEHICLE_DELETED,
+        TICKET_SAVED,
+        TICKET_UPDATED,
+        TICKET_DELETED,
+        FINE_SAVED,
+        FINE_UPDATED,
+        FINE_PAID,
+        FINE_DELETED,
+        PAYMENT_SAVED,
+        PAYMENT_UPDATED,
+        PAYMENT_DELETED
+    }
+
+    private static final Type[] TYPES = Type.values();
+
+    private final Type type;
+    private final long sequence;
+    private final Object payload;
+
+    /**
+     * Creates an event that has not been assigned a journal sequence yet.
+     *
+     * @param type the event type
+     * @param payload the entity, or the identifier for delete/paid events
+     */
+    public GateEvent(Type type, Object payload) {
+        this(type, 0L, payload);
+    }
+
+    private GateEvent(Type type, long sequence, Object payload) {
+        if (type == null) {
+            throw new IllegalArgumentException("Event type cannot be null");
+        }
+        this.type = type;
+        this.sequence = sequence;
+        this.payload = payload;
+    }
+
+    /**
+     * Returns a copy of this event stamped with the given sequence number.
+     *
+     * @param sequence the journal sequence number
+     * @return the sequenced event
+     */
+    public GateEvent withSequence(long sequence) {
+        return new GateEvent(type, sequence, payload);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Object getPayload() {
+        return payload;
+    }
+
+    /**
+     * Gets the payload as an identifier (delete and paid events).
+     *
+     * @return the identifier
+     */
+    public String getId() {
+        return (String) payload;
+    }
+
+    /**
+     * Encodes the payload of this event in the journal's binary format.
+     *
+     * @return the encoded payload
+     */
+    public byte[] encodePayload() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            switch (type) {
+                case SPOT_SAVED:
+                case SPOT_UPDATED:
+                    writeSpot(out, (ParkingSpot) payload);
+                    break;
+                case SPOT_STATUS_CHANGED:
+                    String[] status = (String[]) payload;
+                    out.writeUTF(status[0]);
+                    out.writeUTF(status[1]);
+                    break;
+                case VEHICLE_SAVED:
+                case VEHICLE_UPDATED:
+                    writeVehicle(out, (Vehicle) payload);
+                    break;
+                case TICKET_SAVED:
+                case TICKET_UPDATED:
+                    writeTicket(out, (Ticket) payload);
+                    break;
+                case FINE_SAVED:
+                case FINE_UPDATED:
+                    writeFine(out, (Fine) payload);
+                    break;
+                case PAYMENT_SAVED:
+                case PAYMENT_UPDATED:
+                    writePayment(out, (Payment) payload);
+                    break;
+                default:
+                    out.writeUTF(getId());
+                    break;
+            }
+        } catch (IOException e) {
+            // ByteArrayOutputStream does not throw
+            throw new IllegalStateException("Failed to encode event: " + type, e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes an event read back from the journal.
+     *
+     * @param typeOrdinal the stored event type
+     * @param sequence the stored sequence number
+     * @param data the encoded payload
+     * @return the decoded event
+     * @throws IOException if the payload is malformed
+     */
+    public static GateEvent decode(int typeOrdinal, long sequence, byte[] data) throws IOException {
+        if (typeOrdinal < 0 || typeOrdinal >= TYPES.length) {
+            throw new IOException("Unknown event type: " + typeOrdinal);
+        }
+        Type type = TYPES[typeOrdinal];
+        Object payload;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            switch (type) {
+                case SPOT_SAVED:
+                case SPOT_UPDATED:
+                    payload = readSpot(in);
+                    break;
+                case SPOT_STATUS_CHANGED:
+                    payload = new String[] { in.readUTF(), in.readUTF() };
+                    break;
+                case VEHICLE_SAVED:
+                case VEHICLE_UPDATED:
+                    payload = readVehicle(in);
+                    break;
+                case TICKET_SAVED:
+                case TICKET_UPDATED:
+                    payload = readTicket(in);
+                    break;
+                case FINE_SAVED:
+                case FINE_UPDATED:
+                    payload = readFine(in);
+                    break;
+                case PAYMENT_SAVED:
+                case PAYMENT_UPDATED:
+                    payload = readPayment(in);
+                    break;
+                default:
+                    payload = in.readUTF();
+                    break;
+            }
+        }
+        return new GateEvent(type, sequence, payload);
+    }
+
+    // Entity codecs
+
+    private static void writeSpot(DataOutputStream out, ParkingSpot spot) throws IOException {
+        out.writeUTF(spot.getSpotId());
+        out.writeByte(spot.getType().ordinal());
+        out.writeDouble(spot.getHourlyRate());
+        writeNullable(out, spot.getCurrentVehiclePlate());
+    }
+
+    private static ParkingSpot readSpot(DataInputStream in) throws IOException {
+        String spotId = in.readUTF();
+        SpotType type = SpotType.values()[in.readByte()];
+        double hourlyRate = in.readDouble();
+        String plate = readNullable(in);
+        ParkingSpot spot = new ParkingSpot(spotId, type, hourlyRate);
+        if (plate != null) {
+            spot.assignVehicle(plate);
+        }
+        return spot;
+    }
+
+    private static void writeVehicle(DataOutputStream out, Vehicle vehicle) throws IOException {
+        out.writeUTF(vehicle.getLicensePlate());
+        out.writeByte(vehicle.getVehicleType().ordinal());
+        writeTime(out, vehicle.getEntryTime());
+        writeTime(out, vehicle.getExitTime());
+    }
+
+    private static Vehicle readVehicle(DataInputStream in) throws IOException {
+        String plate = in.readUTF();
+        VehicleType type = VehicleType.values()[in.readByte()];
+        Vehicle vehicle = VehicleFactory.createVehicle(type, plate);
+        vehicle.setEntryTime(readTime(in));
+        vehicle.setExitTime(readTime(in));
+        return vehicle;
+    }
+
+    private static void writeTicket(DataOutputStream out, Ticket ticket) throws IOException {
+        out.writeUTF(ticket.getTicketId());
+        out.writeUTF(ticket.getLicensePlate());
+        out.writeUTF(ticket.getSpotId());
+        writeTime(out, ticket.getEntryTime());
+    }
+
+    private static Ticket readTicket(DataInputStream in) throws IOException {
+        return new Ticket(in.readUTF(), in.readUTF(), in.readUTF(), readTime(in));
+    }
+
+    private static void writeFine(DataOutputStream out, Fine fine) throws IOException {
+        out.writeUTF(fine.getFineId());
+        out.writeUTF(fine.getLicensePlate());
+        out.writeDouble(fine.getAmount());
+        writeNullable(out, fine.getReason());
+        writeTime(out, fine.getIssuedTime());
+        out.writeBoolean(fine.isPaid());
+    }
+
+    private static Fine readFine(DataInputStream in) throws IOException {
+        return new Fine(in.readUTF(), in.readUTF(), in.readDouble(), readNullable(in),
+                        readTime(in), in.readBoolean());
+    }
+
+    private static void writePayment(DataOutputStream out, Payment payment) throws IOException {
+        out.writeUTF(payment.getPaymentId());
+        out.writeDouble(payment.getAmount());
+        out.writeByte(payment.getMethod().ordinal());
+        writeTime(out, payment.getPaymentTime());
+        writeNullable(out, payment.getLicensePlate());
+        writeNullable(out, payment.getTicketId());
+    }
+
+    private static Payment readPayment(DataInputStream in) throws IOException {
+        return new Payment(in.readUTF(), in.readDouble(), PaymentMethod.values()[in.readByte()],
+                           readTime(in), readNullable(in), readNullable(in));
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeTime(DataOutputStream out, LocalDateTime time) throws IOException {
+        writeNullable(out, time != null ? time.toString() : null);
+    }
+
+    private static LocalDateTime readTime(DataInputStream in) throws IOException {
+        String value = readNullable(in);
+        return value != null ? LocalDateTime.parse(value) : null;
+    }
+
+    @Override
+    public String toString() {
+        return "GateEvent{" +
+                "type=" + type +
+                ", sequence=" + sequence +
+                '}';
+    }
+}
@@ -0,0 +1,221 @@
+package com.university.parking.db;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped journal of gate events.
+ * Appends are sequential writes into a mapped region, so a gate event costs a
+ * memory copy instead of several random-access row updates.
+ *
+ * File layout: a 16-byte header (magic, version, base sequence) followed by records
+ * [int payloadLength][int crc32][long sequence][byte type][payload].
+ * A zero length marks the end of data. Each record is checksummed, so a torn write
+ * at the tail is detected and discarded when the journal is opened.
+ */
+public class GateEventJournal implements Closeable {
+
+    private static final int MAGIC = 0x474A524E; // "GJRN"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_OVERHEAD = 17;
+    private static final int INITIAL_CAPACITY = 8 * 1024 * 1024;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final CRC32 crc = new CRC32();
+    private MappedByteBuffer buffer;
+    private long lastSequence;
+    private int writePosition;
+
+    private GateEventJournal(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+    }
+
+    /**
+     * Opens (or creates) the journal at the given path and locates the end of valid data.
+     *
+     * @param path the journal file
+     * @return the opened journal
+     * @throws IOException if the file cannot be mapped or is not a journal
+     */
+    public static GateEventJournal open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        GateEventJournal journal = new GateEventJournal(path, channel);
+        try {
+            journal.load();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return journal;
+    }
+
+    private void load() throws IOException {
+        long size = channel.size();
+        map((int) Math.max(INITIAL_CAPACITY, Math.min(size, Integer.MAX_VALUE)));
+        if (size < HEADER_SIZE || buffer.getInt(0) == 0) {
+            writeHeader(1L);
+            return;
+        }
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a gate event journal: " + path);
+        }
+        lastSequence = buffer.getLong(8) - 1;
+        writePosition = HEADER_SIZE;
+
+        // Scan forward until the first empty or corrupt record
+        while (writePosition + RECORD_OVERHEAD <= buffer.capacity()) {
+            int length = buffer.getInt(writePosition);
+            if (length <= 0 || writePosition + RECORD_OVERHEAD + length > buffer.capacity()) {
+                break;
+            }
+            long sequence = buffer.getLong(writePosition + 8);
+            if (sequence != lastSequence + 1 || checksum(writePosition, length) != buffer.getInt(writePosition + 4)) {
+                break;
+            }
+            lastSequence = sequence;
+            writePosition += RECORD_OVERHEAD + length;
+        }
+        // Bytes of a torn record past this point are never read back: appends overwrite
+        // them, and the sequence and checksum checks above reject any stale leftovers.
+    }
+
+    /**
+     * Appends an event and assigns it the next sequence number.
+     * The write lands in the OS page cache; call {@link #force()} for durability
+     * against power loss.
+     *
+     * @param event the event to append
+     * @return the event stamped with its sequence number
+     * @throws IOException if the journal cannot grow
+     */
+    public synchronized GateEvent append(GateEvent event) throws IOException {
+        byte[] payload = event.encodePayload();
+        int recordSize = RECORD_OVERHEAD + payload.length;
+        ensureCapacity(writePosition + recordSize + 4);
+
+        long sequence = lastSequence + 1;
+        int position = writePosition;
+        buffer.putLong(position + 8, sequence);
+        buffer.put(position + 16, (byte) event.getType().ordinal());
+        for (int i = 0; i < payload.length; i++) {
+            buffer.put(position + RECORD_OVERHEAD + i, payload[i]);
+        }
+        buffer.putInt(position + 4, checksum(position, payload.length));
+        // Length goes last: a record is only visible once it is complete
+        buffer.putInt(position, payload.length);
+
+        writePosition += recordSize;
+        lastSequence = sequence;
+        return event.withSequence(sequence);
+    }
+
+    /**
+     * Replays all events with a sequence greater than the given one, in order.
+     *
+     * @param afterSequence the last sequence already applied by the caller
+     * @param consumer receives each event
+     * @throws IOException if a stored event cannot be decoded
+     */
+    public synchronized void replay(long afterSequence, Consumer<GateEvent> consumer) throws IOException {
+        int position = HEADER_SIZE;
+        while (position < writePosition) {
+            int length = buffer.getInt(position);
+            long sequence = buffer.getLong(position + 8);
+            if (sequence > afterSequence) {
+                byte[] payload = new byte[length];
+                for (int i = 0; i < length; i++) {
+                    payload[i] = buffer.get(position + RECORD_OVERHEAD + i);
+                }
+                consumer.accept(GateEvent.decode(buffer.get(position + 16), sequence, payload));
+            }
+            position += RECORD_OVERHEAD + length;
+        }
+    }
+
+    /**
+     * Discards all records, keeping the sequence numbering continuous.
+     * Called once a snapshot covers every journaled event.
+     */
+    public synchronized void reset() {
+        for (int i = HEADER_SIZE; i < writePosition; i++) {
+            buffer.put(i, (byte) 0);
+        }
+        writeHeader(lastSequence + 1);
+    }
+
+    /**
+     * Flushes mapped pages to the storage device.
+     */
+    public synchronized void force() {
+        buffer.force();
+    }
+
+    /**
+     * Gets the sequence number of the last appended event.
+     *
+     * @return the last sequence, or base sequence - 1 if the journal is empty
+     */
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Gets the number of bytes currently used by records.
+     *
+     * @return the used size in bytes
+     */
+    public synchronized int getUsedBytes() {
+        return writePosition;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private void writeHeader(long nextSequence) {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putLong(8, nextSequence);
+        lastSequence = nextSequence - 1;
+        writePosition = HEADER_SIZE;
+    }
+
+    private void ensureCapacity(long required) throws IOException {
+        if (required <= buffer.capacity()) {
+            return;
+        }
+        long newCapacity = buffer.capacity();
+        while (newCapacity < required) {
+            newCapacity *= 2;
+        }
+        if (newCapacity > Integer.MAX_VALUE) {
+            throw new IOException("Gate event journal is full: " + path);
+        }
+        buffer.force();
+        map((int) newCapacity);
+    }
+
+    private void map(int capacity) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    private int checksum(int position, int length) {
+        crc.reset();
+        for (int i = position + 8; i < position + RECORD_OVERHEAD + length; i++) {
+            crc.update(buffer.get(i));
+        }
+        return (int) crc.getValue();
+    }
+}
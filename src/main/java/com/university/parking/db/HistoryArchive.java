@@ -0,0 +1,290 @@
+package com.university.parking.db;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Cold storage for finished history. Closed vehicle sessions with their tickets, paid
+ * fines and payments older than the hot window are moved out of the main database into
+ * one archive database per month ({@code parking-yyyy-MM.db}), keeping the hot tables
+ * that gate lookups scan small.
+ *
+ * Each archive file has the same schema as the main database, so the regular DAO
+ * implementations can query a partition unchanged. Rows are filed by the month of
+ * their closing time: vehicles and their tickets by exit time, payments by payment
+ * time and fines by issue time.
+ */
+public class HistoryArchive {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final String FILE_PREFIX = "parking-";
+    private static final String FILE_SUFFIX = ".db";
+
+    // Each statement pair copies a month of rows into the attached archive, then removes them.
+    // Tickets go first because they are selected through their vehicle.
+    private static final String[][] MOVE_STATEMENTS = {
+        {
+            "INSERT OR REPLACE INTO archive.ticket SELECT * FROM main.ticket WHERE vehicle_id IN " +
+            "(SELECT vehicle_id FROM main.vehicle WHERE exit_time >= ? AND exit_time < ?)",
+            "DELETE FROM main.ticket WHERE vehicle_id IN " +
+            "(SELECT vehicle_id FROM main.vehicle WHERE exit_time >= ? AND exit_time < ?)"
+        },
+        {
+            "INSERT OR REPLACE INTO archive.vehicle SELECT * FROM main.vehicle " +
+            "WHERE exit_time >= ? AND exit_time < ?",
+            "DELETE FROM main.vehicle WHERE exit_time >= ? AND exit_time < ?"
+        },
+        {
+            "INSERT OR REPLACE INTO archive.payment SELECT * FROM main.payment " +
+            "WHERE payment_time >= ? AND payment_time < ?",
+            "DELETE FROM main.payment WHERE payment_time >= ? AND payment_time < ?"
+        },
+        {
+            "INSERT OR REPLACE INTO archive.fine SELECT * FROM main.fine " +
+            "WHERE paid = 1 AND issued_time >= ? AND issued_time < ?",
+            "DELETE FROM main.fine WHERE paid = 1 AND issued_time >= ? AND issued_time < ?"
+        }
+    };
+
+    private static final String FIND_MONTHS_SQL =
+        "SELECT substr(exit_time, 1, 7) FROM vehicle WHERE exit_time < ? " +
+        "UNION SELECT substr(payment_time, 1, 7) FROM payment WHERE payment_time < ? " +
+        "UNION SELECT substr(issued_time, 1, 7) FROM fine WHERE paid = 1 AND issued_time < ?";
+
+    private final DatabaseManager hotDb;
+    private final Path directory;
+    private final NavigableMap<YearMonth, DatabaseManager> partitions = new TreeMap<>();
+
+    /**
+     * Opens the archive in a directory, picking up partitions written earlier.
+     *
+     * @param hotDb the main database
+     * @param directory the directory holding the monthly archive files
+     */
+    public HistoryArchive(DatabaseManager hotDb, Path directory) {
+        this.hotDb = hotDb;
+        this.directory = directory;
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                    FILE_PREFIX + "*" + FILE_SUFFIX)) {
+                for (Path file : files) {
+                    YearMonth month = parseMonth(file.getFileName().toString());
+                    if (month != null) {
+                        partitions.put(month, DatabaseManager.forFile(file.toString()));
+                    }
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Error reading archive directory: " + directory, e);
+            }
+        }
+    }
+
+    /**
+     * Moves finished history from before the given month into the monthly archives.
+     * Each month is moved in one transaction on a dedicated connection with the archive
+     * attached. Copies replace existing archive rows, so rerunning after an interrupted
+     * run completes the move instead of duplicating rows.
+     *
+     * @param firstHotMonth the oldest month to keep in the main database
+     * @return the number of rows moved
+     */
+    public synchronized int archiveBefore(YearMonth firstHotMonth) {
+        String cutoff = firstHotMonth.atDay(1).atStartOfDay().format(FORMATTER);
+        int moved = 0;
+        try (Connection conn = hotDb.openConnection()) {
+            for (YearMonth month : findMonths(conn, cutoff)) {
+                moved += archiveMonth(conn, month);
+            }
+        } catch (IOException | SQLException e) {
+            throw new RuntimeException("Error archiving history before " + firstHotMonth, e);
+        }
+        return moved;
+    }
+
+    private int archiveMonth(Connection conn, YearMonth month) throws IOException, SQLException {
+        DatabaseManager partition = partitions.get(month);
+        if (partition == null) {
+            Files.createDirectories(directory);
+            partition = DatabaseManager.forFile(pathFor(month).toString());
+            partition.initializeDatabase();
+            partition.closeConnection();
+        }
+
+        String from = month.atDay(1).atStartOfDay().format(FORMATTER);
+        String to = month.plusMonths(1).atDay(1).atStartOfDay().format(FORMATTER);
+        // ATTACH is not allowed inside a transaction
+        try (PreparedStatement attach = conn.prepareStatement("ATTACH DATABASE ? AS archive")) {
+            attach.setString(1, pathFor(month).toString());
+            attach.execute();
+        }
+        int moved = 0;
+        try {
+            moved = hotDb.inTransaction(conn, txConn -> {
+                int rows = 0;
+                for (String[] statements : MOVE_STATEMENTS) {
+                    rows += executeRange(txConn, statements[0], from, to);
+                    executeRange(txConn, statements[1], from, to);
+                }
+                return rows;
+            });
+        } finally {
+            try (Statement detach = conn.createStatement()) {
+                detach.execute("DETACH DATABASE archive");
+            }
+        }
+        partitions.put(month, partition);
+        return moved;
+    }
+
+    private static int executeRange(Connection conn, String sql, String from, String to) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, from);
+            stmt.setString(2, to);
+            return stmt.executeUpdate();
+        }
+    }
+
+    private static TreeSet<YearMonth> findMonths(Connection conn, String cutoff) throws SQLException {
+        TreeSet<YearMonth> months = new TreeSet<>();
+        try (PreparedStatement stmt = conn.prepareStatement(FIND_MONTHS_SQL)) {
+            stmt.setString(1, cutoff);
+            stmt.setString(2, cutoff);
+            stmt.setString(3, cutoff);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    months.add(YearMonth.parse(rs.getString(1)));
+                }
+            }
+        }
+        return months;
+    }
+
+    /**
+     * Runs a query against every partition, newest month first.
+     * Each partition is read in its own read transaction on a dedicated connection.
+     *
+     * @param query builds the result from a partition's database
+     * @param <T> the result type
+     * @return one result per partition
+     */
+    public <T> List<T> queryAll(Function<DatabaseManager, T> query) {
+        return query(snapshot(null, null), query);
+    }
+
+    /**
+     * Runs a query against the partitions whose month overlaps a date range, newest first.
+     *
+     * @param startDate the first day of the range
+     * @param endDate the last day of the range
+     * @param query builds the result from a partition's database
+     * @param <T> the result type
+     * @return one result per overlapping partition
+     */
+    public <T> List<T> queryRange(LocalDate startDate, LocalDate endDate, Function<DatabaseManager, T> query) {
+        return query(snapshot(YearMonth.from(startDate), YearMonth.from(endDate)), query);
+    }
+
+    /**
+     * Runs a query against the partitions of a range of months, oldest first, for readers
+     * that stream rows in the order they were recorded.
+     *
+     * @param firstMonth the oldest month to read, or null for no lower bound
+     * @param lastMonth the newest month to read, or null for no upper bound
+     * @param query builds the result from a partition's database
+     * @param <T> the result type
+     * @return one result per partition read
+     */
+    public <T> List<T> queryMonths(YearMonth firstMonth, YearMonth lastMonth, Function<DatabaseManager, T> query) {
+        List<DatabaseManager> selected = snapshot(firstMonth, lastMonth);
+        Collections.reverse(selected);
+        return query(selected, query);
+    }
+
+    /**
+     * Runs a query against each partition, newest first, until one returns a result.
+     *
+     * @param query builds the result from a partition's database, or returns null
+     * @param <T> the result type
+     * @return the newest partition's result, or null if no partition has one
+     */
+    public <T> T queryNewest(Function<DatabaseManager, T> query) {
+        for (DatabaseManager partition : snapshot(null, null)) {
+            T result = read(partition, query);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the months that have been archived.
+     *
+     * @return the archived months in ascending order
+     */
+    public synchronized List<YearMonth> getMonths() {
+        return new ArrayList<>(partitions.keySet());
+    }
+
+    private <T> List<T> query(List<DatabaseManager> selected, Function<DatabaseManager, T> query) {
+        List<T> results = new ArrayList<>(selected.size());
+        for (DatabaseManager partition : selected) {
+            results.add(read(partition, query));
+        }
+        return results;
+    }
+
+    private static <T> T read(DatabaseManager partition, Function<DatabaseManager, T> query) {
+        try {
+            return partition.inReadTransaction(conn -> query.apply(partition));
+        } catch (SQLException e) {
+            throw new RuntimeException("Error reading archive partition", e);
+        }
+    }
+
+    // Newest first; either bound may be null
+    private synchronized List<DatabaseManager> snapshot(YearMonth from, YearMonth to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            return new ArrayList<>();
+        }
+        NavigableMap<YearMonth, DatabaseManager> selected = partitions;
+        if (from != null) {
+            selected = selected.tailMap(from, true);
+        }
+        if (to != null) {
+            selected = selected.headMap(to, true);
+        }
+        return new ArrayList<>(selected.descendingMap().values());
+    }
+
+    private Path pathFor(YearMonth month) {
+        return directory.resolve(FILE_PREFIX + month + FILE_SUFFIX);
+    }
+
+    private static YearMonth parseMonth(String fileName) {
+        String month = fileName.substring(FILE_PREFIX.length(), fileName.length() - FILE_SUFFIX.length());
+        try {
+            return YearMonth.parse(month);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,652 @@
+package com.university.parking.db;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports history tables by date range, streaming rows from a JDBC cursor straight
+ * into a compressed file, so memory use does not grow with the number of rows.
+ * All tables of one export are read from the same read-only snapshot and never
+ * block gate writes. Rows moved into the monthly partitions of a {@link HistoryArchive}
+ * are exported too: each table's archived rows come first, oldest partition first, each
+ * partition read in a snapshot of its own, followed by the rows of the main database.
+ *
+ * The columnar format ({@code .pcol.gz}) is a gzip stream of:
+ * <pre>
+ *   "PCOL" version:byte table:UTF columnCount:varint (name:UTF type:byte)*
+ *   block* 0:varint
+ *   block = rowCount:varint (nullBitmap values)* one entry per column, where values are
+ *           INTEGER: zigzag varint deltas, REAL: 8-byte doubles, TEXT: length:varint UTF-8 bytes
+ * </pre>
+ * Blocks hold at most 4096 rows, so a column's values sit together and compress well.
+ */
+public class HistoryExporter {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final int PROGRESS_INTERVAL = 1000;
+    private static final int BLOCK_ROWS = 4096;
+    private static final byte[] COLUMNAR_MAGIC = {'P', 'C', 'O', 'L'};
+    private static final byte COLUMNAR_VERSION = 1;
+    private static final byte TYPE_INTEGER = 0;
+    private static final byte TYPE_REAL = 1;
+    private static final byte TYPE_TEXT = 2;
+
+    /**
+     * The exportable tables and the time column their date range applies to.
+     */
+    public enum Table {
+        VEHICLE("vehicle", "entry_time", Archived.BY_LATER_TIME),
+        TICKET("ticket", "entry_time", Archived.BY_LATER_TIME),
+        PAYMENT("payment", "payment_time", Archived.BY_TIME_COLUMN),
+        FINE("fine", "issued_time", Archived.BY_TIME_COLUMN),
+        RESERVATION("reservation", "start_time", Archived.NEVER);
+
+        private final String tableName;
+        private final String timeColumn;
+        private final Archived archived;
+
+        Table(String tableName, String timeColumn, Archived archived) {
+            this.tableName = tableName;
+            this.timeColumn = timeColumn;
+            this.archived = archived;
+        }
+
+        public String getTableName() {
+            return tableName;
+        }
+    }
+
+    /**
+     * How a table's rows are filed into the monthly archive partitions.
+     */
+    private enum Archived {
+        // Not archived
+        NEVER,
+        // By the month of the time column the date range applies to
+        BY_TIME_COLUMN,
+        // By the month of a time at or after it: vehicles and tickets by exit time
+        BY_LATER_TIME
+    }
+
+    /**
+     * The output formats.
+     */
+    public enum Format {
+        CSV_GZIP(".csv.gz"),
+        COLUMNAR(".pcol.gz");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Receives progress while an export runs. Called on the exporting thread.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        /**
+         * @param table the table being exported
+         * @param rowsWritten rows of this table written so far
+         * @param totalRows rows of this table in the range
+         */
+        void onProgress(Table table, long rowsWritten, long totalRows);
+    }
+
+    /**
+     * Reads from one archive partition's connection.
+     */
+    @FunctionalInterface
+    private interface PartitionRead<T> {
+        T read(Connection conn) throws SQLException, IOException;
+    }
+
+    private final DatabaseManager dbManager;
+    private final HistoryArchive archive;
+    private final Runnable beforeExport;
+
+    public HistoryExporter(DatabaseManager dbManager) {
+        this(dbManager, null, null);
+    }
+
+    /**
+     * Creates an exporter that also reads archived history and first brings SQLite up to
+     * date, for persistence modes that write to the database asynchronously.
+     *
+     * @param dbManager the database to export from
+     * @param archive the archive holding history moved out of the database; may be null
+     * @param beforeExport run before each export, e.g. flushing pending writes; may be null
+     */
+    public HistoryExporter(DatabaseManager dbManager, HistoryArchive archive, Runnable beforeExport) {
+        this.dbManager = dbManager;
+        this.archive = archive;
+        this.beforeExport = beforeExport;
+    }
+
+    /**
+     * Exports tables to one file per table in the directory, named after the table.
+     * Interrupting the exporting thread cancels the export with a CancellationException.
+     *
+     * @param tables the tables to export
+     * @param from start of the range (inclusive), or null for no lower bound
+     * @param to end of the range (exclusive), or null for no upper bound
+     * @param format the output format
+     * @param directory the output directory
+     * @param listener receives progress, or null
+     * @return the number of rows written per table
+     */
+    public Map<Table, Long> exportAll(Set<Table> tables, LocalDateTime from, LocalDateTime to,
+                                      Format format, Path directory, ProgressListener listener) {
+        try {
+            Files.createDirectories(directory);
+            runBeforeExport();
+            return dbManager.inReadTransaction(conn -> {
+                Map<Table, Long> written = new LinkedHashMap<>();
+                for (Table table : tables) {
+                    Path file = directory.resolve(table.getTableName() + format.getExtension());
+                    try (OutputStream out = Files.newOutputStream(file)) {
+                        written.put(table, export(conn, table, from, to, format, out, listener));
+                    } catch (IOException e) {
+                        throw new RuntimeException("Error writing export file: " + file, e);
+                    }
+                }
+                return written;
+            });
+        } catch (IOException | SQLException e) {
+            throw new RuntimeException("Error exporting history", e);
+        }
+    }
+
+    /**
+     * Exports one table to a stream. The stream is finished but not closed.
+     *
+     * @param table the table to export
+     * @param from start of the range (inclusive), or null for no lower bound
+     * @param to end of the range (exclusive), or null for no upper bound
+     * @param format the output format
+     * @param out the destination
+     * @param listener receives progress, or null
+     * @return the number of rows written
+     */
+    public long export(Table table, LocalDateTime from, LocalDateTime to, Format format,
+                       OutputStream out, ProgressListener listener) {
+        try {
+            runBeforeExport();
+            return dbManager.inReadTransaction(conn -> {
+                try {
+                    return export(conn, table, from, to, format, out, listener);
+                } catch (IOException e) {
+                    throw new RuntimeException("Error writing export of table: " + table.getTableName(), e);
+                }
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Error exporting table: " + table.getTableName(), e);
+        }
+    }
+
+    private void runBeforeExport() {
+        if (beforeExport != null) {
+            beforeExport.run();
+        }
+    }
+
+    private long export(Connection conn, Table table, LocalDateTime from, LocalDateTime to,
+                        Format format, OutputStream out, ProgressListener listener)
+            throws SQLException, IOException {
+        // The reservation table is created on first use; without it the table exports as empty
+        boolean inMain = tableExists(conn, table);
+        long total = inMain ? count(conn, table, from, to) : 0;
+        for (long archived : readArchive(table, from, to, partition -> count(partition, table, from, to))) {
+            total += archived;
+        }
+
+        GZIPOutputStream gzip = new GZIPOutputStream(new NonClosingOutputStream(out), 64 * 1024);
+        long rows;
+        try (TableWriter writer = format == Format.CSV_GZIP
+                ? new CsvWriter(table, total, listener, gzip)
+                : new ColumnarWriter(table, total, listener, gzip)) {
+            readArchive(table, from, to, partition -> {
+                writeRange(partition, table, from, to, writer);
+                return null;
+            });
+            if (inMain) {
+                writeRange(conn, table, from, to, writer);
+            }
+            writer.finish();
+            rows = writer.rows;
+        }
+        if (listener != null) {
+            listener.onProgress(table, rows, total);
+        }
+        return rows;
+    }
+
+    private static void writeRange(Connection conn, Table table, LocalDateTime from, LocalDateTime to,
+                                   TableWriter writer) throws SQLException, IOException {
+        // Rows come out in insertion order, which avoids a sort over the whole range
+        String sql = "SELECT * FROM " + table.tableName + whereClause(table, from, to);
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            bindRange(stmt, from, to);
+            try (ResultSet rs = stmt.executeQuery()) {
+                writer.writeAll(rs);
+            }
+        }
+    }
+
+    /**
+     * Runs a read on each archive partition that may hold rows of the table in the range,
+     * oldest first, and returns its non-null results.
+     */
+    private <T> List<T> readArchive(Table table, LocalDateTime from, LocalDateTime to, PartitionRead<T> read) {
+        if (archive == null || table.archived == Archived.NEVER) {
+            return Collections.emptyList();
+        }
+        YearMonth firstMonth = from != null ? YearMonth.from(from) : null;
+        // Rows filed by a later time than the range's column can sit in any later partition
+        YearMonth lastMonth = to != null && table.archived == Archived.BY_TIME_COLUMN
+                ? YearMonth.from(to.minusNanos(1)) : null;
+        List<T> results = archive.queryMonths(firstMonth, lastMonth, partition -> {
+            try {
+                Connection conn = partition.getConnection();
+                return tableExists(conn, table) ? read.read(conn) : null;
+            } catch (SQLException | IOException e) {
+                throw new RuntimeException("Error exporting archived table: " + table.getTableName(), e);
+            }
+        });
+        results.removeIf(Objects::isNull);
+        return results;
+    }
+
+    /**
+     * Writes the rows of one table in an output format. The rows may come from several
+     * result sets with the same columns, those of the archive partitions and the main database.
+     */
+    private abstract static class TableWriter implements Closeable {
+        private final Table table;
+        private final long total;
+        private final ProgressListener listener;
+        long rows;
+        boolean started;
+
+        TableWriter(Table table, long total, ProgressListener listener) {
+            this.table = table;
+            this.total = total;
+            this.listener = listener;
+        }
+
+        void writeAll(ResultSet rs) throws SQLException, IOException {
+            if (!started) {
+                writeHeader(rs.getMetaData());
+                started = true;
+            }
+            while (rs.next()) {
+                writeRow(rs);
+                reportProgress(table, ++rows, total, listener);
+            }
+        }
+
+        abstract void writeHeader(ResultSetMetaData meta) throws SQLException, IOException;
+
+        abstract void writeRow(ResultSet rs) throws SQLException, IOException;
+
+        /**
+         * Writes what follows the last row. Called once, before closing, if no error occurred.
+         */
+        abstract void finish() throws IOException;
+    }
+
+    private static final class CsvWriter extends TableWriter {
+        private final Writer writer;
+        private int columns;
+
+        CsvWriter(Table table, long total, ProgressListener listener, OutputStream out) {
+            super(table, total, listener);
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        void writeHeader(ResultSetMetaData meta) throws SQLException, IOException {
+            columns = meta.getColumnCount();
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                writer.write(csvField(meta.getColumnName(i)));
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        void writeRow(ResultSet rs) throws SQLException, IOException {
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                String value = rs.getString(i);
+                if (value != null) {
+                    writer.write(csvField(value));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        void finish() {
+            // An empty table without a header is an empty file
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    private static final class ColumnarWriter extends TableWriter {
+        private final DataOutputStream out;
+        private byte[] types;
+        // One block of values per column; reused for every block
+        private Object[] values;
+        private boolean[][] nulls;
+        private int inBlock;
+
+        ColumnarWriter(Table table, long total, ProgressListener listener, OutputStream out) throws IOException {
+            super(table, total, listener);
+            this.out = new DataOutputStream(new BufferedOutputStream(out));
+            this.out.write(COLUMNAR_MAGIC);
+            this.out.writeByte(COLUMNAR_VERSION);
+            this.out.writeUTF(table.tableName);
+        }
+
+        @Override
+        void writeHeader(ResultSetMetaData meta) throws SQLException, IOException {
+            int columns = meta.getColumnCount();
+            types = new byte[columns];
+            writeVarint(out, columns);
+            for (int i = 0; i < columns; i++) {
+                types[i] = columnType(meta.getColumnTypeName(i + 1));
+                out.writeUTF(meta.getColumnName(i + 1));
+                out.writeByte(types[i]);
+            }
+            values = new Object[columns];
+            nulls = new boolean[columns][BLOCK_ROWS];
+            for (int i = 0; i < columns; i++) {
+                values[i] = types[i] == TYPE_INTEGER ? new long[BLOCK_ROWS]
+                          : types[i] == TYPE_REAL ? new double[BLOCK_ROWS] : new String[BLOCK_ROWS];
+            }
+        }
+
+        @Override
+        void writeRow(ResultSet rs) throws SQLException, IOException {
+            for (int i = 0; i < types.length; i++) {
+                switch (types[i]) {
+                    case TYPE_INTEGER:
+                        ((long[]) values[i])[inBlock] = rs.getLong(i + 1);
+                        break;
+                    case TYPE_REAL:
+                        ((double[]) values[i])[inBlock] = rs.getDouble(i + 1);
+                        break;
+                    default:
+                        ((String[]) values[i])[inBlock] = rs.getString(i + 1);
+                        break;
+                }
+                nulls[i][inBlock] = rs.wasNull();
+            }
+            if (++inBlock == BLOCK_ROWS) {
+                writeBlock(out, types, values, nulls, inBlock);
+                inBlock = 0;
+            }
+        }
+
+        @Override
+        void finish() throws IOException {
+            if (!started) {
+                // No columns
+                writeVarint(out, 0);
+            }
+            if (inBlock > 0) {
+                writeBlock(out, types, values, nulls, inBlock);
+            }
+            writeVarint(out, 0);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    private static void writeBlock(DataOutputStream out, byte[] types, Object[] values,
+                                   boolean[][] nulls, int rows) throws IOException {
+        writeVarint(out, rows);
+        for (int i = 0; i < types.length; i++) {
+            byte[] bitmap = new byte[(rows + 7) / 8];
+            for (int row = 0; row < rows; row++) {
+                if (nulls[i][row]) {
+                    bitmap[row >>> 3] |= (byte) (1 << (row & 7));
+                }
+            }
+            out.write(bitmap);
+
+            long previous = 0;
+            for (int row = 0; row < rows; row++) {
+                if (nulls[i][row]) {
+                    continue;
+                }
+                switch (types[i]) {
+                    case TYPE_INTEGER:
+                        long value = ((long[]) values[i])[row];
+                        long delta = value - previous;
+                        writeVarint(out, (delta << 1) ^ (delta >> 63));
+                        previous = value;
+                        break;
+                    case TYPE_REAL:
+                        out.writeDouble(((double[]) values[i])[row]);
+                        break;
+                    default:
+                        byte[] text = ((String[]) values[i])[row].getBytes(StandardCharsets.UTF_8);
+                        writeVarint(out, text.length);
+                        out.write(text);
+                        break;
+                }
+            }
+        }
+    }
+
+    private static void writeVarint(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static byte columnType(String declaredType) {
+        String type = declaredType == null ? "" : declaredType.toUpperCase(Locale.ROOT);
+        if (type.contains("INT")) {
+            return TYPE_INTEGER;
+        }
+        if (type.contains("REAL") || type.contains("DOUB") || type.contains("FLOA")) {
+            return TYPE_REAL;
+        }
+        return TYPE_TEXT;
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static void reportProgress(Table table, long rows, long total, ProgressListener listener) {
+        if (rows % PROGRESS_INTERVAL == 0) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Export cancelled");
+            }
+            if (listener != null) {
+                listener.onProgress(table, rows, total);
+            }
+        }
+    }
+
+    private static boolean tableExists(Connection conn, Table table) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?")) {
+            stmt.setString(1, table.tableName);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static long count(Connection conn, Table table, LocalDateTime from, LocalDateTime to)
+            throws SQLException {
+        String sql = "SELECT COUNT(*) FROM " + table.tableName + whereClause(table, from, to);
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            bindRange(stmt, from, to);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    private static String whereClause(Table table, LocalDateTime from, LocalDateTime to) {
+        List<String> conditions = new ArrayList<>();
+        if (from != null) {
+            conditions.add(table.timeColumn + " >= ?");
+        }
+        if (to != null) {
+            conditions.add(table.timeColumn + " < ?");
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    private static void bindRange(PreparedStatement stmt, LocalDateTime from, LocalDateTime to)
+            throws SQLException {
+        int index = 1;
+        if (from != null) {
+            stmt.setString(index++, from.format(FORMATTER));
+        }
+        if (to != null) {
+            stmt.setString(index, to.format(FORMATTER));
+        }
+    }
+
+    /**
+     * Runs an export without the UI.
+     * Usage: {@code HistoryExporter <outputDir> [--db path] [--archive dir] [--from yyyy-MM-dd]
+     * [--to yyyy-MM-dd] [--format csv|columnar] [--tables vehicle,ticket,payment,fine,reservation]}.
+     * The {@code --to} date is inclusive; the archive directory defaults to "archive".
+     *
+     * @param args command line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: HistoryExporter <outputDir> [--db path] [--archive dir] [--from yyyy-MM-dd] "
+                    + "[--to yyyy-MM-dd] [--format csv|columnar] [--tables vehicle,ticket,payment,fine,reservation]");
+            System.exit(2);
+        }
+        Path directory = Paths.get(args[0]);
+        String dbPath = null;
+        String archivePath = "archive";
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        Format format = Format.CSV_GZIP;
+        Set<Table> tables = EnumSet.allOf(Table.class);
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--db":
+                    dbPath = value;
+                    break;
+                case "--archive":
+                    archivePath = value;
+                    break;
+                case "--from":
+                    from = LocalDate.parse(value).atStartOfDay();
+                    break;
+                case "--to":
+                    to = LocalDate.parse(value).plusDays(1).atStartOfDay();
+                    break;
+                case "--format":
+                    format = "columnar".equalsIgnoreCase(value) ? Format.COLUMNAR : Format.CSV_GZIP;
+                    break;
+                case "--tables":
+                    tables = EnumSet.noneOf(Table.class);
+                    for (String name : value.split(",")) {
+                        tables.add(Table.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+                    }
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        DatabaseManager dbManager = dbPath != null ? DatabaseManager.forFile(dbPath) : DatabaseManager.getInstance();
+        HistoryArchive archive = new HistoryArchive(dbManager, Paths.get(archivePath));
+        Map<Table, Long> written = new HistoryExporter(dbManager, archive, null).exportAll(tables, from, to, format, directory,
+            (table, rows, total) -> System.out.println("Exporting " + table.getTableName() + ": " + rows + "/" + total));
+        written.forEach((table, rows) ->
+            System.out.println("Exported " + rows + " " + table.getTableName() + " rows"));
+        System.out.println("Export written to " + directory.toAbsolutePath());
+        dbManager.closeConnection();
+    }
+
+    /**
+     * Lets the gzip stream be finished and closed without closing the caller's stream.
+     */
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+        private NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package com.university.parking.db;
+
+import com.university.parking.log.Logger;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded write-behind queue with group commit.
+ * DAO writes are queued and a dedicated writer thread commits many of them in one
+ * SQLite transaction, so the per-commit fsync is shared by all writes in the batch.
+ *
+ * Each write is tagged with keys (for example "vehicle:ABC123" and "vehicle").
+ * Readers call {@link #awaitKey(String)} before querying, which only waits when a
+ * write touching that key is still pending, so unrelated gate events never block.
+ */
+public class WriteBehindQueue implements Closeable {
+
+    private static final Logger LOG = Logger.get(WriteBehindQueue.class);
+
+    /**
+     * How long a caller waits for its write.
+     */
+    public enum Durability {
+        /** Return once the write is committed (shares the commit with concurrent writers) */
+        SYNC,
+        /** Return once the write is queued; it is committed within the maximum latency */
+        ASYNC
+    }
+
+    private static final int DEFAULT_CAPACITY = 10_000;
+    private static final int DEFAULT_MAX_BATCH = 500;
+    private static final long DEFAULT_MAX_LATENCY_MS = 50;
+
+    // Marker that asks the writer to commit what it has without waiting for more
+    private static final PendingWrite FLUSH_MARKER = new PendingWrite(0L, null, new String[0]);
+
+    private final DatabaseManager dbManager;
+    private final Durability durability;
+    private final int maxBatchSize;
+    private final long maxLatencyNanos;
+    private final BlockingQueue<PendingWrite> queue;
+    private final ConcurrentHashMap<String, Integer> pendingKeys = new ConcurrentHashMap<>();
+    private final AtomicLong submitted = new AtomicLong();
+    private final Object commitMonitor = new Object();
+    private final Thread writer;
+    private volatile long committed;
+    private volatile boolean closed;
+
+    // Metrics
+    private final AtomicLong committedBatches = new AtomicLong();
+    private final AtomicLong committedWrites = new AtomicLong();
+    private final AtomicLong failedWrites = new AtomicLong();
+
+    /**
+     * Creates a queue with default capacity (10,000 writes), batch size (500) and latency (50 ms).
+     *
+     * @param dbManager the database manager
+     * @param durability how long callers wait for their writes
+     */
+    public WriteBehindQueue(DatabaseManager dbManager, Durability durability) {
+        this(dbManager, durability, DEFAULT_CAPACITY, DEFAULT_MAX_BATCH, DEFAULT_MAX_LATENCY_MS);
+    }
+
+    /**
+     * Creates a queue with custom limits.
+     *
+     * @param dbManager the database manager
+     * @param durability how long callers wait for their writes
+     * @param capacity maximum queued writes; producers block when it is full
+     * @param maxBatchSize maximum writes committed in one transaction
+     * @param maxLatencyMs maximum time an ASYNC write waits for companions before commit
+     */
+    public WriteBehindQueue(DatabaseManager dbManager, Durability durability,
+                            int capacity, int maxBatchSize, long maxLatencyMs) {
+        if (dbManager == null || durability == null) {
+            throw new IllegalArgumentException("Database manager and durability cannot be null");
+        }
+        if (capacity <= 0 || maxBatchSize <= 0 || maxLatencyMs < 0) {
+            throw new IllegalArgumentException("Queue limits must be positive");
+        }
+        this.dbManager = dbManager;
+        this.durability = durability;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLatencyNanos = TimeUnit.MILLISECONDS.toNanos(maxLatencyMs);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.writer = new Thread(this::runWriter, "write-behind-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queues a write. Blocks while the queue is full; with SYNC durability also blocks
+     * until the write is committed.
+     *
+     * @param write the DAO call to perform on the writer thread
+     * @param keys the keys this write touches
+     * @throws IllegalStateException if the queue is closed
+     * @throws RuntimeException with SYNC durability, if the write failed
+     */
+    public void submit(Runnable write, String... keys) {
+        if (closed) {
+            throw new IllegalStateException("Write-behind queue is closed");
+        }
+        PendingWrite pending;
+        synchronized (this) {
+            // Sequence numbers must follow queue order, so assign and enqueue together
+            pending = new PendingWrite(submitted.incrementAndGet(), write, keys);
+            for (String key : keys) {
+                pendingKeys.merge(key, 1, Integer::sum);
+            }
+            try {
+                queue.put(pending);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                releaseKeys(pending);
+                throw new IllegalStateException("Interrupted while queueing write", e);
+            }
+        }
+        if (durability == Durability.SYNC) {
+            awaitCommitted(pending.sequence);
+            if (pending.error != null) {
+                throw pending.error;
+            }
+        }
+    }
+
+    /**
+     * Waits until no write touching the key is pending.
+     *
+     * @param key the key about to be read
+     */
+    public void awaitKey(String key) {
+        if (pendingKeys.containsKey(key)) {
+            flush();
+        }
+    }
+
+    /**
+     * Commits everything queued so far and waits for it.
+     */
+    public void flush() {
+        long target = submitted.get();
+        if (committed >= target) {
+            return;
+        }
+        queue.offer(FLUSH_MARKER);
+        awaitCommitted(target);
+    }
+
+    /**
+     * Flushes all queued writes and stops the writer thread.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        flush();
+        closed = true;
+        writer.interrupt();
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    public int getPendingWrites() {
+        return (int) (submitted.get() - committed);
+    }
+
+    public long getCommittedBatches() {
+        return committedBatches.get();
+    }
+
+    public long getCommittedWrites() {
+        return committedWrites.get();
+    }
+
+    public long getFailedWrites() {
+        return failedWrites.get();
+    }
+
+    /**
+     * Gets the average number of writes per commit.
+     *
+     * @return the average batch size, or 0 if nothing was committed
+     */
+    public double getAverageBatchSize() {
+        long batches = committedBatches.get();
+        return batches == 0 ? 0.0 : (double) committedWrites.get() / batches;
+    }
+
+    // Writer thread
+
+    private void runWriter() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        try (Connection conn = dbManager.openConnection()) {
+            while (!closed || !queue.isEmpty()) {
+                try {
+                    collectBatch(batch);
+                } catch (InterruptedException e) {
+                    if (!closed) {
+                        continue;
+                    }
+                    queue.drainTo(batch);
+                }
+                batch.removeIf(write -> write == FLUSH_MARKER);
+                if (!batch.isEmpty()) {
+                    commitBatch(conn, batch);
+                    batch.clear();
+                }
+            }
+        } catch (SQLException e) {
+            LOG.error("Write-behind writer stopped", e);
+        }
+    }
+
+    /**
+     * Waits for the first write, then gathers companions until the batch is full,
+     * the latency budget is spent, or a flush is requested.
+     */
+    private void collectBatch(List<PendingWrite> batch) throws InterruptedException {
+        PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        queue.drainTo(batch, maxBatchSize - batch.size());
+        if (durability == Durability.SYNC || batch.contains(FLUSH_MARKER)) {
+            // Callers are waiting: commit what is queued now, concurrency fills the next batch
+            return;
+        }
+        long deadline = System.nanoTime() + maxLatencyNanos;
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            if (next == FLUSH_MARKER) {
+                return;
+            }
+            queue.drainTo(batch, maxBatchSize - batch.size());
+        }
+    }
+
+    private void commitBatch(Connection conn, List<PendingWrite> batch) {
+        try {
+            dbManager.inTransaction(conn, c -> {
+                for (PendingWrite write : batch) {
+                    write.action.run();
+                }
+                return null;
+            });
+            committedBatches.incrementAndGet();
+            committedWrites.addAndGet(batch.size());
+        } catch (SQLException | RuntimeException batchError) {
+            // Retry one by one so a single failing write does not take its batch down
+            for (PendingWrite write : batch) {
+                try {
+                    dbManager.inTransaction(conn, c -> {
+                        write.action.run();
+                        return null;
+                    });
+                    committedBatches.incrementAndGet();
+                    committedWrites.incrementAndGet();
+                } catch (SQLException | RuntimeException e) {
+                    failedWrites.incrementAndGet();
+                    write.error = e instanceof RuntimeException
+                        ? (RuntimeException) e
+                        : new RuntimeException("Write-behind commit failed", e);
+                    if (durability == Durability.ASYNC) {
+                        LOG.error("Write-behind write failed", e);
+                    }
+                }
+            }
+        }
+        for (PendingWrite write : batch) {
+            releaseKeys(write);
+        }
+        synchronized (commitMonitor) {
+            committed = batch.get(batch.size() - 1).sequence;
+            commitMonitor.notifyAll();
+        }
+    }
+
+    private void releaseKeys(PendingWrite write) {
+        for (String key : write.keys) {
+            pendingKeys.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private void awaitCommitted(long sequence) {
+        synchronized (commitMonitor) {
+            while (committed < sequence) {
+                if (!writer.isAlive()) {
+                    throw new IllegalStateException("Write-behind writer is not running");
+                }
+                try {
+                    commitMonitor.wait(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * A queued write and the keys it touches.
+     */
+    private static final class PendingWrite {
+        private final long sequence;
+        private final Runnable action;
+        private final String[] keys;
+        private volatile RuntimeException error;
+
+        private PendingWrite(long sequence, Runnable action, String[] keys) {
+            this.sequence = sequence;
+            this.action = action;
+            this.keys = keys;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.university.parking.domain;
+
+import java.time.LocalDateTime;
+
+/**
+ * Value object for one requested reservation slot in a bulk booking.
+ */
+public class BookingRequest {
+
+    private final String licensePlate;
+    private final String spotId;
+    private final LocalDateTime startTime;
+    private final LocalDateTime endTime;
+
+    /**
+     * Creates a booking request.
+     *
+     * @param licensePlate the vehicle's license plate
+     * @param spotId the spot to reserve
+     * @param startTime when the reservation starts
+     * @param endTime when the reservation ends
+     */
+    public BookingRequest(String licensePlate, String spotId, LocalDateTime startTime, LocalDateTime endTime) {
+        this.licensePlate = licensePlate;
+        this.spotId = spotId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    public String getLicensePlate() {
+        return licensePlate;
+    }
+
+    public String getSpotId() {
+        return spotId;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    @Override
+    public String toString() {
+        return "BookingRequest{" +
+                "licensePlate='" + licensePlate + '\'' +
+                ", spotId='" + spotId + '\'' +
+                ", startTime=" + startTime +
+                ", endTime=" + endTime +
+                '}';
+    }
+}
@@ -0,0 +1,83 @@
+package com.university.parking.domain;
+
+/**
+ * Value object for the outcome of one request in a bulk booking.
+ */
+public class BookingResult {
+
+    /**
+     * Outcome of a booking request.
+     */
+    public enum Status {
+        /** The reservation was created */
+        BOOKED,
+        /** The slot overlaps an existing reservation or an earlier slot of the same batch */
+        CONFLICT,
+        /** The request failed validation */
+        INVALID
+    }
+
+    private final BookingRequest request;
+    private final Status status;
+    private final Reservation reservation;
+    private final String message;
+
+    private BookingResult(BookingRequest request, Status status, Reservation reservation, String message) {
+        this.request = request;
+        this.status = status;
+        this.reservation = reservation;
+        this.message = message;
+    }
+
+    public static BookingResult booked(BookingRequest request, Reservation reservation) {
+        return new BookingResult(request, Status.BOOKED, reservation, null);
+    }
+
+    public static BookingResult conflict(BookingRequest request, String message) {
+        return new BookingResult(request, Status.CONFLICT, null, message);
+    }
+
+    public static BookingResult invalid(BookingRequest request, String message) {
+        return new BookingResult(request, Status.INVALID, null, message);
+    }
+
+    public BookingRequest getRequest() {
+        return request;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the created reservation.
+     *
+     * @return the reservation, or null unless the status is BOOKED
+     */
+    public Reservation getReservation() {
+        return reservation;
+    }
+
+    /**
+     * Gets why the request was not booked.
+     *
+     * @return the reason, or null if the status is BOOKED
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    public boolean isBooked() {
+        return status == Status.BOOKED;
+    }
+
+    @Override
+    public String toString() {
+        return "BookingResult{" +
+                "status=" + status +
+                ", request=" + request +
+                (reservation != null ? ", reservationId='" + reservation.getReservationId() + '\'' : "") +
+                (message != null ? ", message='" + message + '\'' : "") +
+                '}';
+    }
+}
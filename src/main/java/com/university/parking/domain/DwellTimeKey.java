@@ -0,0 +1,66 @@
+package com.university.parking.domain;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Identifies the dwell time sketch of the stays that began on one day, in one hour
+ * of that day, in spots of one type.
+ */
+public class DwellTimeKey {
+
+    private final LocalDate day;
+    private final SpotType spotType;
+    private final int hour;
+
+    public DwellTimeKey(LocalDate day, SpotType spotType, int hour) {
+        if (hour < 0 || hour > 23) {
+            throw new IllegalArgumentException("Hour must be between 0 and 23");
+        }
+        this.day = day;
+        this.spotType = spotType;
+        this.hour = hour;
+    }
+
+    /**
+     * Gets the key of a stay from its entry time.
+     *
+     * @param spotType the type of spot used
+     * @param entryTime when the stay began
+     * @return the key
+     */
+    public static DwellTimeKey of(SpotType spotType, LocalDateTime entryTime) {
+        return new DwellTimeKey(entryTime.toLocalDate(), spotType, entryTime.getHour());
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public SpotType getSpotType() {
+        return spotType;
+    }
+
+    public int getHour() {
+        return hour;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DwellTimeKey)) return false;
+        DwellTimeKey that = (DwellTimeKey) o;
+        return hour == that.hour && day.equals(that.day) && spotType == that.spotType;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(day, spotType, hour);
+    }
+
+    @Override
+    public String toString() {
+        return day + "/" + spotType + "/" + hour;
+    }
+}
@@ -0,0 +1,217 @@
+package com.university.parking.domain;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * Mergeable quantile sketch of parking durations.
+ * Durations are counted in logarithmic buckets whose width grows with the duration,
+ * so any quantile is estimated within 1% of the true duration, whether stays last
+ * minutes or days. About 750 buckets cover one second to a month, and sketches of
+ * different periods merge exactly by adding bucket counts.
+ */
+public class DwellTimeSketch {
+
+    /** Guaranteed relative accuracy of quantile estimates */
+    public static final double RELATIVE_ACCURACY = 0.01;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final byte FORMAT_VERSION = 1;
+
+    // Stays shorter than a second, counted apart because the log of 0 is undefined
+    private long zeroCount;
+    // counts[i] holds the stays of bucket (offset + i)
+    private long[] counts = new long[0];
+    private int offset;
+    private long count;
+    private long minSeconds = Long.MAX_VALUE;
+    private long maxSeconds;
+
+    /**
+     * Records one stay.
+     *
+     * @param seconds the stay's duration in seconds
+     */
+    public void add(long seconds) {
+        if (seconds < 0) {
+            throw new IllegalArgumentException("Duration cannot be negative");
+        }
+        if (seconds < 1) {
+            zeroCount++;
+        } else {
+            int index = (int) Math.ceil(Math.log(seconds) / LOG_GAMMA);
+            ensureCapacity(index, index);
+            counts[index - offset]++;
+        }
+        count++;
+        minSeconds = Math.min(minSeconds, seconds);
+        maxSeconds = Math.max(maxSeconds, seconds);
+    }
+
+    /**
+     * Adds another sketch's stays to this one.
+     *
+     * @param other the sketch to merge in; unchanged
+     */
+    public void merge(DwellTimeSketch other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (other.counts.length > 0) {
+            ensureCapacity(other.offset, other.offset + other.counts.length - 1);
+            for (int i = 0; i < other.counts.length; i++) {
+                counts[other.offset + i - offset] += other.counts[i];
+            }
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+        minSeconds = Math.min(minSeconds, other.minSeconds);
+        maxSeconds = Math.max(maxSeconds, other.maxSeconds);
+    }
+
+    /**
+     * Estimates a quantile of the recorded durations.
+     *
+     * @param quantile the quantile between 0 and 1, e.g. 0.9 for p90
+     * @return the estimated duration in seconds, or 0 if nothing was recorded
+     */
+    public double getQuantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1");
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.floor(quantile * (count - 1));
+        if (rank < zeroCount) {
+            return 0;
+        }
+        long seen = zeroCount;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                // Midpoint of the bucket in relative terms, clamped to the exact extremes
+                double estimate = 2 * Math.pow(GAMMA, offset + i) / (GAMMA + 1);
+                return Math.max(minSeconds, Math.min(maxSeconds, estimate));
+            }
+        }
+        return maxSeconds;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Encodes the sketch compactly: only non-empty buckets are written, as varints.
+     *
+     * @return the encoded sketch
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32);
+        out.write(FORMAT_VERSION);
+        writeVarint(out, count);
+        if (count == 0) {
+            return out.toByteArray();
+        }
+        writeVarint(out, minSeconds);
+        writeVarint(out, maxSeconds);
+        writeVarint(out, zeroCount);
+        int buckets = 0;
+        for (long bucketCount : counts) {
+            if (bucketCount > 0) {
+                buckets++;
+            }
+        }
+        writeVarint(out, buckets);
+        int previous = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                // Bucket indexes are never negative, and ascending, so deltas stay small
+                writeVarint(out, offset + i - previous);
+                writeVarint(out, counts[i]);
+                previous = offset + i;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a sketch written by {@link #toBytes()}.
+     *
+     * @param bytes the encoded sketch
+     * @return the sketch
+     */
+    public static DwellTimeSketch fromBytes(byte[] bytes) {
+        if (bytes.length == 0 || bytes[0] != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported dwell time sketch format");
+        }
+        int[] position = {1};
+        DwellTimeSketch sketch = new DwellTimeSketch();
+        sketch.count = readVarint(bytes, position);
+        if (sketch.count == 0) {
+            return sketch;
+        }
+        sketch.minSeconds = readVarint(bytes, position);
+        sketch.maxSeconds = readVarint(bytes, position);
+        sketch.zeroCount = readVarint(bytes, position);
+        int buckets = (int) readVarint(bytes, position);
+        int index = 0;
+        for (int i = 0; i < buckets; i++) {
+            index += (int) readVarint(bytes, position);
+            long bucketCount = readVarint(bytes, position);
+            sketch.ensureCapacity(index, index);
+            sketch.counts[index - sketch.offset] = bucketCount;
+        }
+        return sketch;
+    }
+
+    private void ensureCapacity(int lowIndex, int highIndex) {
+        if (counts.length == 0) {
+            offset = lowIndex;
+            counts = new long[highIndex - lowIndex + 1];
+            return;
+        }
+        int newOffset = Math.min(offset, lowIndex);
+        int newEnd = Math.max(offset + counts.length - 1, highIndex);
+        if (newOffset == offset && newEnd == offset + counts.length - 1) {
+            return;
+        }
+        long[] grown = new long[newEnd - newOffset + 1];
+        System.arraycopy(counts, 0, grown, offset - newOffset, counts.length);
+        counts = grown;
+        offset = newOffset;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(byte[] bytes, int[] position) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = bytes[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "DwellTimeSketch{" +
+                "count=" + count +
+                ", p50=" + Math.round(getQuantile(0.5)) +
+                ", p90=" + Math.round(getQuantile(0.9)) +
+                ", p99=" + Math.round(getQuantile(0.99)) +
+                ", buckets=" + Arrays.stream(counts).filter(c -> c > 0).count() +
+                '}';
+    }
+}
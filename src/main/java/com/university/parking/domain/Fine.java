@@ -1,7 +1,6 @@
 package com.university.parking.domain;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 /**
  * Fine entity representing a penalty issued to a vehicle.
@@ -50,10 +49,10 @@ public class Fine {
     /**
      * Generates a unique fine ID.
      * 
-     * @return a unique fine ID with format "F-{UUID}"
+     * @return a unique, time-ordered fine ID with format "F-{ID}"
      */
     public static String generateFineId() {
-        return "F-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return IdGenerator.getInstance().nextId("F");
     }
     
     public String getFineId() {
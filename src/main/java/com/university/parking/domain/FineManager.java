@@ -59,6 +59,16 @@ public class FineManager {
         return currentStrategy.calculateFine(duration);
     }
     
+    /**
+     * Calculates fines for many durations at once based on the current strategy.
+     * 
+     * @param durations the durations in hours
+     * @param out receives the fine for durations[i] at index i
+     */
+    public void calculateFines(int[] durations, double[] out) {
+        currentStrategy.calculateFines(durations, out);
+    }
+    
     /**
      * Adds a fine to the manager.
      * 
@@ -14,6 +14,23 @@ public interface FineStrategy {
      */
     double calculateFine(int duration);
     
+    /**
+     * Calculates fines for many durations at once, e.g. during an enforcement sweep.
+     * Implementations override this with a loop free of per-element virtual calls.
+     * 
+     * @param overstayHours the durations in hours
+     * @param out receives the fine for overstayHours[i] at index i;
+     *            must be at least as long as overstayHours
+     */
+    default void calculateFines(int[] overstayHours, double[] out) {
+        if (out.length < overstayHours.length) {
+            throw new IllegalArgumentException("Output array is shorter than input array");
+        }
+        for (int i = 0; i < overstayHours.length; i++) {
+            out[i] = calculateFine(overstayHours[i]);
+        }
+    }
+    
     /**
      * Gets the maximum cap for the fine amount.
      * 
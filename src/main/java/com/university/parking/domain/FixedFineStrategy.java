@@ -39,6 +39,17 @@ public class FixedFineStrategy implements FineStrategy {
         return Math.min(fixedAmount, maxCap);
     }
     
+    @Override
+    public void calculateFines(int[] overstayHours, double[] out) {
+        if (out.length < overstayHours.length) {
+            throw new IllegalArgumentException("Output array is shorter than input array");
+        }
+        double fine = Math.min(fixedAmount, maxCap);
+        for (int i = 0; i < overstayHours.length; i++) {
+            out[i] = overstayHours[i] <= 0 ? 0.0 : fine;
+        }
+    }
+    
     @Override
     public double getMaxCap() {
         return maxCap;
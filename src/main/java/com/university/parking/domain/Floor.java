@@ -5,6 +5,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 /**
@@ -154,6 +156,18 @@ public class Floor {
         return Collections.unmodifiableList(spots);
     }
 
+    /**
+     * Gets the spots of each row, by row number in ascending order.
+     * Spots within a row are in the order they were added.
+     *
+     * @return unmodifiable map of row number to the row's spots
+     */
+    public SortedMap<Integer, List<ParkingSpot>> getRows() {
+        SortedMap<Integer, List<ParkingSpot>> sorted = new TreeMap<>();
+        rows.forEach((rowNumber, rowSpots) -> sorted.put(rowNumber, Collections.unmodifiableList(rowSpots)));
+        return Collections.unmodifiableSortedMap(sorted);
+    }
+
     @Override
     public String toString() {
         return "Floor{" +
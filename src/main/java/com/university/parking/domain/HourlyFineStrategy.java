@@ -39,6 +39,17 @@ public class HourlyFineStrategy implements FineStrategy {
         return Math.min(calculatedFine, maxCap);
     }
     
+    @Override
+    public void calculateFines(int[] overstayHours, double[] out) {
+        if (out.length < overstayHours.length) {
+            throw new IllegalArgumentException("Output array is shorter than input array");
+        }
+        for (int i = 0; i < overstayHours.length; i++) {
+            int hours = overstayHours[i];
+            out[i] = hours <= 0 ? 0.0 : Math.min(hourlyRate * hours, maxCap);
+        }
+    }
+    
     @Override
     public double getMaxCap() {
         return maxCap;
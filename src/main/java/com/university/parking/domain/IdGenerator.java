@@ -0,0 +1,224 @@
+package com.university.parking.domain;
+
+import com.university.parking.log.Logger;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates unique, time-ordered IDs for tickets, fines, payments, reservations and receipts.
+ *
+ * Each ID is a 63-bit number made of the milliseconds since 2024-01-01 (41 bits), a node
+ * ID (10 bits) and a sequence number within the millisecond (12 bits), written as 13
+ * Crockford base32 characters. IDs from one node always increase, and comparing two IDs
+ * as strings orders them by creation time, so new rows are appended at the end of the
+ * primary key index instead of landing at random positions.
+ *
+ * The last issued value is advanced with a single compare-and-set, so concurrent callers
+ * never block each other. If more than 4096 IDs are needed in one millisecond, or the
+ * clock goes back, the timestamp part runs ahead of the clock until it catches up.
+ *
+ * IDs are unique across instances only if each instance writing to the same database
+ * has its own node ID. Across restarts, a generator with a state file reserves the
+ * timestamps it may use ahead of time and a new generator starts after the last
+ * reservation, so IDs issued ahead of the clock before a restart are never issued again.
+ */
+public final class IdGenerator {
+
+    private static final Logger LOG = Logger.get(IdGenerator.class);
+
+    /** System property with this instance's node ID (0-1023); derived from the host name if unset */
+    public static final String NODE_ID_PROPERTY = "parking.node.id";
+
+    private static final long EPOCH_MILLIS = 1704067200000L; // 2024-01-01T00:00:00Z
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final int ENCODED_LENGTH = 13;
+    // Crockford base32: digits before letters, so the encoding sorts like the numbers
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    // How far ahead timestamps are reserved, so the state file is written at most this often
+    private static final long RESERVATION_MILLIS = 10_000;
+
+    private static volatile IdGenerator instance;
+
+    private final int nodeId;
+    // Timestamp and sequence of the last issued ID: (millis since epoch << SEQUENCE_BITS) | sequence
+    private final AtomicLong lastTick = new AtomicLong();
+    // File holding the reserved tick, or null if IDs are not kept unique across restarts
+    private final Path stateFile;
+    // Highest tick that may be issued before a new reservation is written
+    private volatile long reservedTick;
+
+    /**
+     * Creates a generator for a node that does not keep IDs unique across restarts.
+     *
+     * @param nodeId the node ID, unique among the instances writing to the same database
+     */
+    public IdGenerator(int nodeId) {
+        this(nodeId, null);
+    }
+
+    /**
+     * Creates a generator for a node that starts after the timestamps reserved by the
+     * previous generator using the same state file.
+     *
+     * @param nodeId the node ID, unique among the instances writing to the same database
+     * @param stateFile the file holding the reserved timestamps, or null for none
+     */
+    public IdGenerator(int nodeId, Path stateFile) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+        this.stateFile = stateFile;
+        if (stateFile != null) {
+            long reserved = readReservedTick(stateFile);
+            lastTick.set(reserved);
+            reservedTick = reserved;
+        } else {
+            reservedTick = Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Creates the shared generator with a state file, so IDs stay unique across restarts.
+     * Must be called before the first ID is generated.
+     *
+     * @param stateFile the file holding the reserved timestamps
+     * @return the shared generator
+     */
+    public static IdGenerator initialize(Path stateFile) {
+        synchronized (IdGenerator.class) {
+            if (instance != null) {
+                throw new IllegalStateException("IDs have already been generated");
+            }
+            instance = new IdGenerator(configuredNodeId(), stateFile);
+            return instance;
+        }
+    }
+
+    /**
+     * Gets the shared generator, whose node ID comes from -Dparking.node.id.
+     * Without {@link #initialize(Path)}, it does not keep IDs unique across restarts.
+     *
+     * @return the shared generator
+     */
+    public static IdGenerator getInstance() {
+        IdGenerator generator = instance;
+        if (generator == null) {
+            synchronized (IdGenerator.class) {
+                generator = instance;
+                if (generator == null) {
+                    generator = new IdGenerator(configuredNodeId());
+                    instance = generator;
+                }
+            }
+        }
+        return generator;
+    }
+
+    /**
+     * Generates the next ID with a type prefix, e.g. "T-0C8Z4W2M1Q0G3".
+     *
+     * @param prefix the entity prefix
+     * @return the ID
+     */
+    public String nextId(String prefix) {
+        return prefix + "-" + encode(nextValue());
+    }
+
+    /**
+     * Generates the next numeric ID.
+     *
+     * @return the ID
+     */
+    public long nextValue() {
+        long now = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long previous;
+        long next;
+        do {
+            previous = lastTick.get();
+            // A new millisecond restarts the sequence; otherwise take the next one
+            next = Math.max(now, previous + 1);
+        } while (!lastTick.compareAndSet(previous, next));
+        if (next > reservedTick) {
+            reserve(next);
+        }
+        long millis = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | ((long) nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    public int getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Writes a new reservation covering the tick before an ID using it is handed out.
+     */
+    private synchronized void reserve(long tick) {
+        if (tick <= reservedTick) {
+            return;
+        }
+        long now = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long reserved = Math.max(tick, now) + (RESERVATION_MILLIS << SEQUENCE_BITS);
+        // Write to a temporary file and rename, so a crash never leaves a half-written reservation
+        Path tempFile = stateFile.resolveSibling(stateFile.getFileName() + ".tmp");
+        try {
+            Files.write(tempFile, Long.toString(reserved).getBytes(StandardCharsets.US_ASCII));
+            Files.move(tempFile, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("Error saving ID reservation: " + stateFile, e);
+        }
+        reservedTick = reserved;
+    }
+
+    private static long readReservedTick(Path stateFile) {
+        if (!Files.exists(stateFile)) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(new String(Files.readAllBytes(stateFile), StandardCharsets.US_ASCII).trim());
+        } catch (IOException | NumberFormatException e) {
+            throw new RuntimeException("Error reading ID reservation: " + stateFile, e);
+        }
+    }
+
+    /**
+     * Gets the node ID from -Dparking.node.id, or derives one from the host name.
+     * A derived ID is the same on every run, but two hosts may derive the same one, and
+     * two instances on one host always do.
+     */
+    private static int configuredNodeId() {
+        Integer configured = Integer.getInteger(NODE_ID_PROPERTY);
+        if (configured != null) {
+            return configured;
+        }
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            host = "localhost";
+        }
+        int derived = Math.floorMod(host.hashCode(), MAX_NODE_ID + 1);
+        LOG.warn("-D{} is not set, using node ID {} derived from host name {}. IDs may collide unless "
+                + "every instance writing to the same database sets its own -D{}",
+                NODE_ID_PROPERTY, derived, host, NODE_ID_PROPERTY);
+        return derived;
+    }
+
+    private static String encode(long value) {
+        char[] chars = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,224 @@
+package com.university.parking.domain;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The spots a parking lot should have, read from a layout file.
+ *
+ * Each line names a group of spots and gives their type and hourly rate:
+ * <pre>
+ * # Floor 1, row 1: compact spots
+ * F1-R1-S1..8 = COMPACT 2.0
+ * # Floors 1-50, rows 1-40, 50 spots each: 100,000 regular spots
+ * F1..50-R1..40-S1..50 = REGULAR 5.0
+ * # Later lines override earlier ones, so a range can be carved out of a row
+ * F4-R3-S1..4 = RESERVED 10.0
+ * </pre>
+ * Any part of a spot ID may be a numeric range ({@code S1..8}), and a group covers every
+ * combination of its parts. The floor is the first part of the ID.
+ *
+ * A layout is the complete list of spots: comparing it with the spots already stored
+ * gives the spots to add, retype and remove to make the lot match the file.
+ */
+public class LotLayout {
+
+    private static final Pattern LINE = Pattern.compile("(\\S+)\\s*=\\s*(\\w+)\\s+(\\S+)");
+    private static final Pattern RANGE = Pattern.compile("(\\D*)(\\d+)\\.\\.(\\d+)");
+
+    // Insertion order keeps spots in file order, which is also the order they are provisioned in
+    private final Map<String, ParkingSpot> spots = new LinkedHashMap<>();
+
+    /**
+     * Reads a layout file.
+     *
+     * @param file the layout file
+     * @return the layout
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if a line is invalid
+     */
+    public static LotLayout load(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file)) {
+            return parse(reader);
+        }
+    }
+
+    /**
+     * Parses a layout.
+     *
+     * @param reader the layout text
+     * @return the layout
+     * @throws IOException if the text cannot be read
+     * @throws IllegalArgumentException if a line is invalid
+     */
+    public static LotLayout parse(Reader reader) throws IOException {
+        LotLayout layout = new LotLayout();
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            Matcher matcher = LINE.matcher(line);
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("Invalid layout line " + lineNumber + ": " + line);
+            }
+            try {
+                SpotType type = SpotType.valueOf(matcher.group(2).toUpperCase());
+                double hourlyRate = Double.parseDouble(matcher.group(3));
+                if (hourlyRate < 0) {
+                    throw new IllegalArgumentException("Hourly rate cannot be negative");
+                }
+                for (String spotId : expand(matcher.group(1))) {
+                    layout.spots.put(spotId, new ParkingSpot(spotId, type, hourlyRate));
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid layout line " + lineNumber + ": " + line, e);
+            }
+        }
+        return layout;
+    }
+
+    /**
+     * Expands a pattern like "F1..2-R1-S1..3" into its spot IDs, last part varying fastest.
+     */
+    private static List<String> expand(String pattern) {
+        List<String> ids = Collections.singletonList("");
+        String separator = "";
+        for (String part : pattern.split("-")) {
+            Matcher range = RANGE.matcher(part);
+            List<String> values = new ArrayList<>();
+            if (range.matches()) {
+                int first = Integer.parseInt(range.group(2));
+                int last = Integer.parseInt(range.group(3));
+                if (last < first) {
+                    throw new IllegalArgumentException("Empty range: " + part);
+                }
+                for (int i = first; i <= last; i++) {
+                    values.add(range.group(1) + i);
+                }
+            } else if (!part.isEmpty()) {
+                values.add(part);
+            } else {
+                throw new IllegalArgumentException("Empty part in spot ID: " + pattern);
+            }
+            List<String> combined = new ArrayList<>(ids.size() * values.size());
+            for (String prefix : ids) {
+                for (String value : values) {
+                    combined.add(prefix + separator + value);
+                }
+            }
+            ids = combined;
+            separator = "-";
+        }
+        return ids;
+    }
+
+    /**
+     * Gets the spots of the layout, all available, in file order.
+     *
+     * @return the spots
+     */
+    public List<ParkingSpot> getSpots() {
+        return new ArrayList<>(spots.values());
+    }
+
+    public int size() {
+        return spots.size();
+    }
+
+    /**
+     * Compares the layout with the stored spots.
+     * Occupied spots that the layout drops are kept until their vehicle leaves;
+     * occupied spots that change type or rate keep their vehicle.
+     *
+     * @param current the spots currently stored
+     * @return the changes that make the stored spots match the layout
+     */
+    public Diff diff(Collection<ParkingSpot> current) {
+        Diff diff = new Diff();
+        Map<String, ParkingSpot> stored = new LinkedHashMap<>();
+        for (ParkingSpot spot : current) {
+            stored.put(spot.getSpotId(), spot);
+        }
+        for (ParkingSpot wanted : spots.values()) {
+            ParkingSpot existing = stored.remove(wanted.getSpotId());
+            if (existing == null) {
+                diff.added.add(wanted);
+            } else if (existing.getType() != wanted.getType()
+                    || Double.compare(existing.getHourlyRate(), wanted.getHourlyRate()) != 0) {
+                ParkingSpot retyped = new ParkingSpot(wanted.getSpotId(), wanted.getType(), wanted.getHourlyRate());
+                if (!existing.isAvailable()) {
+                    retyped.assignVehicle(existing.getCurrentVehiclePlate());
+                }
+                diff.retyped.add(retyped);
+            }
+        }
+        for (ParkingSpot leftover : stored.values()) {
+            if (leftover.isAvailable()) {
+                diff.removed.add(leftover.getSpotId());
+            } else {
+                diff.occupiedKept.add(leftover.getSpotId());
+            }
+        }
+        return diff;
+    }
+
+    /**
+     * Changes between the stored spots and a layout.
+     */
+    public static final class Diff {
+
+        private final List<ParkingSpot> added = new ArrayList<>();
+        private final List<ParkingSpot> retyped = new ArrayList<>();
+        private final List<String> removed = new ArrayList<>();
+        private final List<String> occupiedKept = new ArrayList<>();
+
+        private Diff() {
+        }
+
+        /** Spots in the layout that are not stored yet */
+        public List<ParkingSpot> getAdded() {
+            return added;
+        }
+
+        /** Stored spots whose type or rate differs from the layout, with their new type and rate */
+        public List<ParkingSpot> getRetyped() {
+            return retyped;
+        }
+
+        /** IDs of available stored spots that are not in the layout */
+        public List<String> getRemoved() {
+            return removed;
+        }
+
+        /** IDs of occupied stored spots that are not in the layout and cannot be removed yet */
+        public List<String> getOccupiedKept() {
+            return occupiedKept;
+        }
+
+        public boolean isEmpty() {
+            return added.isEmpty() && retyped.isEmpty() && removed.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return added.size() + " added, " + retyped.size() + " retyped, " + removed.size() + " removed"
+                    + (occupiedKept.isEmpty() ? "" : ", " + occupiedKept.size() + " occupied kept");
+        }
+    }
+}
@@ -36,6 +36,14 @@ public class MaxCapFineStrategy implements FineStrategy {
         return Math.min(calculatedFine, maxCap);
     }
     
+    @Override
+    public void calculateFines(int[] overstayHours, double[] out) {
+        baseStrategy.calculateFines(overstayHours, out);
+        for (int i = 0; i < overstayHours.length; i++) {
+            out[i] = overstayHours[i] <= 0 ? 0.0 : Math.min(out[i], maxCap);
+        }
+    }
+    
     @Override
     public double getMaxCap() {
         return maxCap;
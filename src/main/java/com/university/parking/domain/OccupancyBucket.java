@@ -0,0 +1,90 @@
+package com.university.parking.domain;
+
+import java.time.LocalDateTime;
+
+/**
+ * Value object for the occupancy of one series (the whole lot, a floor or a spot type)
+ * aggregated over a minute or an hour.
+ */
+public class OccupancyBucket {
+
+    /**
+     * Length of the aggregation period.
+     */
+    public enum Resolution {
+        MINUTE,
+        HOUR
+    }
+
+    private final Resolution resolution;
+    private final LocalDateTime startTime;
+    private final String series;
+    private final double averageOccupied;
+    private final int maxOccupied;
+    private final int capacity;
+
+    /**
+     * Creates a bucket.
+     *
+     * @param resolution the aggregation period
+     * @param startTime start of the period
+     * @param series the series key
+     * @param averageOccupied mean number of occupied spots over the samples in the period
+     * @param maxOccupied highest number of occupied spots sampled in the period
+     * @param capacity the number of spots in the series
+     */
+    public OccupancyBucket(Resolution resolution, LocalDateTime startTime, String series,
+                           double averageOccupied, int maxOccupied, int capacity) {
+        this.resolution = resolution;
+        this.startTime = startTime;
+        this.series = series;
+        this.averageOccupied = averageOccupied;
+        this.maxOccupied = maxOccupied;
+        this.capacity = capacity;
+    }
+
+    public Resolution getResolution() {
+        return resolution;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public String getSeries() {
+        return series;
+    }
+
+    public double getAverageOccupied() {
+        return averageOccupied;
+    }
+
+    public int getMaxOccupied() {
+        return maxOccupied;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the mean occupancy rate over the period.
+     *
+     * @return the rate between 0 and 1, or 0 for an empty series
+     */
+    public double getAverageRate() {
+        return capacity > 0 ? averageOccupied / capacity : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return "OccupancyBucket{" +
+                "resolution=" + resolution +
+                ", startTime=" + startTime +
+                ", series='" + series + '\'' +
+                ", averageOccupied=" + averageOccupied +
+                ", maxOccupied=" + maxOccupied +
+                ", capacity=" + capacity +
+                '}';
+    }
+}
@@ -1,16 +1,37 @@
 package com.university.parking.domain;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 /**
  * Represents a parking spot in the parking lot.
  * Part of the Composite Pattern for parking structure.
+ * The status and the parked vehicle's plate are held together in one atomically
+ * replaced value, so a spot can be shared between threads: assigning and releasing
+ * are compare-and-set operations, and readers always see a status and plate that
+ * belong together.
  * Requirements: 1.3, 1.4
  */
 public class ParkingSpot {
+
+    /**
+     * Immutable status and occupant of a spot.
+     */
+    private static final class Occupancy {
+        static final Occupancy AVAILABLE = new Occupancy(SpotStatus.AVAILABLE, null);
+
+        final SpotStatus status;
+        final String vehiclePlate;
+
+        Occupancy(SpotStatus status, String vehiclePlate) {
+            this.status = status;
+            this.vehiclePlate = vehiclePlate;
+        }
+    }
+
     private final String spotId;
     private final SpotType type;
-    private SpotStatus status;
     private final double hourlyRate;
-    private String currentVehiclePlate;
+    private final AtomicReference<Occupancy> occupancy = new AtomicReference<>(Occupancy.AVAILABLE);
 
     /**
      * Creates a new ParkingSpot with the specified properties.
@@ -33,8 +54,6 @@ public class ParkingSpot {
         this.spotId = spotId;
         this.type = type;
         this.hourlyRate = hourlyRate;
-        this.status = SpotStatus.AVAILABLE;
-        this.currentVehiclePlate = null;
     }
 
     /**
@@ -42,7 +61,7 @@ public class ParkingSpot {
      * @return true if status is AVAILABLE, false otherwise
      */
     public boolean isAvailable() {
-        return status == SpotStatus.AVAILABLE;
+        return occupancy.get().status == SpotStatus.AVAILABLE;
     }
 
     /**
@@ -91,11 +110,24 @@ public class ParkingSpot {
         if (!isAvailable()) {
             throw new IllegalStateException("Spot is already occupied");
         }
+        if (!tryAssignVehicle(licensePlate)) {
+            throw new IllegalStateException("Spot is already occupied");
+        }
+    }
+
+    /**
+     * Assigns a vehicle if the spot is available.
+     * Of several threads assigning the same free spot, exactly one succeeds.
+     *
+     * @param licensePlate the license plate of the vehicle
+     * @return true if the vehicle was assigned, false if the spot is occupied
+     * @throws IllegalArgumentException if license plate is null or empty
+     */
+    public boolean tryAssignVehicle(String licensePlate) {
         if (licensePlate == null || licensePlate.trim().isEmpty()) {
             throw new IllegalArgumentException("License plate cannot be null or empty");
         }
-        this.currentVehiclePlate = licensePlate;
-        this.status = SpotStatus.OCCUPIED;
+        return occupancy.compareAndSet(Occupancy.AVAILABLE, new Occupancy(SpotStatus.OCCUPIED, licensePlate));
     }
 
     /**
@@ -105,11 +137,27 @@ public class ParkingSpot {
      * @throws IllegalStateException if spot is not occupied
      */
     public void releaseVehicle() {
-        if (isAvailable()) {
-            throw new IllegalStateException("Spot is not occupied");
-        }
-        this.currentVehiclePlate = null;
-        this.status = SpotStatus.AVAILABLE;
+        Occupancy current;
+        do {
+            current = occupancy.get();
+            if (current.status == SpotStatus.AVAILABLE) {
+                throw new IllegalStateException("Spot is not occupied");
+            }
+        } while (!occupancy.compareAndSet(current, Occupancy.AVAILABLE));
+    }
+
+    /**
+     * Releases the spot if a given vehicle is still parked in it, so a late release
+     * cannot free the spot of a vehicle that parked there afterwards.
+     *
+     * @param licensePlate the license plate of the vehicle leaving
+     * @return true if the spot was released, false if that vehicle is not parked here
+     */
+    public boolean tryReleaseVehicle(String licensePlate) {
+        Occupancy current = occupancy.get();
+        return current.status == SpotStatus.OCCUPIED
+                && current.vehiclePlate.equals(licensePlate)
+                && occupancy.compareAndSet(current, Occupancy.AVAILABLE);
     }
 
     // Getters
@@ -122,7 +170,7 @@ public class ParkingSpot {
     }
 
     public SpotStatus getStatus() {
-        return status;
+        return occupancy.get().status;
     }
 
     public double getHourlyRate() {
@@ -130,17 +178,18 @@ public class ParkingSpot {
     }
 
     public String getCurrentVehiclePlate() {
-        return currentVehiclePlate;
+        return occupancy.get().vehiclePlate;
     }
 
     @Override
     public String toString() {
+        Occupancy current = occupancy.get();
         return "ParkingSpot{" +
                 "spotId='" + spotId + '\'' +
                 ", type=" + type +
-                ", status=" + status +
+                ", status=" + current.status +
                 ", hourlyRate=" + hourlyRate +
-                ", currentVehiclePlate='" + currentVehiclePlate + '\'' +
+                ", currentVehiclePlate='" + current.vehiclePlate + '\'' +
                 '}';
     }
 }
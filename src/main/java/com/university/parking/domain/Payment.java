@@ -1,7 +1,6 @@
 package com.university.parking.domain;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 /**
  * Entity representing a payment transaction in the parking system.
@@ -51,10 +50,10 @@ public class Payment {
     /**
      * Generates a unique payment ID.
      * 
-     * @return a unique payment ID with format "P-{UUID}"
+     * @return a unique, time-ordered payment ID with format "P-{ID}"
      */
     public static String generatePaymentId() {
-        return "P-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return IdGenerator.getInstance().nextId("P");
     }
     
     public String getPaymentId() {
@@ -0,0 +1,120 @@
+package com.university.parking.domain;
+
+/**
+ * Decorator strategy that precomputes another strategy's fines into a lookup table.
+ * Each fine becomes one array read, which pays off when many vehicles are fined in
+ * one sweep or when the base strategy is a chain of decorators.
+ * Example: new PrecomputedFineStrategy(new MaxCapFineStrategy(new HourlyFineStrategy(), 500.0))
+ */
+public class PrecomputedFineStrategy implements FineStrategy {
+    
+    /** Default table range: 0 to 2000 hours (about 83 days) of overstay */
+    public static final int DEFAULT_MAX_HOURS = 2000;
+    
+    private final FineStrategy baseStrategy;
+    private final double[] table;
+    // First hour whose fine equals the cap, or -1 if the table never reaches it
+    private final int capReachedAt;
+    
+    /**
+     * Creates a table covering 0 to 2000 hours.
+     * 
+     * @param baseStrategy the strategy to precompute
+     */
+    public PrecomputedFineStrategy(FineStrategy baseStrategy) {
+        this(baseStrategy, DEFAULT_MAX_HOURS);
+    }
+    
+    /**
+     * Creates a table covering 0 to maxHours hours.
+     * 
+     * @param baseStrategy the strategy to precompute
+     * @param maxHours the longest overstay held in the table
+     */
+    public PrecomputedFineStrategy(FineStrategy baseStrategy, int maxHours) {
+        if (baseStrategy == null) {
+            throw new IllegalArgumentException("Base strategy cannot be null");
+        }
+        if (maxHours < 0) {
+            throw new IllegalArgumentException("Max hours cannot be negative");
+        }
+        this.baseStrategy = baseStrategy;
+        int[] hours = new int[maxHours + 1];
+        for (int h = 0; h <= maxHours; h++) {
+            hours[h] = h;
+        }
+        this.table = new double[maxHours + 1];
+        baseStrategy.calculateFines(hours, table);
+        
+        int reached = -1;
+        for (int h = 1; h <= maxHours; h++) {
+            if (table[h] >= baseStrategy.getMaxCap()) {
+                reached = h;
+                break;
+            }
+        }
+        this.capReachedAt = reached;
+    }
+    
+    @Override
+    public double calculateFine(int overstayHours) {
+        if (overstayHours <= 0) {
+            return 0.0;
+        }
+        if (overstayHours < table.length) {
+            return table[overstayHours];
+        }
+        return beyondTable(overstayHours);
+    }
+    
+    @Override
+    public void calculateFines(int[] overstayHours, double[] out) {
+        if (out.length < overstayHours.length) {
+            throw new IllegalArgumentException("Output array is shorter than input array");
+        }
+        for (int i = 0; i < overstayHours.length; i++) {
+            int hours = overstayHours[i];
+            if (hours <= 0) {
+                out[i] = 0.0;
+            } else if (hours < table.length) {
+                out[i] = table[hours];
+            } else {
+                out[i] = beyondTable(hours);
+            }
+        }
+    }
+    
+    /**
+     * Fines never exceed the cap and do not drop for longer stays, so once the
+     * table reaches the cap every longer stay is charged the cap.
+     */
+    private double beyondTable(int overstayHours) {
+        if (capReachedAt > 0) {
+            return table[capReachedAt];
+        }
+        return baseStrategy.calculateFine(overstayHours);
+    }
+    
+    @Override
+    public double getMaxCap() {
+        return baseStrategy.getMaxCap();
+    }
+    
+    /**
+     * Gets the underlying base strategy.
+     * 
+     * @return the base strategy
+     */
+    public FineStrategy getBaseStrategy() {
+        return baseStrategy;
+    }
+    
+    /**
+     * Gets the longest overstay held in the table.
+     * 
+     * @return the maximum precomputed hours
+     */
+    public int getMaxHours() {
+        return table.length - 1;
+    }
+}
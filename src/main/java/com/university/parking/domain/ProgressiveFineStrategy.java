@@ -78,6 +78,32 @@ public class ProgressiveFineStrategy implements FineStrategy {
         return Math.min(totalFine, maxCap);
     }
     
+    @Override
+    public void calculateFines(int[] overstayHours, double[] out) {
+        if (out.length < overstayHours.length) {
+            throw new IllegalArgumentException("Output array is shorter than input array");
+        }
+        // Cumulative tier totals, capped once instead of per vehicle
+        double tier1 = Math.min(TIER_1_FINE, maxCap);
+        double tier2 = Math.min(TIER_1_FINE + TIER_2_FINE, maxCap);
+        double tier3 = Math.min(TIER_1_FINE + TIER_2_FINE + TIER_3_FINE, maxCap);
+        double tier4 = Math.min(TIER_1_FINE + TIER_2_FINE + TIER_3_FINE + TIER_4_FINE, maxCap);
+        for (int i = 0; i < overstayHours.length; i++) {
+            int hours = overstayHours[i];
+            if (hours <= 0) {
+                out[i] = 0.0;
+            } else if (hours <= TIER_1_HOURS) {
+                out[i] = tier1;
+            } else if (hours <= TIER_2_HOURS) {
+                out[i] = tier2;
+            } else if (hours <= TIER_3_HOURS) {
+                out[i] = tier3;
+            } else {
+                out[i] = tier4;
+            }
+        }
+    }
+    
     @Override
     public double getMaxCap() {
         return maxCap;
@@ -57,6 +57,15 @@ public class Receipt {
         this.timestamp = timestamp;
     }
 
+    /**
+     * Generates a unique, time-ordered receipt ID.
+     *
+     * @return a receipt ID with format "R-{ID}"
+     */
+    public static String generateReceiptId() {
+        return IdGenerator.getInstance().nextId("R");
+    }
+
     public String getReceiptId() {
         return receiptId;
     }
@@ -103,9 +112,14 @@ public class Receipt {
 
     /**
      * Gets the fee breakdown string (hours x rate = fee).
+     * When time-of-day pricing or a daily maximum changed the fee, the base rate is shown instead.
      */
     public String getFeeBreakdown() {
         if (durationHours > 0 && hourlyRate > 0) {
+            if (Math.abs(durationHours * hourlyRate - parkingFee) >= 0.005) {
+                return String.format("%d hours at RM%.2f base rate (time-of-day tariff) = RM%.2f",
+                        durationHours, hourlyRate, parkingFee);
+            }
             return String.format("%d hours × RM%.2f = RM%.2f", durationHours, hourlyRate, parkingFee);
         }
         return String.format("RM%.2f", parkingFee);
@@ -0,0 +1,104 @@
+package com.university.parking.domain;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Value object describing a repeating reservation slot, such as
+ * "Mondays 09:00-12:00, every week for the semester".
+ * Occurrences are generated on demand while iterating, never stored.
+ * Each occurrence keeps the first slot's wall-clock time and length.
+ */
+public class RecurrenceRule implements Iterable<BookingRequest> {
+
+    private final String licensePlate;
+    private final String spotId;
+    private final LocalDateTime firstStart;
+    private final Duration length;
+    private final Period interval;
+    private final int occurrences;
+
+    /**
+     * Creates a rule.
+     *
+     * @param licensePlate the vehicle's license plate
+     * @param spotId the spot to reserve
+     * @param firstStart start of the first slot
+     * @param firstEnd end of the first slot
+     * @param interval time between the starts of consecutive slots
+     * @param occurrences the number of slots, including the first
+     */
+    public RecurrenceRule(String licensePlate, String spotId, LocalDateTime firstStart,
+                          LocalDateTime firstEnd, Period interval, int occurrences) {
+        if (firstStart == null || firstEnd == null) {
+            throw new IllegalArgumentException("Start and end time cannot be null");
+        }
+        if (interval == null || interval.isZero() || interval.isNegative()) {
+            throw new IllegalArgumentException("Interval must be positive");
+        }
+        if (occurrences < 1) {
+            throw new IllegalArgumentException("Occurrences must be at least 1");
+        }
+        this.licensePlate = licensePlate;
+        this.spotId = spotId;
+        this.firstStart = firstStart;
+        this.length = Duration.between(firstStart, firstEnd);
+        this.interval = interval;
+        this.occurrences = occurrences;
+    }
+
+    /**
+     * Creates a rule repeating every week.
+     *
+     * @param licensePlate the vehicle's license plate
+     * @param spotId the spot to reserve
+     * @param firstStart start of the first slot
+     * @param firstEnd end of the first slot
+     * @param weeks the number of weekly slots, including the first
+     * @return the weekly rule
+     */
+    public static RecurrenceRule weekly(String licensePlate, String spotId, LocalDateTime firstStart,
+                                        LocalDateTime firstEnd, int weeks) {
+        return new RecurrenceRule(licensePlate, spotId, firstStart, firstEnd, Period.ofWeeks(1), weeks);
+    }
+
+    @Override
+    public Iterator<BookingRequest> iterator() {
+        return new Iterator<BookingRequest>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < occurrences;
+            }
+
+            @Override
+            public BookingRequest next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                LocalDateTime start = firstStart.plus(interval.multipliedBy(index++));
+                return new BookingRequest(licensePlate, spotId, start, start.plus(length));
+            }
+        };
+    }
+
+    public String getLicensePlate() {
+        return licensePlate;
+    }
+
+    public String getSpotId() {
+        return spotId;
+    }
+
+    public Period getInterval() {
+        return interval;
+    }
+
+    public int getOccurrences() {
+        return occurrences;
+    }
+}
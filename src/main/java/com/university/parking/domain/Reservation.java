@@ -1,7 +1,6 @@
 package com.university.parking.domain;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 /**
  * Represents a parking spot reservation.
@@ -90,10 +89,10 @@ public class Reservation {
     }
     
     /**
-     * Generates a unique reservation ID.
+     * Generates a unique, time-ordered reservation ID.
      */
     private String generateReservationId() {
-        return "RES-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return IdGenerator.getInstance().nextId("RES");
     }
     
     /**
@@ -0,0 +1,261 @@
+package com.university.parking.domain;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Time-of-day parking tariff, compiled from one {@link TariffSchedule} per spot type.
+ *
+ * Each schedule is turned into a running total of its rates over the minutes of a week,
+ * plus a running total of the capped cost of whole days. The cost of any stay is then
+ * the difference of two totals for its first and last day, and a few whole-week and
+ * day-of-week lookups for the days in between, however long the stay is.
+ */
+public class Tariff {
+
+    private static final long MINUTES_PER_DAY = TariffSchedule.MINUTES_PER_DAY;
+    private static final long MINUTES_PER_WEEK = TariffSchedule.MINUTES_PER_WEEK;
+    // Epoch day 0 (1970-01-01) was a Thursday; day numbers are counted from Monday 1969-12-29
+    private static final long EPOCH_DAY_TO_MONDAY = 3;
+
+    private final Map<SpotType, CompiledSchedule> schedules = new EnumMap<>(SpotType.class);
+
+    /**
+     * Compiles a tariff.
+     *
+     * @param schedules the schedule of each spot type with its own pricing
+     * @param defaultSchedule the schedule of every other spot type
+     */
+    public Tariff(Map<SpotType, TariffSchedule> schedules, TariffSchedule defaultSchedule) {
+        CompiledSchedule compiledDefault = new CompiledSchedule(defaultSchedule);
+        for (SpotType type : SpotType.values()) {
+            TariffSchedule schedule = schedules.get(type);
+            this.schedules.put(type, schedule != null ? new CompiledSchedule(schedule) : compiledDefault);
+        }
+    }
+
+    /**
+     * Gets the tariff that charges every hour at the spot's hourly rate.
+     *
+     * @return the flat tariff
+     */
+    public static Tariff flat() {
+        return new Tariff(new EnumMap<>(SpotType.class), new TariffSchedule());
+    }
+
+    /**
+     * Calculates what parking from one time to another costs.
+     *
+     * @param type the spot type whose schedule applies
+     * @param hourlyRate the spot's hourly rate the schedule's multipliers apply to
+     * @param from the start of the charged period
+     * @param to the end of the charged period
+     * @return the fee, rounded to the cent
+     */
+    public double calculateFee(SpotType type, double hourlyRate, LocalDateTime from, LocalDateTime to) {
+        if (!to.isAfter(from) || hourlyRate == 0) {
+            return 0.0;
+        }
+        double rateMinutes = schedules.get(type).cost(minuteIndex(from), minuteIndex(to));
+        return Math.round(hourlyRate * rateMinutes / 60.0 * 100.0) / 100.0;
+    }
+
+    private static long minuteIndex(LocalDateTime time) {
+        long day = time.toLocalDate().toEpochDay() + EPOCH_DAY_TO_MONDAY;
+        return day * MINUTES_PER_DAY + time.getHour() * 60L + time.getMinute();
+    }
+
+    /**
+     * Loads a tariff from properties of the form
+     * {@code <SPOT_TYPE|default>.rate.<days>[.<HHmm>-<HHmm>]=<multiplier>} and
+     * {@code <SPOT_TYPE|default>.max.<days>=<hours>}, where days are like
+     * {@code MON-FRI}, {@code SAT,SUN} or {@code WED}. Example:
+     * <pre>
+     * default.rate.MON-FRI.0800-1800=1.5
+     * default.rate.SAT-SUN=0.5
+     * default.max.MON-SUN=10
+     * ELECTRIC.rate.MON-SUN.2200-0600=0.75
+     * </pre>
+     * A properties file ends a key at an unescaped {@code :}, so window times have no
+     * colon; {@code 08\:00} is accepted as well.
+     * Properties have no order, so rules covering more of the week are applied first
+     * and narrower ones override them. Spot types without their own entries use the default entries.
+     *
+     * @param properties the tariff properties
+     * @return the tariff
+     */
+    public static Tariff fromProperties(Properties properties) {
+        Map<String, List<String[]>> rules = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            String[] parts = key.split("\\.");
+            if (parts.length < 3 || parts.length > 4) {
+                throw new IllegalArgumentException("Invalid tariff entry: " + key);
+            }
+            rules.computeIfAbsent(parts[0], k -> new ArrayList<>())
+                 .add(new String[] {key, properties.getProperty(key).trim()});
+        }
+        List<String[]> defaultRules = rules.remove("default");
+        TariffSchedule defaultSchedule = new TariffSchedule();
+        apply(defaultSchedule, defaultRules);
+        Map<SpotType, TariffSchedule> schedules = new EnumMap<>(SpotType.class);
+        for (Map.Entry<String, List<String[]>> entry : rules.entrySet()) {
+            SpotType type;
+            try {
+                type = SpotType.valueOf(entry.getKey());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown spot type in tariff: " + entry.getKey());
+            }
+            TariffSchedule schedule = new TariffSchedule();
+            // The spot type's own rules refine the default ones
+            apply(schedule, defaultRules);
+            apply(schedule, entry.getValue());
+            schedules.put(type, schedule);
+        }
+        return new Tariff(schedules, defaultSchedule);
+    }
+
+    private static void apply(TariffSchedule schedule, List<String[]> rules) {
+        if (rules == null) {
+            return;
+        }
+        List<String[]> ordered = new ArrayList<>(rules);
+        ordered.sort(Comparator.comparingInt(Tariff::weeklyMinutes).reversed());
+        for (String[] rule : ordered) {
+            String[] parts = rule[0].split("\\.");
+            try {
+                double value = Double.parseDouble(rule[1]);
+                Set<DayOfWeek> days = parseDays(parts[2]);
+                if ("rate".equals(parts[1])) {
+                    if (parts.length == 4) {
+                        String[] window = parts[3].split("-");
+                        schedule.setRate(days, parseTime(window[0]), parseTime(window[1]), value);
+                    } else {
+                        schedule.setRate(days, value);
+                    }
+                } else if ("max".equals(parts[1]) && parts.length == 3) {
+                    schedule.setDailyMaximum(days, value);
+                } else {
+                    throw new IllegalArgumentException("Invalid tariff entry: " + rule[0]);
+                }
+            } catch (RuntimeException e) {
+                String hint = rule[1].contains(":") ? " (write window times as HHmm: a ':' ends the key)" : "";
+                throw new IllegalArgumentException("Invalid tariff entry: " + rule[0] + "=" + rule[1] + hint, e);
+            }
+        }
+    }
+
+    // Minutes of the week a rule covers, for ordering
+    private static int weeklyMinutes(String[] rule) {
+        String[] parts = rule[0].split("\\.");
+        int perDay = (int) MINUTES_PER_DAY;
+        if (parts.length == 4) {
+            String[] window = parts[3].split("-");
+            int from = parseTime(window[0]).toSecondOfDay() / 60;
+            int to = parseTime(window[1]).toSecondOfDay() / 60;
+            perDay = to > from ? to - from : to - from + perDay;
+        }
+        return parseDays(parts[2]).size() * perDay;
+    }
+
+    // HHmm, or HH:mm when the colon was escaped in the file
+    private static LocalTime parseTime(String time) {
+        String trimmed = time.trim();
+        if (trimmed.length() == 4 && trimmed.chars().allMatch(Character::isDigit)) {
+            return LocalTime.of(Integer.parseInt(trimmed.substring(0, 2)), Integer.parseInt(trimmed.substring(2)));
+        }
+        return LocalTime.parse(trimmed);
+    }
+
+    private static Set<DayOfWeek> parseDays(String spec) {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (String part : spec.split(",")) {
+            String[] range = part.split("-");
+            DayOfWeek first = parseDay(range[0]);
+            DayOfWeek last = range.length > 1 ? parseDay(range[1]) : first;
+            for (DayOfWeek day = first; ; day = day.plus(1)) {
+                days.add(day);
+                if (day == last) {
+                    break;
+                }
+            }
+        }
+        return days;
+    }
+
+    private static DayOfWeek parseDay(String abbreviation) {
+        String name = abbreviation.trim().toUpperCase();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (day.name().substring(0, 3).equals(name)) {
+                return day;
+            }
+        }
+        throw new IllegalArgumentException("Unknown day: " + abbreviation);
+    }
+
+    /**
+     * Running totals of one schedule, in rate-minutes (multiplier x minutes).
+     */
+    private static final class CompiledSchedule {
+
+        // cumulative[m] = cost of the week's minutes before minute m
+        private final double[] cumulative = new double[(int) MINUTES_PER_WEEK + 1];
+        // Maximum cost of each day, Monday first
+        private final double[] dailyMaximum = new double[7];
+        // cappedDays[d] = capped cost of the week's whole days before day d
+        private final double[] cappedDays = new double[8];
+
+        CompiledSchedule(TariffSchedule schedule) {
+            for (int m = 0; m < MINUTES_PER_WEEK; m++) {
+                cumulative[m + 1] = cumulative[m] + schedule.getMinuteRate(m);
+            }
+            for (int d = 0; d < 7; d++) {
+                dailyMaximum[d] = schedule.getDailyMaximumHours(d) * 60.0;
+                double day = cumulative[(d + 1) * (int) MINUTES_PER_DAY] - cumulative[d * (int) MINUTES_PER_DAY];
+                cappedDays[d + 1] = cappedDays[d] + Math.min(day, dailyMaximum[d]);
+            }
+        }
+
+        /**
+         * Cost of the minutes from one minute index to another.
+         */
+        double cost(long from, long to) {
+            long firstDay = Math.floorDiv(from, MINUTES_PER_DAY);
+            long lastDay = Math.floorDiv(to, MINUTES_PER_DAY);
+            if (firstDay == lastDay) {
+                return Math.min(uncappedCost(from, to), maximumOf(firstDay));
+            }
+            double first = Math.min(uncappedCost(from, (firstDay + 1) * MINUTES_PER_DAY), maximumOf(firstDay));
+            double last = Math.min(uncappedCost(lastDay * MINUTES_PER_DAY, to), maximumOf(lastDay));
+            return first + cappedWholeDays(firstDay + 1, lastDay) + last;
+        }
+
+        private double uncappedCost(long from, long to) {
+            long weeks = Math.floorDiv(to, MINUTES_PER_WEEK) - Math.floorDiv(from, MINUTES_PER_WEEK);
+            return weeks * cumulative[(int) MINUTES_PER_WEEK]
+                    + cumulative[(int) Math.floorMod(to, MINUTES_PER_WEEK)]
+                    - cumulative[(int) Math.floorMod(from, MINUTES_PER_WEEK)];
+        }
+
+        // Capped cost of the whole days from one day number to another (exclusive)
+        private double cappedWholeDays(long fromDay, long toDay) {
+            long weeks = Math.floorDiv(toDay, 7) - Math.floorDiv(fromDay, 7);
+            return weeks * cappedDays[7]
+                    + cappedDays[Math.floorMod(toDay, 7)]
+                    - cappedDays[Math.floorMod(fromDay, 7)];
+        }
+
+        private double maximumOf(long day) {
+            return dailyMaximum[Math.floorMod(day, 7)];
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.university.parking.domain;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Weekly pricing rules for one spot type.
+ * Rates are multipliers of a spot's own hourly rate, set per minute of the week,
+ * so peak hours, off-peak nights and weekend prices can be mixed freely.
+ * Each day can also have a maximum charge, in hours of the spot's hourly rate.
+ * Every minute starts at a multiplier of 1.0 with no daily maximum, which is
+ * the flat hourly pricing.
+ */
+public class TariffSchedule {
+
+    static final int MINUTES_PER_DAY = 24 * 60;
+    static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+
+    // Multiplier of each minute of the week, Monday 00:00 first
+    private final double[] minuteRates = new double[MINUTES_PER_WEEK];
+    // Maximum charge of each day in hours of the hourly rate, Monday first
+    private final double[] dailyMaximumHours = new double[7];
+
+    public TariffSchedule() {
+        Arrays.fill(minuteRates, 1.0);
+        Arrays.fill(dailyMaximumHours, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Sets the rate of whole days.
+     *
+     * @param days the days the rate applies to
+     * @param multiplier the multiplier of the spot's hourly rate
+     */
+    public void setRate(Set<DayOfWeek> days, double multiplier) {
+        setRate(days, LocalTime.MIDNIGHT, LocalTime.MIDNIGHT, multiplier);
+    }
+
+    /**
+     * Sets the rate of a daily time window, replacing earlier rates for those minutes.
+     * A window ending at or before its start runs past midnight into the next day,
+     * and a window from midnight to midnight covers the whole day.
+     *
+     * @param days the days the window starts on
+     * @param from the start of the window
+     * @param to the end of the window (exclusive)
+     * @param multiplier the multiplier of the spot's hourly rate
+     */
+    public void setRate(Set<DayOfWeek> days, LocalTime from, LocalTime to, double multiplier) {
+        if (multiplier < 0) {
+            throw new IllegalArgumentException("Rate multiplier cannot be negative");
+        }
+        int start = minuteOfDay(from);
+        int length = minuteOfDay(to) - start;
+        if (length <= 0) {
+            length += MINUTES_PER_DAY;
+        }
+        for (DayOfWeek day : days) {
+            int dayStart = (day.getValue() - 1) * MINUTES_PER_DAY;
+            for (int i = 0; i < length; i++) {
+                minuteRates[(dayStart + start + i) % MINUTES_PER_WEEK] = multiplier;
+            }
+        }
+    }
+
+    /**
+     * Caps what one calendar day of a stay can cost.
+     *
+     * @param days the days the maximum applies to
+     * @param hours the maximum charge in hours of the spot's hourly rate
+     */
+    public void setDailyMaximum(Set<DayOfWeek> days, double hours) {
+        if (hours < 0) {
+            throw new IllegalArgumentException("Daily maximum cannot be negative");
+        }
+        for (DayOfWeek day : days) {
+            dailyMaximumHours[day.getValue() - 1] = hours;
+        }
+    }
+
+    double getMinuteRate(int minuteOfWeek) {
+        return minuteRates[minuteOfWeek];
+    }
+
+    double getDailyMaximumHours(int dayOfWeek) {
+        return dailyMaximumHours[dayOfWeek];
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+}
@@ -21,12 +21,11 @@ public class Ticket {
     }
 
     /**
-     * Generates a ticket ID with format T-{PLATE}-{TIMESTAMP}.
-     * @param plate the vehicle license plate
+     * Generates a unique, time-ordered ticket ID with format T-{ID}.
      * @return the generated ticket ID
      */
-    public static String generateTicketId(String plate) {
-        return "T-" + plate + "-" + System.currentTimeMillis();
+    public static String generateTicketId() {
+        return IdGenerator.getInstance().nextId("T");
     }
 
     public String getTicketId() {
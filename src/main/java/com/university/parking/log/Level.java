@@ -0,0 +1,11 @@
+package com.university.parking.log;
+
+/**
+ * Severity of a log message, least severe first.
+ */
+public enum Level {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR
+}
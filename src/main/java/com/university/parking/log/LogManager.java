@@ -0,0 +1,360 @@
+package com.university.parking.log;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes the messages of all {@link Logger}s on a background thread.
+ *
+ * Logging threads only copy a message's pattern and arguments into a {@link LogRingBuffer}
+ * slot; the appender thread formats them and writes one structured line per message to
+ * a rolling file in the log directory and, unless disabled, to the console (WARN and ERROR
+ * to standard error). Lines are logfmt key-value pairs:
+ * <pre>
+ * ts=2024-05-01T08:15:02.114 level=INFO thread=gate-3 logger=ParkingServiceImpl msg="Completing reservation: RES-42"
+ * </pre>
+ * followed by the stack trace, if the message has an exception.
+ *
+ * Configured by system properties read on first use:
+ * {@value #LEVEL_PROPERTY} (DEBUG, INFO, WARN or ERROR; default INFO),
+ * {@value #DIR_PROPERTY} (default "logs"; empty for no file) and
+ * {@value #CONSOLE_PROPERTY} (default true).
+ *
+ * If the buffer is full, DEBUG and INFO messages are dropped and WARN and ERROR messages
+ * wait briefly for room; the number of dropped messages is logged once there is room again.
+ */
+public final class LogManager {
+
+    public static final String LEVEL_PROPERTY = "parking.log.level";
+    public static final String DIR_PROPERTY = "parking.log.dir";
+    public static final String CONSOLE_PROPERTY = "parking.log.console";
+
+    private static final String FILE_NAME = "parking.log";
+    private static final long MAX_FILE_BYTES = 10L * 1024 * 1024;
+    private static final int MAX_BACKUPS = 5;
+    private static final int BUFFER_CAPACITY = 8192;
+    private static final long FULL_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    // Bounds the delay of a message logged just as the appender goes idle
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final DateTimeFormatter SECOND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private static final LogRingBuffer buffer = new LogRingBuffer(BUFFER_CAPACITY);
+    private static final AtomicLong dropped = new AtomicLong();
+    private static final boolean console;
+    private static final Thread appender;
+    // Written by the appender thread only, once started
+    private static RollingFileAppender file;
+    private static volatile int threshold;
+    private static volatile boolean running = true;
+    private static volatile boolean appenderIdle;
+
+    static {
+        threshold = parseLevel(System.getProperty(LEVEL_PROPERTY, "INFO")).ordinal();
+        console = Boolean.parseBoolean(System.getProperty(CONSOLE_PROPERTY, "true"));
+        String directory = System.getProperty(DIR_PROPERTY, "logs");
+        if (!directory.isEmpty()) {
+            try {
+                file = new RollingFileAppender(Paths.get(directory, FILE_NAME), MAX_FILE_BYTES, MAX_BACKUPS);
+            } catch (IOException e) {
+                System.err.println("Error opening log file in " + directory + ", logging to the console only: "
+                        + e.getMessage());
+            }
+        }
+        appender = new Thread(LogManager::runAppender, "log-appender");
+        appender.setDaemon(true);
+        appender.start();
+    }
+
+    private LogManager() {
+    }
+
+    /**
+     * Changes the least severe level that is logged.
+     *
+     * @param level the new threshold
+     */
+    public static void setLevel(Level level) {
+        threshold = level.ordinal();
+    }
+
+    /**
+     * Writes the messages logged so far and stops the appender thread. Messages logged
+     * afterwards go straight to the console. Call it last when the application exits.
+     */
+    public static void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(appender);
+        try {
+            appender.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static boolean isEnabled(Level level) {
+        return level.ordinal() >= threshold;
+    }
+
+    static void log(Level level, String loggerName, String pattern, int argCount,
+                    Object arg0, Object arg1, Object[] args) {
+        if (!running) {
+            writeDirect(level, loggerName, pattern, argCount, arg0, arg1, args);
+            return;
+        }
+        if (buffer.offer(level, loggerName, pattern, argCount, arg0, arg1, args)) {
+            wakeAppender();
+            return;
+        }
+        if (level.compareTo(Level.WARN) >= 0) {
+            long deadline = System.nanoTime() + FULL_WAIT_NANOS;
+            while (running && System.nanoTime() < deadline) {
+                LockSupport.unpark(appender);
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+                if (buffer.offer(level, loggerName, pattern, argCount, arg0, arg1, args)) {
+                    wakeAppender();
+                    return;
+                }
+            }
+        }
+        dropped.incrementAndGet();
+    }
+
+    private static void wakeAppender() {
+        if (appenderIdle) {
+            LockSupport.unpark(appender);
+        }
+    }
+
+    private static void runAppender() {
+        StringBuilder line = new StringBuilder(256);
+        StringBuilder message = new StringBuilder(128);
+        Timestamps timestamps = new Timestamps();
+        while (true) {
+            LogRingBuffer.Event event = buffer.peek();
+            if (event == null) {
+                flushFile();
+                if (!running) {
+                    break;
+                }
+                appenderIdle = true;
+                // Checked again after announcing idleness, so a message logged meanwhile is not missed
+                if (buffer.peek() == null) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+                appenderIdle = false;
+                continue;
+            }
+            try {
+                long droppedCount = dropped.getAndSet(0);
+                if (droppedCount > 0) {
+                    LogRingBuffer.Event notice = new LogRingBuffer.Event();
+                    fill(notice, Level.WARN, "LogManager", "Dropped {} log message(s), the log buffer was full",
+                            1, droppedCount, null, null);
+                    write(notice, line, message, timestamps);
+                }
+                write(event, line, message, timestamps);
+            } catch (RuntimeException e) {
+                System.err.println("Error writing log message: " + e);
+            }
+            buffer.remove();
+        }
+        if (file != null) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                System.err.println("Error closing log file: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void write(LogRingBuffer.Event event, StringBuilder line, StringBuilder message,
+                              Timestamps timestamps) {
+        Throwable thrown = format(event, line, message, timestamps);
+        if (thrown != null) {
+            StringWriter trace = new StringWriter();
+            thrown.printStackTrace(new PrintWriter(trace));
+            line.append('\n').append(trace.toString().trim());
+        }
+        if (console) {
+            PrintStream out = event.level.compareTo(Level.WARN) >= 0 ? System.err : System.out;
+            out.println(line);
+        }
+        if (file != null) {
+            try {
+                file.append(line);
+            } catch (IOException e) {
+                System.err.println("Error writing log file, logging to the console only: " + e.getMessage());
+                file = null;
+            }
+        }
+    }
+
+    private static void flushFile() {
+        if (file != null) {
+            try {
+                file.flush();
+            } catch (IOException e) {
+                System.err.println("Error flushing log file: " + e.getMessage());
+            }
+        }
+    }
+
+    private static synchronized void writeDirect(Level level, String loggerName, String pattern, int argCount,
+                                                 Object arg0, Object arg1, Object[] args) {
+        LogRingBuffer.Event event = new LogRingBuffer.Event();
+        fill(event, level, loggerName, pattern, argCount, arg0, arg1, args);
+        StringBuilder line = new StringBuilder(256);
+        format(event, line, new StringBuilder(128), new Timestamps());
+        (level.compareTo(Level.WARN) >= 0 ? System.err : System.out).println(line);
+    }
+
+    private static void fill(LogRingBuffer.Event event, Level level, String loggerName, String pattern,
+                             int argCount, Object arg0, Object arg1, Object[] args) {
+        event.level = level;
+        event.timeMillis = System.currentTimeMillis();
+        event.threadName = Thread.currentThread().getName();
+        event.loggerName = loggerName;
+        event.pattern = pattern;
+        event.argCount = argCount;
+        event.arg0 = arg0;
+        event.arg1 = arg1;
+        event.args = args;
+    }
+
+    /**
+     * Formats an event as one logfmt line.
+     *
+     * @return the exception to print after the line, or null
+     */
+    private static Throwable format(LogRingBuffer.Event event, StringBuilder line, StringBuilder message,
+                                    Timestamps timestamps) {
+        message.setLength(0);
+        Throwable thrown = formatMessage(event, message);
+        line.setLength(0);
+        line.append("ts=");
+        timestamps.append(line, event.timeMillis);
+        line.append(" level=").append(event.level.name());
+        line.append(" thread=");
+        appendValue(line, event.threadName);
+        line.append(" logger=");
+        appendValue(line, event.loggerName);
+        line.append(" msg=");
+        appendValue(line, message);
+        if (thrown != null) {
+            line.append(" error=");
+            appendValue(line, thrown.toString());
+        }
+        return thrown;
+    }
+
+    /**
+     * Replaces each {} in the pattern with the next argument. A last argument left over
+     * that is a Throwable is the message's exception.
+     */
+    private static Throwable formatMessage(LogRingBuffer.Event event, StringBuilder out) {
+        String pattern = String.valueOf(event.pattern);
+        int start = 0;
+        int arg = 0;
+        int placeholder;
+        while (arg < event.argCount && (placeholder = pattern.indexOf("{}", start)) >= 0) {
+            out.append(pattern, start, placeholder);
+            Object value = event.getArg(arg++);
+            try {
+                out.append(value);
+            } catch (RuntimeException e) {
+                out.append("[toString failed: ").append(e).append(']');
+            }
+            start = placeholder + 2;
+        }
+        out.append(pattern, start, pattern.length());
+        Object last = event.argCount > 0 ? event.getArg(event.argCount - 1) : null;
+        return arg < event.argCount && last instanceof Throwable ? (Throwable) last : null;
+    }
+
+    // Quotes values that are empty or contain spaces, quotes, '=' or control characters
+    private static void appendValue(StringBuilder line, CharSequence value) {
+        boolean plain = value.length() > 0;
+        for (int i = 0; i < value.length() && plain; i++) {
+            char c = value.charAt(i);
+            plain = c > ' ' && c != '"' && c != '=' && c != '\\';
+        }
+        if (plain) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    line.append("\\\"");
+                    break;
+                case '\\':
+                    line.append("\\\\");
+                    break;
+                case '\n':
+                    line.append("\\n");
+                    break;
+                case '\r':
+                    line.append("\\r");
+                    break;
+                case '\t':
+                    line.append("\\t");
+                    break;
+                default:
+                    line.append(c);
+            }
+        }
+        line.append('"');
+    }
+
+    /**
+     * Formats timestamps, reusing the date and time of day of the previous one while the
+     * second is the same, as it is for most lines of a busy log.
+     */
+    private static final class Timestamps {
+        private long second = Long.MIN_VALUE;
+        private String secondText;
+
+        void append(StringBuilder line, long timeMillis) {
+            long currentSecond = Math.floorDiv(timeMillis, 1000);
+            if (currentSecond != second) {
+                second = currentSecond;
+                secondText = SECOND_FORMAT.format(
+                        LocalDateTime.ofInstant(Instant.ofEpochSecond(currentSecond), ZoneId.systemDefault()));
+            }
+            int millis = Math.floorMod(timeMillis, 1000);
+            line.append(secondText).append('.');
+            if (millis < 100) {
+                line.append('0');
+            }
+            if (millis < 10) {
+                line.append('0');
+            }
+            line.append(millis);
+        }
+    }
+
+    private static Level parseLevel(String name) {
+        try {
+            return Level.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown log level " + name + ", using INFO");
+            return Level.INFO;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.university.parking.log;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded queue of log events from any number of logging threads to the one appender
+ * thread, without locks.
+ *
+ * The slots are allocated once and reused, so logging a message copies its level,
+ * pattern and arguments into a slot instead of allocating an event. Each slot carries a
+ * sequence number that says whose turn it is: a logging thread claims the next position
+ * with a compare-and-set and publishes the filled slot by advancing its sequence, and
+ * the appender frees it by advancing the sequence a lap further. A full queue refuses
+ * the event instead of waiting, so the caller decides whether to wait or drop.
+ */
+final class LogRingBuffer {
+
+    /**
+     * One slot. Its fields are only read by the appender after the slot is published.
+     */
+    static final class Event {
+        Level level;
+        long timeMillis;
+        String threadName;
+        String loggerName;
+        String pattern;
+        int argCount;
+        Object arg0;
+        Object arg1;
+        // Arguments beyond two, or null
+        Object[] args;
+
+        Object getArg(int index) {
+            if (args != null) {
+                return args[index];
+            }
+            return index == 0 ? arg0 : arg1;
+        }
+
+        private void clear() {
+            pattern = null;
+            arg0 = null;
+            arg1 = null;
+            args = null;
+        }
+    }
+
+    private final Event[] events;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    // Next position to claim
+    private final AtomicLong tail = new AtomicLong();
+    // Next position to read; only used by the appender thread
+    private long head;
+
+    /**
+     * Creates an empty buffer.
+     *
+     * @param capacity the number of slots, a power of two
+     */
+    LogRingBuffer(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        events = new Event[capacity];
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            events[i] = new Event();
+            // Free for the position with the same index in the first lap
+            sequences.set(i, i);
+        }
+        mask = capacity - 1;
+    }
+
+    /**
+     * Adds an event, unless the buffer is full.
+     *
+     * @return true if the event was added
+     */
+    boolean offer(Level level, String loggerName, String pattern, int argCount,
+                  Object arg0, Object arg1, Object[] args) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long lag = sequences.get(index) - position;
+            if (lag == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    Event event = events[index];
+                    event.level = level;
+                    event.timeMillis = System.currentTimeMillis();
+                    event.threadName = Thread.currentThread().getName();
+                    event.loggerName = loggerName;
+                    event.pattern = pattern;
+                    event.argCount = argCount;
+                    event.arg0 = arg0;
+                    event.arg1 = arg1;
+                    event.args = args;
+                    // Publishes the filled slot to the appender
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (lag < 0) {
+                // The slot still holds the event from the previous lap
+                return false;
+            } else {
+                // Another thread claimed this position first
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Gets the oldest event without removing it. Appender thread only.
+     *
+     * @return the event, or null if the buffer is empty
+     */
+    Event peek() {
+        int index = (int) head & mask;
+        return sequences.get(index) == head + 1 ? events[index] : null;
+    }
+
+    /**
+     * Removes the event returned by {@link #peek()}, freeing its slot. Appender thread only.
+     */
+    void remove() {
+        int index = (int) head & mask;
+        events[index].clear();
+        sequences.lazySet(index, head + events.length);
+        head++;
+    }
+}
@@ -0,0 +1,155 @@
+package com.university.parking.log;
+
+/**
+ * Named source of log messages, one per class:
+ * <pre>
+ * private static final Logger LOG = Logger.get(ReservationDAOImpl.class);
+ * ...
+ * LOG.debug("Reservation saved: {}", reservation.getReservationId());
+ * LOG.warn("Error sampling occupancy: {}", e.getMessage());
+ * LOG.error("Error completing reservation {}", reservationId, e);
+ * </pre>
+ * Each {} in the pattern is replaced by the next argument, and a Throwable left over as
+ * the last argument is logged with its stack trace. A message below the configured level
+ * returns after one comparison, without building a string; the fixed-arity methods do not
+ * allocate either, though primitive arguments are boxed at the call.
+ *
+ * The message is formatted later, on the appender thread, so arguments should be values
+ * that do not change afterwards (strings, numbers, IDs), not mutable objects.
+ *
+ * @see LogManager
+ */
+public final class Logger {
+
+    private final String name;
+
+    private Logger(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the logger of a class, named by its simple name.
+     *
+     * @param type the class logging
+     * @return the logger
+     */
+    public static Logger get(Class<?> type) {
+        return new Logger(type.getSimpleName());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isDebugEnabled() {
+        return LogManager.isEnabled(Level.DEBUG);
+    }
+
+    public void debug(String message) {
+        if (LogManager.isEnabled(Level.DEBUG)) {
+            LogManager.log(Level.DEBUG, name, message, 0, null, null, null);
+        }
+    }
+
+    public void debug(String pattern, Object arg) {
+        if (LogManager.isEnabled(Level.DEBUG)) {
+            LogManager.log(Level.DEBUG, name, pattern, 1, arg, null, null);
+        }
+    }
+
+    public void debug(String pattern, Object arg0, Object arg1) {
+        if (LogManager.isEnabled(Level.DEBUG)) {
+            LogManager.log(Level.DEBUG, name, pattern, 2, arg0, arg1, null);
+        }
+    }
+
+    public void debug(String pattern, Object... args) {
+        if (LogManager.isEnabled(Level.DEBUG)) {
+            LogManager.log(Level.DEBUG, name, pattern, args.length, null, null, args);
+        }
+    }
+
+    public boolean isInfoEnabled() {
+        return LogManager.isEnabled(Level.INFO);
+    }
+
+    public void info(String message) {
+        if (LogManager.isEnabled(Level.INFO)) {
+            LogManager.log(Level.INFO, name, message, 0, null, null, null);
+        }
+    }
+
+    public void info(String pattern, Object arg) {
+        if (LogManager.isEnabled(Level.INFO)) {
+            LogManager.log(Level.INFO, name, pattern, 1, arg, null, null);
+        }
+    }
+
+    public void info(String pattern, Object arg0, Object arg1) {
+        if (LogManager.isEnabled(Level.INFO)) {
+            LogManager.log(Level.INFO, name, pattern, 2, arg0, arg1, null);
+        }
+    }
+
+    public void info(String pattern, Object... args) {
+        if (LogManager.isEnabled(Level.INFO)) {
+            LogManager.log(Level.INFO, name, pattern, args.length, null, null, args);
+        }
+    }
+
+    public boolean isWarnEnabled() {
+        return LogManager.isEnabled(Level.WARN);
+    }
+
+    public void warn(String message) {
+        if (LogManager.isEnabled(Level.WARN)) {
+            LogManager.log(Level.WARN, name, message, 0, null, null, null);
+        }
+    }
+
+    public void warn(String pattern, Object arg) {
+        if (LogManager.isEnabled(Level.WARN)) {
+            LogManager.log(Level.WARN, name, pattern, 1, arg, null, null);
+        }
+    }
+
+    public void warn(String pattern, Object arg0, Object arg1) {
+        if (LogManager.isEnabled(Level.WARN)) {
+            LogManager.log(Level.WARN, name, pattern, 2, arg0, arg1, null);
+        }
+    }
+
+    public void warn(String pattern, Object... args) {
+        if (LogManager.isEnabled(Level.WARN)) {
+            LogManager.log(Level.WARN, name, pattern, args.length, null, null, args);
+        }
+    }
+
+    public boolean isErrorEnabled() {
+        return LogManager.isEnabled(Level.ERROR);
+    }
+
+    public void error(String message) {
+        if (LogManager.isEnabled(Level.ERROR)) {
+            LogManager.log(Level.ERROR, name, message, 0, null, null, null);
+        }
+    }
+
+    public void error(String pattern, Object arg) {
+        if (LogManager.isEnabled(Level.ERROR)) {
+            LogManager.log(Level.ERROR, name, pattern, 1, arg, null, null);
+        }
+    }
+
+    public void error(String pattern, Object arg0, Object arg1) {
+        if (LogManager.isEnabled(Level.ERROR)) {
+            LogManager.log(Level.ERROR, name, pattern, 2, arg0, arg1, null);
+        }
+    }
+
+    public void error(String pattern, Object... args) {
+        if (LogManager.isEnabled(Level.ERROR)) {
+            LogManager.log(Level.ERROR, name, pattern, args.length, null, null, args);
+        }
+    }
+}
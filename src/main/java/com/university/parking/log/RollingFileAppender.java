@@ -0,0 +1,88 @@
+package com.university.parking.log;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends lines to a log file, rolling it over when it reaches a size limit:
+ * parking.log becomes parking.log.1, parking.log.1 becomes parking.log.2 and so on,
+ * and the oldest file is deleted. Used by the appender thread only.
+ */
+final class RollingFileAppender implements Closeable {
+
+    private final Path file;
+    private final long maxBytes;
+    private final int maxBackups;
+    private Writer writer;
+    // Size of the current file, counting characters as bytes; log lines are mostly ASCII
+    private long size;
+
+    /**
+     * Opens a log file for appending, creating its directory if needed.
+     *
+     * @param file the current log file
+     * @param maxBytes the size at which the file is rolled over
+     * @param maxBackups the number of rolled-over files kept
+     * @throws IOException if the file cannot be opened
+     */
+    RollingFileAppender(Path file, long maxBytes, int maxBackups) throws IOException {
+        this.file = file;
+        this.maxBytes = maxBytes;
+        this.maxBackups = maxBackups;
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        open();
+    }
+
+    void append(CharSequence line) throws IOException {
+        if (size > 0 && size + line.length() + 1 > maxBytes) {
+            roll();
+        }
+        writer.append(line).append('\n');
+        size += line.length() + 1;
+    }
+
+    void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void open() throws IOException {
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        size = Files.size(file);
+    }
+
+    private void roll() throws IOException {
+        writer.close();
+        Files.deleteIfExists(backup(maxBackups));
+        for (int i = maxBackups - 1; i >= 1; i--) {
+            Path older = backup(i);
+            if (Files.exists(older)) {
+                Files.move(older, backup(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxBackups > 0) {
+            Files.move(file, backup(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(file);
+        }
+        open();
+    }
+
+    private Path backup(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+}
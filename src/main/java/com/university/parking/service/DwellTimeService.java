@@ -0,0 +1,45 @@
+package com.university.parking.service;
+
+import com.university.parking.domain.DwellTimeSketch;
+import com.university.parking.domain.SpotType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Service interface for parking duration statistics.
+ * Durations are summarised in mergeable sketches per day, spot type and hour of entry,
+ * so percentiles for any range are read without scanning vehicle history.
+ */
+public interface DwellTimeService {
+    
+    /**
+     * Records a finished stay.
+     * 
+     * @param spotType the type of spot used
+     * @param entryTime when the vehicle entered
+     * @param exitTime when the vehicle left
+     */
+    void recordStay(SpotType spotType, LocalDateTime entryTime, LocalDateTime exitTime);
+    
+    /**
+     * Gets the durations of stays that began in a date range, per hour of entry.
+     * 
+     * @param startDate the first day (inclusive)
+     * @param endDate the last day (inclusive)
+     * @param spotType the spot type, or null for all types
+     * @return a sketch per hour of entry, for the hours that have stays
+     */
+    Map<Integer, DwellTimeSketch> getDwellTimesByHour(LocalDate startDate, LocalDate endDate, SpotType spotType);
+    
+    /**
+     * Gets the durations of stays that began in a date range, at any hour.
+     * 
+     * @param startDate the first day (inclusive)
+     * @param endDate the last day (inclusive)
+     * @param spotType the spot type, or null for all types
+     * @return the merged sketch
+     */
+    DwellTimeSketch getDwellTimes(LocalDate startDate, LocalDate endDate, SpotType spotType);
+}
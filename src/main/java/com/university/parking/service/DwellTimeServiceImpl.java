@@ -0,0 +1,147 @@
+package com.university.parking.service;
+
+import com.university.parking.dao.DwellTimeDAO;
+import com.university.parking.dao.ParkingSpotDAO;
+import com.university.parking.dao.TicketDAO;
+import com.university.parking.dao.VehicleDAO;
+import com.university.parking.db.DatabaseManager;
+import com.university.parking.domain.DwellTimeKey;
+import com.university.parking.domain.DwellTimeSketch;
+import com.university.parking.domain.ParkingSpot;
+import com.university.parking.domain.SpotType;
+import com.university.parking.domain.Ticket;
+import com.university.parking.domain.Vehicle;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Implementation of DwellTimeService.
+ * Each exit updates one stored sketch; recently updated sketches are kept in memory
+ * so consecutive exits in the same hour do not re-read them. A sketch is only cached
+ * once the exit that saved it has committed, so a rolled back exit is not counted.
+ */
+public class DwellTimeServiceImpl implements DwellTimeService {
+    
+    // Covers every spot type and hour of about two days of entries
+    private static final int CACHED_SKETCHES = 256;
+    
+    private final DwellTimeDAO dwellTimeDAO;
+    private final DatabaseManager dbManager;
+    private final Map<DwellTimeKey, DwellTimeSketch> recentSketches =
+        new LinkedHashMap<DwellTimeKey, DwellTimeSketch>(CACHED_SKETCHES, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<DwellTimeKey, DwellTimeSketch> eldest) {
+                return size() > CACHED_SKETCHES;
+            }
+        };
+    
+    public DwellTimeServiceImpl(DwellTimeDAO dwellTimeDAO, DatabaseManager dbManager) {
+        this.dwellTimeDAO = dwellTimeDAO;
+        this.dbManager = dbManager;
+    }
+    
+    @Override
+    public synchronized void recordStay(SpotType spotType, LocalDateTime entryTime, LocalDateTime exitTime) {
+        if (spotType == null || entryTime == null || exitTime == null) {
+            throw new IllegalArgumentException("Spot type, entry time and exit time cannot be null");
+        }
+        DwellTimeKey key = DwellTimeKey.of(spotType, entryTime);
+        // Taken out until the save commits: the next exit reads the committed sketch instead
+        DwellTimeSketch cached = recentSketches.remove(key);
+        if (cached == null) {
+            cached = dwellTimeDAO.find(key);
+        }
+        DwellTimeSketch sketch = new DwellTimeSketch();
+        if (cached != null) {
+            sketch.merge(cached);
+        }
+        sketch.add(Math.max(0, Duration.between(entryTime, exitTime).getSeconds()));
+        dwellTimeDAO.save(key, sketch);
+        dbManager.afterCommit(() -> cacheSketch(key, sketch));
+    }
+    
+    /**
+     * Caches a committed sketch unless a later exit has already cached a fuller one.
+     * Sketches only grow, so the one with more stays is the newer.
+     */
+    private synchronized void cacheSketch(DwellTimeKey key, DwellTimeSketch sketch) {
+        recentSketches.merge(key, sketch,
+                (current, saved) -> current.getCount() >= saved.getCount() ? current : saved);
+    }
+    
+    @Override
+    public Map<Integer, DwellTimeSketch> getDwellTimesByHour(LocalDate startDate, LocalDate endDate,
+                                                              SpotType spotType) {
+        validateRange(startDate, endDate);
+        return dwellTimeDAO.mergeByHour(startDate, endDate, spotType);
+    }
+    
+    @Override
+    public DwellTimeSketch getDwellTimes(LocalDate startDate, LocalDate endDate, SpotType spotType) {
+        DwellTimeSketch merged = new DwellTimeSketch();
+        for (DwellTimeSketch sketch : getDwellTimesByHour(startDate, endDate, spotType).values()) {
+            merged.merge(sketch);
+        }
+        return merged;
+    }
+    
+    /**
+     * Builds the sketches from vehicle history when none are stored yet, e.g. the
+     * first time the application runs with dwell time statistics.
+     * Stays are matched to their spot through the ticket issued at entry.
+     * 
+     * @param vehicleDAO source of finished stays
+     * @param ticketDAO source of the spot used by each stay
+     * @param parkingSpotDAO source of spot types
+     * @return the number of stays recorded
+     */
+    public synchronized int rebuildIfEmpty(VehicleDAO vehicleDAO, TicketDAO ticketDAO, ParkingSpotDAO parkingSpotDAO) {
+        if (!dwellTimeDAO.isEmpty()) {
+            return 0;
+        }
+        Map<String, SpotType> spotTypes = new HashMap<>();
+        for (ParkingSpot spot : parkingSpotDAO.findAll()) {
+            spotTypes.put(spot.getSpotId(), spot.getType());
+        }
+        Map<String, SpotType> stayTypes = new HashMap<>();
+        for (Ticket ticket : ticketDAO.findAll()) {
+            SpotType type = spotTypes.get(ticket.getSpotId());
+            if (type != null) {
+                stayTypes.put(ticket.getLicensePlate() + "@" + ticket.getEntryTime(), type);
+            }
+        }
+        
+        Map<DwellTimeKey, DwellTimeSketch> sketches = new HashMap<>();
+        int recorded = 0;
+        for (Vehicle vehicle : vehicleDAO.findAll()) {
+            if (vehicle.getEntryTime() == null || vehicle.getExitTime() == null) {
+                continue;
+            }
+            SpotType type = stayTypes.get(vehicle.getLicensePlate() + "@" + vehicle.getEntryTime());
+            if (type == null) {
+                continue;
+            }
+            sketches.computeIfAbsent(DwellTimeKey.of(type, vehicle.getEntryTime()), key -> new DwellTimeSketch())
+                    .add(Math.max(0, Duration.between(vehicle.getEntryTime(), vehicle.getExitTime()).getSeconds()));
+            recorded++;
+        }
+        if (!sketches.isEmpty()) {
+            dwellTimeDAO.saveAll(sketches);
+        }
+        return recorded;
+    }
+    
+    private static void validateRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("Date range cannot be null");
+        }
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date cannot be after end date");
+        }
+    }
+}
@@ -35,6 +35,15 @@ public interface FineService {
      */
     double calculateFine(int overtimeDuration);
     
+    /**
+     * Calculates fines for many vehicles at once based on the current strategy.
+     * Used by enforcement sweeps instead of one calculateFine call per vehicle.
+     * 
+     * @param overtimeDurations the overtime durations in hours
+     * @return the fine for overtimeDurations[i] at index i
+     */
+    double[] calculateFines(int[] overtimeDurations);
+    
     /**
      * Issues a new fine for a vehicle.
      * 
@@ -4,6 +4,7 @@ import com.university.parking.dao.FineDAO;
 import com.university.parking.domain.Fine;
 import com.university.parking.domain.FineManager;
 import com.university.parking.domain.FineStrategy;
+import com.university.parking.domain.PrecomputedFineStrategy;
 
 import java.util.List;
 
@@ -16,6 +17,8 @@ public class FineServiceImpl implements FineService {
     
     private final FineDAO fineDAO;
     private final FineManager fineManager;
+    // Lookup table for the current strategy, rebuilt when the strategy changes
+    private volatile PrecomputedFineStrategy fineTable;
     
     public FineServiceImpl(FineDAO fineDAO) {
         this.fineDAO = fineDAO;
@@ -45,7 +48,32 @@ public class FineServiceImpl implements FineService {
         if (overtimeDuration < 0) {
             return 0.0;
         }
-        return fineManager.calculateFine(overtimeDuration);
+        return fineTable().calculateFine(overtimeDuration);
+    }
+    
+    @Override
+    public double[] calculateFines(int[] overtimeDurations) {
+        if (overtimeDurations == null) {
+            throw new IllegalArgumentException("Durations cannot be null");
+        }
+        double[] fines = new double[overtimeDurations.length];
+        fineTable().calculateFines(overtimeDurations, fines);
+        return fines;
+    }
+    
+    /**
+     * Gets the lookup table for the current strategy.
+     * The strategy can also be changed through the shared FineManager, so the
+     * table is checked against it on every use.
+     */
+    private PrecomputedFineStrategy fineTable() {
+        FineStrategy current = fineManager.getCurrentStrategy();
+        PrecomputedFineStrategy table = fineTable;
+        if (table == null || table.getBaseStrategy() != current) {
+            table = new PrecomputedFineStrategy(current);
+            fineTable = table;
+        }
+        return table;
     }
     
     @Override
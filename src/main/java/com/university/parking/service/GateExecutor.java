@@ -0,0 +1,138 @@
+package com.university.parking.service;
+
+import com.university.parking.log.Logger;
+
+import java.io.Closeable;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs gate operations (entry, exit and payment) off the UI thread.
+ * The operations must not use the shared default connection; {@link ParkingServiceImpl}
+ * runs each one in a transaction on a connection of its own when given a database.
+ *
+ * On Java 21 and later each operation gets its own virtual thread, so thousands of
+ * gates waiting on the database or a payment terminal cost almost nothing; earlier
+ * runtimes use a fixed pool of platform threads. Virtual threads are looked up when
+ * the executor is created, so the same Java 11 build uses them whenever it runs on
+ * Java 21.
+ */
+public class GateExecutor implements Closeable {
+
+    private static final Logger LOG = Logger.get(GateExecutor.class);
+
+    /** System property choosing the threads: "auto" (default), "virtual" or "platform" */
+    public static final String THREADS_PROPERTY = "parking.gate.threads";
+
+    /**
+     * Kind of threads gate operations run on.
+     */
+    public enum Threads {
+        /** Virtual threads when the runtime has them, platform threads otherwise */
+        AUTO,
+        /** Virtual threads; fails on runtimes before Java 21 */
+        VIRTUAL,
+        /** A fixed pool of platform threads */
+        PLATFORM
+    }
+
+    private static final int SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private final ExecutorService executor;
+    private final boolean virtual;
+
+    /**
+     * Creates an executor.
+     *
+     * @param threads the kind of threads to use
+     * @param platformThreads the pool size when platform threads are used
+     */
+    public GateExecutor(Threads threads, int platformThreads) {
+        if (platformThreads < 1) {
+            throw new IllegalArgumentException("Thread count must be positive");
+        }
+        ExecutorService virtualExecutor = threads == Threads.PLATFORM ? null : newVirtualThreadExecutor();
+        if (virtualExecutor == null && threads == Threads.VIRTUAL) {
+            throw new IllegalStateException("Virtual threads need Java 21 or later");
+        }
+        this.virtual = virtualExecutor != null;
+        this.executor = virtual ? virtualExecutor : newPlatformThreadPool(platformThreads);
+    }
+
+    /**
+     * Creates an executor configured by -Dparking.gate.threads, with one platform
+     * thread per processor (at least four) when platform threads are used.
+     *
+     * @return the executor
+     */
+    public static GateExecutor fromSystemProperties() {
+        Threads threads = Threads.valueOf(System.getProperty(THREADS_PROPERTY, "auto").toUpperCase());
+        return new GateExecutor(threads, Math.max(4, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Runs a gate operation.
+     *
+     * @param operation the operation
+     * @param <T> the result type
+     * @return completes with the operation's result, or with the exception it threw
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> operation) {
+        return CompletableFuture.supplyAsync(operation, executor);
+    }
+
+    /**
+     * Checks whether operations run on virtual threads.
+     *
+     * @return true for virtual threads, false for platform threads
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Stops accepting operations and waits briefly for running ones to finish.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LOG.warn("Gate operations still running at shutdown");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Creates Executors.newVirtualThreadPerTaskExecutor() through reflection, as the
+     * method does not exist before Java 21 (and is a disabled preview on 19 and 20).
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof UnsupportedOperationException) {
+                return null;
+            }
+            throw new IllegalStateException("Error creating virtual thread executor", e.getCause());
+        }
+    }
+
+    private static ExecutorService newPlatformThreadPool(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "gate-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,127 @@
+package com.university.parking.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped locks that serialize conflicting gate operations.
+ *
+ * Plates and spot IDs are hashed onto a fixed array of locks, so memory stays constant
+ * however many plates pass through, and operations on unrelated plates and spots almost
+ * always take different stripes and run in parallel. An operation that needs several
+ * keys takes their stripes in ascending stripe order, so two operations can never wait
+ * for each other in a cycle.
+ *
+ * Locks are reentrant, but work run under a lock must not take further stripes;
+ * everything it needs has to be named up front.
+ */
+public class GateLocks {
+
+    /** Default number of stripes */
+    public static final int DEFAULT_STRIPES = 64;
+
+    private static final String PLATE_PREFIX = "plate:";
+    private static final String SPOT_PREFIX = "spot:";
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public GateLocks() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * Creates the locks.
+     *
+     * @param stripes the number of stripes, rounded up to a power of two
+     */
+    public GateLocks(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+        int size = Integer.highestOneBit(stripes);
+        if (size < stripes) {
+            size <<= 1;
+        }
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Runs work while holding a plate's lock.
+     *
+     * @param licensePlate the plate
+     * @param work the work to run
+     * @param <T> the result type
+     * @return the work's result
+     */
+    public <T> T withPlate(String licensePlate, Supplier<T> work) {
+        return withStripes(new int[] {stripeOf(PLATE_PREFIX + licensePlate)}, work);
+    }
+
+    /**
+     * Runs work while holding the locks of several plates.
+     *
+     * @param licensePlates the plates
+     * @param work the work to run
+     * @param <T> the result type
+     * @return the work's result
+     */
+    public <T> T withPlates(Collection<String> licensePlates, Supplier<T> work) {
+        int[] indexes = licensePlates.stream().mapToInt(plate -> stripeOf(PLATE_PREFIX + plate)).toArray();
+        return withStripes(indexes, work);
+    }
+
+    /**
+     * Runs work while holding a plate's and a spot's locks.
+     *
+     * @param licensePlate the plate
+     * @param spotId the spot ID, or null to lock only the plate
+     * @param work the work to run
+     * @param <T> the result type
+     * @return the work's result
+     */
+    public <T> T withPlateAndSpot(String licensePlate, String spotId, Supplier<T> work) {
+        if (spotId == null) {
+            return withPlate(licensePlate, work);
+        }
+        return withStripes(new int[] {stripeOf(PLATE_PREFIX + licensePlate), stripeOf(SPOT_PREFIX + spotId)}, work);
+    }
+
+    private <T> T withStripes(int[] indexes, Supplier<T> work) {
+        // Ascending order, each stripe once: no two callers can wait on each other in a cycle
+        int[] ordered = Arrays.stream(indexes).sorted().distinct().toArray();
+        int locked = 0;
+        try {
+            for (int index : ordered) {
+                stripes[index].lock();
+                locked++;
+            }
+            return work.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[ordered[i]].unlock();
+            }
+        }
+    }
+
+    private int stripeOf(String key) {
+        int hash = key.hashCode();
+        // Spread the high bits so keys differing only in their last characters still scatter
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * Gets the number of stripes.
+     *
+     * @return the stripe count
+     */
+    public int getStripeCount() {
+        return stripes.length;
+    }
+}
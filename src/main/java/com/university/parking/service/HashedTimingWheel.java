@@ -0,0 +1,170 @@
+package com.university.parking.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashed timing wheel for large numbers of long-lived deadlines.
+ * Deadlines are hashed into a ring of buckets by tick; scheduling and cancelling are
+ * O(1), and advancing the clock only visits the buckets of the elapsed ticks.
+ * Deadlines further away than one revolution stay in their bucket until their tick
+ * comes round (each entry keeps its absolute tick, so no round counters are needed).
+ *
+ * A deadline never fires early and fires at most one tick late.
+ *
+ * @param <T> the item attached to each deadline
+ */
+public class HashedTimingWheel<T> {
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final Timeout<T>[] buckets;
+    private final int mask;
+    // Next tick to process; all earlier ticks have been processed
+    private long currentTick;
+    private int size;
+
+    /**
+     * Creates a wheel.
+     *
+     * @param tickMillis the length of one tick in milliseconds
+     * @param wheelSize the number of buckets, rounded up to a power of two
+     * @param startMillis the time of tick zero (epoch milliseconds)
+     */
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick length and wheel size must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(wheelSize - 1, 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        // A generic array cannot be created directly; the wheel only ever stores Timeout<T> in it
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Timeout<T>[] ring = new Timeout[size];
+        this.buckets = ring;
+        this.mask = size - 1;
+    }
+
+    /**
+     * Schedules an item. A deadline already in the past fires at the next tick.
+     *
+     * @param item the item to return when the deadline passes
+     * @param deadlineMillis the deadline (epoch milliseconds)
+     * @return a handle for cancelling the deadline
+     */
+    public synchronized Timeout<T> schedule(T item, long deadlineMillis) {
+        long elapsed = Math.max(0, deadlineMillis - startMillis);
+        // Round up so the deadline never fires early
+        long tick = Math.max((elapsed + tickMillis - 1) / tickMillis, currentTick);
+        Timeout<T> timeout = new Timeout<>(this, item, deadlineMillis, tick);
+        int index = (int) (tick & mask);
+        timeout.next = buckets[index];
+        if (timeout.next != null) {
+            timeout.next.prev = timeout;
+        }
+        buckets[index] = timeout;
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Advances the wheel to the given time and removes every deadline that passed.
+     *
+     * @param nowMillis the current time (epoch milliseconds)
+     * @return the expired deadlines, in no particular order
+     */
+    public synchronized List<Timeout<T>> advance(long nowMillis) {
+        long targetTick = (nowMillis - startMillis) / tickMillis;
+        if (targetTick < currentTick) {
+            return new ArrayList<>(0);
+        }
+        List<Timeout<T>> expired = new ArrayList<>();
+        // After a long pause one revolution already visits every bucket
+        long ticks = Math.min(targetTick - currentTick + 1, buckets.length);
+        for (long i = 0; i < ticks; i++) {
+            int index = (int) ((currentTick + i) & mask);
+            Timeout<T> timeout = buckets[index];
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                if (timeout.tick <= targetTick) {
+                    unlink(timeout, index);
+                    expired.add(timeout);
+                }
+                timeout = next;
+            }
+        }
+        currentTick = targetTick + 1;
+        return expired;
+    }
+
+    /**
+     * Gets the number of scheduled deadlines.
+     *
+     * @return the number of pending deadlines
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout.removed) {
+            return false;
+        }
+        unlink(timeout, (int) (timeout.tick & mask));
+        return true;
+    }
+
+    private void unlink(Timeout<T> timeout, int index) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            buckets[index] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.removed = true;
+        size--;
+    }
+
+    /**
+     * A scheduled deadline.
+     *
+     * @param <T> the item type
+     */
+    public static final class Timeout<T> {
+        private final HashedTimingWheel<T> wheel;
+        private final T item;
+        private final long deadlineMillis;
+        private final long tick;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+        private boolean removed;
+
+        private Timeout(HashedTimingWheel<T> wheel, T item, long deadlineMillis, long tick) {
+            this.wheel = wheel;
+            this.item = item;
+            this.deadlineMillis = deadlineMillis;
+            this.tick = tick;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        public long getDeadlineMillis() {
+            return deadlineMillis;
+        }
+
+        /**
+         * Cancels the deadline in O(1).
+         *
+         * @return true if it was still pending
+         */
+        public boolean cancel() {
+            return wheel.cancel(this);
+        }
+    }
+}
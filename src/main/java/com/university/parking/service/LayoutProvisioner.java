@@ -0,0 +1,36 @@
+package com.university.parking.service;
+
+import com.university.parking.dao.ParkingSpotDAO;
+import com.university.parking.domain.LotLayout;
+
+/**
+ * Brings the stored parking spots in line with a {@link LotLayout}.
+ *
+ * The stored spots are read once and compared with the layout, and only the differences
+ * are written: new spots are inserted, changed ones updated and dropped ones deleted, each
+ * as one batch, all in a single transaction. Re-applying an unchanged layout writes nothing,
+ * and a lot of 100,000 spots is provisioned without a round trip per spot.
+ */
+public class LayoutProvisioner {
+
+    private final ParkingSpotDAO parkingSpotDAO;
+
+    public LayoutProvisioner(ParkingSpotDAO parkingSpotDAO) {
+        this.parkingSpotDAO = parkingSpotDAO;
+    }
+
+    /**
+     * Applies a layout. Call it before gate operations start, as spots changed by a gate
+     * between the comparison and the write would be overwritten.
+     *
+     * @param layout the layout the lot should have
+     * @return the changes that were made
+     */
+    public LotLayout.Diff apply(LotLayout layout) {
+        LotLayout.Diff diff = layout.diff(parkingSpotDAO.findAll());
+        if (!diff.isEmpty()) {
+            parkingSpotDAO.applyChanges(diff.getAdded(), diff.getRetyped(), diff.getRemoved());
+        }
+        return diff;
+    }
+}
@@ -0,0 +1,142 @@
+package com.university.parking.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size ring of the most recent occupancy samples, written by one sampling thread
+ * and read by any number of threads without locks. Old samples are overwritten, so
+ * memory stays constant however long the application runs.
+ *
+ * Each slot holds an immutable sample tagged with its sequence number. A reader keeps a
+ * slot only if its tag matches the sequence it expects, so a sample overwritten while
+ * being read is skipped instead of being returned out of order.
+ */
+public class OccupancyRingBuffer {
+
+    /**
+     * Occupancy of every series at one instant.
+     */
+    public static final class Sample {
+        private final long sequence;
+        private final long timeMillis;
+        private final String[] series;
+        private final int[] occupied;
+        private final int[] capacity;
+
+        private Sample(long sequence, long timeMillis, String[] series, int[] occupied, int[] capacity) {
+            this.sequence = sequence;
+            this.timeMillis = timeMillis;
+            this.series = series;
+            this.occupied = occupied;
+            this.capacity = capacity;
+        }
+
+        public long getTimeMillis() {
+            return timeMillis;
+        }
+
+        /**
+         * Gets the series keys, in the order of the occupied and capacity values.
+         *
+         * @return a copy of the series keys
+         */
+        public List<String> getSeries() {
+            return Arrays.asList(series.clone());
+        }
+
+        public int getOccupied(int index) {
+            return occupied[index];
+        }
+
+        public int getCapacity(int index) {
+            return capacity[index];
+        }
+
+        /**
+         * Gets the occupancy rate of a series.
+         *
+         * @param key the series key
+         * @return the rate between 0 and 1, or -1 if the series was not sampled
+         */
+        public double getRate(String key) {
+            for (int i = 0; i < series.length; i++) {
+                if (series[i].equals(key)) {
+                    return capacity[i] > 0 ? (double) occupied[i] / capacity[i] : 0.0;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private final AtomicReferenceArray<Sample> slots;
+    private final AtomicLong written = new AtomicLong();
+
+    /**
+     * Creates an empty ring.
+     *
+     * @param capacity the number of samples kept
+     */
+    public OccupancyRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Appends a sample, overwriting the oldest one when full.
+     * Must only be called from the single writer thread.
+     *
+     * @param timeMillis when the sample was taken
+     * @param series the series keys; the array must not be modified afterwards
+     * @param occupied occupied spots per series; must not be modified afterwards
+     * @param capacity total spots per series; must not be modified afterwards
+     */
+    public void add(long timeMillis, String[] series, int[] occupied, int[] capacity) {
+        long sequence = written.get();
+        slots.set((int) (sequence % slots.length()), new Sample(sequence, timeMillis, series, occupied, capacity));
+        // Publishes the slot: readers only look at sequences below this count
+        written.set(sequence + 1);
+    }
+
+    /**
+     * Gets the samples taken at or after a time, oldest first.
+     *
+     * @param sinceMillis the earliest sample time to include
+     * @return the matching samples still held by the ring
+     */
+    public List<Sample> since(long sinceMillis) {
+        long end = written.get();
+        long start = Math.max(0, end - slots.length());
+        List<Sample> samples = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            Sample sample = slots.get((int) (sequence % slots.length()));
+            if (sample != null && sample.sequence == sequence && sample.timeMillis >= sinceMillis) {
+                samples.add(sample);
+            }
+        }
+        return samples;
+    }
+
+    /**
+     * Gets the most recent sample.
+     *
+     * @return the latest sample, or null if none was taken
+     */
+    public Sample latest() {
+        long end = written.get();
+        if (end == 0) {
+            return null;
+        }
+        Sample sample = slots.get((int) ((end - 1) % slots.length()));
+        return sample != null && sample.sequence == end - 1 ? sample : null;
+    }
+
+    public int getCapacity() {
+        return slots.length();
+    }
+}
@@ -0,0 +1,256 @@
+package com.university.parking.service;
+
+import com.university.parking.dao.OccupancyHistoryDAO;
+import com.university.parking.domain.OccupancyBucket;
+import com.university.parking.domain.ParkingSpot;
+import com.university.parking.log.Logger;
+
+import java.io.Closeable;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Records occupancy over time for the whole lot, each floor and each spot type.
+ * A background thread samples every few seconds into an {@link OccupancyRingBuffer}
+ * for live charts, averages the samples of each minute into a persisted minute bucket,
+ * and rolls the minutes of each finished hour up into an hour bucket. Minute buckets
+ * are kept for a week and hour buckets indefinitely; memory use does not grow.
+ */
+public class OccupancySampler implements Closeable {
+
+    private static final Logger LOG = Logger.get(OccupancySampler.class);
+
+    public static final String ALL_SERIES = "ALL";
+    public static final String FLOOR_PREFIX = "FLOOR:";
+    public static final String TYPE_PREFIX = "TYPE:";
+
+    private static final long DEFAULT_PERIOD_MILLIS = TimeUnit.SECONDS.toMillis(5);
+    // One hour of samples at the default period
+    private static final int DEFAULT_CAPACITY = 720;
+    private static final int MINUTE_RETENTION_DAYS = 7;
+
+    private final Supplier<List<ParkingSpot>> spotSource;
+    private final OccupancyHistoryDAO historyDAO;
+    private final OccupancyRingBuffer recent;
+    private final ScheduledExecutorService ticker;
+
+    // Aggregation state, only touched by the sampling thread
+    private String[] lastSeries = new String[0];
+    private LocalDateTime currentMinute;
+    private final Map<String, MinuteTotals> minuteTotals = new TreeMap<>();
+
+    /**
+     * Creates and starts a sampler taking a sample every five seconds.
+     *
+     * @param spotSource reads the current spots; called on the sampling thread
+     * @param historyDAO stores the minute and hour buckets
+     */
+    public OccupancySampler(Supplier<List<ParkingSpot>> spotSource, OccupancyHistoryDAO historyDAO) {
+        this(spotSource, historyDAO, DEFAULT_PERIOD_MILLIS, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a sampler.
+     *
+     * @param spotSource reads the current spots; called on the sampling thread
+     * @param historyDAO stores the minute and hour buckets
+     * @param periodMillis time between samples, or 0 to sample only when {@link #sampleAt} is called
+     * @param capacity the number of recent samples kept in memory
+     */
+    public OccupancySampler(Supplier<List<ParkingSpot>> spotSource, OccupancyHistoryDAO historyDAO,
+                            long periodMillis, int capacity) {
+        if (spotSource == null || historyDAO == null) {
+            throw new IllegalArgumentException("Spot source and history DAO cannot be null");
+        }
+        this.spotSource = spotSource;
+        this.historyDAO = historyDAO;
+        this.recent = new OccupancyRingBuffer(capacity);
+        if (periodMillis > 0) {
+            this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "occupancy-sampler");
+                thread.setDaemon(true);
+                return thread;
+            });
+            ticker.scheduleAtFixedRate(this::tick, 0, periodMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.ticker = null;
+        }
+    }
+
+    private void tick() {
+        try {
+            sampleAt(System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            // A failed sample must not cancel the schedule
+            LOG.error("Error sampling occupancy", e);
+        }
+    }
+
+    /**
+     * Takes a sample as of the given time. Samples must be taken from one thread
+     * at a time, in time order.
+     *
+     * @param timeMillis the sample time
+     */
+    public void sampleAt(long timeMillis) {
+        Map<String, int[]> counts = new TreeMap<>();
+        for (ParkingSpot spot : spotSource.get()) {
+            boolean occupied = !spot.isAvailable();
+            count(counts, ALL_SERIES, occupied);
+            count(counts, FLOOR_PREFIX + floorOf(spot.getSpotId()), occupied);
+            count(counts, TYPE_PREFIX + spot.getType().name(), occupied);
+        }
+
+        String[] series = counts.keySet().toArray(new String[0]);
+        if (Arrays.equals(series, lastSeries)) {
+            // Samples share the key array while the layout is unchanged
+            series = lastSeries;
+        }
+        lastSeries = series;
+        int[] occupied = new int[series.length];
+        int[] capacity = new int[series.length];
+        for (int i = 0; i < series.length; i++) {
+            int[] count = counts.get(series[i]);
+            occupied[i] = count[0];
+            capacity[i] = count[1];
+        }
+        recent.add(timeMillis, series, occupied, capacity);
+
+        LocalDateTime minute = toLocal(timeMillis).truncatedTo(ChronoUnit.MINUTES);
+        if (currentMinute != null && !minute.equals(currentMinute)) {
+            LocalDateTime finishedMinute = currentMinute;
+            flushMinute();
+            LocalDateTime finishedHour = finishedMinute.truncatedTo(ChronoUnit.HOURS);
+            if (!minute.truncatedTo(ChronoUnit.HOURS).equals(finishedHour)) {
+                historyDAO.rollUpHour(finishedHour);
+                historyDAO.deleteBefore(OccupancyBucket.Resolution.MINUTE, minute.minusDays(MINUTE_RETENTION_DAYS));
+            }
+        }
+        currentMinute = minute;
+        for (int i = 0; i < series.length; i++) {
+            minuteTotals.computeIfAbsent(series[i], key -> new MinuteTotals()).add(occupied[i], capacity[i]);
+        }
+    }
+
+    private static void count(Map<String, int[]> counts, String series, boolean occupied) {
+        int[] count = counts.computeIfAbsent(series, key -> new int[2]);
+        if (occupied) {
+            count[0]++;
+        }
+        count[1]++;
+    }
+
+    /**
+     * Gets the floor of a spot; spot IDs start with their floor ID, e.g. "F1-R1-S1".
+     */
+    private static String floorOf(String spotId) {
+        int dash = spotId.indexOf('-');
+        return dash > 0 ? spotId.substring(0, dash) : "F1";
+    }
+
+    private void flushMinute() {
+        if (currentMinute == null || minuteTotals.isEmpty()) {
+            return;
+        }
+        List<OccupancyBucket> buckets = new ArrayList<>(minuteTotals.size());
+        for (Map.Entry<String, MinuteTotals> entry : minuteTotals.entrySet()) {
+            MinuteTotals totals = entry.getValue();
+            buckets.add(new OccupancyBucket(OccupancyBucket.Resolution.MINUTE, currentMinute, entry.getKey(),
+                (double) totals.occupiedSum / totals.samples, totals.maxOccupied, totals.capacity));
+        }
+        minuteTotals.clear();
+        historyDAO.saveAll(buckets);
+    }
+
+    /**
+     * Gets the recent samples held in memory.
+     *
+     * @param sinceMillis the earliest sample time to include
+     * @return the samples, oldest first
+     */
+    public List<OccupancyRingBuffer.Sample> getRecentSamples(long sinceMillis) {
+        return recent.since(sinceMillis);
+    }
+
+    /**
+     * Gets the keys of the sampled series.
+     *
+     * @return the series keys of the latest sample, sorted
+     */
+    public List<String> getSeries() {
+        OccupancyRingBuffer.Sample latest = recent.latest();
+        return latest != null ? latest.getSeries() : Collections.emptyList();
+    }
+
+    /**
+     * Gets persisted buckets of a series.
+     *
+     * @param series the series key
+     * @param resolution minute or hour buckets
+     * @param from start of the range (inclusive)
+     * @param to end of the range (exclusive)
+     * @return the buckets, oldest first
+     */
+    public List<OccupancyBucket> getHistory(String series, OccupancyBucket.Resolution resolution,
+                                            LocalDateTime from, LocalDateTime to) {
+        return historyDAO.findRange(resolution, series, from, to);
+    }
+
+    /**
+     * Stops sampling and saves the partly filled current minute and hour.
+     * A restart within the same hour replaces them with complete buckets later.
+     */
+    @Override
+    public void close() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            try {
+                ticker.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            LocalDateTime lastMinute = currentMinute;
+            flushMinute();
+            if (lastMinute != null) {
+                historyDAO.rollUpHour(lastMinute.truncatedTo(ChronoUnit.HOURS));
+            }
+        } catch (RuntimeException e) {
+            LOG.error("Error saving occupancy history", e);
+        }
+    }
+
+    private static LocalDateTime toLocal(long timeMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(timeMillis), ZoneId.systemDefault());
+    }
+
+    /**
+     * Running totals of one series over the current minute.
+     */
+    private static final class MinuteTotals {
+        private long occupiedSum;
+        private int samples;
+        private int maxOccupied;
+        private int capacity;
+
+        private void add(int occupied, int spots) {
+            occupiedSum += occupied;
+            samples++;
+            maxOccupied = Math.max(maxOccupied, occupied);
+            capacity = spots;
+        }
+    }
+}
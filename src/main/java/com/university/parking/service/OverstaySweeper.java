@@ -0,0 +1,143 @@
+package com.university.parking.service;
+
+import com.university.parking.log.Logger;
+
+import java.io.Closeable;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Fires overstay deadlines as they pass, without scanning parked vehicles.
+ * Each entry registers its deadline in a {@link HashedTimingWheel}; each exit cancels it.
+ * A background thread advances the wheel once per tick and hands the plates whose
+ * deadline passed to the handler in one batch.
+ */
+public class OverstaySweeper implements Closeable {
+
+    private static final Logger LOG = Logger.get(OverstaySweeper.class);
+
+    private static final long DEFAULT_TICK_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    // 1024 one-minute buckets: about 17 hours per revolution
+    private static final int DEFAULT_WHEEL_SIZE = 1024;
+
+    private final HashedTimingWheel<String> wheel;
+    private final Map<String, HashedTimingWheel.Timeout<String>> deadlines = new ConcurrentHashMap<>();
+    private final Consumer<List<String>> handler;
+    private final ScheduledExecutorService ticker;
+    private final AtomicLong fired = new AtomicLong();
+
+    /**
+     * Creates and starts a sweeper with one-minute ticks.
+     *
+     * @param handler receives the plates whose deadline passed, one batch per tick
+     */
+    public OverstaySweeper(Consumer<List<String>> handler) {
+        this(handler, DEFAULT_TICK_MILLIS, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * Creates and starts a sweeper.
+     *
+     * @param handler receives the plates whose deadline passed, one batch per tick
+     * @param tickMillis the wheel's tick length in milliseconds
+     * @param wheelSize the number of wheel buckets
+     */
+    public OverstaySweeper(Consumer<List<String>> handler, long tickMillis, int wheelSize) {
+        if (handler == null) {
+            throw new IllegalArgumentException("Handler cannot be null");
+        }
+        this.handler = handler;
+        this.wheel = new HashedTimingWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "overstay-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registers (or replaces) the overstay deadline of a parked vehicle.
+     *
+     * @param licensePlate the vehicle's license plate
+     * @param deadline when the vehicle starts overstaying
+     */
+    public void register(String licensePlate, LocalDateTime deadline) {
+        long deadlineMillis = deadline.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        HashedTimingWheel.Timeout<String> previous =
+            deadlines.put(licensePlate, wheel.schedule(licensePlate, deadlineMillis));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    /**
+     * Cancels the deadline of a vehicle that left.
+     *
+     * @param licensePlate the vehicle's license plate
+     */
+    public void cancel(String licensePlate) {
+        HashedTimingWheel.Timeout<String> timeout = deadlines.remove(licensePlate);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    /**
+     * Gets the number of vehicles with a pending deadline.
+     *
+     * @return the pending deadline count
+     */
+    public int getPendingCount() {
+        return wheel.size();
+    }
+
+    /**
+     * Gets the number of deadlines fired so far.
+     *
+     * @return the fired deadline count
+     */
+    public long getFiredCount() {
+        return fired.get();
+    }
+
+    /**
+     * Advances the wheel to now and hands expired plates to the handler.
+     */
+    void tick() {
+        try {
+            List<HashedTimingWheel.Timeout<String>> expired = wheel.advance(System.currentTimeMillis());
+            if (expired.isEmpty()) {
+                return;
+            }
+            List<String> plates = new ArrayList<>(expired.size());
+            for (HashedTimingWheel.Timeout<String> timeout : expired) {
+                // A re-entry may have replaced this deadline in the meantime
+                if (deadlines.remove(timeout.getItem(), timeout)) {
+                    plates.add(timeout.getItem());
+                }
+            }
+            fired.addAndGet(plates.size());
+            if (!plates.isEmpty()) {
+                handler.accept(plates);
+            }
+        } catch (RuntimeException e) {
+            // Keep the ticker alive; the next tick continues with later deadlines
+            LOG.error("Error sweeping overstay deadlines", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+    }
+}
@@ -45,7 +45,8 @@ public interface ParkingService {
     /**
      * Calculates the parking fee for a vehicle.
      * Uses ceiling method for duration (rounds up to next hour).
-     * Applies special pricing for HandicappedVehicle.
+     * Applies special pricing for HandicappedVehicle, and prices the billed
+     * hours with the time-of-day tariff.
      * 
      * @param vehicle the vehicle
      * @param spot the parking spot
@@ -55,6 +56,16 @@ public interface ParkingService {
 
     double calculateExitFinePreview(String licensePlate, Vehicle vehicle);
     
+    /**
+     * Issues overstay fines to vehicles that are still parked past the overstay limit.
+     * Called by the overstay sweeper with the plates whose deadline just passed;
+     * plates that already left or were already fined for this stay are skipped.
+     * 
+     * @param licensePlates the plates whose overstay deadline passed
+     * @return the number of fines issued
+     */
+    int issueOverstayFines(List<String> licensePlates);
+    
     /**
      * Gets the current parking lot status.
      * 
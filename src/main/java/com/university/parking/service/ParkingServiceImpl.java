@@ -1,22 +1,33 @@
 package com.university.parking.service;
 
 import com.university.parking.dao.*;
+import com.university.parking.db.DatabaseManager;
 import com.university.parking.domain.*;
+import com.university.parking.log.Logger;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
+import java.util.Objects;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * Implementation of ParkingService.
  * Handles vehicle entry, exit, and parking fee calculations.
+ * Entry, exit and overstay fines may be called from several gates at once:
+ * operations on the same plate or spot are serialized by {@link GateLocks}.
  * Requirements: 3.1-3.6, 4.1-4.7
  */
 public class ParkingServiceImpl implements ParkingService {
     
+    private static final Logger LOG = Logger.get(ParkingServiceImpl.class);
+    
     private static final int OVERSTAY_THRESHOLD_HOURS = 24;
+    // Ties an overstay fine issued while parked to the stay it belongs to
+    private static final String OVERSTAY_STAY_MARKER = " (entered %s)";
     
     private final ParkingSpotDAO parkingSpotDAO;
     private final VehicleDAO vehicleDAO;
@@ -25,6 +36,15 @@ public class ParkingServiceImpl implements ParkingService {
     private final PaymentDAO paymentDAO;
     private FineService fineService;
     private ReservationService reservationService;
+    private OverstaySweeper overstaySweeper;
+    private DwellTimeService dwellTimeService;
+    private Tariff tariff = Tariff.flat();
+    // Serializes gate operations on the same plate or spot; unrelated ones run in parallel
+    private final GateLocks gateLocks = new GateLocks();
+    // When set, each gate operation runs on its own connection and, if transactional,
+    // in one transaction committed before its locks are released
+    private DatabaseManager transactionManager;
+    private boolean transactional;
     
     public ParkingServiceImpl(ParkingSpotDAO parkingSpotDAO, VehicleDAO vehicleDAO, 
                               TicketDAO ticketDAO, FineDAO fineDAO, PaymentDAO paymentDAO) {
@@ -51,6 +71,57 @@ public class ParkingServiceImpl implements ParkingService {
         this.reservationService = reservationService;
     }
     
+    /**
+     * Sets the sweeper that fines overstaying vehicles while they are still parked,
+     * and registers the deadlines of the vehicles parked right now.
+     * @param overstaySweeper the overstay sweeper
+     */
+    public void setOverstaySweeper(OverstaySweeper overstaySweeper) {
+        this.overstaySweeper = overstaySweeper;
+        if (overstaySweeper != null) {
+            for (Vehicle vehicle : vehicleDAO.findCurrentlyParked()) {
+                if (vehicle.getEntryTime() != null) {
+                    overstaySweeper.register(vehicle.getLicensePlate(), overstayDeadline(vehicle.getEntryTime()));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Sets the service that records parking durations at exit.
+     * @param dwellTimeService the dwell time service
+     */
+    public void setDwellTimeService(DwellTimeService dwellTimeService) {
+        this.dwellTimeService = dwellTimeService;
+    }
+    
+    /**
+     * Runs each entry, exit and overstay fine batch on a connection of its own, so gate
+     * operations can run on worker threads. Without it, the DAOs use the shared default
+     * connection.
+     * @param transactionManager the database to open the connections on
+     * @param transactional true to run each operation in one transaction, so a failed one
+     *        leaves nothing half-written; false when writes are committed by a write-behind
+     *        queue, which could not commit while an operation held the write lock, or
+     *        recorded in the event journal, which does not write to SQLite at all
+     */
+    public void setTransactionManager(DatabaseManager transactionManager, boolean transactional) {
+        this.transactionManager = transactionManager;
+        this.transactional = transactional;
+    }
+    
+    /**
+     * Sets the time-of-day tariff used for parking fees.
+     * Defaults to the flat tariff, which charges every hour at the spot's hourly rate.
+     * @param tariff the tariff
+     */
+    public void setTariff(Tariff tariff) {
+        if (tariff == null) {
+            throw new IllegalArgumentException("Tariff cannot be null");
+        }
+        this.tariff = tariff;
+    }
+    
     @Override
     public List<ParkingSpot> getAvailableSpots(VehicleType vehicleType) {
         if (vehicleType == null) {
@@ -77,6 +148,14 @@ public class ParkingServiceImpl implements ParkingService {
             throw new IllegalArgumentException("Spot must be selected");
         }
         
+        return gateLocks.withPlateAndSpot(licensePlate, spotId,
+            () -> inTransaction(() -> enter(licensePlate, vehicleType, spotId)));
+    }
+    
+    /**
+     * Parks a vehicle; runs holding the plate's and the spot's locks.
+     */
+    private Ticket enter(String licensePlate, VehicleType vehicleType, String spotId) {
         // Check if vehicle is already parked (indicates they left without proper exit)
         Vehicle activeVehicle = vehicleDAO.findActiveByLicensePlate(licensePlate);
         if (activeVehicle != null) {
@@ -94,16 +173,16 @@ public class ParkingServiceImpl implements ParkingService {
                     
                     if (fineService != null) {
                         double fineAmount = fineService.calculateFine(overstayHours);
-                        Fine overstayFine = new Fine(licensePlate, fineAmount, 
+                        chargeOverstayFine(licensePlate, entryTime, fineAmount,
                             "Overstay violation - vehicle escaped after parking for " + totalHours + 
-                            " hours, exceeded limit by " + overstayHours + " hours");
-                        fineDAO.save(overstayFine);
+                            " hours, exceeded limit by " + overstayHours + " hours",
+                            findStayFine(fineDAO.findUnpaidByLicensePlate(licensePlate), entryTime));
                     }
                     
-                    // Clean up the old parking record (they escaped, so mark as exited)
+                    // Clean up the old parking record (they escaped, so mark as exited).
+                    // The old spot is not locked, so it is only freed while this plate still holds it
                     ParkingSpot oldSpot = parkingSpotDAO.findByVehiclePlate(licensePlate);
-                    if (oldSpot != null) {
-                        oldSpot.releaseVehicle();
+                    if (oldSpot != null && oldSpot.tryReleaseVehicle(licensePlate)) {
                         parkingSpotDAO.update(oldSpot);
                     }
                     activeVehicle.setExitTime(LocalDateTime.now());
@@ -148,7 +227,7 @@ public class ParkingServiceImpl implements ParkingService {
         spot.assignVehicle(licensePlate);
         
         // Generate ticket (Requirements 3.6)
-        String ticketId = Ticket.generateTicketId(licensePlate);
+        String ticketId = Ticket.generateTicketId();
         Ticket ticket = new Ticket(ticketId, licensePlate, spotId, entryTime);
         
         // Persist to database
@@ -156,6 +235,10 @@ public class ParkingServiceImpl implements ParkingService {
         parkingSpotDAO.update(spot);
         ticketDAO.save(ticket);
         
+        if (overstaySweeper != null) {
+            overstaySweeper.register(licensePlate, overstayDeadline(entryTime));
+        }
+        
         return ticket;
     }
     
@@ -166,6 +249,28 @@ public class ParkingServiceImpl implements ParkingService {
             throw new IllegalArgumentException("License plate cannot be empty");
         }
         
+        // The spot is only known after a lookup, so lock the plate and that spot together
+        // and start over if the vehicle was moved in between
+        while (true) {
+            ParkingSpot currentSpot = outsideTransaction(() -> parkingSpotDAO.findByVehiclePlate(licensePlate));
+            String spotId = currentSpot != null ? currentSpot.getSpotId() : null;
+            Receipt receipt = gateLocks.withPlateAndSpot(licensePlate, spotId, () -> inTransaction(() -> {
+                ParkingSpot lockedSpot = parkingSpotDAO.findByVehiclePlate(licensePlate);
+                if (!Objects.equals(spotId, lockedSpot != null ? lockedSpot.getSpotId() : null)) {
+                    return null;
+                }
+                return exit(licensePlate, paymentMethod);
+            }));
+            if (receipt != null) {
+                return receipt;
+            }
+        }
+    }
+    
+    /**
+     * Checks a vehicle out; runs holding the plate's and its spot's locks.
+     */
+    private Receipt exit(String licensePlate, PaymentMethod paymentMethod) {
         // Find the vehicle (Requirements 4.1)
         Vehicle vehicle = vehicleDAO.findActiveByLicensePlate(licensePlate);
         if (vehicle == null || vehicle.getEntryTime() == null || vehicle.getExitTime() != null) {
@@ -222,11 +327,11 @@ public class ParkingServiceImpl implements ParkingService {
                     res.complete();
                     // Note: Need to add update method to ReservationService
                     // For now, we'll use the DAO directly if available
-                    System.out.println("Completing reservation: " + res.getReservationId());
+                    LOG.debug("Completing reservation: {}", res.getReservationId());
                 }
             } catch (Exception e) {
                 // Log error but don't fail the exit process
-                System.err.println("Error completing reservation: " + e.getMessage());
+                LOG.error("Error completing reservation", e);
             }
         }
         
@@ -237,6 +342,19 @@ public class ParkingServiceImpl implements ParkingService {
         // Update vehicle record
         vehicleDAO.update(vehicle);
         
+        if (overstaySweeper != null) {
+            overstaySweeper.cancel(licensePlate);
+        }
+        
+        if (dwellTimeService != null) {
+            try {
+                dwellTimeService.recordStay(spot.getType(), vehicle.getEntryTime(), exitTime);
+            } catch (RuntimeException e) {
+                // Statistics must not fail the exit
+                LOG.error("Error recording dwell time", e);
+            }
+        }
+        
         // Calculate duration for receipt
         LocalDateTime entryTime = vehicle.getEntryTime();
         long minutes = ChronoUnit.MINUTES.between(entryTime, exitTime);
@@ -252,7 +370,7 @@ public class ParkingServiceImpl implements ParkingService {
         }
         
         // Generate receipt (Requirements 4.7, 6.4) - always show fines paid
-        String receiptId = "R-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        String receiptId = Receipt.generateReceiptId();
         return new Receipt(receiptId, licensePlate, entryTime, exitTime, 
                           durationHours, hourlyRate, parkingFee, fineAmount, paymentMethod);
     }
@@ -286,7 +404,8 @@ public class ParkingServiceImpl implements ParkingService {
             hourlyRate = spot.getHourlyRate();
         }
         
-        return hours * hourlyRate;
+        // The billed hours are priced by the tariff of the spot's type from entry onwards
+        return tariff.calculateFee(spot.getType(), hourlyRate, entryTime, entryTime.plusHours(hours));
     }
 
     @Override
@@ -305,10 +424,14 @@ public class ParkingServiceImpl implements ParkingService {
             LocalDateTime exitTime = LocalDateTime.now();
             long totalHours = ChronoUnit.HOURS.between(vehicle.getEntryTime(), exitTime);
             if (totalHours > OVERSTAY_THRESHOLD_HOURS) {
+                int overstayHours = (int) (totalHours - OVERSTAY_THRESHOLD_HOURS);
+                Fine stayFine = findStayFine(unpaidFines, vehicle.getEntryTime());
                 boolean alreadyFined = unpaidFines.stream()
                         .anyMatch(f -> f.getReason() != null && f.getReason().contains("Overstay violation"));
-                if (!alreadyFined) {
-                    int overstayHours = (int) (totalHours - OVERSTAY_THRESHOLD_HOURS);
+                if (stayFine != null) {
+                    // The sweeper's fine is topped up to the full overstay at exit
+                    additionalFine = Math.max(0.0, fineService.calculateFine(overstayHours) - stayFine.getAmount());
+                } else if (!alreadyFined) {
                     if (overstayHours > 0) {
                         additionalFine = fineService.calculateFine(overstayHours);
                     }
@@ -319,6 +442,78 @@ public class ParkingServiceImpl implements ParkingService {
         return unpaidAmount + additionalFine;
     }
     
+    @Override
+    public int issueOverstayFines(List<String> licensePlates) {
+        if (licensePlates == null || licensePlates.isEmpty() || fineService == null) {
+            return 0;
+        }
+        
+        // Hold the plates so none of them can exit between the check and the fine
+        return gateLocks.withPlates(licensePlates, () -> inTransaction(() -> fineOverstaying(licensePlates)));
+    }
+    
+    private <T> T inTransaction(Supplier<T> work) {
+        return onGateConnection(work, transactional);
+    }
+    
+    /**
+     * Runs a read made before the locks are taken on a connection of its own, but not in a
+     * transaction: a transaction takes the write lock when it begins.
+     */
+    private <T> T outsideTransaction(Supplier<T> work) {
+        return onGateConnection(work, false);
+    }
+    
+    private <T> T onGateConnection(Supplier<T> work, boolean inTransaction) {
+        if (transactionManager == null) {
+            return work.get();
+        }
+        try {
+            return inTransaction
+                ? transactionManager.inTransaction(conn -> work.get())
+                : transactionManager.onDedicatedConnection(conn -> work.get());
+        } catch (SQLException e) {
+            throw new RuntimeException("Error committing gate operation", e);
+        }
+    }
+    
+    private int fineOverstaying(List<String> licensePlates) {
+        // Keep only vehicles still parked past the threshold and not yet fined for this stay
+        LocalDateTime now = LocalDateTime.now();
+        List<Vehicle> overstaying = new ArrayList<>();
+        for (String licensePlate : licensePlates) {
+            Vehicle vehicle = vehicleDAO.findActiveByLicensePlate(licensePlate);
+            if (vehicle == null || vehicle.getEntryTime() == null || vehicle.getExitTime() != null) {
+                continue;
+            }
+            long totalHours = ChronoUnit.HOURS.between(vehicle.getEntryTime(), now);
+            if (totalHours <= OVERSTAY_THRESHOLD_HOURS) {
+                continue;
+            }
+            if (findStayFine(fineDAO.findUnpaidByLicensePlate(licensePlate), vehicle.getEntryTime()) == null) {
+                overstaying.add(vehicle);
+            }
+        }
+        if (overstaying.isEmpty()) {
+            return 0;
+        }
+        
+        // Price the whole batch in one pass over the fine table
+        int[] overstayHours = new int[overstaying.size()];
+        for (int i = 0; i < overstayHours.length; i++) {
+            long totalHours = ChronoUnit.HOURS.between(overstaying.get(i).getEntryTime(), now);
+            overstayHours[i] = (int) (totalHours - OVERSTAY_THRESHOLD_HOURS);
+        }
+        double[] amounts = fineService.calculateFines(overstayHours);
+        
+        for (int i = 0; i < amounts.length; i++) {
+            Vehicle vehicle = overstaying.get(i);
+            chargeOverstayFine(vehicle.getLicensePlate(), vehicle.getEntryTime(), amounts[i],
+                "Overstay violation - still parked after " + OVERSTAY_THRESHOLD_HOURS + " hours", null);
+        }
+        return amounts.length;
+    }
+    
     @Override
     public ParkingLot getParkingLotStatus() {
         // Build parking lot from database
@@ -406,19 +601,54 @@ public class ParkingServiceImpl implements ParkingService {
         if (totalHours > OVERSTAY_THRESHOLD_HOURS) {
             // Check if fine was already issued for this vehicle
             List<Fine> existingFines = fineDAO.findUnpaidByLicensePlate(licensePlate);
+            Fine stayFine = findStayFine(existingFines, entryTime);
             boolean alreadyFined = existingFines.stream()
                 .anyMatch(f -> f.getReason().contains("Overstay violation"));
             
-            if (!alreadyFined && fineService != null) {
+            // A fine issued by the sweeper while parked is topped up to the full overstay
+            if ((stayFine != null || !alreadyFined) && fineService != null) {
                 int overstayHours = (int) (totalHours - OVERSTAY_THRESHOLD_HOURS);
                 double fineAmount = fineService.calculateFine(overstayHours);
-                Fine overstayFine = new Fine(licensePlate, fineAmount, 
-                    "Overstay violation - exceeded 24 hours by " + overstayHours + " hours");
-                fineDAO.save(overstayFine);
+                chargeOverstayFine(licensePlate, entryTime, fineAmount,
+                    "Overstay violation - exceeded 24 hours by " + overstayHours + " hours", stayFine);
             }
         }
         
         // Note: Reserved spot fines are issued at entry time (in processEntry method)
         // to prevent double-charging. We don't check again here.
     }
+    
+    /**
+     * Gets the first moment the vehicle counts as overstaying: more than
+     * OVERSTAY_THRESHOLD_HOURS whole hours after entry, as checked at exit.
+     */
+    private LocalDateTime overstayDeadline(LocalDateTime entryTime) {
+        return entryTime.plusHours(OVERSTAY_THRESHOLD_HOURS + 1);
+    }
+    
+    /**
+     * Finds the unpaid overstay fine already issued for the stay that began at entryTime.
+     */
+    private Fine findStayFine(List<Fine> unpaidFines, LocalDateTime entryTime) {
+        String marker = String.format(OVERSTAY_STAY_MARKER, entryTime);
+        return unpaidFines.stream()
+            .filter(f -> f.getReason() != null && f.getReason().startsWith("Overstay violation")
+                         && f.getReason().endsWith(marker))
+            .findFirst()
+            .orElse(null);
+    }
+    
+    /**
+     * Issues an overstay fine for the stay, or raises the stay's existing fine to the new amount.
+     */
+    private void chargeOverstayFine(String licensePlate, LocalDateTime entryTime, double amount,
+                                    String reason, Fine stayFine) {
+        String stayReason = reason + String.format(OVERSTAY_STAY_MARKER, entryTime);
+        if (stayFine == null) {
+            fineDAO.save(new Fine(licensePlate, amount, stayReason));
+        } else if (amount > stayFine.getAmount()) {
+            fineDAO.update(new Fine(stayFine.getFineId(), licensePlate, amount, stayReason,
+                                    stayFine.getIssuedTime(), false));
+        }
+    }
 }
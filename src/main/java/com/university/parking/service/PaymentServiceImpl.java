@@ -6,7 +6,6 @@ import com.university.parking.domain.PaymentMethod;
 import com.university.parking.domain.Receipt;
 
 import java.util.List;
-import java.util.UUID;
 
 /**
  * Implementation of PaymentService.
@@ -48,7 +47,7 @@ public class PaymentServiceImpl implements PaymentService {
         }
         
         // Generate receipt ID
-        String receiptId = "R-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        String receiptId = Receipt.generateReceiptId();
         
         // Create receipt with all required fields (Requirements 6.4)
         return new Receipt(
@@ -6,6 +6,7 @@ import com.university.parking.domain.Vehicle;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Service interface for reporting operations.
@@ -65,4 +66,24 @@ public interface ReportService {
      * @return list of all parking spots
      */
     List<ParkingSpot> getAllSpots();
+    
+    /**
+     * Gets the parking spots of one floor with their current status.
+     * 
+     * @param floorId the floor ID, e.g. "F1"
+     * @return list of the floor's parking spots
+     */
+    List<ParkingSpot> getSpotsOnFloor(String floorId);
+    
+    /**
+     * Runs several report queries against one consistent snapshot of the data.
+     * Every report method called from inside the supplier sees the same state.
+     * 
+     * @param report the queries to run
+     * @param <T> the result type
+     * @return the result of the report
+     */
+    default <T> T runReport(Supplier<T> report) {
+        return report.get();
+    }
 }
@@ -4,16 +4,21 @@ import com.university.parking.dao.FineDAO;
 import com.university.parking.dao.ParkingSpotDAO;
 import com.university.parking.dao.PaymentDAO;
 import com.university.parking.dao.VehicleDAO;
+import com.university.parking.db.DatabaseManager;
 import com.university.parking.domain.Fine;
 import com.university.parking.domain.ParkingSpot;
 import com.university.parking.domain.Vehicle;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Implementation of ReportService.
  * Provides parking lot statistics and reports.
+ * When created with a DatabaseManager, every report runs in a read transaction on a
+ * read-only connection, so long reports never hold up gate writes.
  * Requirements: 7.1-7.6
  */
 public class ReportServiceImpl implements ReportService {
@@ -22,13 +27,39 @@ public class ReportServiceImpl implements ReportService {
     private final VehicleDAO vehicleDAO;
     private final FineDAO fineDAO;
     private final PaymentDAO paymentDAO;
+    private final DatabaseManager reportDb;
     
     public ReportServiceImpl(ParkingSpotDAO parkingSpotDAO, VehicleDAO vehicleDAO, 
                              FineDAO fineDAO, PaymentDAO paymentDAO) {
+        this(parkingSpotDAO, vehicleDAO, fineDAO, paymentDAO, null);
+    }
+    
+    /**
+     * Creates a report service whose queries run on read-only connections.
+     * The DAOs must query SQLite directly through the given DatabaseManager.
+     * 
+     * @param reportDb the database manager providing read-only connections, or null
+     *                 to run reports on the DAOs' own connections
+     */
+    public ReportServiceImpl(ParkingSpotDAO parkingSpotDAO, VehicleDAO vehicleDAO, 
+                             FineDAO fineDAO, PaymentDAO paymentDAO, DatabaseManager reportDb) {
         this.parkingSpotDAO = parkingSpotDAO;
         this.vehicleDAO = vehicleDAO;
         this.fineDAO = fineDAO;
         this.paymentDAO = paymentDAO;
+        this.reportDb = reportDb;
+    }
+    
+    @Override
+    public <T> T runReport(Supplier<T> report) {
+        if (reportDb == null) {
+            return report.get();
+        }
+        try {
+            return reportDb.inReadTransaction(conn -> report.get());
+        } catch (SQLException e) {
+            throw new RuntimeException("Error running report", e);
+        }
     }
     
     @Override
@@ -41,22 +72,22 @@ public class ReportServiceImpl implements ReportService {
         }
         
         // Get total revenue from payments (includes parking fees and fines)
-        return paymentDAO.getTotalRevenue(startDate, endDate);
+        return runReport(() -> paymentDAO.getTotalRevenue(startDate, endDate));
     }
     
     @Override
     public List<Vehicle> getCurrentlyParkedVehicles() {
-        return vehicleDAO.findCurrentlyParked();
+        return runReport(vehicleDAO::findCurrentlyParked);
     }
     
     @Override
     public List<Fine> getOutstandingFines() {
-        return fineDAO.findAllUnpaid();
+        return runReport(fineDAO::findAllUnpaid);
     }
     
     @Override
     public double getOccupancyRate() {
-        List<ParkingSpot> allSpots = parkingSpotDAO.findAll();
+        List<ParkingSpot> allSpots = runReport(parkingSpotDAO::findAll);
         if (allSpots.isEmpty()) {
             return 0.0;
         }
@@ -70,16 +101,21 @@ public class ReportServiceImpl implements ReportService {
     
     @Override
     public int getTotalSpots() {
-        return parkingSpotDAO.findAll().size();
+        return runReport(parkingSpotDAO::findAll).size();
     }
     
     @Override
     public int getAvailableSpots() {
-        return parkingSpotDAO.findAllAvailable().size();
+        return runReport(parkingSpotDAO::findAllAvailable).size();
     }
     
     @Override
     public List<ParkingSpot> getAllSpots() {
-        return parkingSpotDAO.findAll();
+        return runReport(parkingSpotDAO::findAll);
+    }
+    
+    @Override
+    public List<ParkingSpot> getSpotsOnFloor(String floorId) {
+        return runReport(() -> parkingSpotDAO.findByFloorId(floorId));
     }
 }
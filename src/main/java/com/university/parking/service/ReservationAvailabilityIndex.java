@@ -0,0 +1,211 @@
+package com.university.parking.service;
+
+import com.university.parking.domain.Reservation;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * In-memory availability of reservable spots over a fixed horizon, in 15-minute slots.
+ * Each spot has a bitmap with one bit per slot, set while any open reservation overlaps
+ * that slot. Finding the spots free for a window is one masked AND per 64 slots per spot.
+ *
+ * A slot only partly covered by the window is ambiguous (a booking may end before the
+ * window starts within the same slot); such spots are confirmed by the caller's exact
+ * check, so results are exact. Slots fully inside the window need no check.
+ */
+public class ReservationAvailabilityIndex {
+
+    public static final int SLOT_MINUTES = 15;
+    private static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    private static final long SLOT_SECONDS = SLOT_MINUTES * 60L;
+
+    private final LocalDateTime origin;
+    private final int slotCount;
+    private final int wordCount;
+    private final Map<String, SpotSlots> spots = new TreeMap<>();
+    // The reservations counted in the bitmaps, so removal is idempotent
+    private final Map<String, Reservation> indexed = new HashMap<>();
+
+    /**
+     * Creates an empty index.
+     *
+     * @param firstDay the first day covered, from midnight
+     * @param horizonDays the number of days covered
+     */
+    public ReservationAvailabilityIndex(LocalDate firstDay, int horizonDays) {
+        if (horizonDays <= 0) {
+            throw new IllegalArgumentException("Horizon must be at least one day");
+        }
+        this.origin = firstDay.atStartOfDay();
+        this.slotCount = horizonDays * SLOTS_PER_DAY;
+        this.wordCount = (slotCount + 63) / 64;
+    }
+
+    /**
+     * Gets the first day covered.
+     *
+     * @return the first day
+     */
+    public LocalDate getFirstDay() {
+        return origin.toLocalDate();
+    }
+
+    /**
+     * Checks whether a window lies entirely within the horizon.
+     *
+     * @param start window start
+     * @param end window end
+     * @return true if the index can answer queries for the window
+     */
+    public boolean covers(LocalDateTime start, LocalDateTime end) {
+        return !start.isBefore(origin) && !end.isAfter(origin.plusMinutes((long) slotCount * SLOT_MINUTES));
+    }
+
+    /**
+     * Adds a reservable spot with no bookings.
+     *
+     * @param spotId the spot ID
+     */
+    public synchronized void addSpot(String spotId) {
+        spots.computeIfAbsent(spotId, id -> new SpotSlots(slotCount, wordCount));
+    }
+
+    /**
+     * Marks the slots of an open reservation as booked. Reservations for spots not
+     * in the index, or already indexed, are ignored.
+     *
+     * @param reservation the reservation
+     */
+    public synchronized void add(Reservation reservation) {
+        SpotSlots slots = spots.get(reservation.getSpotId());
+        if (slots == null || indexed.putIfAbsent(reservation.getReservationId(), reservation) != null) {
+            return;
+        }
+        int from = Math.max(0, floorSlot(reservation.getStartTime()));
+        int to = Math.min(slotCount, ceilSlot(reservation.getEndTime()));
+        for (int slot = from; slot < to; slot++) {
+            slots.increment(slot);
+        }
+    }
+
+    /**
+     * Releases the slots of a reservation that was cancelled or expired.
+     *
+     * @param reservationId the reservation ID
+     */
+    public synchronized void remove(String reservationId) {
+        Reservation reservation = indexed.remove(reservationId);
+        if (reservation == null) {
+            return;
+        }
+        SpotSlots slots = spots.get(reservation.getSpotId());
+        int from = Math.max(0, floorSlot(reservation.getStartTime()));
+        int to = Math.min(slotCount, ceilSlot(reservation.getEndTime()));
+        for (int slot = from; slot < to; slot++) {
+            slots.decrement(slot);
+        }
+    }
+
+    /**
+     * Finds the spots with no open reservation overlapping the window.
+     *
+     * @param start window start; the window must be covered by the index
+     * @param end window end
+     * @param exactCheck confirms a spot whose only conflicts are in partly covered slots
+     * @return the free spot IDs in ascending order
+     */
+    public synchronized List<String> findFree(LocalDateTime start, LocalDateTime end,
+                                              Predicate<String> exactCheck) {
+        if (!covers(start, end)) {
+            throw new IllegalArgumentException("Window is outside the availability horizon");
+        }
+        int first = floorSlot(start);
+        int last = ceilSlot(end) - 1;
+        // Slots fully inside the window: a booked bit there is a definite conflict
+        int innerFrom = ceilSlot(start);
+        int innerTo = floorSlot(end);
+        long[] mask = new long[wordCount];
+        for (int slot = innerFrom; slot < innerTo; slot++) {
+            mask[slot >>> 6] |= 1L << slot;
+        }
+        int wordFrom = innerFrom >>> 6;
+        int wordTo = innerTo > innerFrom ? (innerTo - 1) >>> 6 : wordFrom - 1;
+
+        List<String> free = new ArrayList<>();
+        for (Map.Entry<String, SpotSlots> entry : spots.entrySet()) {
+            long[] busy = entry.getValue().busy;
+            long conflicts = 0;
+            for (int word = wordFrom; word <= wordTo && conflicts == 0; word++) {
+                conflicts = busy[word] & mask[word];
+            }
+            if (conflicts != 0) {
+                continue;
+            }
+            boolean edgeBooked = (first < innerFrom && isBusy(busy, first))
+                                 || (last >= innerTo && last >= first && isBusy(busy, last));
+            if (!edgeBooked || exactCheck.test(entry.getKey())) {
+                free.add(entry.getKey());
+            }
+        }
+        return free;
+    }
+
+    private static boolean isBusy(long[] busy, int slot) {
+        return (busy[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    /**
+     * Gets the slot containing the time, clamped to just outside the horizon.
+     */
+    private int floorSlot(LocalDateTime time) {
+        // Duration keeps nanos non-negative, so getSeconds() already rounds down
+        return clamp(Math.floorDiv(Duration.between(origin, time).getSeconds(), SLOT_SECONDS));
+    }
+
+    /**
+     * Gets the first slot starting at or after the time, clamped to just outside the horizon.
+     */
+    private int ceilSlot(LocalDateTime time) {
+        Duration elapsed = Duration.between(origin, time);
+        long slot = Math.floorDiv(elapsed.getSeconds(), SLOT_SECONDS);
+        boolean aligned = elapsed.getNano() == 0 && Math.floorMod(elapsed.getSeconds(), SLOT_SECONDS) == 0;
+        return clamp(aligned ? slot : slot + 1);
+    }
+
+    private int clamp(long slot) {
+        return (int) Math.max(-1, Math.min(slotCount + 1, slot));
+    }
+
+    /**
+     * Booking counts and the derived busy bitmap of one spot.
+     */
+    private static final class SpotSlots {
+        private final short[] counts;
+        private final long[] busy;
+
+        private SpotSlots(int slotCount, int wordCount) {
+            this.counts = new short[slotCount];
+            this.busy = new long[wordCount];
+        }
+
+        private void increment(int slot) {
+            if (counts[slot]++ == 0) {
+                busy[slot >>> 6] |= 1L << slot;
+            }
+        }
+
+        private void decrement(int slot) {
+            if (--counts[slot] == 0) {
+                busy[slot >>> 6] &= ~(1L << slot);
+            }
+        }
+    }
+}
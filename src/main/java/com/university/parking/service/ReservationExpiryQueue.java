@@ -0,0 +1,154 @@
+package com.university.parking.service;
+
+import com.university.parking.domain.Reservation;
+import com.university.parking.log.Logger;
+
+import java.io.Closeable;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Fires reservation deadlines as they pass instead of polling the reservation table.
+ * Each reservation is queued with its no-show deadline (start time plus a grace period)
+ * and its end time. A background thread sleeps until the earliest deadline, then drains
+ * every deadline that is due and passes them to the handler in one batch.
+ *
+ * Cancelled or completed reservations are not removed from the queue; their deadlines
+ * still fire and are ignored by the status check of the expiry update.
+ */
+public class ReservationExpiryQueue implements Closeable {
+
+    private static final Logger LOG = Logger.get(ReservationExpiryQueue.class);
+
+    /**
+     * What a deadline checks for.
+     */
+    public enum Kind {
+        /** The vehicle had not arrived by the end of the grace period */
+        NO_SHOW,
+        /** The reservation's time window is over */
+        END
+    }
+
+    private final DelayQueue<Deadline> queue = new DelayQueue<>();
+    private final Consumer<List<Deadline>> handler;
+    private final Thread worker;
+    private final AtomicLong fired = new AtomicLong();
+    private volatile boolean running = true;
+
+    /**
+     * Creates and starts the queue.
+     *
+     * @param handler receives the deadlines that passed, one batch per wake-up
+     */
+    public ReservationExpiryQueue(Consumer<List<Deadline>> handler) {
+        if (handler == null) {
+            throw new IllegalArgumentException("Handler cannot be null");
+        }
+        this.handler = handler;
+        this.worker = new Thread(this::run, "reservation-expiry");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Queues the deadlines of a reservation.
+     *
+     * @param reservation the reservation
+     * @param noShowGraceMinutes how long after the start time the vehicle may arrive
+     */
+    public void schedule(Reservation reservation, long noShowGraceMinutes) {
+        LocalDateTime noShow = reservation.getStartTime().plusMinutes(noShowGraceMinutes);
+        if (noShow.isBefore(reservation.getEndTime())) {
+            queue.offer(new Deadline(reservation, Kind.NO_SHOW, noShow));
+        }
+        queue.offer(new Deadline(reservation, Kind.END, reservation.getEndTime()));
+    }
+
+    /**
+     * Gets the number of queued deadlines.
+     *
+     * @return the queued deadline count
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * Gets the number of deadlines fired so far.
+     *
+     * @return the fired deadline count
+     */
+    public long getFiredCount() {
+        return fired.get();
+    }
+
+    private void run() {
+        while (running) {
+            List<Deadline> due = new ArrayList<>();
+            try {
+                due.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            // drainTo only removes deadlines that have already passed
+            queue.drainTo(due);
+            fired.addAndGet(due.size());
+            try {
+                handler.accept(due);
+            } catch (RuntimeException e) {
+                LOG.error("Error expiring reservations", e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+    }
+
+    /**
+     * A queued reservation deadline.
+     */
+    public static final class Deadline implements Delayed {
+        private final Reservation reservation;
+        private final Kind kind;
+        private final long deadlineMillis;
+
+        private Deadline(Reservation reservation, Kind kind, LocalDateTime deadline) {
+            this.reservation = reservation;
+            this.kind = kind;
+            this.deadlineMillis = deadline.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+
+        public Reservation getReservation() {
+            return reservation;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadlineMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other instanceof Deadline) {
+                return Long.compare(deadlineMillis, ((Deadline) other).deadlineMillis);
+            }
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+    }
+}
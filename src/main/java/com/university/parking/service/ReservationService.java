@@ -1,5 +1,8 @@
 package com.university.parking.service;
 
+import com.university.parking.domain.BookingRequest;
+import com.university.parking.domain.BookingResult;
+import com.university.parking.domain.RecurrenceRule;
 import com.university.parking.domain.Reservation;
 
 import java.time.LocalDateTime;
@@ -26,6 +29,27 @@ public interface ReservationService {
     Reservation createReservation(String licensePlate, String spotId, 
                                   LocalDateTime startTime, LocalDateTime endTime);
     
+    /**
+     * Books several slots at once. Each request is validated like
+     * {@link #createReservation}; requests that overlap an existing reservation or an
+     * earlier requested slot on the same spot are rejected, and all other requests
+     * are saved together in one transaction.
+     * 
+     * @param requests the requested slots
+     * @param confirm whether to save the reservations as confirmed instead of pending
+     * @return one result per request, in request order
+     */
+    List<BookingResult> createReservations(List<BookingRequest> requests, boolean confirm);
+    
+    /**
+     * Books every occurrence of a recurring slot, as {@link #createReservations}.
+     * 
+     * @param rule the recurrence rule
+     * @param confirm whether to save the reservations as confirmed instead of pending
+     * @return one result per occurrence, in date order
+     */
+    List<BookingResult> createRecurringReservations(RecurrenceRule rule, boolean confirm);
+    
     /**
      * Confirms a pending reservation.
      * 
@@ -83,6 +107,16 @@ public interface ReservationService {
                                           LocalDateTime startTime, 
                                           LocalDateTime endTime);
     
+    /**
+     * Finds every RESERVED spot with no pending or confirmed reservation
+     * overlapping the given time range.
+     * 
+     * @param startTime range start
+     * @param endTime range end
+     * @return IDs of the spots that can be reserved, in ascending order
+     */
+    List<String> findAvailableReservedSpots(LocalDateTime startTime, LocalDateTime endTime);
+    
     /**
      * Checks if a vehicle has a valid reservation for a spot.
      * Used during entry to validate Reserved spot access.
@@ -109,7 +143,18 @@ public interface ReservationService {
     
     /**
      * Marks expired reservations and applies no-show fines if configured.
-     * Should be called periodically by a scheduler.
+     * Catches up on reservations that ended while the application was not running;
+     * while it runs, {@link #expireReservations(List)} handles deadlines as they pass.
      */
     void processExpiredReservations();
+    
+    /**
+     * Expires the reservations whose deadline just passed, in one update.
+     * A no-show deadline only expires the reservation if the vehicle has not
+     * arrived at the reserved spot, releasing the spot for other bookings.
+     * 
+     * @param deadlines the deadlines fired by the reservation expiry queue
+     * @return the number of reservations expired
+     */
+    int expireReservations(List<ReservationExpiryQueue.Deadline> deadlines);
 }
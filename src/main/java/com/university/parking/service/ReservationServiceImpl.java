@@ -1,11 +1,25 @@
 package com.university.parking.service;
 
+import com.university.parking.dao.ParkingSpotDAO;
 import com.university.parking.dao.ReservationDAO;
+import com.university.parking.domain.BookingRequest;
+import com.university.parking.domain.BookingResult;
+import com.university.parking.domain.ParkingSpot;
+import com.university.parking.domain.RecurrenceRule;
 import com.university.parking.domain.Reservation;
 import com.university.parking.domain.ReservationStatus;
+import com.university.parking.domain.SpotType;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of ReservationService.
@@ -13,12 +27,46 @@ import java.util.List;
  */
 public class ReservationServiceImpl implements ReservationService {
     
+    // How long after the start time a reserved spot is held for a vehicle that has not arrived
+    private static final long NO_SHOW_GRACE_MINUTES = 30;
+    // Days ahead covered by the availability index
+    private static final int AVAILABILITY_HORIZON_DAYS = 30;
+    
     private final ReservationDAO reservationDAO;
+    private ParkingSpotDAO parkingSpotDAO;
+    private ReservationExpiryQueue expiryQueue;
+    // Guards rebuilding the availability index and every update to it, so a booking
+    // saved while the index is rebuilt is never applied only to the discarded copy
+    private final Object availabilityLock = new Object();
+    private volatile ReservationAvailabilityIndex availabilityIndex;
     
     public ReservationServiceImpl(ReservationDAO reservationDAO) {
         this.reservationDAO = reservationDAO;
     }
     
+    /**
+     * Sets the spot DAO used to check whether a reserved vehicle has arrived.
+     * Without it, no-show deadlines are ignored and reservations only expire at their end time.
+     * @param parkingSpotDAO the parking spot DAO
+     */
+    public void setParkingSpotDAO(ParkingSpotDAO parkingSpotDAO) {
+        this.parkingSpotDAO = parkingSpotDAO;
+    }
+    
+    /**
+     * Sets the queue that expires reservations as their deadlines pass,
+     * and queues the deadlines of the reservations open right now.
+     * @param expiryQueue the reservation expiry queue
+     */
+    public void setExpiryQueue(ReservationExpiryQueue expiryQueue) {
+        this.expiryQueue = expiryQueue;
+        if (expiryQueue != null) {
+            for (Reservation reservation : reservationDAO.findOpen()) {
+                expiryQueue.schedule(reservation, NO_SHOW_GRACE_MINUTES);
+            }
+        }
+    }
+    
     @Override
     public Reservation createReservation(String licensePlate, String spotId,
                                          LocalDateTime startTime, LocalDateTime endTime) {
@@ -48,9 +96,150 @@ public class ReservationServiceImpl implements ReservationService {
         Reservation reservation = new Reservation(licensePlate, spotId, startTime, endTime);
         reservationDAO.save(reservation);
         
+        if (expiryQueue != null) {
+            expiryQueue.schedule(reservation, NO_SHOW_GRACE_MINUTES);
+        }
+        updateAvailability(index -> index.add(reservation));
+        
         return reservation;
     }
     
+    @Override
+    public List<BookingResult> createReservations(List<BookingRequest> requests, boolean confirm) {
+        BookingResult[] results = new BookingResult[requests.size()];
+        LocalDateTime now = LocalDateTime.now();
+        
+        // Validate each request and group the valid ones by spot
+        Map<String, List<Integer>> bySpot = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            BookingRequest request = requests.get(i);
+            String error = validateBooking(request, now);
+            if (error != null) {
+                results[i] = BookingResult.invalid(request, error);
+            } else {
+                bySpot.computeIfAbsent(request.getSpotId(), spotId -> new ArrayList<>()).add(i);
+            }
+        }
+        
+        List<Reservation> accepted = new ArrayList<>();
+        for (Map.Entry<String, List<Integer>> entry : bySpot.entrySet()) {
+            sweepSpot(entry.getKey(), entry.getValue(), requests, results, confirm, accepted);
+        }
+        
+        // All accepted bookings are committed together
+        if (!accepted.isEmpty()) {
+            reservationDAO.saveAll(accepted);
+            for (Reservation reservation : accepted) {
+                if (expiryQueue != null) {
+                    expiryQueue.schedule(reservation, NO_SHOW_GRACE_MINUTES);
+                }
+            }
+            updateAvailability(index -> accepted.forEach(index::add));
+        }
+        return Arrays.asList(results);
+    }
+    
+    @Override
+    public List<BookingResult> createRecurringReservations(RecurrenceRule rule, boolean confirm) {
+        if (rule == null) {
+            throw new IllegalArgumentException("Recurrence rule cannot be null");
+        }
+        List<BookingRequest> requests = new ArrayList<>(rule.getOccurrences());
+        for (BookingRequest request : rule) {
+            requests.add(request);
+        }
+        return createReservations(requests, confirm);
+    }
+    
+    /**
+     * Checks one booking request with the same rules as createReservation.
+     * @return the validation error, or null if the request is valid
+     */
+    private String validateBooking(BookingRequest request, LocalDateTime now) {
+        if (request.getLicensePlate() == null || request.getLicensePlate().trim().isEmpty()) {
+            return "License plate cannot be empty";
+        }
+        if (request.getSpotId() == null || request.getSpotId().trim().isEmpty()) {
+            return "Spot ID cannot be empty";
+        }
+        if (request.getStartTime() == null || request.getEndTime() == null) {
+            return "Start and end time cannot be null";
+        }
+        if (request.getStartTime().isBefore(now)) {
+            return "Start time cannot be in the past";
+        }
+        if (!request.getEndTime().isAfter(request.getStartTime())) {
+            return "End time must be after start time";
+        }
+        return null;
+    }
+    
+    /**
+     * Decides every request for one spot against the spot's existing reservations,
+     * loaded with a single range query spanning all requested slots.
+     */
+    private void sweepSpot(String spotId, List<Integer> indexes, List<BookingRequest> requests,
+                           BookingResult[] results, boolean confirm, List<Reservation> accepted) {
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        for (int index : indexes) {
+            BookingRequest request = requests.get(index);
+            if (from == null || request.getStartTime().isBefore(from)) {
+                from = request.getStartTime();
+            }
+            if (to == null || request.getEndTime().isAfter(to)) {
+                to = request.getEndTime();
+            }
+        }
+        List<Reservation> existing = new ArrayList<>(reservationDAO.findBySpotAndTimeRange(spotId, from, to));
+        existing.sort(Comparator.comparing(Reservation::getStartTime));
+        
+        // Sweep requests by end time over existing reservations by start time: every
+        // reservation starting before a request ends has been passed, and the request
+        // overlaps one of them exactly when the latest end among them is after its start
+        List<Integer> byEnd = new ArrayList<>(indexes);
+        byEnd.sort(Comparator.comparing((Integer i) -> requests.get(i).getEndTime()));
+        List<Integer> free = new ArrayList<>();
+        int next = 0;
+        Reservation latest = null;
+        for (int index : byEnd) {
+            BookingRequest request = requests.get(index);
+            while (next < existing.size() && existing.get(next).getStartTime().isBefore(request.getEndTime())) {
+                Reservation reservation = existing.get(next++);
+                if (latest == null || reservation.getEndTime().isAfter(latest.getEndTime())) {
+                    latest = reservation;
+                }
+            }
+            if (latest != null && latest.getEndTime().isAfter(request.getStartTime())) {
+                results[index] = BookingResult.conflict(request,
+                        "Conflicts with reservation " + latest.getReservationId());
+            } else {
+                free.add(index);
+            }
+        }
+        
+        // Sweep the remaining requests by start time; when requested slots overlap
+        // each other, the earlier slot wins
+        free.sort(Comparator.comparing((Integer i) -> requests.get(i).getStartTime())
+                .thenComparing(Comparator.naturalOrder()));
+        LocalDateTime lastEnd = null;
+        for (int index : free) {
+            BookingRequest request = requests.get(index);
+            if (lastEnd != null && request.getStartTime().isBefore(lastEnd)) {
+                results[index] = BookingResult.conflict(request, "Overlaps an earlier slot in this booking");
+                continue;
+            }
+            Reservation reservation = new Reservation(request.getLicensePlate(), spotId,
+                    request.getStartTime(), request.getEndTime());
+            if (confirm) {
+                reservation.confirm();
+            }
+            accepted.add(reservation);
+            results[index] = BookingResult.booked(request, reservation);
+            lastEnd = request.getEndTime();
+        }
+    }
+    
     @Override
     public void confirmReservation(String reservationId) {
         Reservation reservation = findById(reservationId);
@@ -71,6 +260,7 @@ public class ReservationServiceImpl implements ReservationService {
         
         reservation.cancel();
         reservationDAO.update(reservation);
+        updateAvailability(index -> index.remove(reservationId));
     }
     
     @Override
@@ -135,11 +325,113 @@ public class ReservationServiceImpl implements ReservationService {
     
     @Override
     public void processExpiredReservations() {
-        List<Reservation> expired = reservationDAO.findExpiredPending();
+        List<String> expired = reservationDAO.findExpiredPending().stream()
+                .map(Reservation::getReservationId)
+                .collect(Collectors.toList());
+        
+        if (!expired.isEmpty()) {
+            reservationDAO.expireAll(expired);
+            releaseAvailability(expired);
+        }
+    }
+    
+    @Override
+    public int expireReservations(List<ReservationExpiryQueue.Deadline> deadlines) {
+        List<String> expired = new ArrayList<>();
+        for (ReservationExpiryQueue.Deadline deadline : deadlines) {
+            Reservation reservation = deadline.getReservation();
+            if (deadline.getKind() == ReservationExpiryQueue.Kind.NO_SHOW && !isNoShow(reservation)) {
+                continue;
+            }
+            expired.add(reservation.getReservationId());
+        }
+        
+        // Status is checked by the update itself, so cancelled and completed
+        // reservations are skipped without reading them first
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        int count = reservationDAO.expireAll(expired);
+        releaseAvailability(expired);
+        return count;
+    }
+    
+    @Override
+    public List<String> findAvailableReservedSpots(LocalDateTime startTime, LocalDateTime endTime) {
+        if (startTime == null || endTime == null) {
+            throw new IllegalArgumentException("Start and end time cannot be null");
+        }
+        if (endTime.isBefore(startTime)) {
+            throw new IllegalArgumentException("End time cannot be before start time");
+        }
+        if (parkingSpotDAO == null) {
+            throw new IllegalStateException("Spot lookup is not configured");
+        }
         
-        for (Reservation reservation : expired) {
-            reservationDAO.updateStatus(reservation.getReservationId(), 
-                    ReservationStatus.EXPIRED.name());
+        synchronized (availabilityLock) {
+            ReservationAvailabilityIndex index = availabilityIndex();
+            if (index.covers(startTime, endTime)) {
+                return index.findFree(startTime, endTime,
+                        spotId -> isSpotAvailableForReservation(spotId, startTime, endTime));
+            }
+        }
+        
+        // Outside the horizon: check each reserved spot against the database
+        return parkingSpotDAO.findAll().stream()
+                .filter(spot -> spot.getType() == SpotType.RESERVED)
+                .map(ParkingSpot::getSpotId)
+                .filter(spotId -> isSpotAvailableForReservation(spotId, startTime, endTime))
+                .sorted()
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Gets the availability index, rebuilding it from the database when it is missing
+     * or the day has changed, so it always covers the next AVAILABILITY_HORIZON_DAYS.
+     * Must be called holding availabilityLock.
+     */
+    private ReservationAvailabilityIndex availabilityIndex() {
+        LocalDate today = LocalDate.now();
+        if (availabilityIndex == null || !availabilityIndex.getFirstDay().equals(today)) {
+            ReservationAvailabilityIndex index = new ReservationAvailabilityIndex(today, AVAILABILITY_HORIZON_DAYS);
+            for (ParkingSpot spot : parkingSpotDAO.findAll()) {
+                if (spot.getType() == SpotType.RESERVED) {
+                    index.addSpot(spot.getSpotId());
+                }
+            }
+            for (Reservation reservation : reservationDAO.findOpen()) {
+                index.add(reservation);
+            }
+            availabilityIndex = index;
+        }
+        return availabilityIndex;
+    }
+    
+    private void releaseAvailability(List<String> reservationIds) {
+        updateAvailability(index -> reservationIds.forEach(index::remove));
+    }
+    
+    /**
+     * Applies a change already written to the database to the availability index, if built.
+     * Holding the lock means a rebuild either sees the change in the database or is
+     * finished before the change is applied to the new index.
+     */
+    private void updateAvailability(Consumer<ReservationAvailabilityIndex> update) {
+        synchronized (availabilityLock) {
+            if (availabilityIndex != null) {
+                update.accept(availabilityIndex);
+            }
+        }
+    }
+    
+    /**
+     * Checks whether the reserved vehicle failed to arrive at its spot.
+     */
+    private boolean isNoShow(Reservation reservation) {
+        if (parkingSpotDAO == null) {
+            return false;
         }
+        ParkingSpot spot = parkingSpotDAO.findById(reservation.getSpotId());
+        return spot == null || !reservation.getLicensePlate().equals(spot.getCurrentVehiclePlate());
     }
 }
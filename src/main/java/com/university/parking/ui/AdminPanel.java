@@ -6,9 +6,10 @@ import com.university.parking.service.ReportService;
 import com.university.parking.ui.components.*;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Admin panel for parking lot management with modern UI design.
@@ -21,7 +22,7 @@ public class AdminPanel extends JPanel {
     // Overview components
     private JPanel overviewPanel;
     private StyledTable spotsTable;
-    private DefaultTableModel spotsTableModel;
+    private RowTableModel<ParkingSpot> spotsTableModel;
     private JLabel occupancyLabel;
     
     // Fine scheme components
@@ -96,13 +97,16 @@ public class AdminPanel extends JPanel {
         JPanel content = card.getContentPanel();
         
         // Table
-        String[] columns = {"Floor", "Spot ID", "Type", "Status", "Vehicle"};
-        spotsTableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        // Cells are read from the spots as they are painted; a refresh repaints only changed spots
+        spotsTableModel = new RowTableModel<ParkingSpot>(ParkingSpot::getSpotId)
+            .addColumn("Floor", spot -> extractFloorId(spot.getSpotId()))
+            .addColumn("Spot ID", ParkingSpot::getSpotId)
+            .addColumn("Type", ParkingSpot::getType)
+            .addColumn("Status", ParkingSpot::getStatus)
+            .addColumn("Vehicle", spot -> spot.getCurrentVehiclePlate() != null ? spot.getCurrentVehiclePlate() : "-")
+            .detectChangesWith((oldSpot, newSpot) -> oldSpot.getType() != newSpot.getType()
+                || oldSpot.getStatus() != newSpot.getStatus()
+                || !Objects.equals(oldSpot.getCurrentVehiclePlate(), newSpot.getCurrentVehiclePlate()));
         
         spotsTable = new StyledTable(spotsTableModel);
         spotsTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -206,28 +210,25 @@ public class AdminPanel extends JPanel {
     }
     
     public void refreshData() {
-        refreshOverviewTable();
-        refreshStatistics();
+        if (reportService != null) {
+            // Overview and statistics are built from the same snapshot
+            reportService.runReport(() -> {
+                refreshOverviewTable();
+                refreshStatistics();
+                return null;
+            });
+        }
         updateCurrentStrategyLabel();
     }
     
     private void refreshOverviewTable() {
-        spotsTableModel.setRowCount(0);
-        if (reportService == null) return;
-        
-        List<ParkingSpot> spots = reportService.getAllSpots();
-        for (ParkingSpot spot : spots) {
-            String floorId = extractFloorId(spot.getSpotId());
-            Object[] row = {
-                floorId,
-                spot.getSpotId(),
-                spot.getType().toString(),
-                spot.getStatus().toString(),
-                spot.getCurrentVehiclePlate() != null ? spot.getCurrentVehiclePlate() : "-"
-            };
-            spotsTableModel.addRow(row);
+        if (reportService == null) {
+            spotsTableModel.setRows(Collections.emptyList());
+            return;
         }
         
+        spotsTableModel.setRows(reportService.getAllSpots());
+        
         double occupancyRate = reportService.getOccupancyRate();
         occupancyLabel.setText(String.format("Occupancy: %.1f%%", occupancyRate * 100));
     }
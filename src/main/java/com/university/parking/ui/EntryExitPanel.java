@@ -2,17 +2,29 @@ package com.university.parking.ui;
 
 import com.university.parking.domain.*;
 import com.university.parking.service.FineService;
+import com.university.parking.service.GateExecutor;
 import com.university.parking.service.ParkingService;
 import com.university.parking.service.PaymentService;
 import com.university.parking.ui.components.*;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableRowSorter;
 import java.awt.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Panel for vehicle entry and exit operations with modern UI design.
@@ -23,13 +35,14 @@ public class EntryExitPanel extends JPanel {
     private PaymentService paymentService;
     private FineService fineService;
     private com.university.parking.service.ReservationService reservationService;
+    private GateExecutor gateExecutor;
     
     // Entry components
     private JPanel vehicleEntryPanel;
     private StyledTextField entryLicensePlateField;
     private StyledComboBox<VehicleType> vehicleTypeComboBox;
     private StyledTable availableSpotsTable;
-    private DefaultTableModel spotsTableModel;
+    private RowTableModel<ParkingSpot> spotsTableModel;
     private StyledButton parkVehicleButton;
     private StyledButton refreshSpotsButton;
     private JLabel reservationInfoLabel;
@@ -39,7 +52,24 @@ public class EntryExitPanel extends JPanel {
     private StyledComboBox<String> typeFilterComboBox;
     private StyledComboBox<String> statusFilterComboBox;
     private StyledTextField spotIdSearchField;
-    private List<Object[]> allSpotsData;
+    // Available spots for the selected vehicle type, the user's reserved spots first
+    private List<ParkingSpot> allSpots = Collections.emptyList();
+    private Set<String> userReservedSpotIds = Collections.emptySet();
+    // Filtering selects rows through the sorter, by facet bit sets and a spot ID index
+    private TableRowSorter<RowTableModel<ParkingSpot>> spotsSorter;
+    private final FacetIndex<ParkingSpot> spotFilterIndex = new FacetIndex<ParkingSpot>(ParkingSpot::getSpotId)
+        .addFacet(FACET_FLOOR, spot -> extractFloorFromSpotId(spot.getSpotId()))
+        .addFacet(FACET_TYPE, spot -> spot.getType().toString())
+        .addFacet(FACET_STATUS, this::spotStatus);
+    // Set while the floor filter's items are replaced, so the changes do not refilter
+    private boolean updatingFloorFilter;
+    
+    private static final String ALL = "All";
+    private static final String STATUS_AVAILABLE = "Available";
+    private static final String STATUS_RESERVED = "Your Reservation";
+    private static final String FACET_FLOOR = "floor";
+    private static final String FACET_TYPE = "type";
+    private static final String FACET_STATUS = "status";
     
     // Exit components
     private JPanel vehicleExitPanel;
@@ -91,7 +121,6 @@ public class EntryExitPanel extends JPanel {
     }
     
     private void initializeComponents() {
-        allSpotsData = new java.util.ArrayList<>();
         vehicleEntryPanel = createVehicleEntryPanel();
         vehicleExitPanel = createVehicleExitPanel();
     }
@@ -169,7 +198,8 @@ public class EntryExitPanel extends JPanel {
         filterPanel.add(floorLabel, filterGbc);
         
         filterGbc.gridx = 1; filterGbc.weightx = 0.25; filterGbc.ipadx = 0;
-        floorFilterComboBox = new StyledComboBox<>(new String[]{"All", "F1", "F2", "F3"});
+        // Filled with the floors of the listed spots
+        floorFilterComboBox = new StyledComboBox<>(new String[]{ALL});
         floorFilterComboBox.setPreferredSize(new Dimension(80, floorFilterComboBox.getPreferredSize().height));
         floorFilterComboBox.addActionListener(e -> applyFilters());
         filterPanel.add(floorFilterComboBox, filterGbc);
@@ -183,7 +213,10 @@ public class EntryExitPanel extends JPanel {
         filterPanel.add(typeFilterLabel, filterGbc);
         
         filterGbc.gridx = 3; filterGbc.weightx = 0.25; filterGbc.ipadx = 0;
-        typeFilterComboBox = new StyledComboBox<>(new String[]{"All", "COMPACT", "REGULAR", "LARGE", "HANDICAPPED"});
+        typeFilterComboBox = new StyledComboBox<>(new String[]{ALL});
+        for (SpotType type : SpotType.values()) {
+            typeFilterComboBox.addItem(type.toString());
+        }
         typeFilterComboBox.setPreferredSize(new Dimension(100, typeFilterComboBox.getPreferredSize().height));
         typeFilterComboBox.addActionListener(e -> applyFilters());
         filterPanel.add(typeFilterComboBox, filterGbc);
@@ -198,7 +231,7 @@ public class EntryExitPanel extends JPanel {
         
         filterGbc.gridx = 5; filterGbc.weightx = 0.25;
         filterGbc.ipadx = 0;
-        statusFilterComboBox = new StyledComboBox<>(new String[]{"All", "Available", "Your Reservation"});
+        statusFilterComboBox = new StyledComboBox<>(new String[]{ALL, STATUS_AVAILABLE, STATUS_RESERVED});
         statusFilterComboBox.setPreferredSize(new Dimension(120, statusFilterComboBox.getPreferredSize().height));
         statusFilterComboBox.addActionListener(e -> applyFilters());
         filterPanel.add(statusFilterComboBox, filterGbc);
@@ -236,15 +269,16 @@ public class EntryExitPanel extends JPanel {
         centerPanel.add(filterWrapper, BorderLayout.NORTH);
         
         // Table section - increased height
-        String[] columns = {"Spot ID", "Type", "Floor", "Rate (RM/hr)", "Status"};
-        spotsTableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        spotsTableModel = new RowTableModel<ParkingSpot>(ParkingSpot::getSpotId)
+            .addColumn("Spot ID", ParkingSpot::getSpotId)
+            .addColumn("Type", ParkingSpot::getType)
+            .addColumn("Floor", spot -> extractFloorFromSpotId(spot.getSpotId()))
+            .addColumn("Rate (RM/hr)", spot -> String.format("%.2f", spot.getHourlyRate()))
+            .addColumn("Status", this::spotStatus);
         availableSpotsTable = new StyledTable(spotsTableModel);
         availableSpotsTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        spotsSorter = new TableRowSorter<>(spotsTableModel);
+        availableSpotsTable.setRowSorter(spotsSorter);
         
         JScrollPane scrollPane = availableSpotsTable.createScrollPane();
         scrollPane.setPreferredSize(new Dimension(0, 300)); // Increased from 250
@@ -415,8 +449,7 @@ public class EntryExitPanel extends JPanel {
     }
 
     private void refreshAvailableSpots() {
-        spotsTableModel.setRowCount(0);
-        allSpotsData.clear();
+        clearAvailableSpots();
         
         if (parkingService == null) {
             showError("Parking service is not available.");
@@ -435,48 +468,34 @@ public class EntryExitPanel extends JPanel {
             List<ParkingSpot> availableSpots = parkingService.getAvailableSpots(selectedType);
             
             // Check for reservations
-            List<com.university.parking.domain.Reservation> userReservations = new java.util.ArrayList<>();
+            List<com.university.parking.domain.Reservation> userReservations = new ArrayList<>();
             if (reservationService != null && !licensePlate.isEmpty()) {
                 userReservations = reservationService.findByLicensePlate(licensePlate).stream()
                     .filter(r -> r.getStatus() == com.university.parking.domain.ReservationStatus.CONFIRMED)
                     .filter(r -> r.isActive() || r.getStartTime().isAfter(java.time.LocalDateTime.now().minusMinutes(10)))
                     .collect(java.util.stream.Collectors.toList());
             }
+            Set<String> reservedSpotIds = new HashSet<>();
+            for (com.university.parking.domain.Reservation reservation : userReservations) {
+                reservedSpotIds.add(reservation.getSpotId());
+            }
             
             if (availableSpots.isEmpty()) {
                 showWarning("No available spots for " + selectedType + " vehicles.");
             }
             
-            // Separate reserved and non-reserved spots
-            List<Object[]> reservedRows = new java.util.ArrayList<>();
-            List<Object[]> normalRows = new java.util.ArrayList<>();
-            
+            // Reserved spots first, then normal ones
+            List<ParkingSpot> ordered = new ArrayList<>(availableSpots.size());
+            List<ParkingSpot> normal = new ArrayList<>(availableSpots.size());
             for (ParkingSpot spot : availableSpots) {
-                // Check if this spot is reserved by the user
-                boolean isUserReserved = userReservations.stream()
-                    .anyMatch(r -> r.getSpotId().equals(spot.getSpotId()));
-                
-                String status = isUserReserved ? "Your Reservation" : "Available";
-                
-                Object[] row = {
-                    spot.getSpotId(),
-                    spot.getType().toString(),
-                    extractFloorFromSpotId(spot.getSpotId()),
-                    String.format("%.2f", spot.getHourlyRate()),
-                    status
-                };
-                
-                // Add to appropriate list
-                if (isUserReserved) {
-                    reservedRows.add(row);
-                } else {
-                    normalRows.add(row);
-                }
+                (reservedSpotIds.contains(spot.getSpotId()) ? ordered : normal).add(spot);
             }
-            
-            // Store all data (reserved first, then normal)
-            allSpotsData.addAll(reservedRows);
-            allSpotsData.addAll(normalRows);
+            ordered.addAll(normal);
+            userReservedSpotIds = reservedSpotIds;
+            allSpots = ordered;
+            spotFilterIndex.rebuild(ordered);
+            spotsTableModel.setRows(ordered);
+            updateFloorFilter();
             
             // Update reservation info label
             if (!userReservations.isEmpty()) {
@@ -494,65 +513,67 @@ public class EntryExitPanel extends JPanel {
         }
     }
     
+    private String spotStatus(ParkingSpot spot) {
+        return userReservedSpotIds.contains(spot.getSpotId()) ? STATUS_RESERVED : STATUS_AVAILABLE;
+    }
+    
+    private void clearAvailableSpots() {
+        allSpots = Collections.emptyList();
+        userReservedSpotIds = Collections.emptySet();
+        spotFilterIndex.rebuild(allSpots);
+        spotsSorter.setRowFilter(null);
+        spotsTableModel.setRows(allSpots);
+    }
+    
+    /**
+     * Lists the floors of the current spots in the floor filter, keeping the selection
+     * if that floor is still listed.
+     */
+    private void updateFloorFilter() {
+        Object selected = floorFilterComboBox.getSelectedItem();
+        List<String> floors = new ArrayList<>(spotFilterIndex.getValues(FACET_FLOOR));
+        // F2 before F10
+        floors.sort(Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder()));
+        updatingFloorFilter = true;
+        try {
+            floorFilterComboBox.removeAllItems();
+            floorFilterComboBox.addItem(ALL);
+            floors.forEach(floorFilterComboBox::addItem);
+            floorFilterComboBox.setSelectedItem(floors.contains(selected) ? selected : ALL);
+        } finally {
+            updatingFloorFilter = false;
+        }
+    }
+    
     /**
      * Apply filters to the available spots table.
+     * The model keeps all spots; the sorter shows the rows the filter index selects.
      */
     private void applyFilters() {
-        spotsTableModel.setRowCount(0);
-        
-        String floorFilter = (String) floorFilterComboBox.getSelectedItem();
-        String typeFilter = (String) typeFilterComboBox.getSelectedItem();
-        String statusFilter = (String) statusFilterComboBox.getSelectedItem();
+        if (updatingFloorFilter) {
+            return;
+        }
+        Map<String, String> selections = new HashMap<>();
+        addSelection(selections, FACET_FLOOR, floorFilterComboBox);
+        addSelection(selections, FACET_TYPE, typeFilterComboBox);
+        addSelection(selections, FACET_STATUS, statusFilterComboBox);
         String spotIdSearch = spotIdSearchField.getText().trim().toUpperCase();
+        if (spotIdSearch.equals("SPOT ID")) {
+            spotIdSearch = "";
+        }
         
-        int firstReservedRow = -1;
-        int rowIndex = 0;
-        
-        for (Object[] row : allSpotsData) {
-            boolean matches = true;
-            
-            // Apply floor filter
-            if (floorFilter != null && !floorFilter.equals("All")) {
-                if (!row[2].equals(floorFilter)) {
-                    matches = false;
-                }
-            }
-            
-            // Apply type filter
-            if (typeFilter != null && !typeFilter.equals("All")) {
-                if (!row[1].equals(typeFilter)) {
-                    matches = false;
-                }
-            }
-            
-            // Apply status filter
-            if (statusFilter != null && !statusFilter.equals("All")) {
-                if (!row[4].equals(statusFilter)) {
-                    matches = false;
-                }
-            }
-            
-            // Apply spot ID search
-            if (!spotIdSearch.isEmpty() && !spotIdSearch.equals("SPOT ID")) {
-                String spotId = ((String) row[0]).toUpperCase();
-                if (!spotId.contains(spotIdSearch)) {
-                    matches = false;
-                }
-            }
-            
-            if (matches) {
-                spotsTableModel.addRow(row);
-                // Track first reserved row
-                if (firstReservedRow == -1 && row[4].equals("Your Reservation")) {
-                    firstReservedRow = rowIndex;
-                }
-                rowIndex++;
+        BitSet shown = spotFilterIndex.match(selections, spotIdSearch);
+        spotsSorter.setRowFilter(new RowFilter<RowTableModel<ParkingSpot>, Integer>() {
+            @Override
+            public boolean include(Entry<? extends RowTableModel<ParkingSpot>, ? extends Integer> entry) {
+                return shown.get(entry.getIdentifier());
             }
-        }
+        });
         
-        // Auto-select the first reserved spot if exists
-        if (firstReservedRow >= 0) {
-            final int selectRow = firstReservedRow;
+        // Auto-select the first reserved spot if exists; reserved spots come first in the model
+        int firstShown = shown.nextSetBit(0);
+        if (firstShown >= 0 && userReservedSpotIds.contains(spotsTableModel.getRow(firstShown).getSpotId())) {
+            final int selectRow = spotsSorter.convertRowIndexToView(firstShown);
             SwingUtilities.invokeLater(() -> {
                 availableSpotsTable.setRowSelectionInterval(selectRow, selectRow);
                 availableSpotsTable.scrollRectToVisible(
@@ -561,6 +582,13 @@ public class EntryExitPanel extends JPanel {
         }
     }
     
+    private static void addSelection(Map<String, String> selections, String facet, JComboBox<String> filter) {
+        String selected = (String) filter.getSelectedItem();
+        if (selected != null && !selected.equals(ALL)) {
+            selections.put(facet, selected);
+        }
+    }
+    
     /**
      * Checks for active reservations when license plate is entered.
      */
@@ -620,37 +648,33 @@ public class EntryExitPanel extends JPanel {
             return;
         }
         
-        String spotId = (String) spotsTableModel.getValueAt(selectedRow, 0);
+        String spotId = spotsTableModel.getRow(availableSpotsTable.convertRowIndexToModel(selectedRow)).getSpotId();
         
         if (parkingService == null) {
             showError("Parking service is not available.");
             return;
         }
         
-        try {
-            Ticket ticket = parkingService.processEntry(licensePlate, vehicleType, spotId);
-            
-            String message = String.format(
-                "Vehicle parked successfully!\n\n" +
-                "Ticket ID: %s\n" +
-                "License Plate: %s\n" +
-                "Spot: %s\n" +
-                "Entry Time: %s",
-                ticket.getTicketId(),
-                ticket.getLicensePlate(),
-                ticket.getSpotId(),
-                ticket.getEntryTime().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))
-            );
-            
-            showSuccess("Entry Successful", message);
-            clearEntryInputs();
-            refreshAvailableSpots();
-            
-        } catch (IllegalArgumentException | IllegalStateException e) {
-            showError(e.getMessage());
-        } catch (Exception e) {
-            showError("An unexpected error occurred: " + e.getMessage());
-        }
+        runGateOperation(() -> parkingService.processEntry(licensePlate, vehicleType, spotId),
+            this::showEntryTicket, "");
+    }
+    
+    private void showEntryTicket(Ticket ticket) {
+        String message = String.format(
+            "Vehicle parked successfully!\n\n" +
+            "Ticket ID: %s\n" +
+            "License Plate: %s\n" +
+            "Spot: %s\n" +
+            "Entry Time: %s",
+            ticket.getTicketId(),
+            ticket.getLicensePlate(),
+            ticket.getSpotId(),
+            ticket.getEntryTime().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))
+        );
+        
+        showSuccess("Entry Successful", message);
+        clearEntryInputs();
+        refreshAvailableSpots();
     }
     
     private void handleFindVehicle() {
@@ -748,60 +772,98 @@ public class EntryExitPanel extends JPanel {
             }
         }
         
-        try {
-            String licensePlate = currentExitVehicle.getLicensePlate();
-            Receipt receipt = parkingService.processExit(licensePlate, paymentMethod, payFines);
-            
-            // Build detailed receipt message
-            StringBuilder message = new StringBuilder();
-            message.append("<html><div style='text-align: center;'>");
-            message.append("Payment Successful!<br><br>");
-            message.append("═══════════════════════════════<br>");
-            message.append("PARKING RECEIPT<br>");
-            message.append("═══════════════════════════════<br><br>");
-            message.append(String.format("Receipt ID: %s<br>", receipt.getReceiptId()));
-            message.append(String.format("License Plate: %s<br><br>", receipt.getLicensePlate()));
-            
-            // Time details
-            if (receipt.getEntryTime() != null) {
-                message.append(String.format("Entry Time: %s<br>", 
-                    receipt.getEntryTime().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))));
+        String licensePlate = currentExitVehicle.getLicensePlate();
+        runGateOperation(() -> parkingService.processExit(licensePlate, paymentMethod, payFines),
+            this::showExitReceipt, "Payment failed: ");
+    }
+    
+    private void showExitReceipt(Receipt receipt) {
+        // Build detailed receipt message
+        StringBuilder message = new StringBuilder();
+        message.append("<html><div style='text-align: center;'>");
+        message.append("Payment Successful!<br><br>");
+        message.append("═══════════════════════════════<br>");
+        message.append("PARKING RECEIPT<br>");
+        message.append("═══════════════════════════════<br><br>");
+        message.append(String.format("Receipt ID: %s<br>", receipt.getReceiptId()));
+        message.append(String.format("License Plate: %s<br><br>", receipt.getLicensePlate()));
+        
+        // Time details
+        if (receipt.getEntryTime() != null) {
+            message.append(String.format("Entry Time: %s<br>", 
+                receipt.getEntryTime().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))));
+        }
+        message.append(String.format("Exit Time: %s<br>", 
+            receipt.getTimestamp().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))));
+        message.append(String.format("Duration: %d hour(s)<br><br>", receipt.getDurationHours()));
+        
+        // Fee breakdown
+        message.append("───────────────────────────────<br>");
+        message.append("Fee Breakdown:<br>");
+        message.append(String.format("%s<br>", receipt.getFeeBreakdown()));
+        message.append(String.format("Parking Fee: RM %.2f<br>", receipt.getParkingFee()));
+        if (receipt.getFineAmount() > 0) {
+            message.append(String.format("Fines: RM %.2f<br>", receipt.getFineAmount()));
+        }
+        message.append("───────────────────────────────<br>");
+        message.append(String.format("Total Paid: RM %.2f<br>", receipt.getTotalAmount()));
+        message.append(String.format("Payment Method: %s<br>", receipt.getPaymentMethod()));
+        message.append("<br>═══════════════════════════════<br>");
+        message.append("Thank you for parking!<br>");
+        message.append("</div></html>");
+        
+        showSuccess("Exit Successful", message.toString());
+        clearExitInputs();
+        refreshAvailableSpots();
+    }
+    
+    /**
+     * Runs a gate operation on the gate executor, keeping the gate buttons disabled until
+     * it finishes, then reports the result on the EDT. Without an executor the operation
+     * runs right here.
+     */
+    private <T> void runGateOperation(Supplier<T> operation, Consumer<T> onSuccess, String failurePrefix) {
+        if (gateExecutor == null) {
+            try {
+                onSuccess.accept(operation.get());
+            } catch (RuntimeException e) {
+                showGateFailure(e, failurePrefix);
             }
-            message.append(String.format("Exit Time: %s<br>", 
-                receipt.getTimestamp().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))));
-            message.append(String.format("Duration: %d hour(s)<br><br>", receipt.getDurationHours()));
-            
-            // Fee breakdown
-            message.append("───────────────────────────────<br>");
-            message.append("Fee Breakdown:<br>");
-            message.append(String.format("%s<br>", receipt.getFeeBreakdown()));
-            message.append(String.format("Parking Fee: RM %.2f<br>", receipt.getParkingFee()));
-            if (receipt.getFineAmount() > 0) {
-                message.append(String.format("Fines: RM %.2f<br>", receipt.getFineAmount()));
+            return;
+        }
+        boolean payEnabled = payExitButton.isEnabled();
+        setGateButtonsEnabled(false, false);
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        gateExecutor.submit(operation).whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            setCursor(Cursor.getDefaultCursor());
+            setGateButtonsEnabled(true, payEnabled);
+            if (error == null) {
+                onSuccess.accept(result);
+            } else {
+                showGateFailure(error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error, failurePrefix);
             }
-            message.append("───────────────────────────────<br>");
-            message.append(String.format("Total Paid: RM %.2f<br>", receipt.getTotalAmount()));
-            message.append(String.format("Payment Method: %s<br>", receipt.getPaymentMethod()));
-            message.append("<br>═══════════════════════════════<br>");
-            message.append("Thank you for parking!<br>");
-            message.append("</div></html>");
-            
-            showSuccess("Exit Successful", message.toString());
-            clearExitInputs();
-            refreshAvailableSpots();
-            
-        } catch (IllegalArgumentException | IllegalStateException e) {
-            showError("Payment failed: " + e.getMessage());
-        } catch (Exception e) {
-            showError("An unexpected error occurred: " + e.getMessage());
+        }));
+    }
+    
+    private void showGateFailure(Throwable error, String failurePrefix) {
+        if (error instanceof IllegalArgumentException || error instanceof IllegalStateException) {
+            showError(failurePrefix + error.getMessage());
+        } else {
+            showError("An unexpected error occurred: " + error.getMessage());
         }
     }
     
+    private void setGateButtonsEnabled(boolean enabled, boolean payEnabled) {
+        parkVehicleButton.setEnabled(enabled);
+        findVehicleButton.setEnabled(enabled);
+        payExitButton.setEnabled(payEnabled);
+    }
+    
     private void clearEntryInputs() {
         entryLicensePlateField.setText("");
         vehicleTypeComboBox.setSelectedIndex(-1);
-        spotsTableModel.setRowCount(0);
-        allSpotsData.clear();
+        clearAvailableSpots();
         floorFilterComboBox.setSelectedIndex(0);
         typeFilterComboBox.setSelectedIndex(0);
         statusFilterComboBox.setSelectedIndex(0);
@@ -878,6 +940,14 @@ public class EntryExitPanel extends JPanel {
         this.reservationService = reservationService;
     }
     
+    /**
+     * Runs entries and exits on the gate executor instead of the EDT.
+     * @param gateExecutor the executor, or null to run them on the EDT
+     */
+    public void setGateExecutor(GateExecutor gateExecutor) {
+        this.gateExecutor = gateExecutor;
+    }
+    
     public ParkingService getParkingService() {
         return parkingService;
     }
@@ -1,6 +1,7 @@
 package com.university.parking.ui;
 
 import com.university.parking.ui.components.PasswordDialog;
+import com.university.parking.ui.components.RoundedBackground;
 import com.university.parking.ui.components.RoundedPanel;
 
 import javax.swing.*;
@@ -346,6 +347,9 @@ public class MainFrame extends JFrame {
      * Custom navigation button for sidebar.
      */
     private static class NavButton extends JButton {
+        private static final RoundedBackground ACTIVE_BACKGROUND = new RoundedBackground(UIConstants.PRIMARY_LIGHT, 8);
+        private static final RoundedBackground HOVER_BACKGROUND = new RoundedBackground(new Color(255, 255, 255, 20), 8);
+        
         private boolean active = false;
         
         public NavButton(String text) {
@@ -386,18 +390,11 @@ public class MainFrame extends JFrame {
         
         @Override
         protected void paintComponent(Graphics g) {
-            Graphics2D g2 = (Graphics2D) g.create();
-            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            
             if (active) {
-                g2.setColor(UIConstants.PRIMARY_LIGHT);
-                g2.fillRoundRect(0, 0, getWidth(), getHeight(), 8, 8);
+                ACTIVE_BACKGROUND.paint(g, getWidth(), getHeight());
             } else if (getModel().isRollover()) {
-                g2.setColor(new Color(255, 255, 255, 20));
-                g2.fillRoundRect(0, 0, getWidth(), getHeight(), 8, 8);
+                HOVER_BACKGROUND.paint(g, getWidth(), getHeight());
             }
-            
-            g2.dispose();
             super.paintComponent(g);
         }
     }
@@ -1,17 +1,42 @@
 package com.university.parking.ui;
 
+import com.university.parking.db.HistoryExporter;
+import com.university.parking.domain.DwellTimeSketch;
 import com.university.parking.domain.Fine;
+import com.university.parking.domain.Floor;
+import com.university.parking.domain.OccupancyBucket;
 import com.university.parking.domain.ParkingSpot;
+import com.university.parking.domain.SpotType;
 import com.university.parking.domain.Vehicle;
+import com.university.parking.service.DwellTimeService;
+import com.university.parking.service.OccupancyRingBuffer;
+import com.university.parking.service.OccupancySampler;
 import com.university.parking.service.ReportService;
 import com.university.parking.ui.components.*;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.awt.event.ActionListener;
+import java.io.File;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Report panel for viewing parking lot reports with modern UI design.
@@ -19,13 +44,17 @@ import java.util.List;
 public class ReportPanel extends JPanel {
     
     private ReportService reportService;
+    private HistoryExporter historyExporter;
     
     private JTabbedPane reportTabbedPane;
+    private StyledButton exportHistoryButton;
     
     // Currently Parked tab
     private JPanel currentlyParkedPanel;
     private StyledTable parkedVehiclesTable;
-    private DefaultTableModel parkedVehiclesTableModel;
+    private RowTableModel<Vehicle> parkedVehiclesTableModel;
+    // Spot of each parked plate, for the Spot ID column
+    private Map<String, String> parkedSpotIds = new HashMap<>();
     private StyledButton refreshParkedButton;
     private JLabel parkedCountLabel;
     
@@ -46,10 +75,43 @@ public class ReportPanel extends JPanel {
     // Outstanding Fines tab
     private JPanel outstandingFinesPanel;
     private StyledTable finesTable;
-    private DefaultTableModel finesTableModel;
+    private RowTableModel<Fine> finesTableModel;
     private StyledButton refreshFinesButton;
     private JLabel totalFinesLabel;
     
+    // Occupancy Trend tab, shown once a sampler is set
+    private OccupancySampler occupancySampler;
+    private JPanel occupancyTrendPanel;
+    private OccupancyChart occupancyChart;
+    private StyledComboBox<String> trendSeriesCombo;
+    private StyledComboBox<String> trendRangeCombo;
+    private final List<String> trendSeriesKeys = new ArrayList<>();
+    private JLabel trendSummaryLabel;
+    private Timer trendRefreshTimer;
+    
+    private static final String[] TREND_RANGES = {"Last hour (live)", "Last 24 hours", "Last 7 days", "Last 30 days"};
+    private static final int TREND_REFRESH_MILLIS = 5000;
+    
+    // Floor Map tab
+    private JPanel floorMapPanel;
+    private FloorMapView floorMapView;
+    private StyledComboBox<String> floorMapCombo;
+    private JLabel floorMapSummaryLabel;
+    private Timer floorMapRefreshTimer;
+    
+    private static final int FLOOR_MAP_REFRESH_MILLIS = 2000;
+    
+    // Dwell Times tab, shown once a dwell time service is set
+    private DwellTimeService dwellTimeService;
+    private JPanel dwellTimesPanel;
+    private DefaultTableModel dwellTimesTableModel;
+    private StyledComboBox<String> dwellTypeCombo;
+    private StyledComboBox<String> dwellRangeCombo;
+    private JLabel dwellSummaryLabel;
+    
+    private static final String[] DWELL_RANGES = {"Last 7 days", "Last 30 days", "Last 90 days", "Last 365 days"};
+    private static final int[] DWELL_RANGE_DAYS = {7, 30, 90, 365};
+    
     private static final DateTimeFormatter DATE_TIME_FORMATTER = 
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     
@@ -80,6 +142,24 @@ public class ReportPanel extends JPanel {
         revenueReportPanel = createRevenueReportPanel();
         occupancyReportPanel = createOccupancyReportPanel();
         outstandingFinesPanel = createOutstandingFinesPanel();
+        floorMapPanel = createFloorMapPanel();
+        
+        // The map follows the lot only while its tab is showing
+        floorMapRefreshTimer = new Timer(FLOOR_MAP_REFRESH_MILLIS, e -> {
+            if (reportTabbedPane.getSelectedComponent() == floorMapPanel && isShowing()) {
+                refreshFloorMap();
+            }
+        });
+        floorMapRefreshTimer.start();
+        reportTabbedPane.addChangeListener(e -> {
+            if (reportTabbedPane.getSelectedComponent() == floorMapPanel) {
+                refreshFloorMapFloors();
+            }
+        });
+        
+        exportHistoryButton = new StyledButton("Export History...", StyledButton.ButtonType.SECONDARY);
+        exportHistoryButton.addActionListener(e -> handleExportHistory());
+        exportHistoryButton.setVisible(false);
     }
     
     private JTabbedPane createStyledTabbedPane() {
@@ -104,13 +184,11 @@ public class ReportPanel extends JPanel {
         content.add(headerPanel, BorderLayout.NORTH);
         
         // Table
-        String[] columns = {"License Plate", "Vehicle Type", "Entry Time", "Spot ID"};
-        parkedVehiclesTableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        parkedVehiclesTableModel = new RowTableModel<Vehicle>(Vehicle::getLicensePlate)
+            .addColumn("License Plate", Vehicle::getLicensePlate)
+            .addColumn("Vehicle Type", Vehicle::getVehicleType)
+            .addColumn("Entry Time", vehicle -> formatTime(vehicle.getEntryTime()))
+            .addColumn("Spot ID", vehicle -> parkedSpotIds.getOrDefault(vehicle.getLicensePlate(), "N/A"));
         
         parkedVehiclesTable = new StyledTable(parkedVehiclesTableModel);
         parkedVehiclesTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -215,13 +293,12 @@ public class ReportPanel extends JPanel {
         content.add(headerPanel, BorderLayout.NORTH);
         
         // Table
-        String[] columns = {"Fine ID", "License Plate", "Amount (RM)", "Reason", "Issued Time"};
-        finesTableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        finesTableModel = new RowTableModel<Fine>(Fine::getFineId)
+            .addColumn("Fine ID", Fine::getFineId)
+            .addColumn("License Plate", Fine::getLicensePlate)
+            .addColumn("Amount (RM)", fine -> String.format("%.2f", fine.getAmount()))
+            .addColumn("Reason", fine -> fine.getReason() != null ? fine.getReason() : "N/A")
+            .addColumn("Issued Time", fine -> formatTime(fine.getIssuedTime()));
         
         finesTable = new StyledTable(finesTableModel);
         finesTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -256,11 +333,561 @@ public class ReportPanel extends JPanel {
         reportTabbedPane.addTab("Revenue Report", revenueReportPanel);
         reportTabbedPane.addTab("Occupancy Report", occupancyReportPanel);
         reportTabbedPane.addTab("Outstanding Fines", outstandingFinesPanel);
+        reportTabbedPane.addTab("Floor Map", floorMapPanel);
         
         add(reportTabbedPane, BorderLayout.CENTER);
+        
+        JPanel exportBar = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        exportBar.setOpaque(false);
+        exportBar.add(exportHistoryButton);
+        add(exportBar, BorderLayout.SOUTH);
+    }
+
+    /**
+     * Enables the history export action.
+     * @param historyExporter the exporter to run
+     */
+    public void setHistoryExporter(HistoryExporter historyExporter) {
+        this.historyExporter = historyExporter;
+        exportHistoryButton.setVisible(historyExporter != null);
+    }
+    
+    /**
+     * Adds the Occupancy Trend tab, charting live samples and persisted history.
+     * @param occupancySampler the sampler recording occupancy
+     */
+    public void setOccupancySampler(OccupancySampler occupancySampler) {
+        this.occupancySampler = occupancySampler;
+        if (occupancyTrendPanel == null) {
+            occupancyTrendPanel = createOccupancyTrendPanel();
+            reportTabbedPane.addTab("Occupancy Trend", occupancyTrendPanel);
+            // Live data refreshes only while the tab is showing
+            trendRefreshTimer = new Timer(TREND_REFRESH_MILLIS, e -> {
+                if (reportTabbedPane.getSelectedComponent() == occupancyTrendPanel && isShowing()
+                        && trendRangeCombo.getSelectedIndex() == 0) {
+                    refreshOccupancyTrend();
+                }
+            });
+            trendRefreshTimer.start();
+            reportTabbedPane.addChangeListener(e -> {
+                if (reportTabbedPane.getSelectedComponent() == occupancyTrendPanel) {
+                    refreshOccupancyTrend();
+                }
+            });
+        }
+    }
+    
+    private JPanel createOccupancyTrendPanel() {
+        CardPanel card = new CardPanel();
+        card.setContentLayout(new BorderLayout(0, UIConstants.SPACING_MD));
+        JPanel content = card.getContentPanel();
+        
+        // Header
+        JPanel headerPanel = createReportHeader("Occupancy Trend");
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.RIGHT, UIConstants.SPACING_SM, 0));
+        controls.setOpaque(false);
+        trendSeriesCombo = new StyledComboBox<>();
+        trendSeriesCombo.addActionListener(e -> refreshOccupancyTrend());
+        trendRangeCombo = new StyledComboBox<>(TREND_RANGES);
+        trendRangeCombo.addActionListener(e -> refreshOccupancyTrend());
+        StyledButton refreshTrendButton = new StyledButton("Refresh", StyledButton.ButtonType.SECONDARY);
+        refreshTrendButton.addActionListener(e -> refreshOccupancyTrend());
+        controls.add(trendSeriesCombo);
+        controls.add(trendRangeCombo);
+        controls.add(refreshTrendButton);
+        headerPanel.add(controls, BorderLayout.EAST);
+        content.add(headerPanel, BorderLayout.NORTH);
+        
+        // Chart
+        occupancyChart = new OccupancyChart();
+        content.add(occupancyChart, BorderLayout.CENTER);
+        
+        // Footer
+        JPanel footerPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        footerPanel.setOpaque(false);
+        trendSummaryLabel = new JLabel(" ");
+        trendSummaryLabel.setFont(UIConstants.BODY_BOLD);
+        trendSummaryLabel.setForeground(UIConstants.TEXT_SECONDARY);
+        footerPanel.add(trendSummaryLabel);
+        content.add(footerPanel, BorderLayout.SOUTH);
+        
+        return card;
+    }
+    
+    private void refreshOccupancyTrend() {
+        if (occupancySampler == null || trendSeriesCombo == null) return;
+        
+        try {
+            refreshTrendSeries();
+            int seriesIndex = Math.max(0, trendSeriesCombo.getSelectedIndex());
+            if (trendSeriesKeys.isEmpty()) {
+                occupancyChart.setData(new long[0], new double[0], DateTimeFormatter.ofPattern("HH:mm"));
+                trendSummaryLabel.setText(" ");
+                return;
+            }
+            String series = trendSeriesKeys.get(seriesIndex);
+            long[] times;
+            double[] rates;
+            DateTimeFormatter axisFormat;
+            int range = trendRangeCombo.getSelectedIndex();
+            if (range == 0) {
+                List<OccupancyRingBuffer.Sample> samples =
+                        occupancySampler.getRecentSamples(System.currentTimeMillis() - 3_600_000L);
+                times = new long[samples.size()];
+                rates = new double[samples.size()];
+                for (int i = 0; i < samples.size(); i++) {
+                    times[i] = samples.get(i).getTimeMillis();
+                    rates[i] = Math.max(0, samples.get(i).getRate(series));
+                }
+                axisFormat = DateTimeFormatter.ofPattern("HH:mm:ss");
+            } else {
+                LocalDateTime now = LocalDateTime.now();
+                LocalDateTime from = range == 1 ? now.minusHours(24) : now.minusDays(range == 2 ? 7 : 30);
+                OccupancyBucket.Resolution resolution = range == 1
+                        ? OccupancyBucket.Resolution.MINUTE : OccupancyBucket.Resolution.HOUR;
+                List<OccupancyBucket> buckets = occupancySampler.getHistory(series, resolution, from, now);
+                times = new long[buckets.size()];
+                rates = new double[buckets.size()];
+                for (int i = 0; i < buckets.size(); i++) {
+                    times[i] = buckets.get(i).getStartTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                    rates[i] = buckets.get(i).getAverageRate();
+                }
+                axisFormat = DateTimeFormatter.ofPattern(range == 1 ? "HH:mm" : "MM-dd HH:mm");
+            }
+            occupancyChart.setData(times, rates, axisFormat);
+            
+            if (rates.length == 0) {
+                trendSummaryLabel.setText("No samples in this range yet");
+            } else {
+                double peak = 0;
+                double sum = 0;
+                for (double rate : rates) {
+                    peak = Math.max(peak, rate);
+                    sum += rate;
+                }
+                trendSummaryLabel.setText(String.format("Latest: %.1f%%   Average: %.1f%%   Peak: %.1f%%",
+                        rates[rates.length - 1] * 100, sum / rates.length * 100, peak * 100));
+            }
+        } catch (Exception e) {
+            showError("Error loading occupancy trend: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Fills the series choice once samples exist, keeping the current selection.
+     */
+    private void refreshTrendSeries() {
+        List<String> series = occupancySampler.getSeries();
+        if (series.isEmpty() || series.equals(trendSeriesKeys)) {
+            return;
+        }
+        String selected = trendSeriesKeys.isEmpty() ? OccupancySampler.ALL_SERIES
+                : trendSeriesKeys.get(Math.max(0, trendSeriesCombo.getSelectedIndex()));
+        trendSeriesKeys.clear();
+        trendSeriesKeys.addAll(series);
+        // Keep the whole lot first, then floors and spot types
+        trendSeriesKeys.remove(OccupancySampler.ALL_SERIES);
+        trendSeriesKeys.add(0, OccupancySampler.ALL_SERIES);
+        
+        ActionListener[] listeners = trendSeriesCombo.getActionListeners();
+        for (ActionListener listener : listeners) {
+            trendSeriesCombo.removeActionListener(listener);
+        }
+        trendSeriesCombo.removeAllItems();
+        for (String key : trendSeriesKeys) {
+            trendSeriesCombo.addItem(seriesLabel(key));
+        }
+        trendSeriesCombo.setSelectedIndex(Math.max(0, trendSeriesKeys.indexOf(selected)));
+        for (ActionListener listener : listeners) {
+            trendSeriesCombo.addActionListener(listener);
+        }
+    }
+    
+    private static String seriesLabel(String key) {
+        if (key.startsWith(OccupancySampler.FLOOR_PREFIX)) {
+            return "Floor " + key.substring(OccupancySampler.FLOOR_PREFIX.length());
+        }
+        if (key.startsWith(OccupancySampler.TYPE_PREFIX)) {
+            return key.substring(OccupancySampler.TYPE_PREFIX.length()) + " spots";
+        }
+        return "All spots";
+    }
+    
+    private JPanel createFloorMapPanel() {
+        CardPanel card = new CardPanel();
+        card.setContentLayout(new BorderLayout(0, UIConstants.SPACING_MD));
+        JPanel content = card.getContentPanel();
+        
+        // Header
+        JPanel headerPanel = createReportHeader("Floor Map");
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.RIGHT, UIConstants.SPACING_SM, 0));
+        controls.setOpaque(false);
+        floorMapCombo = new StyledComboBox<>();
+        floorMapCombo.addActionListener(e -> refreshFloorMap());
+        StyledButton refreshFloorMapButton = new StyledButton("Refresh", StyledButton.ButtonType.SECONDARY);
+        refreshFloorMapButton.addActionListener(e -> refreshFloorMapFloors());
+        controls.add(floorMapCombo);
+        controls.add(refreshFloorMapButton);
+        headerPanel.add(controls, BorderLayout.EAST);
+        content.add(headerPanel, BorderLayout.NORTH);
+        
+        // Map
+        floorMapView = new FloorMapView();
+        JScrollPane scrollPane = new JScrollPane(floorMapView);
+        scrollPane.setBorder(BorderFactory.createLineBorder(UIConstants.BORDER));
+        scrollPane.getVerticalScrollBar().setUnitIncrement(UIConstants.SPACING_MD);
+        scrollPane.getHorizontalScrollBar().setUnitIncrement(UIConstants.SPACING_MD);
+        content.add(scrollPane, BorderLayout.CENTER);
+        
+        // Footer
+        JPanel footerPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        footerPanel.setOpaque(false);
+        floorMapSummaryLabel = new JLabel(" ");
+        floorMapSummaryLabel.setFont(UIConstants.BODY_BOLD);
+        floorMapSummaryLabel.setForeground(UIConstants.TEXT_SECONDARY);
+        footerPanel.add(floorMapSummaryLabel);
+        content.add(footerPanel, BorderLayout.SOUTH);
+        
+        return card;
+    }
+    
+    /**
+     * Lists the lot's floors in the floor choice, keeping the selection if that floor
+     * is still listed, and shows the selected floor.
+     */
+    private void refreshFloorMapFloors() {
+        if (reportService == null) return;
+        
+        try {
+            Set<String> floorIds = new HashSet<>();
+            for (ParkingSpot spot : reportService.getAllSpots()) {
+                floorIds.add(floorIdOf(spot.getSpotId()));
+            }
+            List<String> floors = new ArrayList<>(floorIds);
+            // F2 before F10
+            floors.sort(Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder()));
+            
+            Object selected = floorMapCombo.getSelectedItem();
+            ActionListener[] listeners = floorMapCombo.getActionListeners();
+            for (ActionListener listener : listeners) {
+                floorMapCombo.removeActionListener(listener);
+            }
+            floorMapCombo.removeAllItems();
+            floors.forEach(floorMapCombo::addItem);
+            if (floors.contains(selected)) {
+                floorMapCombo.setSelectedItem(selected);
+            }
+            for (ActionListener listener : listeners) {
+                floorMapCombo.addActionListener(listener);
+            }
+        } catch (Exception e) {
+            showError("Error loading floors: " + e.getMessage());
+            return;
+        }
+        refreshFloorMap();
+    }
+    
+    /**
+     * Shows the current state of the selected floor. Runs every few seconds while the
+     * tab is showing, so errors go to the summary line instead of a dialog.
+     */
+    private void refreshFloorMap() {
+        if (reportService == null || floorMapView == null) return;
+        
+        String floorId = (String) floorMapCombo.getSelectedItem();
+        if (floorId == null) {
+            floorMapView.setEmptyMessage("No parking spots");
+            floorMapView.setFloor(null);
+            floorMapSummaryLabel.setText(" ");
+            return;
+        }
+        try {
+            Floor floor = new Floor(floorId, floorNumberOf(floorId));
+            reportService.getSpotsOnFloor(floorId).forEach(floor::addSpot);
+            floorMapView.setFloor(floor);
+            floorMapSummaryLabel.setText(String.format("Floor %s: %d of %d spots occupied (%.1f%%)",
+                    floorId, floor.getOccupiedSpots(), floor.getTotalSpots(), floor.getOccupancyRate() * 100));
+        } catch (Exception e) {
+            floorMapSummaryLabel.setText("Error loading floor map: " + e.getMessage());
+        }
+    }
+    
+    private static String floorIdOf(String spotId) {
+        int separator = spotId.indexOf('-');
+        return separator > 0 ? spotId.substring(0, separator) : spotId;
+    }
+    
+    private static int floorNumberOf(String floorId) {
+        try {
+            return Integer.parseInt(floorId.replaceAll("\\D", ""));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+    
+    /**
+     * Adds the Dwell Times tab with parking duration percentiles by hour of entry.
+     * @param dwellTimeService the service holding the duration sketches
+     */
+    public void setDwellTimeService(DwellTimeService dwellTimeService) {
+        this.dwellTimeService = dwellTimeService;
+        if (dwellTimesPanel == null) {
+            dwellTimesPanel = createDwellTimesPanel();
+            reportTabbedPane.addTab("Dwell Times", dwellTimesPanel);
+            reportTabbedPane.addChangeListener(e -> {
+                if (reportTabbedPane.getSelectedComponent() == dwellTimesPanel) {
+                    refreshDwellTimes();
+                }
+            });
+        }
+    }
+    
+    private JPanel createDwellTimesPanel() {
+        CardPanel card = new CardPanel();
+        card.setContentLayout(new BorderLayout(0, UIConstants.SPACING_MD));
+        JPanel content = card.getContentPanel();
+        
+        // Header
+        JPanel headerPanel = createReportHeader("Parking Duration by Hour of Entry");
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.RIGHT, UIConstants.SPACING_SM, 0));
+        controls.setOpaque(false);
+        String[] types = new String[SpotType.values().length + 1];
+        types[0] = "All spot types";
+        for (SpotType type : SpotType.values()) {
+            types[type.ordinal() + 1] = type.name();
+        }
+        dwellTypeCombo = new StyledComboBox<>(types);
+        dwellTypeCombo.addActionListener(e -> refreshDwellTimes());
+        dwellRangeCombo = new StyledComboBox<>(DWELL_RANGES);
+        dwellRangeCombo.setSelectedIndex(1);
+        dwellRangeCombo.addActionListener(e -> refreshDwellTimes());
+        StyledButton refreshDwellButton = new StyledButton("Refresh", StyledButton.ButtonType.SECONDARY);
+        refreshDwellButton.addActionListener(e -> refreshDwellTimes());
+        controls.add(dwellTypeCombo);
+        controls.add(dwellRangeCombo);
+        controls.add(refreshDwellButton);
+        headerPanel.add(controls, BorderLayout.EAST);
+        content.add(headerPanel, BorderLayout.NORTH);
+        
+        // Table
+        String[] columns = {"Hour of Entry", "Stays", "Median (p50)", "p90", "p99"};
+        dwellTimesTableModel = new DefaultTableModel(columns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        StyledTable dwellTimesTable = new StyledTable(dwellTimesTableModel);
+        content.add(dwellTimesTable.createScrollPane(), BorderLayout.CENTER);
+        
+        // Footer
+        JPanel footerPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        footerPanel.setOpaque(false);
+        dwellSummaryLabel = new JLabel(" ");
+        dwellSummaryLabel.setFont(UIConstants.BODY_BOLD);
+        dwellSummaryLabel.setForeground(UIConstants.TEXT_SECONDARY);
+        footerPanel.add(dwellSummaryLabel);
+        content.add(footerPanel, BorderLayout.SOUTH);
+        
+        return card;
+    }
+    
+    private void refreshDwellTimes() {
+        if (dwellTimeService == null || dwellTimesTableModel == null) return;
+        dwellTimesTableModel.setRowCount(0);
+        
+        try {
+            SpotType spotType = dwellTypeCombo.getSelectedIndex() > 0
+                    ? SpotType.values()[dwellTypeCombo.getSelectedIndex() - 1] : null;
+            LocalDate endDate = LocalDate.now();
+            LocalDate startDate = endDate.minusDays(DWELL_RANGE_DAYS[dwellRangeCombo.getSelectedIndex()] - 1);
+            
+            Map<Integer, DwellTimeSketch> byHour = dwellTimeService.getDwellTimesByHour(startDate, endDate, spotType);
+            DwellTimeSketch allHours = new DwellTimeSketch();
+            for (Map.Entry<Integer, DwellTimeSketch> entry : byHour.entrySet()) {
+                int hour = entry.getKey();
+                addDwellRow(String.format("%02d:00 - %02d:59", hour, hour), entry.getValue());
+                allHours.merge(entry.getValue());
+            }
+            if (allHours.getCount() > 0) {
+                addDwellRow("All hours", allHours);
+                dwellSummaryLabel.setText(String.format("%d stays, median %s (estimates within %.0f%%)",
+                        allHours.getCount(), formatDuration(allHours.getQuantile(0.5)),
+                        DwellTimeSketch.RELATIVE_ACCURACY * 100));
+            } else {
+                dwellSummaryLabel.setText("No finished stays in this range");
+            }
+        } catch (Exception e) {
+            showError("Error loading dwell times: " + e.getMessage());
+        }
+    }
+    
+    private void addDwellRow(String label, DwellTimeSketch sketch) {
+        dwellTimesTableModel.addRow(new Object[]{
+            label,
+            sketch.getCount(),
+            formatDuration(sketch.getQuantile(0.5)),
+            formatDuration(sketch.getQuantile(0.9)),
+            formatDuration(sketch.getQuantile(0.99))
+        });
+    }
+    
+    private static String formatDuration(double seconds) {
+        long minutes = Math.round(seconds / 60);
+        if (minutes < 60) {
+            return minutes + "m";
+        }
+        return String.format("%dh %02dm", minutes / 60, minutes % 60);
+    }
+    
+    private void handleExportHistory() {
+        JSpinner fromSpinner = createDateSpinner(LocalDate.now().withDayOfMonth(1));
+        JSpinner toSpinner = createDateSpinner(LocalDate.now());
+        JComboBox<String> formatCombo = new JComboBox<>(new String[]{"CSV (gzip)", "Columnar (gzip)"});
+        
+        JPanel tablesPanel = new JPanel(new GridLayout(0, 3));
+        Map<HistoryExporter.Table, JCheckBox> tableBoxes = new EnumMap<>(HistoryExporter.Table.class);
+        for (HistoryExporter.Table table : HistoryExporter.Table.values()) {
+            JCheckBox box = new JCheckBox(table.getTableName(), true);
+            tableBoxes.put(table, box);
+            tablesPanel.add(box);
+        }
+        
+        JPanel form = new JPanel(new GridLayout(0, 2, UIConstants.SPACING_SM, UIConstants.SPACING_SM));
+        form.add(new JLabel("From date:"));
+        form.add(fromSpinner);
+        form.add(new JLabel("To date (inclusive):"));
+        form.add(toSpinner);
+        form.add(new JLabel("Format:"));
+        form.add(formatCombo);
+        JPanel dialogPanel = new JPanel(new BorderLayout(0, UIConstants.SPACING_SM));
+        dialogPanel.add(form, BorderLayout.NORTH);
+        dialogPanel.add(tablesPanel, BorderLayout.CENTER);
+        
+        int choice = JOptionPane.showConfirmDialog(this, dialogPanel, "Export History",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (choice != JOptionPane.OK_OPTION) {
+            return;
+        }
+        
+        Set<HistoryExporter.Table> tables = EnumSet.noneOf(HistoryExporter.Table.class);
+        tableBoxes.forEach((table, box) -> {
+            if (box.isSelected()) {
+                tables.add(table);
+            }
+        });
+        LocalDate fromDate = spinnerDate(fromSpinner);
+        LocalDate toDate = spinnerDate(toSpinner);
+        if (tables.isEmpty() || toDate.isBefore(fromDate)) {
+            showError("Select at least one table and a date range that ends after it starts.");
+            return;
+        }
+        
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export to Folder");
+        chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        
+        HistoryExporter.Format format = formatCombo.getSelectedIndex() == 0
+                ? HistoryExporter.Format.CSV_GZIP : HistoryExporter.Format.COLUMNAR;
+        runExport(tables, fromDate.atStartOfDay(), toDate.plusDays(1).atStartOfDay(),
+                format, chooser.getSelectedFile());
+    }
+    
+    private void runExport(Set<HistoryExporter.Table> tables, LocalDateTime from, LocalDateTime to,
+                           HistoryExporter.Format format, File directory) {
+        ProgressMonitor monitor = new ProgressMonitor(this, "Exporting history...", "", 0, 100);
+        monitor.setMillisToDecideToPopup(200);
+        int tableCount = tables.size();
+        exportHistoryButton.setEnabled(false);
+        
+        SwingWorker<Map<HistoryExporter.Table, Long>, String> worker =
+                new SwingWorker<Map<HistoryExporter.Table, Long>, String>() {
+            private int tablesDone;
+            private HistoryExporter.Table currentTable;
+            
+            @Override
+            protected Map<HistoryExporter.Table, Long> doInBackground() {
+                // Runs on its own read-only connection, so the gate stays responsive
+                return historyExporter.exportAll(tables, from, to, format, directory.toPath(),
+                    (table, rows, total) -> {
+                        if (table != currentTable) {
+                            if (currentTable != null) {
+                                tablesDone++;
+                            }
+                            currentTable = table;
+                        }
+                        double tableFraction = total > 0 ? Math.min(1.0, (double) rows / total) : 1.0;
+                        setProgress((int) ((tablesDone + tableFraction) * 100 / tableCount));
+                        publish("Exporting " + table.getTableName() + ": " + rows + " / " + total + " rows");
+                    });
+            }
+            
+            @Override
+            protected void process(List<String> notes) {
+                monitor.setNote(notes.get(notes.size() - 1));
+                if (monitor.isCanceled()) {
+                    cancel(true);
+                }
+            }
+            
+            @Override
+            protected void done() {
+                monitor.close();
+                exportHistoryButton.setEnabled(true);
+                try {
+                    StringBuilder summary = new StringBuilder("Exported to " + directory.getAbsolutePath() + ":\n");
+                    get().forEach((table, rows) ->
+                        summary.append(table.getTableName()).append(": ").append(rows).append(" rows\n"));
+                    JOptionPane.showMessageDialog(ReportPanel.this, summary.toString(),
+                            "Export Complete", JOptionPane.INFORMATION_MESSAGE);
+                } catch (CancellationException e) {
+                    JOptionPane.showMessageDialog(ReportPanel.this, "Export cancelled.",
+                            "Export History", JOptionPane.WARNING_MESSAGE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    showError("Error exporting history: " + e.getCause().getMessage());
+                }
+            }
+        };
+        worker.addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName())) {
+                monitor.setProgress((Integer) e.getNewValue());
+                if (monitor.isCanceled()) {
+                    worker.cancel(true);
+                }
+            }
+        });
+        worker.execute();
+    }
+    
+    private JSpinner createDateSpinner(LocalDate initial) {
+        Date date = Date.from(initial.atStartOfDay(ZoneId.systemDefault()).toInstant());
+        JSpinner spinner = new JSpinner(new SpinnerDateModel(date, null, null, Calendar.DAY_OF_MONTH));
+        spinner.setEditor(new JSpinner.DateEditor(spinner, "yyyy-MM-dd"));
+        return spinner;
+    }
+    
+    private LocalDate spinnerDate(JSpinner spinner) {
+        return ((Date) spinner.getValue()).toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
     }
 
     public void refreshAllData() {
+        if (reportService == null) {
+            refreshReports();
+            return;
+        }
+        // All tabs are built from the same snapshot
+        reportService.runReport(() -> {
+            refreshReports();
+            return null;
+        });
+    }
+    
+    private void refreshReports() {
         refreshCurrentlyParkedVehicles();
         refreshRevenueReport();
         refreshOccupancyReport();
@@ -268,42 +895,32 @@ public class ReportPanel extends JPanel {
     }
     
     private void refreshCurrentlyParkedVehicles() {
-        parkedVehiclesTableModel.setRowCount(0);
-        if (reportService == null) return;
+        if (reportService == null) {
+            parkedVehiclesTableModel.setRows(Collections.emptyList());
+            return;
+        }
         
         try {
             List<Vehicle> parkedVehicles = reportService.getCurrentlyParkedVehicles();
-            List<ParkingSpot> allSpots = reportService.getAllSpots();
-            
-            for (Vehicle vehicle : parkedVehicles) {
-                String spotId = findSpotIdForVehicle(vehicle.getLicensePlate(), allSpots);
-                String entryTimeStr = vehicle.getEntryTime() != null 
-                        ? vehicle.getEntryTime().format(DATE_TIME_FORMATTER) 
-                        : "N/A";
-                
-                Object[] row = {
-                    vehicle.getLicensePlate(),
-                    vehicle.getVehicleType().toString(),
-                    entryTimeStr,
-                    spotId != null ? spotId : "N/A"
-                };
-                parkedVehiclesTableModel.addRow(row);
+            Map<String, String> spotIds = new HashMap<>();
+            for (ParkingSpot spot : reportService.getAllSpots()) {
+                if (spot.getCurrentVehiclePlate() != null) {
+                    spotIds.put(spot.getCurrentVehiclePlate(), spot.getSpotId());
+                }
             }
+            parkedSpotIds = spotIds;
+            parkedVehiclesTableModel.setRows(parkedVehicles);
             
             parkedCountLabel.setText("Total parked: " + parkedVehicles.size());
             
         } catch (Exception e) {
+            parkedVehiclesTableModel.setRows(Collections.emptyList());
             showError("Error loading parked vehicles: " + e.getMessage());
         }
     }
     
-    private String findSpotIdForVehicle(String licensePlate, List<ParkingSpot> spots) {
-        for (ParkingSpot spot : spots) {
-            if (licensePlate.equals(spot.getCurrentVehiclePlate())) {
-                return spot.getSpotId();
-            }
-        }
-        return null;
+    private static String formatTime(LocalDateTime time) {
+        return time != null ? time.format(DATE_TIME_FORMATTER) : "N/A";
     }
     
     private void refreshRevenueReport() {
@@ -401,32 +1018,23 @@ public class ReportPanel extends JPanel {
     }
     
     private void refreshOutstandingFines() {
-        finesTableModel.setRowCount(0);
-        if (reportService == null) return;
+        if (reportService == null) {
+            finesTableModel.setRows(Collections.emptyList());
+            return;
+        }
         
         try {
             List<Fine> outstandingFines = reportService.getOutstandingFines();
+            finesTableModel.setRows(outstandingFines);
             double totalAmount = 0;
-            
             for (Fine fine : outstandingFines) {
-                String issuedTimeStr = fine.getIssuedTime() != null 
-                        ? fine.getIssuedTime().format(DATE_TIME_FORMATTER) 
-                        : "N/A";
-                
-                Object[] row = {
-                    fine.getFineId(),
-                    fine.getLicensePlate(),
-                    String.format("%.2f", fine.getAmount()),
-                    fine.getReason() != null ? fine.getReason() : "N/A",
-                    issuedTimeStr
-                };
-                finesTableModel.addRow(row);
                 totalAmount += fine.getAmount();
             }
             
             totalFinesLabel.setText(String.format("Total Outstanding: RM %.2f", totalAmount));
             
         } catch (Exception e) {
+            finesTableModel.setRows(Collections.emptyList());
             showError("Error loading outstanding fines: " + e.getMessage());
         }
     }
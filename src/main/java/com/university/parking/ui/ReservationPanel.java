@@ -1,7 +1,10 @@
 package com.university.parking.ui;
 
+import com.university.parking.domain.BookingResult;
+import com.university.parking.domain.RecurrenceRule;
 import com.university.parking.domain.Reservation;
 import com.university.parking.domain.ReservationStatus;
+import com.university.parking.log.Logger;
 import com.university.parking.service.ParkingService;
 import com.university.parking.service.ReservationService;
 import com.university.parking.ui.components.*;
@@ -19,6 +22,8 @@ import java.util.List;
  */
 public class ReservationPanel extends JPanel {
     
+    private static final Logger LOG = Logger.get(ReservationPanel.class);
+    
     private final ReservationService reservationService;
     private final ParkingService parkingService;
     
@@ -29,6 +34,7 @@ public class ReservationPanel extends JPanel {
     private JSpinner startTimeSpinner;
     private JSpinner endDateSpinner;
     private JSpinner endTimeSpinner;
+    private JSpinner repeatWeeksSpinner;
     private StyledTable reservationTable;
     private DefaultTableModel tableModel;
     private JLabel statusLabel;
@@ -61,6 +67,10 @@ public class ReservationPanel extends JPanel {
         endDateSpinner = createDateSpinner();
         endTimeSpinner = createTimeSpinner();
         
+        // Number of weekly slots to book (1 = a single reservation)
+        repeatWeeksSpinner = new JSpinner(new SpinnerNumberModel(1, 1, 26, 1));
+        repeatWeeksSpinner.setFont(UIConstants.BODY);
+        
         // Status label
         statusLabel = new JLabel(" ");
         statusLabel.setFont(UIConstants.BODY);
@@ -169,8 +179,15 @@ public class ReservationPanel extends JPanel {
         gbc.gridx = 3; gbc.weightx = 1.0;
         content.add(endTimeSpinner, gbc);
         
-        // Row 4: Buttons
-        gbc.gridx = 0; gbc.gridy = 3; gbc.gridwidth = 2;
+        // Row 4: Weekly repeat
+        gbc.gridx = 0; gbc.gridy = 3; gbc.weightx = 0.0;
+        content.add(createLabel("Repeat (weeks):"), gbc);
+        
+        gbc.gridx = 1; gbc.weightx = 1.0;
+        content.add(repeatWeeksSpinner, gbc);
+        
+        // Row 5: Buttons
+        gbc.gridx = 0; gbc.gridy = 4; gbc.gridwidth = 2;
         StyledButton checkAvailabilityBtn = new StyledButton("Check Availability", StyledButton.ButtonType.SECONDARY);
         checkAvailabilityBtn.addActionListener(e -> handleCheckAvailability());
         content.add(checkAvailabilityBtn, gbc);
@@ -180,8 +197,8 @@ public class ReservationPanel extends JPanel {
         createBtn.addActionListener(e -> handleCreateReservation());
         content.add(createBtn, gbc);
         
-        // Row 5: Status
-        gbc.gridx = 0; gbc.gridy = 4; gbc.gridwidth = 4;
+        // Row 6: Status
+        gbc.gridx = 0; gbc.gridy = 5; gbc.gridwidth = 4;
         content.add(statusLabel, gbc);
         
         return card;
@@ -307,6 +324,12 @@ public class ReservationPanel extends JPanel {
                 return;
             }
             
+            int weeks = (Integer) repeatWeeksSpinner.getValue();
+            if (weeks > 1) {
+                handleCreateRecurringReservation(licensePlate, spotId, startTime, endTime, weeks);
+                return;
+            }
+            
             // Create reservation with CONFIRMED status directly (admin creates active reservations)
             Reservation reservation = reservationService.createReservation(
                 licensePlate, spotId, startTime, endTime);
@@ -318,10 +341,9 @@ public class ReservationPanel extends JPanel {
             try {
                 // Use the DAO directly to update the status
                 reservationService.confirmReservation(reservation.getReservationId());
-                System.out.println("DEBUG: Reservation confirmed successfully: " + reservation.getReservationId());
+                LOG.debug("Reservation confirmed: {}", reservation.getReservationId());
             } catch (Exception confirmEx) {
-                System.err.println("DEBUG: Failed to confirm reservation: " + confirmEx.getMessage());
-                confirmEx.printStackTrace();
+                LOG.warn("Failed to confirm reservation {}", reservation.getReservationId(), confirmEx);
                 // Show warning but continue
                 statusLabel.setText("⚠ Reservation created but not confirmed. Status: PENDING");
                 statusLabel.setForeground(UIConstants.WARNING);
@@ -348,6 +370,36 @@ public class ReservationPanel extends JPanel {
         }
     }
     
+    /**
+     * Books the same slot every week and reports which weeks could not be booked.
+     */
+    private void handleCreateRecurringReservation(String licensePlate, String spotId,
+                                                  LocalDateTime startTime, LocalDateTime endTime, int weeks) {
+        List<BookingResult> results = reservationService.createRecurringReservations(
+            RecurrenceRule.weekly(licensePlate, spotId, startTime, endTime, weeks), true);
+        
+        long booked = results.stream().filter(BookingResult::isBooked).count();
+        StringBuilder message = new StringBuilder()
+            .append("Booked ").append(booked).append(" of ").append(results.size())
+            .append(" weekly reservations for ").append(licensePlate)
+            .append(" on spot ").append(spotId).append(".");
+        for (BookingResult result : results) {
+            if (!result.isBooked()) {
+                message.append("\n")
+                       .append(result.getRequest().getStartTime().format(DISPLAY_FORMATTER))
+                       .append(": ").append(result.getMessage());
+            }
+        }
+        
+        if (booked == results.size()) {
+            showSuccess(message.toString());
+        } else {
+            showInfo(message.toString());
+        }
+        clearForm();
+        refreshReservationTable();
+    }
+    
     private void handleConfirmReservation() {
         int selectedRow = reservationTable.getSelectedRow();
         if (selectedRow == -1) {
@@ -392,7 +444,7 @@ public class ReservationPanel extends JPanel {
             String status = (String) tableModel.getValueAt(selectedRow, 5);
             String startTimeStr = (String) tableModel.getValueAt(selectedRow, 3);
             
-            System.out.println("DEBUG: Attempting to cancel reservation: " + reservationId + " with status: " + status);
+            LOG.debug("Attempting to cancel reservation {} with status {}", reservationId, status);
             
             if ("COMPLETED".equals(status)) {
                 showError("Cannot cancel completed reservations");
@@ -409,7 +461,7 @@ public class ReservationPanel extends JPanel {
             LocalDateTime now = LocalDateTime.now();
             long minutesUntilStart = java.time.temporal.ChronoUnit.MINUTES.between(now, startTime);
             
-            System.out.println("DEBUG: Minutes until start: " + minutesUntilStart);
+            LOG.debug("Minutes until start: {}", minutesUntilStart);
             
             if (minutesUntilStart < 10 && minutesUntilStart >= 0) {
                 showError("Cannot cancel reservation within 10 minutes of start time.\n" +
@@ -439,29 +491,26 @@ public class ReservationPanel extends JPanel {
             
             if (confirm == JOptionPane.YES_OPTION) {
                 try {
-                    System.out.println("DEBUG: Calling cancelReservation for: " + reservationId);
+                    LOG.debug("Calling cancelReservation for: {}", reservationId);
                     reservationService.cancelReservation(reservationId);
-                    System.out.println("DEBUG: Reservation cancelled successfully");
+                    LOG.debug("Reservation cancelled: {}", reservationId);
                     showSuccess("Reservation cancelled successfully");
                     refreshReservationTable();
                 } catch (IllegalArgumentException cancelEx) {
-                    System.err.println("DEBUG: Cancellation failed - reservation not found");
-                    cancelEx.printStackTrace();
+                    LOG.warn("Cancellation failed, reservation {} not found", reservationId, cancelEx);
                     showError("Reservation not found in database: " + reservationId + "\n" +
                              "Error: " + cancelEx.getMessage() + "\n\n" +
                              "The reservation may have been deleted or the database may be out of sync.\n" +
                              "Try clicking 'Refresh' to reload the table.");
                 } catch (Exception cancelEx) {
-                    System.err.println("DEBUG: Cancellation failed with exception");
-                    cancelEx.printStackTrace();
+                    LOG.error("Error cancelling reservation {}", reservationId, cancelEx);
                     showError("Error cancelling reservation: " + cancelEx.getMessage() + "\n\n" +
-                             "Please check the console for details and try refreshing the table.");
+                             "Please check the log for details and try refreshing the table.");
                 }
             }
             
         } catch (Exception ex) {
-            System.err.println("DEBUG: Outer exception in handleCancelReservation");
-            ex.printStackTrace();
+            LOG.error("Error cancelling reservation", ex);
             showError("Error cancelling reservation: " + ex.getMessage());
         }
     }
@@ -491,18 +540,27 @@ public class ReservationPanel extends JPanel {
     
     private void handleViewAvailableSpots() {
         try {
-            // Get all spots
-            List<com.university.parking.domain.ParkingSpot> allSpots = 
-                parkingService.getAllSpots();
-            
-            // Filter available RESERVED spots only
-            List<com.university.parking.domain.ParkingSpot> availableReservedSpots = allSpots.stream()
-                .filter(spot -> spot.getStatus() == com.university.parking.domain.SpotStatus.AVAILABLE)
-                .filter(spot -> spot.getType() == com.university.parking.domain.SpotType.RESERVED)
+            LocalDateTime startTime = getStartDateTime();
+            LocalDateTime endTime = getEndDateTime();
+            
+            if (endTime.isBefore(startTime)) {
+                showError("End time must be after start time");
+                return;
+            }
+            
+            // RESERVED spots with no booking in the selected time range
+            List<String> freeSpotIds = reservationService.findAvailableReservedSpots(startTime, endTime);
+            java.util.Map<String, com.university.parking.domain.ParkingSpot> spotsById = parkingService.getAllSpots().stream()
+                .collect(java.util.stream.Collectors.toMap(
+                    com.university.parking.domain.ParkingSpot::getSpotId, spot -> spot));
+            List<com.university.parking.domain.ParkingSpot> availableReservedSpots = freeSpotIds.stream()
+                .map(spotsById::get)
+                .filter(java.util.Objects::nonNull)
                 .collect(java.util.stream.Collectors.toList());
             
             if (availableReservedSpots.isEmpty()) {
-                showInfo("No available RESERVED spots at the moment.\n" +
+                showInfo("No RESERVED spots are free from " + startTime.format(DISPLAY_FORMATTER) +
+                        " to " + endTime.format(DISPLAY_FORMATTER) + ".\n" +
                         "Note: Only RESERVED type spots can be reserved.");
                 return;
             }
@@ -515,7 +573,7 @@ public class ReservationPanel extends JPanel {
             dialog.setLocationRelativeTo(this);
             
             // Create table
-            String[] columns = {"Spot ID", "Type", "Hourly Rate (RM)"};
+            String[] columns = {"Spot ID", "Type", "Hourly Rate (RM)", "Current Status"};
             DefaultTableModel model = new DefaultTableModel(columns, 0) {
                 @Override
                 public boolean isCellEditable(int row, int column) {
@@ -527,7 +585,8 @@ public class ReservationPanel extends JPanel {
                 model.addRow(new Object[]{
                     spot.getSpotId(),
                     spot.getType().name(),
-                    String.format("%.2f", spot.getHourlyRate())
+                    String.format("%.2f", spot.getHourlyRate()),
+                    spot.getStatus().name()
                 });
             }
             
@@ -535,7 +594,8 @@ public class ReservationPanel extends JPanel {
             JScrollPane scrollPane = new JScrollPane(table);
             
             // Info label
-            JLabel infoLabel = new JLabel("Only RESERVED type spots can be reserved");
+            JLabel infoLabel = new JLabel("RESERVED spots free from " + startTime.format(DISPLAY_FORMATTER) +
+                                          " to " + endTime.format(DISPLAY_FORMATTER));
             infoLabel.setFont(UIConstants.BODY);
             infoLabel.setForeground(UIConstants.INFO);
             infoLabel.setBorder(BorderFactory.createEmptyBorder(
@@ -664,6 +724,7 @@ public class ReservationPanel extends JPanel {
         startTimeSpinner.setValue(new java.util.Date());
         endDateSpinner.setValue(new java.util.Date());
         endTimeSpinner.setValue(new java.util.Date());
+        repeatWeeksSpinner.setValue(1);
         statusLabel.setText(" ");
     }
     
@@ -0,0 +1,179 @@
+package com.university.parking.ui.components;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Index for filtering a table's rows by facets and a text search.
+ *
+ * For each facet (e.g. floor or type) every value keeps a bit set of the rows having it,
+ * so selecting values is a few bit set intersections. The search text matches anywhere
+ * in a row's search key, ignoring case: every three-character sequence of the keys is
+ * indexed with the rows containing it, so a search only checks the rows that contain its
+ * rarest sequence instead of scanning all keys. Searches shorter than three characters
+ * check the rows left by the facets.
+ *
+ * Rows are identified by their index in the list the index was built from, which is
+ * their model index in the table.
+ *
+ * @param <T> the row type
+ */
+public class FacetIndex<T> {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final int[] NO_ROWS = new int[0];
+
+    private final Function<? super T, String> searchKeyOf;
+    private final Map<String, Function<? super T, String>> facets = new LinkedHashMap<>();
+    private final Map<String, Map<String, BitSet>> facetRows = new HashMap<>();
+    // Rows containing each three-character sequence of the search keys, ascending
+    private Map<String, int[]> gramRows = Collections.emptyMap();
+    private String[] searchKeys = new String[0];
+
+    /**
+     * Creates an empty index.
+     *
+     * @param searchKeyOf gives the text a row is searched by, e.g. the spot ID
+     */
+    public FacetIndex(Function<? super T, String> searchKeyOf) {
+        this.searchKeyOf = searchKeyOf;
+    }
+
+    /**
+     * Adds a facet. Facets are added before the index is built.
+     *
+     * @param name the facet name used in selections
+     * @param valueOf gives a row's value of the facet
+     * @return this index
+     */
+    public FacetIndex<T> addFacet(String name, Function<? super T, String> valueOf) {
+        facets.put(name, valueOf);
+        return this;
+    }
+
+    /**
+     * Rebuilds the index for new rows.
+     *
+     * @param rows the rows, in table model order
+     */
+    public void rebuild(List<? extends T> rows) {
+        int size = rows.size();
+        facetRows.clear();
+        for (Map.Entry<String, Function<? super T, String>> facet : facets.entrySet()) {
+            Map<String, BitSet> byValue = new HashMap<>();
+            for (int row = 0; row < size; row++) {
+                byValue.computeIfAbsent(facet.getValue().apply(rows.get(row)), v -> new BitSet(size)).set(row);
+            }
+            facetRows.put(facet.getKey(), byValue);
+        }
+
+        searchKeys = new String[size];
+        // Two passes: count each sequence's rows, then fill exactly sized arrays
+        Map<String, int[]> counts = new HashMap<>();
+        for (int row = 0; row < size; row++) {
+            String key = searchKeyOf.apply(rows.get(row)).toUpperCase();
+            searchKeys[row] = key;
+            for (int i = 0; i + GRAM_LENGTH <= key.length(); i++) {
+                String gram = key.substring(i, i + GRAM_LENGTH);
+                // {row count, last row counted}, so a sequence repeated in one key counts once
+                int[] count = counts.computeIfAbsent(gram, g -> new int[] {0, -1});
+                if (count[1] != row) {
+                    count[0]++;
+                    count[1] = row;
+                }
+            }
+        }
+        Map<String, int[]> grams = new HashMap<>(counts.size() * 2);
+        counts.forEach((gram, count) -> {
+            grams.put(gram, new int[count[0]]);
+            // Reused as {rows filled, last row filled}
+            count[0] = 0;
+            count[1] = -1;
+        });
+        for (int row = 0; row < size; row++) {
+            String key = searchKeys[row];
+            for (int i = 0; i + GRAM_LENGTH <= key.length(); i++) {
+                String gram = key.substring(i, i + GRAM_LENGTH);
+                int[] count = counts.get(gram);
+                if (count[1] != row) {
+                    grams.get(gram)[count[0]++] = row;
+                    count[1] = row;
+                }
+            }
+        }
+        gramRows = grams;
+    }
+
+    /**
+     * Finds the rows having all selected facet values and containing the search text.
+     *
+     * @param selections the selected value of each filtered facet; facets not in the map
+     *        match every row
+     * @param search the text to find in the search keys, ignoring case; empty matches every row
+     * @return the matching rows
+     */
+    public BitSet match(Map<String, String> selections, String search) {
+        BitSet result = new BitSet(searchKeys.length);
+        result.set(0, searchKeys.length);
+        for (Map.Entry<String, String> selection : selections.entrySet()) {
+            Map<String, BitSet> byValue = facetRows.get(selection.getKey());
+            if (byValue == null) {
+                throw new IllegalArgumentException("Unknown facet: " + selection.getKey());
+            }
+            BitSet rows = byValue.get(selection.getValue());
+            if (rows == null) {
+                return new BitSet();
+            }
+            result.and(rows);
+        }
+        if (search.isEmpty()) {
+            return result;
+        }
+
+        String text = search.toUpperCase();
+        if (text.length() < GRAM_LENGTH) {
+            for (int row = result.nextSetBit(0); row >= 0; row = result.nextSetBit(row + 1)) {
+                if (!searchKeys[row].contains(text)) {
+                    result.clear(row);
+                }
+            }
+            return result;
+        }
+        // Every match contains every sequence of the text; check the rows of the rarest one
+        int[] candidates = null;
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            int[] rows = gramRows.getOrDefault(text.substring(i, i + GRAM_LENGTH), NO_ROWS);
+            if (candidates == null || rows.length < candidates.length) {
+                candidates = rows;
+            }
+        }
+        BitSet found = new BitSet(searchKeys.length);
+        for (int row : candidates) {
+            if (result.get(row) && searchKeys[row].contains(text)) {
+                found.set(row);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Gets the values a facet has in the indexed rows.
+     *
+     * @param name the facet name
+     * @return the facet's values, in no particular order
+     */
+    public Set<String> getValues(String name) {
+        Map<String, BitSet> byValue = facetRows.get(name);
+        return byValue != null ? Collections.unmodifiableSet(byValue.keySet()) : Collections.emptySet();
+    }
+
+    public int size() {
+        return searchKeys.length;
+    }
+}
@@ -0,0 +1,301 @@
+package com.university.parking.ui.components;
+
+import com.university.parking.domain.Floor;
+import com.university.parking.domain.ParkingSpot;
+import com.university.parking.domain.SpotStatus;
+import com.university.parking.domain.SpotType;
+import com.university.parking.ui.UIConstants;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Floor plan of one floor: a line of tiles per row, each tile a spot coloured by its
+ * status, with a band on top in the colour of its type.
+ *
+ * The parts that only change with the floor's layout (legend, row labels, tile outlines)
+ * are drawn once into an offscreen image, which painting copies in a single call. The
+ * tiles on top are drawn only where they intersect the area being painted, found from
+ * the grid rather than by checking every spot. Giving the map a new copy of the same
+ * floor compares each spot with the one shown and repaints only the tiles whose status
+ * or type changed, so a floor of thousands of spots refreshed every few seconds costs a
+ * few tiles per refresh instead of a full redraw.
+ */
+public class FloorMapView extends JComponent {
+
+    private static final int TILE_SIZE = 18;
+    private static final int TILE_GAP = 4;
+    private static final int TILE_PITCH = TILE_SIZE + TILE_GAP;
+    private static final int TYPE_BAND = 5;
+    private static final int PADDING = 12;
+    private static final int LABEL_WIDTH = 44;
+    private static final int LEGEND_HEIGHT = 32;
+    private static final int MIN_WIDTH = 640;
+
+    private static final Color AVAILABLE_COLOR = UIConstants.SUCCESS;
+    private static final Color OCCUPIED_COLOR = UIConstants.DANGER;
+    private static final Map<SpotType, Color> TYPE_COLORS = new EnumMap<>(SpotType.class);
+
+    static {
+        TYPE_COLORS.put(SpotType.COMPACT, UIConstants.INFO);
+        TYPE_COLORS.put(SpotType.REGULAR, UIConstants.TEXT_MUTED);
+        TYPE_COLORS.put(SpotType.HANDICAPPED, UIConstants.PRIMARY_LIGHT);
+        TYPE_COLORS.put(SpotType.RESERVED, UIConstants.WARNING);
+        TYPE_COLORS.put(SpotType.ELECTRIC, UIConstants.ACCENT);
+    }
+
+    // Orders a row's spots by their number, so spots added later still appear in place
+    private static final Comparator<ParkingSpot> BY_SPOT_NUMBER =
+            Comparator.comparingInt((ParkingSpot spot) -> spotNumber(spot.getSpotId()))
+                    .thenComparing(ParkingSpot::getSpotId);
+
+    private String floorId;
+    private int[] rowNumbers = new int[0];
+    // The spot shown by each tile, by row then position in the row
+    private ParkingSpot[][] tiles = new ParkingSpot[0][];
+    private String emptyMessage = "No floor selected";
+    // Legend, row labels and tile outlines, rebuilt when the layout, size or scale changes
+    private BufferedImage layoutImage;
+    private double layoutScale;
+
+    public FloorMapView() {
+        setOpaque(true);
+        setBackground(Color.WHITE);
+        setFont(UIConstants.SMALL);
+        // Registers the map with the tooltip manager; the text comes from getToolTipText(MouseEvent)
+        setToolTipText("");
+        updatePreferredSize(0);
+    }
+
+    /**
+     * Shows a floor. Showing a new copy of the floor already shown repaints the tiles
+     * whose spot changed status or type; a different floor, or the same floor with spots
+     * added or removed, is redrawn whole.
+     *
+     * @param floor the floor to show, or null to show none
+     */
+    public void setFloor(Floor floor) {
+        if (floor == null) {
+            showLayout(null, new int[0], new ParkingSpot[0][]);
+            return;
+        }
+        int[] newRowNumbers = new int[floor.getRows().size()];
+        ParkingSpot[][] newTiles = new ParkingSpot[newRowNumbers.length][];
+        int row = 0;
+        for (Map.Entry<Integer, List<ParkingSpot>> entry : floor.getRows().entrySet()) {
+            List<ParkingSpot> spots = new ArrayList<>(entry.getValue());
+            spots.sort(BY_SPOT_NUMBER);
+            newRowNumbers[row] = entry.getKey();
+            newTiles[row] = spots.toArray(new ParkingSpot[0]);
+            row++;
+        }
+        if (!sameLayout(floor.getFloorId(), newRowNumbers, newTiles)) {
+            showLayout(floor.getFloorId(), newRowNumbers, newTiles);
+            return;
+        }
+        for (row = 0; row < newTiles.length; row++) {
+            for (int column = 0; column < newTiles[row].length; column++) {
+                ParkingSpot shown = tiles[row][column];
+                ParkingSpot spot = newTiles[row][column];
+                tiles[row][column] = spot;
+                if (shown.getStatus() != spot.getStatus() || shown.getType() != spot.getType()) {
+                    repaint(tileX(column), tileY(row), TILE_SIZE, TILE_SIZE);
+                }
+            }
+        }
+    }
+
+    public void setEmptyMessage(String emptyMessage) {
+        this.emptyMessage = emptyMessage;
+        repaint();
+    }
+
+    /**
+     * Finds the spot drawn at a point.
+     *
+     * @param point a point in the map's coordinates
+     * @return the spot, or null if the point is not on a tile
+     */
+    public ParkingSpot getSpotAt(Point point) {
+        int row = Math.floorDiv(point.y - tileY(0), TILE_PITCH);
+        int column = Math.floorDiv(point.x - tileX(0), TILE_PITCH);
+        if (row < 0 || row >= tiles.length || column < 0 || column >= tiles[row].length
+                || point.x >= tileX(column) + TILE_SIZE || point.y >= tileY(row) + TILE_SIZE) {
+            return null;
+        }
+        return tiles[row][column];
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent event) {
+        ParkingSpot spot = getSpotAt(event.getPoint());
+        if (spot == null) {
+            return null;
+        }
+        String text = spot.getSpotId() + " - " + spot.getType() + ", " + spot.getStatus();
+        return spot.getCurrentVehiclePlate() != null ? text + " (" + spot.getCurrentVehiclePlate() + ")" : text;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g.create();
+        int width = getWidth();
+        int height = getHeight();
+        if (floorId == null) {
+            g2.setColor(getBackground());
+            g2.fillRect(0, 0, width, height);
+            g2.setFont(getFont());
+            g2.setColor(UIConstants.TEXT_MUTED);
+            FontMetrics fm = g2.getFontMetrics();
+            g2.drawString(emptyMessage, (width - fm.stringWidth(emptyMessage)) / 2, height / 2);
+            g2.dispose();
+            return;
+        }
+
+        // Drawn at device resolution so the copy stays sharp on scaled displays
+        double scale = g2.getTransform().getScaleX();
+        int imageWidth = (int) Math.ceil(width * scale);
+        int imageHeight = (int) Math.ceil(height * scale);
+        if (layoutImage == null || layoutScale != scale
+                || layoutImage.getWidth() != imageWidth || layoutImage.getHeight() != imageHeight) {
+            layoutImage = renderLayout(imageWidth, imageHeight, scale);
+            layoutScale = scale;
+        }
+        g2.drawImage(layoutImage, 0, 0, width, height, null);
+
+        Rectangle clip = g2.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, width, height);
+        }
+        int firstRow = Math.max(0, Math.floorDiv(clip.y - tileY(0), TILE_PITCH));
+        int lastRow = Math.min(tiles.length - 1, Math.floorDiv(clip.y + clip.height - tileY(0), TILE_PITCH));
+        int firstColumn = Math.max(0, Math.floorDiv(clip.x - tileX(0), TILE_PITCH));
+        int lastColumn = Math.floorDiv(clip.x + clip.width - tileX(0), TILE_PITCH);
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        for (int row = firstRow; row <= lastRow; row++) {
+            int rowEnd = Math.min(tiles[row].length - 1, lastColumn);
+            for (int column = firstColumn; column <= rowEnd; column++) {
+                paintTile(g2, tiles[row][column], tileX(column), tileY(row));
+            }
+        }
+        g2.dispose();
+    }
+
+    private void paintTile(Graphics2D g2, ParkingSpot spot, int x, int y) {
+        g2.setColor(spot.getStatus() == SpotStatus.AVAILABLE ? AVAILABLE_COLOR : OCCUPIED_COLOR);
+        g2.fillRoundRect(x + 1, y + 1, TILE_SIZE - 2, TILE_SIZE - 2, UIConstants.RADIUS_SM, UIConstants.RADIUS_SM);
+        g2.setColor(TYPE_COLORS.get(spot.getType()));
+        g2.fillRect(x + 1, y + 1, TILE_SIZE - 2, TYPE_BAND);
+    }
+
+    private BufferedImage renderLayout(int imageWidth, int imageHeight, double scale) {
+        GraphicsConfiguration config = getGraphicsConfiguration();
+        BufferedImage image = config != null
+                ? config.createCompatibleImage(imageWidth, imageHeight)
+                : new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = image.createGraphics();
+        g2.scale(scale, scale);
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2.setColor(getBackground());
+        g2.fillRect(0, 0, getWidth(), getHeight());
+        g2.setFont(getFont());
+        FontMetrics fm = g2.getFontMetrics();
+
+        // Legend: status fills, then the type bands
+        int x = PADDING;
+        int textY = PADDING + (TILE_SIZE + fm.getAscent()) / 2 - 1;
+        x = paintLegendEntry(g2, fm, x, textY, AVAILABLE_COLOR, "Available");
+        x = paintLegendEntry(g2, fm, x, textY, OCCUPIED_COLOR, "Occupied");
+        x += TILE_GAP * 2;
+        for (SpotType type : SpotType.values()) {
+            x = paintLegendEntry(g2, fm, x, textY, TYPE_COLORS.get(type), type.name());
+        }
+
+        g2.setColor(UIConstants.BORDER);
+        g2.drawLine(PADDING, PADDING + LEGEND_HEIGHT - TILE_GAP * 2, getWidth() - PADDING, PADDING + LEGEND_HEIGHT - TILE_GAP * 2);
+        for (int row = 0; row < tiles.length; row++) {
+            int y = tileY(row);
+            g2.setColor(UIConstants.TEXT_SECONDARY);
+            g2.drawString("R" + rowNumbers[row], PADDING, y + (TILE_SIZE + fm.getAscent()) / 2 - 1);
+            g2.setColor(UIConstants.BORDER);
+            for (int column = 0; column < tiles[row].length; column++) {
+                g2.drawRoundRect(tileX(column), y, TILE_SIZE - 1, TILE_SIZE - 1, UIConstants.RADIUS_SM, UIConstants.RADIUS_SM);
+            }
+        }
+        g2.dispose();
+        return image;
+    }
+
+    private int paintLegendEntry(Graphics2D g2, FontMetrics fm, int x, int textY, Color color, String label) {
+        g2.setColor(color);
+        g2.fillRoundRect(x, PADDING + (TILE_SIZE - 10) / 2, 10, 10, UIConstants.RADIUS_SM, UIConstants.RADIUS_SM);
+        g2.setColor(UIConstants.TEXT_SECONDARY);
+        g2.drawString(label, x + 14, textY);
+        return x + 14 + fm.stringWidth(label) + UIConstants.SPACING_MD;
+    }
+
+    private boolean sameLayout(String newFloorId, int[] newRowNumbers, ParkingSpot[][] newTiles) {
+        if (!newFloorId.equals(floorId) || newTiles.length != tiles.length) {
+            return false;
+        }
+        for (int row = 0; row < newTiles.length; row++) {
+            if (newRowNumbers[row] != rowNumbers[row] || newTiles[row].length != tiles[row].length) {
+                return false;
+            }
+            for (int column = 0; column < newTiles[row].length; column++) {
+                if (!newTiles[row][column].getSpotId().equals(tiles[row][column].getSpotId())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void showLayout(String newFloorId, int[] newRowNumbers, ParkingSpot[][] newTiles) {
+        floorId = newFloorId;
+        rowNumbers = newRowNumbers;
+        tiles = newTiles;
+        layoutImage = null;
+        int columns = 0;
+        for (ParkingSpot[] row : newTiles) {
+            columns = Math.max(columns, row.length);
+        }
+        updatePreferredSize(columns);
+        revalidate();
+        repaint();
+    }
+
+    private void updatePreferredSize(int columns) {
+        int width = tileX(columns) - TILE_GAP + PADDING;
+        int height = tileY(tiles.length) - TILE_GAP + PADDING;
+        setPreferredSize(new Dimension(Math.max(MIN_WIDTH, width), Math.max(200, height)));
+    }
+
+    private static int tileX(int column) {
+        return PADDING + LABEL_WIDTH + column * TILE_PITCH;
+    }
+
+    private static int tileY(int row) {
+        return PADDING + LEGEND_HEIGHT + row * TILE_PITCH;
+    }
+
+    /**
+     * Gets the number of the last part of a spot ID, e.g. 12 for "F1-R2-S12".
+     */
+    private static int spotNumber(String spotId) {
+        int end = spotId.length();
+        int start = end;
+        while (start > 0 && Character.isDigit(spotId.charAt(start - 1))) {
+            start--;
+        }
+        return start < end && end - start < 10 ? Integer.parseInt(spotId.substring(start, end)) : Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,115 @@
+package com.university.parking.ui.components;
+
+import com.university.parking.ui.UIConstants;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.Path2D;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Line chart of occupancy rate (0-100%) over time.
+ */
+public class OccupancyChart extends JComponent {
+
+    private static final int PADDING_LEFT = 44;
+    private static final int PADDING_RIGHT = 16;
+    private static final int PADDING_TOP = 12;
+    private static final int PADDING_BOTTOM = 28;
+    private static final Stroke LINE_STROKE = new BasicStroke(2f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+
+    private long[] times = new long[0];
+    private double[] rates = new double[0];
+    private DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
+    private String emptyMessage = "No occupancy data yet";
+
+    public OccupancyChart() {
+        setPreferredSize(new Dimension(600, 280));
+        setFont(UIConstants.SMALL);
+    }
+
+    /**
+     * Replaces the plotted points.
+     * @param times point times in epoch milliseconds, ascending
+     * @param rates occupancy rates between 0 and 1, one per time
+     * @param timeFormatter formats the time axis labels
+     */
+    public void setData(long[] times, double[] rates, DateTimeFormatter timeFormatter) {
+        if (times.length != rates.length) {
+            throw new IllegalArgumentException("Times and rates must have the same length");
+        }
+        this.times = times;
+        this.rates = rates;
+        this.timeFormatter = timeFormatter;
+        repaint();
+    }
+
+    public void setEmptyMessage(String emptyMessage) {
+        this.emptyMessage = emptyMessage;
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g.create();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setFont(getFont());
+        FontMetrics fm = g2.getFontMetrics();
+
+        int plotX = PADDING_LEFT;
+        int plotY = PADDING_TOP;
+        int plotW = Math.max(1, getWidth() - PADDING_LEFT - PADDING_RIGHT);
+        int plotH = Math.max(1, getHeight() - PADDING_TOP - PADDING_BOTTOM);
+
+        // Grid lines every 25%
+        for (int percent = 0; percent <= 100; percent += 25) {
+            int y = plotY + plotH - plotH * percent / 100;
+            g2.setColor(UIConstants.BORDER_LIGHT);
+            g2.drawLine(plotX, y, plotX + plotW, y);
+            g2.setColor(UIConstants.TEXT_SECONDARY);
+            String label = percent + "%";
+            g2.drawString(label, plotX - fm.stringWidth(label) - 6, y + fm.getAscent() / 2 - 1);
+        }
+
+        if (times.length == 0) {
+            g2.setColor(UIConstants.TEXT_MUTED);
+            g2.drawString(emptyMessage, plotX + (plotW - fm.stringWidth(emptyMessage)) / 2, plotY + plotH / 2);
+            g2.dispose();
+            return;
+        }
+
+        long minTime = times[0];
+        long span = Math.max(1, times[times.length - 1] - minTime);
+        Path2D.Double line = new Path2D.Double();
+        for (int i = 0; i < times.length; i++) {
+            double x = plotX + (double) (times[i] - minTime) * plotW / span;
+            double y = plotY + plotH - Math.max(0, Math.min(1, rates[i])) * plotH;
+            if (i == 0) {
+                line.moveTo(x, y);
+            } else {
+                line.lineTo(x, y);
+            }
+        }
+        g2.setColor(UIConstants.PRIMARY_LIGHT);
+        g2.setStroke(LINE_STROKE);
+        g2.draw(line);
+
+        // Time labels at both ends and the middle
+        g2.setColor(UIConstants.TEXT_SECONDARY);
+        int labelY = plotY + plotH + fm.getAscent() + 6;
+        String first = format(minTime);
+        String middle = format(minTime + span / 2);
+        String last = format(times[times.length - 1]);
+        g2.drawString(first, plotX, labelY);
+        g2.drawString(middle, plotX + (plotW - fm.stringWidth(middle)) / 2, labelY);
+        g2.drawString(last, plotX + plotW - fm.stringWidth(last), labelY);
+        g2.dispose();
+    }
+
+    private String format(long timeMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(timeMillis), ZoneId.systemDefault()).format(timeFormatter);
+    }
+}
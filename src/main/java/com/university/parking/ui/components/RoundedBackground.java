@@ -0,0 +1,216 @@
+package com.university.parking.ui.components;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Anti-aliased rounded rectangle background with an optional drop shadow and border,
+ * painted from a cache of rendered images.
+ *
+ * Rendering the shape anew on every repaint redoes the anti-aliasing each time. Instead
+ * each combination of look, size and display scale is rendered once into an image that
+ * later paints copy, which the graphics pipeline can keep in video memory. Backgrounds
+ * are compared by value, so all buttons of one type and size share one image. A resize
+ * or a colour change simply looks up another image; the least recently used images are
+ * dropped once the cache exceeds its pixel budget, and the cache is cleared when the
+ * look and feel changes.
+ *
+ * Used from the event dispatch thread only, like the components painting it.
+ */
+public final class RoundedBackground {
+
+    // About 32 MB of ARGB pixels
+    private static final long MAX_CACHED_PIXELS = 8L * 1024 * 1024;
+    // Larger images would evict most of the cache, so they are painted directly
+    private static final long MAX_IMAGE_PIXELS = MAX_CACHED_PIXELS / 4;
+
+    private static final Map<Key, BufferedImage> CACHE = new LinkedHashMap<>(64, 0.75f, true);
+    private static long cachedPixels;
+
+    static {
+        UIManager.addPropertyChangeListener(e -> {
+            if ("lookAndFeel".equals(e.getPropertyName())) {
+                clearCache();
+            }
+        });
+    }
+
+    private final Color fill;
+    private final int radius;
+    private final Color shadowColor;
+    private final int shadowOffset;
+    private final Color borderColor;
+    private final float borderWidth;
+    // Computed once, as every paint looks the background up
+    private final int hash;
+
+    /**
+     * Creates a background without shadow or border.
+     *
+     * @param fill the fill colour
+     * @param radius the corner arc diameter, as for {@link Graphics#fillRoundRect}
+     */
+    public RoundedBackground(Color fill, int radius) {
+        this(fill, radius, null, 0, null, 0);
+    }
+
+    private RoundedBackground(Color fill, int radius, Color shadowColor, int shadowOffset,
+                              Color borderColor, float borderWidth) {
+        this.fill = Objects.requireNonNull(fill, "fill");
+        this.radius = radius;
+        this.shadowColor = shadowColor;
+        this.shadowOffset = shadowOffset;
+        this.borderColor = borderColor;
+        this.borderWidth = borderWidth;
+        this.hash = Objects.hash(fill, radius, shadowColor, shadowOffset, borderColor, borderWidth);
+    }
+
+    /**
+     * Adds a shadow offset to the bottom right. The fill shrinks by the offset so that
+     * both fit in the painted size.
+     *
+     * @param color the shadow colour, usually translucent
+     * @param offset the shadow offset in pixels
+     * @return a background with the shadow
+     */
+    public RoundedBackground withShadow(Color color, int offset) {
+        return new RoundedBackground(fill, radius, color, offset, borderColor, borderWidth);
+    }
+
+    /**
+     * Adds a border drawn one pixel inside the edge of the fill.
+     *
+     * @param color the border colour
+     * @param width the stroke width
+     * @return a background with the border
+     */
+    public RoundedBackground withBorder(Color color, float width) {
+        return new RoundedBackground(fill, radius, shadowColor, shadowOffset, color, width);
+    }
+
+    public Color getFill() {
+        return fill;
+    }
+
+    /**
+     * Paints the background at the origin of a graphics context.
+     *
+     * @param g the graphics to paint on
+     * @param width the width to cover
+     * @param height the height to cover
+     */
+    public void paint(Graphics g, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        Graphics2D g2 = (Graphics2D) g;
+        // Rendered at device resolution so the copy stays sharp on scaled displays
+        double scale = g2.getTransform().getScaleX();
+        int imageWidth = (int) Math.ceil(width * scale);
+        int imageHeight = (int) Math.ceil(height * scale);
+        long pixels = (long) imageWidth * imageHeight;
+        if (pixels > MAX_IMAGE_PIXELS) {
+            Graphics2D direct = (Graphics2D) g2.create();
+            render(direct, width, height);
+            direct.dispose();
+            return;
+        }
+
+        Key key = new Key(this, width, height, scale);
+        BufferedImage image = CACHE.get(key);
+        if (image == null) {
+            image = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D imageGraphics = image.createGraphics();
+            imageGraphics.scale(scale, scale);
+            render(imageGraphics, width, height);
+            imageGraphics.dispose();
+            CACHE.put(key, image);
+            cachedPixels += pixels;
+            evict();
+        }
+        g2.drawImage(image, 0, 0, width, height, null);
+    }
+
+    /**
+     * Drops every cached image.
+     */
+    public static void clearCache() {
+        CACHE.clear();
+        cachedPixels = 0;
+    }
+
+    private void render(Graphics2D g2, int width, int height) {
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        int offset = shadowColor != null ? shadowOffset : 0;
+        if (shadowColor != null) {
+            g2.setColor(shadowColor);
+            g2.fillRoundRect(offset, offset, width - offset, height - offset, radius, radius);
+        }
+        g2.setColor(fill);
+        g2.fillRoundRect(0, 0, width - offset, height - offset, radius, radius);
+        if (borderColor != null) {
+            g2.setColor(borderColor);
+            g2.setStroke(new BasicStroke(borderWidth));
+            g2.drawRoundRect(1, 1, width - offset - 3, height - offset - 3, radius, radius);
+        }
+    }
+
+    private static void evict() {
+        Iterator<Map.Entry<Key, BufferedImage>> eldest = CACHE.entrySet().iterator();
+        while (cachedPixels > MAX_CACHED_PIXELS && eldest.hasNext()) {
+            BufferedImage image = eldest.next().getValue();
+            cachedPixels -= (long) image.getWidth() * image.getHeight();
+            eldest.remove();
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RoundedBackground)) return false;
+        RoundedBackground other = (RoundedBackground) o;
+        return radius == other.radius
+                && shadowOffset == other.shadowOffset
+                && Float.compare(borderWidth, other.borderWidth) == 0
+                && fill.equals(other.fill)
+                && Objects.equals(shadowColor, other.shadowColor)
+                && Objects.equals(borderColor, other.borderColor);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    private static final class Key {
+        private final RoundedBackground background;
+        private final int width;
+        private final int height;
+        private final double scale;
+
+        Key(RoundedBackground background, int width, int height, double scale) {
+            this.background = background;
+            this.width = width;
+            this.height = height;
+            this.scale = scale;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return width == other.width && height == other.height
+                    && Double.compare(scale, other.scale) == 0 && background.equals(other.background);
+        }
+
+        @Override
+        public int hashCode() {
+            return (background.hashCode() * 31 + width) * 31 + height + Double.hashCode(scale);
+        }
+    }
+}
@@ -10,9 +10,13 @@ import java.awt.*;
  */
 public class RoundedPanel extends JPanel {
     
+    private static final Color SHADOW_COLOR = new Color(0, 0, 0, 20);
+    private static final int SHADOW_OFFSET = 3;
+    
     private int radius;
     private boolean hasShadow;
-    private Color shadowColor = new Color(0, 0, 0, 20);
+    // Rebuilt on the next paint after the radius, shadow or background colour changes
+    private RoundedBackground shape;
     
     public RoundedPanel() {
         this(UIConstants.RADIUS_LG, true);
@@ -31,32 +35,26 @@ public class RoundedPanel extends JPanel {
     
     @Override
     protected void paintComponent(Graphics g) {
-        Graphics2D g2 = (Graphics2D) g.create();
-        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        
-        int offset = hasShadow ? 3 : 0;
-        
-        // Draw shadow
-        if (hasShadow) {
-            g2.setColor(shadowColor);
-            g2.fillRoundRect(offset, offset, getWidth() - offset, getHeight() - offset, radius, radius);
+        Color background = getBackground();
+        if (shape == null || !shape.getFill().equals(background)) {
+            shape = new RoundedBackground(background, radius);
+            if (hasShadow) {
+                shape = shape.withShadow(SHADOW_COLOR, SHADOW_OFFSET);
+            }
         }
-        
-        // Draw background
-        g2.setColor(getBackground());
-        g2.fillRoundRect(0, 0, getWidth() - offset, getHeight() - offset, radius, radius);
-        
-        g2.dispose();
+        shape.paint(g, getWidth(), getHeight());
         super.paintComponent(g);
     }
     
     public void setRadius(int radius) {
         this.radius = radius;
+        shape = null;
         repaint();
     }
     
     public void setHasShadow(boolean hasShadow) {
         this.hasShadow = hasShadow;
+        shape = null;
         repaint();
     }
 }
@@ -0,0 +1,184 @@
+package com.university.parking.ui.components;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Read-only table model over a list of domain objects.
+ *
+ * Rows are the objects themselves and each column is a function of the object, so no
+ * Object[] rows are built up front: a cell is only computed when the table asks for it,
+ * which is when it is painted. Scrolling through 100,000 spots formats the few dozen
+ * visible rows, not the whole list.
+ *
+ * Replacing the rows with the same keys in the same order (a refresh of an unchanged
+ * lot) fires update events for the changed rows only instead of rebuilding the table,
+ * so selection and scroll position survive, and {@link #rowUpdated(Object)} repaints a
+ * single row by key.
+ *
+ * @param <T> the row type
+ */
+public class RowTableModel<T> extends AbstractTableModel {
+
+    private final List<String> columnNames = new ArrayList<>();
+    private final List<Function<? super T, ?>> columns = new ArrayList<>();
+    private final Function<? super T, ?> keyOf;
+    // Tells whether a row's object changed between two refreshes; by default every row may have
+    private BiPredicate<? super T, ? super T> changed = (oldRow, newRow) -> true;
+    private List<T> rows = Collections.emptyList();
+    // Row index by key, built on the first lookup after the keys change
+    private Map<Object, Integer> indexByKey;
+
+    /**
+     * Creates an empty model without columns.
+     *
+     * @param keyOf gives the unique key of a row, e.g. the spot ID
+     */
+    public RowTableModel(Function<? super T, ?> keyOf) {
+        this.keyOf = keyOf;
+    }
+
+    /**
+     * Adds a column. Columns are added before the model is given to a table.
+     *
+     * @param name the column header
+     * @param value computes the cell of a row
+     * @return this model
+     */
+    public RowTableModel<T> addColumn(String name, Function<? super T, ?> value) {
+        columnNames.add(name);
+        columns.add(value);
+        return this;
+    }
+
+    /**
+     * Sets how a refresh tells which rows changed, so only those are repainted.
+     *
+     * @param changed tests whether the new object of a row differs from the old one
+     * @return this model
+     */
+    public RowTableModel<T> detectChangesWith(BiPredicate<? super T, ? super T> changed) {
+        this.changed = changed;
+        return this;
+    }
+
+    /**
+     * Replaces the rows. The list is used as is and must not be changed afterwards.
+     *
+     * @param newRows the new rows
+     */
+    public void setRows(List<T> newRows) {
+        List<T> oldRows = rows;
+        rows = newRows;
+        if (sameKeys(oldRows, newRows)) {
+            // Same keys in the same order: the key index still holds
+            fireChangedRuns(oldRows, newRows);
+        } else {
+            indexByKey = null;
+            fireTableDataChanged();
+        }
+    }
+
+    /**
+     * Repaints the row with a key, after the object behind it changed.
+     *
+     * @param key the row's key
+     * @return true if a row has the key
+     */
+    public boolean rowUpdated(Object key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return false;
+        }
+        fireTableRowsUpdated(index, index);
+        return true;
+    }
+
+    /**
+     * Finds the row with a key.
+     *
+     * @param key the key
+     * @return the row index, or -1 if no row has the key
+     */
+    public int indexOf(Object key) {
+        if (indexByKey == null) {
+            Map<Object, Integer> index = new HashMap<>(rows.size() * 2);
+            for (int i = 0; i < rows.size(); i++) {
+                index.put(keyOf.apply(rows.get(i)), i);
+            }
+            indexByKey = index;
+        }
+        return indexByKey.getOrDefault(key, -1);
+    }
+
+    /**
+     * Gets the object shown in a row.
+     *
+     * @param rowIndex the row index in the model
+     * @return the row object
+     */
+    public T getRow(int rowIndex) {
+        return rows.get(rowIndex);
+    }
+
+    public List<T> getRows() {
+        return Collections.unmodifiableList(rows);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.size();
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames.get(column);
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        return columns.get(columnIndex).apply(rows.get(rowIndex));
+    }
+
+    @Override
+    public boolean isCellEditable(int rowIndex, int columnIndex) {
+        return false;
+    }
+
+    private boolean sameKeys(List<T> oldRows, List<T> newRows) {
+        if (oldRows.size() != newRows.size()) {
+            return false;
+        }
+        for (int i = 0; i < newRows.size(); i++) {
+            if (!keyOf.apply(oldRows.get(i)).equals(keyOf.apply(newRows.get(i)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // One update event per run of consecutive changed rows
+    private void fireChangedRuns(List<T> oldRows, List<T> newRows) {
+        int runStart = -1;
+        for (int i = 0; i <= newRows.size(); i++) {
+            boolean rowChanged = i < newRows.size() && changed.test(oldRows.get(i), newRows.get(i));
+            if (rowChanged && runStart < 0) {
+                runStart = i;
+            } else if (!rowChanged && runStart >= 0) {
+                fireTableRowsUpdated(runStart, i - 1);
+                runStart = -1;
+            }
+        }
+    }
+}
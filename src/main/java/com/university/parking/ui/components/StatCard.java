@@ -12,11 +12,11 @@ public class StatCard extends RoundedPanel {
     
     private JLabel valueLabel;
     private JLabel titleLabel;
-    private Color accentColor;
+    private RoundedBackground accentBarShape;
     
     public StatCard(String title, String value, Color accentColor) {
         super(UIConstants.RADIUS_LG, true);
-        this.accentColor = accentColor;
+        this.accentBarShape = new RoundedBackground(accentColor, 2);
         initComponents(title, value);
     }
     
@@ -36,11 +36,7 @@ public class StatCard extends RoundedPanel {
         JPanel accentBar = new JPanel() {
             @Override
             protected void paintComponent(Graphics g) {
-                Graphics2D g2 = (Graphics2D) g.create();
-                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                g2.setColor(accentColor);
-                g2.fillRoundRect(0, 0, 4, getHeight(), 2, 2);
-                g2.dispose();
+                accentBarShape.paint(g, 4, getHeight());
             }
         };
         accentBar.setOpaque(false);
@@ -81,7 +77,7 @@ public class StatCard extends RoundedPanel {
     }
     
     public void setAccentColor(Color color) {
-        this.accentColor = color;
+        this.accentBarShape = new RoundedBackground(color, 2);
         repaint();
     }
     
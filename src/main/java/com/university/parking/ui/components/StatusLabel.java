@@ -10,11 +10,11 @@ import java.awt.*;
  */
 public class StatusLabel extends JLabel {
     
-    private Color bgColor;
+    private RoundedBackground pill;
     
     public StatusLabel(String text, Color bgColor) {
         super(text);
-        this.bgColor = bgColor;
+        this.pill = new RoundedBackground(bgColor, 12);
         initStyle();
     }
     
@@ -28,16 +28,12 @@ public class StatusLabel extends JLabel {
     
     @Override
     protected void paintComponent(Graphics g) {
-        Graphics2D g2 = (Graphics2D) g.create();
-        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g2.setColor(bgColor);
-        g2.fillRoundRect(0, 0, getWidth(), getHeight(), 12, 12);
-        g2.dispose();
+        pill.paint(g, getWidth(), getHeight());
         super.paintComponent(g);
     }
     
     public void setStatusColor(Color color) {
-        this.bgColor = color;
+        this.pill = new RoundedBackground(color, 12);
         repaint();
     }
     
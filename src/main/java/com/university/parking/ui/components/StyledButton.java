@@ -6,6 +6,8 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.EnumMap;
+import java.util.Map;
 
 /**
  * Custom styled button with modern appearance and hover effects.
@@ -16,11 +18,40 @@ public class StyledButton extends JButton {
         PRIMARY, SECONDARY, DANGER, SUCCESS
     }
     
+    private static final int RADIUS = UIConstants.RADIUS_MD;
+    private static final RoundedBackground DISABLED_BACKGROUND = new RoundedBackground(UIConstants.TEXT_MUTED, RADIUS);
+    
     private ButtonType type;
-    private Color bgColor;
-    private Color hoverColor;
-    private Color pressColor;
-    private int radius = UIConstants.RADIUS_MD;
+    private RoundedBackground background;
+    private RoundedBackground hoverBackground;
+    private RoundedBackground pressBackground;
+    
+    // Normal, hover and pressed backgrounds of each type, shared by all buttons
+    private static final Map<ButtonType, RoundedBackground[]> BACKGROUNDS = new EnumMap<>(ButtonType.class);
+    
+    static {
+        BACKGROUNDS.put(ButtonType.PRIMARY, backgrounds(
+                UIConstants.PRIMARY, UIConstants.PRIMARY_LIGHT, UIConstants.PRIMARY_DARK));
+        // Outlined in the primary colour
+        RoundedBackground[] secondary = backgrounds(
+                Color.WHITE, new Color(248, 249, 252), new Color(233, 236, 239));
+        for (int i = 0; i < secondary.length; i++) {
+            secondary[i] = secondary[i].withBorder(UIConstants.PRIMARY, 1.5f);
+        }
+        BACKGROUNDS.put(ButtonType.SECONDARY, secondary);
+        BACKGROUNDS.put(ButtonType.DANGER, backgrounds(
+                UIConstants.DANGER, new Color(200, 35, 51), new Color(180, 25, 41)));
+        BACKGROUNDS.put(ButtonType.SUCCESS, backgrounds(
+                UIConstants.SUCCESS, new Color(33, 136, 56), new Color(25, 105, 43)));
+    }
+    
+    private static RoundedBackground[] backgrounds(Color normal, Color hover, Color pressed) {
+        return new RoundedBackground[] {
+            new RoundedBackground(normal, RADIUS),
+            new RoundedBackground(hover, RADIUS),
+            new RoundedBackground(pressed, RADIUS)
+        };
+    }
     
     public StyledButton(String text) {
         this(text, ButtonType.PRIMARY);
@@ -40,32 +71,11 @@ public class StyledButton extends JButton {
         setCursor(new Cursor(Cursor.HAND_CURSOR));
         setPreferredSize(new Dimension(getPreferredSize().width + 32, UIConstants.BUTTON_HEIGHT));
         
-        switch (type) {
-            case PRIMARY:
-                bgColor = UIConstants.PRIMARY;
-                hoverColor = UIConstants.PRIMARY_LIGHT;
-                pressColor = UIConstants.PRIMARY_DARK;
-                setForeground(Color.WHITE);
-                break;
-            case SECONDARY:
-                bgColor = Color.WHITE;
-                hoverColor = new Color(248, 249, 252);
-                pressColor = new Color(233, 236, 239);
-                setForeground(UIConstants.PRIMARY);
-                break;
-            case DANGER:
-                bgColor = UIConstants.DANGER;
-                hoverColor = new Color(200, 35, 51);
-                pressColor = new Color(180, 25, 41);
-                setForeground(Color.WHITE);
-                break;
-            case SUCCESS:
-                bgColor = UIConstants.SUCCESS;
-                hoverColor = new Color(33, 136, 56);
-                pressColor = new Color(25, 105, 43);
-                setForeground(Color.WHITE);
-                break;
-        }
+        RoundedBackground[] backgrounds = BACKGROUNDS.get(type);
+        background = backgrounds[0];
+        hoverBackground = backgrounds[1];
+        pressBackground = backgrounds[2];
+        setForeground(type == ButtonType.SECONDARY ? UIConstants.PRIMARY : Color.WHITE);
         
         addMouseListener(new MouseAdapter() {
             @Override
@@ -82,29 +92,15 @@ public class StyledButton extends JButton {
     
     @Override
     protected void paintComponent(Graphics g) {
-        Graphics2D g2 = (Graphics2D) g.create();
-        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        
-        Color bg = bgColor;
+        RoundedBackground bg = background;
         if (!isEnabled()) {
-            bg = UIConstants.TEXT_MUTED;
+            bg = DISABLED_BACKGROUND;
         } else if (getModel().isPressed()) {
-            bg = pressColor;
+            bg = pressBackground;
         } else if (getModel().isRollover()) {
-            bg = hoverColor;
-        }
-        
-        g2.setColor(bg);
-        g2.fillRoundRect(0, 0, getWidth(), getHeight(), radius, radius);
-        
-        // Border for SECONDARY type
-        if (type == ButtonType.SECONDARY && isEnabled()) {
-            g2.setColor(UIConstants.PRIMARY);
-            g2.setStroke(new BasicStroke(1.5f));
-            g2.drawRoundRect(1, 1, getWidth() - 3, getHeight() - 3, radius, radius);
+            bg = hoverBackground;
         }
-        
-        g2.dispose();
+        bg.paint(g, getWidth(), getHeight());
         super.paintComponent(g);
     }
     
@@ -0,0 +1,67 @@
+package com.university.parking.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Compares fining a sweep of random overstays per call on the configured strategy with
+ * the batch path and the precomputed table.
+ *
+ * Not part of the regular test run (the name does not end in Test). Run it with
+ * <pre>
+ * mvn test -Dtest=FineStrategyBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+ * </pre>
+ * This is a warmed-up timing loop, not a JMH benchmark, so treat small differences as noise.
+ */
+class FineStrategyBenchmark {
+
+    private static final int VEHICLES = 100_000;
+    private static final int WARMUP_REPS = 50;
+    private static final int MEASURED_REPS = 200;
+
+    @Test
+    void compareFinePaths() {
+        // A decorator chain, as configured from the admin panel
+        FineStrategy strategy = new MaxCapFineStrategy(new ProgressiveFineStrategy(Double.MAX_VALUE), 500.0);
+        PrecomputedFineStrategy precomputed = new PrecomputedFineStrategy(strategy);
+        int[] hours = new Random(42).ints(VEHICLES, 0, 200).toArray();
+
+        double[] perCall = new double[VEHICLES];
+        double[] batch = new double[VEHICLES];
+        double[] table = new double[VEHICLES];
+        for (int rep = 0; rep < WARMUP_REPS; rep++) {
+            fineEach(strategy, hours, perCall);
+            strategy.calculateFines(hours, batch);
+            precomputed.calculateFines(hours, table);
+        }
+
+        long perCallNanos = 0;
+        long batchNanos = 0;
+        long tableNanos = 0;
+        for (int rep = 0; rep < MEASURED_REPS; rep++) {
+            long start = System.nanoTime();
+            fineEach(strategy, hours, perCall);
+            long afterPerCall = System.nanoTime();
+            strategy.calculateFines(hours, batch);
+            long afterBatch = System.nanoTime();
+            precomputed.calculateFines(hours, table);
+            tableNanos += System.nanoTime() - afterBatch;
+            batchNanos += afterBatch - afterPerCall;
+            perCallNanos += afterPerCall - start;
+        }
+
+        assertArrayEquals(perCall, batch);
+        assertArrayEquals(perCall, table);
+        System.out.printf("%d vehicles x %d reps: per call %,d ms, batch %,d ms, precomputed %,d ms%n",
+                VEHICLES, MEASURED_REPS, perCallNanos / 1_000_000, batchNanos / 1_000_000, tableNanos / 1_000_000);
+    }
+
+    private static void fineEach(FineStrategy strategy, int[] hours, double[] out) {
+        for (int i = 0; i < hours.length; i++) {
+            out[i] = strategy.calculateFine(hours[i]);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.university.parking.domain;
+
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.constraints.Size;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the batch path and the precomputed table charge exactly what each
+ * strategy's own calculateFine charges, inside and beyond the table.
+ */
+class PrecomputedFineStrategyProperties {
+
+    // Beyond the default table of 2000 hours, and below zero
+    private static final int MIN_HOURS = -50;
+    private static final int MAX_HOURS = 3050;
+    // A short table, so most durations are looked up beyond it
+    private static final int SHORT_TABLE_HOURS = 30;
+
+    @Example
+    void precomputedTableMatchesEveryHour() {
+        for (FineStrategy strategy : strategies()) {
+            PrecomputedFineStrategy precomputed = new PrecomputedFineStrategy(strategy);
+            PrecomputedFineStrategy shortTable = new PrecomputedFineStrategy(strategy, SHORT_TABLE_HOURS);
+            for (int hours = MIN_HOURS; hours <= MAX_HOURS; hours++) {
+                double expected = strategy.calculateFine(hours);
+                assertEquals(expected, precomputed.calculateFine(hours), strategy + " at " + hours + "h");
+                assertEquals(expected, shortTable.calculateFine(hours), strategy + " short table at " + hours + "h");
+            }
+        }
+    }
+
+    @Example
+    void batchMatchesEveryHour() {
+        int[] hours = new int[MAX_HOURS - MIN_HOURS + 1];
+        for (int i = 0; i < hours.length; i++) {
+            hours[i] = MIN_HOURS + i;
+        }
+        for (FineStrategy strategy : strategies()) {
+            double[] expected = Arrays.stream(hours).mapToDouble(strategy::calculateFine).toArray();
+            assertArrayEquals(expected, fines(strategy, hours), strategy.toString());
+            assertArrayEquals(expected, fines(new PrecomputedFineStrategy(strategy), hours), strategy + " precomputed");
+            assertArrayEquals(expected, fines(new PrecomputedFineStrategy(strategy, SHORT_TABLE_HOURS), hours),
+                    strategy + " short table");
+        }
+    }
+
+    @Property
+    void randomBatchesMatchPerCallFines(@ForAll("strategy") FineStrategy strategy,
+                                        @ForAll @Size(max = 200) List<@IntRange(min = MIN_HOURS, max = MAX_HOURS) Integer> durations,
+                                        @ForAll @IntRange(min = 0, max = 100) int tableHours) {
+        int[] hours = durations.stream().mapToInt(Integer::intValue).toArray();
+        double[] expected = Arrays.stream(hours).mapToDouble(strategy::calculateFine).toArray();
+        assertArrayEquals(expected, fines(new PrecomputedFineStrategy(strategy, tableHours), hours));
+        assertEquals(strategy.getMaxCap(), new PrecomputedFineStrategy(strategy, tableHours).getMaxCap());
+    }
+
+    @Provide
+    Arbitrary<FineStrategy> strategy() {
+        return Arbitraries.of(strategies());
+    }
+
+    private static double[] fines(FineStrategy strategy, int[] hours) {
+        double[] out = new double[hours.length];
+        strategy.calculateFines(hours, out);
+        return out;
+    }
+
+    /**
+     * The shipped strategies and decorator chains, capped and effectively uncapped,
+     * plus one relying on the default batch method.
+     */
+    static List<FineStrategy> strategies() {
+        return Arrays.asList(
+                new FixedFineStrategy(),
+                new FixedFineStrategy(75.0, 60.0),
+                new HourlyFineStrategy(),
+                new HourlyFineStrategy(2.5, Double.MAX_VALUE),
+                new ProgressiveFineStrategy(),
+                new ProgressiveFineStrategy(320.0),
+                new ProgressiveFineStrategy(Double.MAX_VALUE),
+                new MaxCapFineStrategy(new HourlyFineStrategy(), 500.0),
+                new MaxCapFineStrategy(new HourlyFineStrategy(7.0, Double.MAX_VALUE), 1000.0),
+                new MaxCapFineStrategy(new ProgressiveFineStrategy(Double.MAX_VALUE), 250.0),
+                new FineStrategy() {
+                    @Override
+                    public double calculateFine(int duration) {
+                        return duration <= 0 ? 0.0 : Math.min(10.0 + duration * 3.0, 400.0);
+                    }
+
+                    @Override
+                    public double getMaxCap() {
+                        return 400.0;
+                    }
+
+                    @Override
+                    public String toString() {
+                        return "default batch strategy";
+                    }
+                });
+    }
+}
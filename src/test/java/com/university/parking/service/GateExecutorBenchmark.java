@@ -0,0 +1,107 @@
+package com.university.parking.service;
+
+import com.university.parking.dao.FineDAOImpl;
+import com.university.parking.dao.ParkingSpotDAO;
+import com.university.parking.dao.ParkingSpotDAOImpl;
+import com.university.parking.dao.PaymentDAOImpl;
+import com.university.parking.dao.TicketDAOImpl;
+import com.university.parking.dao.VehicleDAO;
+import com.university.parking.dao.VehicleDAOImpl;
+import com.university.parking.db.DatabaseManager;
+import com.university.parking.domain.ParkingSpot;
+import com.university.parking.domain.PaymentMethod;
+import com.university.parking.domain.SpotType;
+import com.university.parking.domain.VehicleType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares platform and virtual threads for gate operations: thousands of simulated
+ * gates each park a car, wait for a payment terminal and check the car out again.
+ *
+ * Not part of the regular test run (the name does not end in Test). Run it with
+ * <pre>
+ * mvn test -Dtest=GateExecutorBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+ * </pre>
+ * and under a Java 21 JDK with {@code -Pjava21} to include virtual threads. The number
+ * of gates and the payment time can be changed with -Dparking.benchmark.gates and
+ * -Dparking.benchmark.paymentMillis.
+ */
+class GateExecutorBenchmark {
+
+    private static final int GATES = Integer.getInteger("parking.benchmark.gates", 2000);
+    // Stands in for the card terminal a gate waits on between entry and exit
+    private static final long PAYMENT_MILLIS = Long.getLong("parking.benchmark.paymentMillis", 50);
+    private static final int[] PLATFORM_POOL_SIZES = {8, 64, GATES};
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void compareGateThreads() throws Exception {
+        for (int poolSize : PLATFORM_POOL_SIZES) {
+            run("platform x" + poolSize, new GateExecutor(GateExecutor.Threads.PLATFORM, poolSize));
+        }
+        GateExecutor virtual = new GateExecutor(GateExecutor.Threads.AUTO, 1);
+        if (virtual.isVirtual()) {
+            run("virtual", virtual);
+        } else {
+            virtual.close();
+            System.out.println("virtual: not available before Java 21");
+        }
+    }
+
+    private void run(String label, GateExecutor executor) throws Exception {
+        DatabaseManager dbManager = DatabaseManager.createForTesting(tempDir.resolve(label + ".db").toString());
+        dbManager.initializeDatabase();
+        ParkingSpotDAO parkingSpotDAO = new ParkingSpotDAOImpl(dbManager);
+        VehicleDAO vehicleDAO = new VehicleDAOImpl(dbManager);
+        for (int gate = 0; gate < GATES; gate++) {
+            parkingSpotDAO.save(new ParkingSpot("B-" + gate, SpotType.REGULAR, 5.0));
+        }
+        ParkingServiceImpl parkingService = new ParkingServiceImpl(parkingSpotDAO, vehicleDAO,
+            new TicketDAOImpl(dbManager), new FineDAOImpl(dbManager), new PaymentDAOImpl(dbManager));
+        parkingService.setTransactionManager(dbManager, true);
+
+        long start = System.nanoTime();
+        try {
+            List<CompletableFuture<Object>> gates = new ArrayList<>(GATES);
+            for (int gate = 0; gate < GATES; gate++) {
+                String plate = "BENCH-" + gate;
+                String spotId = "B-" + gate;
+                gates.add(executor.submit(() -> {
+                    parkingService.processEntry(plate, VehicleType.CAR, spotId);
+                    pay();
+                    return parkingService.processExit(plate, PaymentMethod.CARD, true);
+                }));
+            }
+            // Any failed gate operation fails the benchmark
+            CompletableFuture.allOf(gates.toArray(new CompletableFuture<?>[0])).join();
+        } finally {
+            executor.close();
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(0, vehicleDAO.findCurrentlyParked().size());
+        assertEquals(GATES, parkingSpotDAO.findAllAvailable().size());
+        System.out.printf("%-16s %d gates in %,d ms (%.0f gates/s)%n",
+            label + ":", GATES, millis, GATES * 1000.0 / Math.max(1, millis));
+        dbManager.closeConnection();
+    }
+
+    private static void pay() {
+        try {
+            Thread.sleep(PAYMENT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while paying", e);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.university.parking.service;
+
+import com.university.parking.dao.FineDAOImpl;
+import com.university.parking.dao.ParkingSpotDAO;
+import com.university.parking.dao.ParkingSpotDAOImpl;
+import com.university.parking.dao.PaymentDAOImpl;
+import com.university.parking.dao.TicketDAOImpl;
+import com.university.parking.dao.VehicleDAO;
+import com.university.parking.dao.VehicleDAOImpl;
+import com.university.parking.db.DatabaseManager;
+import com.university.parking.domain.ParkingSpot;
+import com.university.parking.domain.PaymentMethod;
+import com.university.parking.domain.SpotType;
+import com.university.parking.domain.Vehicle;
+import com.university.parking.domain.VehicleType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs random entries and exits from several gates at once against a file database
+ * and checks that the plate and spot locks keep spots and parked vehicles consistent.
+ */
+class GateLocksStressTest {
+
+    private static final int GATES = 6;
+    private static final int OPERATIONS_PER_GATE = 150;
+    private static final int SPOTS = 8;
+    // More plates than spots, so gates compete for both plates and spots
+    private static final int PLATES = 12;
+
+    @TempDir
+    Path tempDir;
+
+    private DatabaseManager dbManager;
+    private ParkingSpotDAO parkingSpotDAO;
+    private VehicleDAO vehicleDAO;
+    private ParkingServiceImpl parkingService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dbManager = DatabaseManager.createForTesting(tempDir.resolve("parking.db").toString());
+        dbManager.initializeDatabase();
+        parkingSpotDAO = new ParkingSpotDAOImpl(dbManager);
+        vehicleDAO = new VehicleDAOImpl(dbManager);
+        for (int i = 0; i < SPOTS; i++) {
+            parkingSpotDAO.save(new ParkingSpot(spotId(i), SpotType.REGULAR, 5.0));
+        }
+        parkingService = new ParkingServiceImpl(parkingSpotDAO, vehicleDAO,
+            new TicketDAOImpl(dbManager), new FineDAOImpl(dbManager), new PaymentDAOImpl(dbManager));
+        parkingService.setTransactionManager(dbManager, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dbManager.closeConnection();
+    }
+
+    @Test
+    void concurrentEntriesAndExitsKeepSpotsConsistent() throws Exception {
+        ExecutorService gates = Executors.newFixedThreadPool(GATES);
+        CountDownLatch start = new CountDownLatch(1);
+        Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        AtomicInteger entries = new AtomicInteger();
+        AtomicInteger exits = new AtomicInteger();
+
+        for (int gate = 0; gate < GATES; gate++) {
+            Random random = new Random(gate);
+            gates.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < OPERATIONS_PER_GATE; i++) {
+                        String plate = "STRESS-" + random.nextInt(PLATES);
+                        try {
+                            if (random.nextBoolean()) {
+                                parkingService.processEntry(plate, VehicleType.CAR, spotId(random.nextInt(SPOTS)));
+                                entries.incrementAndGet();
+                            } else {
+                                parkingService.processExit(plate, PaymentMethod.CASH, true);
+                                exits.incrementAndGet();
+                            }
+                        } catch (IllegalStateException | IllegalArgumentException e) {
+                            // Plate already parked, spot taken or plate not parked: expected
+                        }
+                    }
+                } catch (Throwable t) {
+                    unexpected.add(t);
+                }
+            });
+        }
+        start.countDown();
+        gates.shutdown();
+        assertTrue(gates.awaitTermination(2, TimeUnit.MINUTES), "Gates did not finish");
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected gate failure: " + unexpected.peek());
+        assertTrue(entries.get() > 0 && exits.get() > 0, "No entry or exit succeeded");
+
+        // No plate holds two spots
+        List<String> occupiedBy = new ArrayList<>();
+        for (ParkingSpot spot : parkingSpotDAO.findAll()) {
+            if (spot.getCurrentVehiclePlate() != null) {
+                occupiedBy.add(spot.getCurrentVehiclePlate());
+            }
+        }
+        assertEquals(occupiedBy.size(), new HashSet<>(occupiedBy).size(), "A plate occupies two spots: " + occupiedBy);
+
+        // Every parked vehicle holds exactly the spots that are occupied
+        Set<String> parked = new HashSet<>();
+        for (Vehicle vehicle : vehicleDAO.findCurrentlyParked()) {
+            assertTrue(parked.add(vehicle.getLicensePlate()), "Plate parked twice: " + vehicle.getLicensePlate());
+        }
+        assertEquals(parked.size(), occupiedBy.size(), "Occupied spots do not match parked vehicles");
+        assertEquals(parked, new HashSet<>(occupiedBy));
+        assertEquals(entries.get() - exits.get(), parked.size());
+    }
+
+    private static String spotId(int index) {
+        return "S-" + index;
+    }
+}